@@ -1,5 +1,6 @@
 package com.personal.project.accounts;
 
+import com.personal.project.accounts.exception.BusinessExceptionStackTraces;
 import io.swagger.v3.oas.annotations.ExternalDocumentation;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Contact;
@@ -7,6 +8,7 @@ import io.swagger.v3.oas.annotations.info.Info;
 import io.swagger.v3.oas.annotations.info.License;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
 @SpringBootApplication
@@ -17,6 +19,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 @EntityScan("com.personal.project.accounts.entity")
 */
 @EnableJpaAuditing(auditorAwareRef = "auditAwareImplAccounts") //passing the AuditAwareImpl bean
+@EnableCaching //used to cache account lookups by mobile number, see AccountServiceImpl
 @OpenAPIDefinition(
         info = @Info(
                 title = "Accounts microservice REST API Documentation",
@@ -40,7 +43,9 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 public class AccountsApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(AccountsApplication.class, args);
+        SpringApplication application = new SpringApplication(AccountsApplication.class);
+        application.addListeners(new BusinessExceptionStackTraces());
+        application.run(args);
     }
 
 }
@@ -0,0 +1,60 @@
+package com.personal.project.accounts.allocator;
+
+import com.personal.project.accounts.constants.AccountsConstants;
+import com.personal.project.accounts.repository.AccountsRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+//hands out unique account numbers without a DB round trip per account
+//every instance reserves a block of ACCOUNT_NUMBER_BLOCK_SIZE numbers from account_number_seq and then counts through it in memory,
+//so numbers stay unique across restarts and across several accounts instances sharing the same database
+@Component
+public class AccountNumberAllocator {
+
+    private final AccountsRepository accountsRepository;
+    private final ReentrantLock refillLock = new ReentrantLock(); //lock instead of synchronized so virtual threads are not pinned while the block is reserved
+    private volatile Block currentBlock = new Block(0, 0); //empty, the first call reserves a real block
+
+    public AccountNumberAllocator(AccountsRepository accountsRepository) {
+        this.accountsRepository = accountsRepository;
+    }
+
+    /***
+     *
+     * @return a 10 digit account number that was never handed out before
+     */
+    public long nextAccountNumber() {
+        while (true) {
+            Block block = currentBlock;
+            long accountNumber = block.next.getAndIncrement(); //lock free fast path, only contended threads retry
+            if (accountNumber < block.end) {
+                return accountNumber;
+            }
+            refill(block);
+        }
+    }
+
+    private void refill(Block exhaustedBlock) {
+        refillLock.lock();
+        try {
+            if (currentBlock == exhaustedBlock) { //another thread may have refilled while we waited for the lock
+                long blockStart = accountsRepository.reserveAccountNumberBlock();
+                currentBlock = new Block(blockStart, blockStart + AccountsConstants.ACCOUNT_NUMBER_BLOCK_SIZE);
+            }
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end; //exclusive
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.personal.project.accounts.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.personal.project.accounts.constants.AccountsConstants;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+//opt-in Hibernate second level cache for Customer and Accounts plus the query cache, kept in process by Caffeine behind JCache
+//every region is created here with its size and TTL, Hibernate is told to fail on a region it does not find instead of creating an unbounded one
+//with second-level-cache.enabled false none of this is created and Hibernate reads every entity from the database as before
+@Configuration
+@ConditionalOnProperty(prefix = "second-level-cache", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfig {
+
+    private static final List<String> REGIONS = List.of(
+            AccountsConstants.CUSTOMER_CACHE_REGION,
+            AccountsConstants.ACCOUNTS_CACHE_REGION,
+            RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+    @Bean(destroyMethod = "close")
+    CacheManager secondLevelCacheManager(SecondLevelCacheProperties secondLevelCacheProperties) {
+        //the provider hands out one manager per URI and a cache name can only be created once in it, so every application context gets its own
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("second-level-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : REGIONS) {
+            SecondLevelCacheProperties.Region regionProperties = secondLevelCacheProperties.region(region);
+            cacheManager.createCache(region, storeByReference()
+                    .setMaximumSize(OptionalLong.of(regionProperties.maximumSize()))
+                    .setExpireAfterWrite(OptionalLong.of(regionProperties.timeToLive().toNanos())));
+        }
+        //last write time per table, a cached query result older than it is discarded; evicting one would serve stale results, so no bound and no TTL
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, storeByReference());
+        return cacheManager;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true); //only queries with the HINT_CACHEABLE hint, see the repositories
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true); //hits, misses and puts per region in /actuator/metrics/hibernate.second.level.cache.requests
+        };
+    }
+
+    //the JCache default copies every value through Java serialization on get and put; Hibernate only stores immutable entries, so references are safe
+    private static CaffeineConfiguration<Object, Object> storeByReference() {
+        return new CaffeineConfiguration<>().setStoreByValue(false);
+    }
+}
@@ -0,0 +1,32 @@
+package com.personal.project.accounts.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+//second-level-cache in the config server accounts.yml; a region that is not listed gets Region.DEFAULT
+@ConfigurationProperties(prefix = "second-level-cache")
+public record SecondLevelCacheProperties(boolean enabled, Map<String, Region> regions) {
+
+    public SecondLevelCacheProperties {
+        regions = regions == null ? Map.of() : regions;
+    }
+
+    public Region region(String name) {
+        return regions.getOrDefault(name, Region.DEFAULT);
+    }
+
+    //maximumSize bounds the entries of the region, timeToLive is counted from the write so even a missed invalidation heals itself
+    public record Region(long maximumSize, Duration timeToLive) {
+
+        private static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+        private static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(10);
+        public static final Region DEFAULT = new Region(DEFAULT_MAXIMUM_SIZE, DEFAULT_TIME_TO_LIVE);
+
+        public Region {
+            maximumSize = maximumSize > 0 ? maximumSize : DEFAULT_MAXIMUM_SIZE;
+            timeToLive = timeToLive != null ? timeToLive : DEFAULT_TIME_TO_LIVE;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.personal.project.accounts.client;
+
+import com.personal.project.accounts.dto.CardsDto;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.util.Optional;
+
+@Component
+public class CardsClient {
+
+    private final RestClient cardsRestClient;
+
+    public CardsClient(@Qualifier("cardsRestClient") RestClient cardsRestClient) {
+        this.cardsRestClient = cardsRestClient;
+    }
+
+    /***
+     *
+     * @param mobileNumber - Input mobile Number
+     * @return the card of the customer, empty if the cards service has none for this mobile number
+     * @throws org.springframework.web.client.RestClientException if the cards service fails or does not answer in time
+     */
+    public Optional<CardsDto> fetchCard(String mobileNumber) {
+        try {
+            return Optional.ofNullable(cardsRestClient.get()
+                    .uri("/api/fetch?mobileNumber={mobileNumber}", mobileNumber)
+                    .retrieve()
+                    .body(CardsDto.class));
+        } catch (HttpClientErrorException.NotFound notFound) {
+            return Optional.empty(); //a customer without a card is a normal answer, not a failure
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.personal.project.accounts.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+//RestClients for the cards and loans services used by the customer details fan out
+//every call is bounded by downstream.connect-timeout and downstream.timeout, so a slow service can only cost that much
+@Configuration
+public class DownstreamClientsConfig {
+
+    @Bean
+    ClientHttpRequestFactory downstreamRequestFactory(@Value("${downstream.connect-timeout:500ms}") Duration connectTimeout,
+                                                      @Value("${downstream.timeout:1s}") Duration timeout) {
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(connectTimeout).build(); //one client, so connections are pooled and reused
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(timeout);
+        return requestFactory;
+    }
+
+    @Bean
+    RestClient cardsRestClient(RestClient.Builder restClientBuilder, ClientHttpRequestFactory downstreamRequestFactory,
+                               @Value("${downstream.cards.url}") String cardsUrl) {
+        return restClientBuilder.clone().baseUrl(cardsUrl).requestFactory(downstreamRequestFactory).build();
+    }
+
+    @Bean
+    RestClient loansRestClient(RestClient.Builder restClientBuilder, ClientHttpRequestFactory downstreamRequestFactory,
+                               @Value("${downstream.loans.url}") String loansUrl) {
+        return restClientBuilder.clone().baseUrl(loansUrl).requestFactory(downstreamRequestFactory).build();
+    }
+}
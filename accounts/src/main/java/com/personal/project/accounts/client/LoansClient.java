@@ -0,0 +1,36 @@
+package com.personal.project.accounts.client;
+
+import com.personal.project.accounts.dto.LoansDto;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.util.Optional;
+
+@Component
+public class LoansClient {
+
+    private final RestClient loansRestClient;
+
+    public LoansClient(@Qualifier("loansRestClient") RestClient loansRestClient) {
+        this.loansRestClient = loansRestClient;
+    }
+
+    /***
+     *
+     * @param mobileNumber - Input mobile Number
+     * @return the loan of the customer, empty if the loans service has none for this mobile number
+     * @throws org.springframework.web.client.RestClientException if the loans service fails or does not answer in time
+     */
+    public Optional<LoansDto> fetchLoan(String mobileNumber) {
+        try {
+            return Optional.ofNullable(loansRestClient.get()
+                    .uri("/api/fetch?mobileNumber={mobileNumber}", mobileNumber)
+                    .retrieve()
+                    .body(LoansDto.class));
+        } catch (HttpClientErrorException.NotFound notFound) {
+            return Optional.empty(); //a customer without a loan is a normal answer, not a failure
+        }
+    }
+}
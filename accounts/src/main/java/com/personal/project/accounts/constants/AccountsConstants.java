@@ -13,6 +13,27 @@ public final class AccountsConstants {
     public static final String  STATUS_417 = "417";
     public static final String  MESSAGE_417_UPDATE= "Update operation failed. Please try again or contact Dev team";
     public static final String  MESSAGE_417_DELETE= "Delete operation failed. Please try again or contact Dev team";
+    public static final String  STATUS_400 = "400";
+    public static final String  MESSAGE_400_ALREADY_EXISTS = "Customer already registered with given mobile number";
+    public static final String  MESSAGE_400_DUPLICATE_IN_REQUEST = "Mobile number appears more than once in the request";
+    public static final int  BULK_MAX_SIZE = 10_000; //max customers accepted by one bulk create request
+    public static final String  UK_CUSTOMER_MOBILE_NUMBER = "uk_customer_mobile_number";
+    public static final String  UK_ACCOUNTS_CUSTOMER_ID = "uk_accounts_customer_id";
+    public static final String  ACCOUNTS_CACHE = "accounts"; //has to match spring.cache.cache-names in application.yml
+    public static final String  CUSTOMER_CACHE_REGION = "customer"; //hibernate second level cache regions, sized in second-level-cache.regions
+    public static final String  ACCOUNTS_CACHE_REGION = "accounts";
+    public static final int  ACCOUNT_NUMBER_BLOCK_SIZE = 1_000; //has to match INCREMENT BY of account_number_seq in schema.sql
+    public static final String  CARDS_SERVICE = "cards"; //names reported in CustomerDetailsDto.degradedServices
+    public static final String  LOANS_SERVICE = "loans";
+    public static final int  PAGE_SIZE_DEFAULT = 20;
+    public static final int  PAGE_SIZE_MAX = 100;
+    public static final String  EXPORT_FILE_NAME = "accounts.ndjson";
+    public static final int  EXPORT_FETCH_SIZE = 500; //rows per JDBC fetch while streaming the export
+    public static final int  EXPORT_FLUSH_EVERY = 1_000; //rows written between flushes of the export response
+    public static final String  IDEMPOTENCY_KEY_HEADER = "Idempotency-Key"; //optional on POST /create, see IdempotencyStore
+    public static final int  IDEMPOTENCY_KEY_MAX_LENGTH = 255;
+    public static final String  IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed"; //set on a response replayed for a repeated key
+    public static final int  BULK_CHUNK_SIZE = 1_000; //customers written per transaction (and per duplicate check query) during bulk create
 //    public static final String  STATUS_500 = "500";
 //    public static final String  MESSAGE_500 = "An error occurred. Please try again or contact Dev team";
 }
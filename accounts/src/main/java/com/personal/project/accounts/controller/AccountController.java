@@ -2,9 +2,13 @@ package com.personal.project.accounts.controller;
 
 import com.personal.project.accounts.constants.AccountsConstants;
 import com.personal.project.accounts.dto.AccountsContactInfoDto;
+import com.personal.project.accounts.dto.BulkAccountResponseDto;
 import com.personal.project.accounts.dto.CustomerDto;
 import com.personal.project.accounts.dto.ErrorResponseDto;
+import com.personal.project.accounts.dto.PageResponseDto;
 import com.personal.project.accounts.dto.ResponseDto;
+import com.personal.project.accounts.idempotency.IdempotencyStore;
+import com.personal.project.accounts.info.StaticInfoResponses;
 import com.personal.project.accounts.service.IAccountService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,18 +16,24 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import jakarta.validation.constraints.Size;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
-import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.List;
+
 @Tag(
         name = "This is a CRUD REST APIs for Accounts in my personal Bank Project.",
         description = "CRUD REST APIs in my personal Bank Project to CREATE, RETRIEVE, UPDATE and DELETE account details. "
@@ -36,20 +46,16 @@ import org.springframework.web.bind.annotation.*;
 public class AccountController {
 
     private final IAccountService accountService;
+    private final IdempotencyStore idempotencyStore;
+    private final StaticInfoResponses staticInfoResponses; //build version, java version and the accounts service info, serialized once
 
-    @Value("${build.version}")
-    private String buildVersion; //first approach to fetch application properties
-
-    public AccountController(IAccountService accountService) {
+    public AccountController(IAccountService accountService, IdempotencyStore idempotencyStore,
+                             StaticInfoResponses staticInfoResponses) {
         this.accountService = accountService;
+        this.idempotencyStore = idempotencyStore;
+        this.staticInfoResponses = staticInfoResponses;
     }
 
-    @Autowired
-    private Environment environment; //second approach to fetch application properties
-
-    @Autowired
-    private AccountsContactInfoDto accountsContactInfoDto; //third approach to fetch application properties; check the commit to see all the requirements and annotation used
-
     @Operation(
             summary = "Create Account REST API",
             description = "REST API to create new Customer and Account."
@@ -57,7 +63,11 @@ public class AccountController {
     @ApiResponses({
             @ApiResponse(
                     responseCode = "201",
-                    description = "HTTP Status CREATED."
+                    description = "HTTP Status CREATED. A repeated Idempotency-Key gets the first response again, with Idempotent-Replayed: true."
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "HTTP Status Unprocessable Entity. The Idempotency-Key was already used for a different customer."
             ),
             @ApiResponse(
                     responseCode = "500",
@@ -70,11 +80,48 @@ public class AccountController {
             )
     })
     @PostMapping("/create")
-    public ResponseEntity<ResponseDto> createAccount(@Valid @RequestBody CustomerDto customerDto) {
-        accountService.createAccount(customerDto); // if this throws exception it will never go to next line but will go to global exception handler instead
+    public ResponseEntity<ResponseDto> createAccount(@Valid @RequestBody CustomerDto customerDto,
+                                                     @RequestHeader(name = AccountsConstants.IDEMPOTENCY_KEY_HEADER, required = false)
+                                                     @Size(max = AccountsConstants.IDEMPOTENCY_KEY_MAX_LENGTH, message = "Idempotency-Key must be at most 255 characters")
+                                                     String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, customerDto, () -> {
+            accountService.createAccount(customerDto); // if this throws exception it will never go to next line but will go to global exception handler instead
+            return ResponseEntity
+                    .status(HttpStatus.CREATED) //this goes to header
+                    .body(new ResponseDto(AccountsConstants.STATUS_201, AccountsConstants.MESSAGE_201)); //this goes to body
+        });
+    }
+
+    @Operation(
+            summary = "Bulk Create Account REST API",
+            description = "REST API to create many new Customers and Accounts in one request, with an outcome for every customer."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "HTTP Status CREATED. Check the per customer results for rejected items."
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request."
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error.",
+                    content= @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/create-bulk")
+    public ResponseEntity<BulkAccountResponseDto> createAccounts(@RequestBody
+                                                                 @NotEmpty(message = "At least one customer is required.")
+                                                                 @Size(max = AccountsConstants.BULK_MAX_SIZE, message = "Too many customers in one request.")
+                                                                 List<@Valid CustomerDto> customerDtos) {
+        BulkAccountResponseDto bulkAccountResponseDto = accountService.createAccounts(customerDtos);
         return ResponseEntity
-                .status(HttpStatus.CREATED) //this goes to header
-                .body(new ResponseDto(AccountsConstants.STATUS_201, AccountsConstants.MESSAGE_201)); //this goes to body
+                .status(HttpStatus.CREATED)
+                .body(bulkAccountResponseDto);
     }
 
     @Operation(
@@ -184,6 +231,70 @@ public class AccountController {
         }
     }
 
+    @Operation(
+            summary = "List Accounts REST API",
+            description = "REST API to page through every Customer and Account ordered by account number. " +
+                    "Pass the nextPageToken of a page as pageToken to get the next one."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK."
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request.",
+                    content= @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error.",
+                    content= @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @GetMapping("/list")
+    public ResponseEntity<PageResponseDto<CustomerDto>> fetchAccounts(@RequestParam(required = false)
+                                                                      String pageToken,
+                                                                      @RequestParam(defaultValue = "" + AccountsConstants.PAGE_SIZE_DEFAULT)
+                                                                      @Min(value = 1, message = "Page size must be at least 1.")
+                                                                      @Max(value = AccountsConstants.PAGE_SIZE_MAX, message = "Page size must be at most " + AccountsConstants.PAGE_SIZE_MAX + ".")
+                                                                      int pageSize) {
+        PageResponseDto<CustomerDto> page = accountService.fetchAccounts(pageToken, pageSize);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(page);
+    }
+
+    @Operation(
+            summary = "Export Accounts REST API",
+            description = "REST API to export every Customer and Account as NDJSON, one customer per line, streamed as it is read from the database."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK."
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error.",
+                    content= @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE})
+    public void exportAccounts(HttpServletResponse response) throws IOException {
+        //written straight to the response stream, nothing is collected into a list or a ResponseEntity body
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + AccountsConstants.EXPORT_FILE_NAME + "\"");
+        accountService.exportAccounts(response.getOutputStream());
+    }
+
     @Operation(
             summary = "Get build version",
             description = "REST API to fetch build version."
@@ -193,6 +304,10 @@ public class AccountController {
                     responseCode = "200",
                     description = "HTTP Status OK."
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "HTTP Status Not Modified. The If-None-Match header carries the current ETag."
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "HTTP Status Internal Server Error.",
@@ -202,10 +317,8 @@ public class AccountController {
             )
     })
     @GetMapping("build-version")
-    public ResponseEntity<String> getBuildVersion(){
-        return  ResponseEntity
-                .status(HttpStatus.OK)
-                .body(buildVersion);
+    public ResponseEntity<byte[]> getBuildVersion(){
+        return staticInfoResponses.buildVersion();
     }
 
     @Operation(
@@ -217,6 +330,10 @@ public class AccountController {
                     responseCode = "200",
                     description = "HTTP Status OK."
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "HTTP Status Not Modified. The If-None-Match header carries the current ETag."
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "HTTP Status Internal Server Error.",
@@ -226,10 +343,8 @@ public class AccountController {
             )
     })
     @GetMapping("java-version")
-    public ResponseEntity<String> getJavaVersion(){
-        return  ResponseEntity
-                .status(HttpStatus.OK)
-                .body(environment.getProperty("JAVA_HOME"));
+    public ResponseEntity<byte[]> getJavaVersion(){
+        return staticInfoResponses.javaVersion();
     }
 
     @Operation(
@@ -239,7 +354,14 @@ public class AccountController {
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
-                    description = "HTTP Status OK."
+                    description = "HTTP Status OK.",
+                    content= @Content(
+                            schema = @Schema(implementation = AccountsContactInfoDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "HTTP Status Not Modified. The If-None-Match header carries the current ETag."
             ),
             @ApiResponse(
                     responseCode = "500",
@@ -250,10 +372,8 @@ public class AccountController {
             )
     })
     @GetMapping("accounts-service-info")
-    public ResponseEntity<AccountsContactInfoDto> getAccountsServiceInfo(){
-        return  ResponseEntity
-                .status(HttpStatus.OK)
-                .body(accountsContactInfoDto);
+    public ResponseEntity<byte[]> getAccountsServiceInfo(){
+        return staticInfoResponses.serviceInfo();
     }
 
 }
@@ -0,0 +1,39 @@
+package com.personal.project.accounts.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@Schema(
+        name = "BulkAccountResponse",
+        description = "Schema to hold the per customer report of a bulk create request."
+)
+public class BulkAccountResponseDto {
+
+    @Schema(
+            description = "Number of customers sent in the request.",
+            example = "1000"
+    )
+    private int totalRequested;
+
+    @Schema(
+            description = "Number of customers and accounts created.",
+            example = "998"
+    )
+    private int totalCreated;
+
+    @Schema(
+            description = "Number of customers rejected.",
+            example = "2"
+    )
+    private int totalFailed;
+
+    @Schema(
+            description = "Outcome for every customer, in the same order as the request."
+    )
+    private List<BulkAccountResultDto> results;
+}
@@ -0,0 +1,39 @@
+package com.personal.project.accounts.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL) //accountNumber is only present for created items
+@Schema(
+        name = "BulkAccountResult",
+        description = "Schema to hold the outcome of one customer in a bulk create request."
+)
+public class BulkAccountResultDto {
+
+    @Schema(
+            description = "Mobile Number of the customer.",
+            example = "7180000000"
+    )
+    private String mobileNumber;
+
+    @Schema(
+            description = "Status code for this customer.",
+            example = "201"
+    )
+    private String statusCode;
+
+    @Schema(
+            description = "Status message for this customer.",
+            example = "Account created successfully"
+    )
+    private String statusMessage;
+
+    @Schema(
+            description = "Account Number created for the customer."
+    )
+    private Long accountNumber;
+}
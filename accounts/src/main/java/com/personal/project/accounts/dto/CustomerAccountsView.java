@@ -0,0 +1,7 @@
+package com.personal.project.accounts.dto;
+
+//read only row of Customer joined with its Accounts, filled by a JPQL constructor expression
+//it is not an entity, so Hibernate does not track it in the persistence context or dirty check it
+public record CustomerAccountsView(Long customerId, String name, String email, String mobileNumber,
+                                   Long accountNumber, String accountType, String branchAddress) {
+}
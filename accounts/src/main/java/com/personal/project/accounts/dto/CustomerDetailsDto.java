@@ -0,0 +1,62 @@
+package com.personal.project.accounts.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(
+        name = "CustomerDetails",
+        description = "Schema to hold Customer, Account, Card and Loan information."
+)
+public class CustomerDetailsDto {
+
+    @Schema(
+            description = "Name of the customer.",
+            example = "Bickey Manandhar"
+    )
+    private String name;
+
+    @Schema(
+            description = "Email of the customer.",
+            example = "manandharbickey@gmail.com"
+    )
+    private String email;
+
+    @Schema(
+            description = "Mobile Number of the customer.",
+            example = "7180000000"
+    )
+    private String mobileNumber;
+
+    @Schema(
+            description = "Accounts detail of the customer."
+    )
+    private AccountsDto accountsDto;
+
+    @Schema(
+            description = "Card detail of the customer, missing when the customer has no card or the cards service did not answer in time."
+    )
+    private CardsDto cardsDto;
+
+    @Schema(
+            description = "Loan detail of the customer, missing when the customer has no loan or the loans service did not answer in time."
+    )
+    private LoansDto loansDto;
+
+    @Schema(
+            description = "True when at least one downstream service failed or timed out and its part of the response is missing.",
+            example = "false"
+    )
+    private boolean degraded;
+
+    @Schema(
+            description = "Downstream services whose part of the response is missing.",
+            example = "[\"loans\"]"
+    )
+    private List<String> degradedServices = new ArrayList<>();
+}
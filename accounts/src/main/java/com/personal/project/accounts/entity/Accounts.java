@@ -1,15 +1,24 @@
 package com.personal.project.accounts.entity;
 
+import com.personal.project.accounts.constants.AccountsConstants;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.springframework.data.domain.Persistable;
 
 @Entity
+@Table(name = "accounts", uniqueConstraints = {
+        @UniqueConstraint(name = AccountsConstants.UK_ACCOUNTS_CUSTOMER_ID, columnNames = "customer_id") //one account per customer, also indexes findByCustomerId
+})
+@Cacheable //second level cache, only used when second-level-cache.enabled is true, see SecondLevelCacheConfig
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = AccountsConstants.ACCOUNTS_CACHE_REGION)
 @Getter
 @Setter
 @ToString
 @AllArgsConstructor
 @NoArgsConstructor
-public class Accounts extends  BaseEntity{
+public class Accounts extends  BaseEntity implements Persistable<Long> {
 
     @Column(name="customer_id")
     private Long customerId;
@@ -24,4 +33,16 @@ public class Accounts extends  BaseEntity{
     @Column(name="branch_address")
     private String branchAddress;
 
+    @Override
+    public Long getId() {
+        return accountNumber;
+    }
+
+    //accountNumber is assigned by us, so Spring Data would treat every new account as existing and call merge (one extra SELECT per save)
+    //createdAt is only filled by auditing on persist, so a null value means the row was never saved
+    @Override
+    public boolean isNew() {
+        return getCreatedAt() == null;
+    }
+
 }
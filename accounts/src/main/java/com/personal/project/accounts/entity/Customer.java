@@ -1,9 +1,19 @@
 package com.personal.project.accounts.entity;
 
+import com.personal.project.accounts.constants.AccountsConstants;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Table(name = "customer", uniqueConstraints = {
+        //lets createAccount insert without a select first; also stops two concurrent requests for the same number
+        @UniqueConstraint(name = AccountsConstants.UK_CUSTOMER_MOBILE_NUMBER, columnNames = "mobile_number")
+})
+@Cacheable //second level cache, only used when second-level-cache.enabled is true, see SecondLevelCacheConfig
+//read-write: an update or delete locks the entry until commit, so no other transaction caches the old row in between
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = AccountsConstants.CUSTOMER_CACHE_REGION)
 @Getter
 @Setter
 @ToString
@@ -12,7 +22,9 @@ import lombok.*;
 public class Customer extends  BaseEntity{
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    //pooled sequence instead of IDENTITY: with IDENTITY Hibernate has to run every insert on its own to read back the id, which disables JDBC batching
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
+    @SequenceGenerator(name = "customer_seq", sequenceName = "customer_seq", allocationSize = 50) //allocationSize has to match INCREMENT BY in schema.sql
     @Column(name="customer_id")
     private Long customerId;
 
@@ -0,0 +1,15 @@
+package com.personal.project.accounts.exception;
+
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ApplicationListener;
+
+//owns the JVM wide BusinessException flag: set from business-exceptions.stack-traces once the environment (config server
+//included) is ready, before any bean exists; only AccountsApplication.main adds it, so a test context never changes the flag
+public class BusinessExceptionStackTraces implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+
+    @Override
+    public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+        BusinessException.captureStackTraces(
+                event.getEnvironment().getProperty("business-exceptions.stack-traces", Boolean.class, false));
+    }
+}
@@ -4,7 +4,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(value = HttpStatus.BAD_REQUEST)
-public class CustomerAlreadyExistException extends RuntimeException {
+public class CustomerAlreadyExistException extends BusinessException {
 
     public CustomerAlreadyExistException(String message) {
         super(message);
@@ -1,6 +1,8 @@
 package com.personal.project.accounts.exception;
 
 import com.personal.project.accounts.dto.ErrorResponseDto;
+import com.personal.project.accounts.observability.RequestOutcome;
+import jakarta.validation.ConstraintViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -13,6 +15,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -21,6 +24,9 @@ import java.util.Map;
 @ControllerAdvice
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler { //extending this to get handleMethodArgumentNotValid to use for validation exception throwing purpose
 
+    //LocalDateTime.now() without a clock looks up (and copies) the default time zone on every error response
+    private final Clock clock = Clock.systemDefaultZone();
+
     //overiding this method to give correct exception for validation
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException ex, HttpHeaders headers,
@@ -33,40 +39,78 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler { //e
             String validationMessage = error.getDefaultMessage(); // validation message we passed in the dto
             validationErrors.put(fieldName, validationMessage);
         });
+        RequestOutcome.record(request, RequestOutcome.VALIDATION_ERROR);
         return new ResponseEntity<>(validationErrors, HttpStatus.BAD_REQUEST);
     }
 
+    //every other spring mvc exception (missing parameter, unreadable body, type mismatch ...); a 400 there is a request that did not validate
+    @Override
+    protected ResponseEntity<Object> handleExceptionInternal(Exception ex, Object body, HttpHeaders headers,
+                                                             HttpStatusCode statusCode, WebRequest request) {
+        if (statusCode.value() == HttpStatus.BAD_REQUEST.value()) {
+            RequestOutcome.record(request, RequestOutcome.VALIDATION_ERROR);
+        }
+        return super.handleExceptionInternal(ex, body, headers, statusCode, request);
+    }
+
+    //@Validated controllers check request parameters (e.g. the mobile number pattern) in a proxy, which throws this instead of MethodArgumentNotValidException
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ErrorResponseDto> handleConstraintViolationException(ConstraintViolationException constraintViolationException, WebRequest webRequest) {
+        ErrorResponseDto errorResponseDto = new ErrorResponseDto(
+                webRequest.getDescription(false), //choosing not to include client info like IP address
+                HttpStatus.BAD_REQUEST,
+                constraintViolationException.getMessage(),
+                LocalDateTime.now(clock)
+        );
+        RequestOutcome.record(webRequest, RequestOutcome.VALIDATION_ERROR);
+        return new ResponseEntity<>(errorResponseDto, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponseDto> handleAllOtherException(Exception exception, WebRequest webRequest) {
         ErrorResponseDto errorResponseDto = new ErrorResponseDto(
                 webRequest.getDescription(false), //choosing not to include client info like IP address
                 HttpStatus.INTERNAL_SERVER_ERROR,
                 exception.getMessage(),
-                LocalDateTime.now()
+                LocalDateTime.now(clock)
         );
+        RequestOutcome.recordException(webRequest, exception);
         return new ResponseEntity<>(errorResponseDto, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
-        @ExceptionHandler(CustomerAlreadyExistException.class)
-        public ResponseEntity<ErrorResponseDto> handleCustomerAlreadyExistsException(CustomerAlreadyExistException customerAlreadyExistException, WebRequest webRequest) {
-            ErrorResponseDto errorResponseDto = new ErrorResponseDto(
-                    webRequest.getDescription(false), //choosing not to include client info like IP address
-                    HttpStatus.BAD_REQUEST,
-                    customerAlreadyExistException.getMessage(),
-                    LocalDateTime.now()
-        );
-        return new ResponseEntity<>(errorResponseDto, HttpStatus.BAD_REQUEST);
+    @ExceptionHandler(CustomerAlreadyExistException.class)
+    public ResponseEntity<ErrorResponseDto> handleCustomerAlreadyExistsException(CustomerAlreadyExistException customerAlreadyExistException, WebRequest webRequest) {
+        RequestOutcome.record(webRequest, RequestOutcome.ALREADY_EXISTS);
+        return errorResponse(webRequest, HttpStatus.BAD_REQUEST, customerAlreadyExistException.getMessage());
+    }
+
+    @ExceptionHandler(InvalidPageTokenException.class)
+    public ResponseEntity<ErrorResponseDto> handleInvalidPageTokenException(InvalidPageTokenException invalidPageTokenException, WebRequest webRequest) {
+        RequestOutcome.record(webRequest, RequestOutcome.VALIDATION_ERROR);
+        return errorResponse(webRequest, HttpStatus.BAD_REQUEST, invalidPageTokenException.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorResponseDto> handleIdempotencyKeyReusedException(IdempotencyKeyReusedException idempotencyKeyReusedException, WebRequest webRequest) {
+        RequestOutcome.record(webRequest, RequestOutcome.VALIDATION_ERROR);
+        return errorResponse(webRequest, HttpStatus.UNPROCESSABLE_ENTITY, idempotencyKeyReusedException.getMessage());
     }
 
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ErrorResponseDto> handleResourseNotFoundException(ResourceNotFoundException resourceNotFoundException, WebRequest webRequest) {
+        RequestOutcome.record(webRequest, RequestOutcome.NOT_FOUND);
+        return errorResponse(webRequest, HttpStatus.NOT_FOUND, resourceNotFoundException.getMessage());
+    }
+
+    //the not found / already exists path: expected answers sent many times a second, so nothing here allocates more than the response itself;
+    //the thrown BusinessException carries no stack trace, see BusinessException
+    private ResponseEntity<ErrorResponseDto> errorResponse(WebRequest webRequest, HttpStatus status, String message) {
         ErrorResponseDto errorResponseDto = new ErrorResponseDto(
                 webRequest.getDescription(false), //choosing not to include client info like IP address
-                HttpStatus.NOT_FOUND,
-                resourceNotFoundException.getMessage(),
-                LocalDateTime.now()
+                status,
+                message,
+                LocalDateTime.now(clock)
         );
-        return new ResponseEntity<>(errorResponseDto, HttpStatus.NOT_FOUND);
+        return new ResponseEntity<>(errorResponseDto, status);
     }
-
 }
@@ -4,8 +4,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(value = HttpStatus.NOT_FOUND)
-public class ResourceNotFoundException extends RuntimeException {
+public class ResourceNotFoundException extends BusinessException {
     public ResourceNotFoundException(String resourceName, String fieldName, String fieldValue) {
-        super(String.format("%s not found with the given input data %s: '%s'", resourceName, fieldName, fieldValue));
+        super(resourceName + " not found with the given input data " + fieldName + ": '" + fieldValue + "'"); //the 404 path, concatenation does not parse a format on every call
     }
 }
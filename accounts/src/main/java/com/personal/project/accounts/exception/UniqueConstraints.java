@@ -0,0 +1,22 @@
+package com.personal.project.accounts.exception;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+public final class UniqueConstraints {
+
+    private UniqueConstraints() {}
+
+    /***
+     * Tells which unique constraint rejected an insert or update, so only that one is reported as "already exists".
+     *
+     * @param exception - exception thrown by the repository
+     * @param constraintName - name given in the @UniqueConstraint of the entity
+     * @return true when the database names this constraint as the one that was violated
+     */
+    public static boolean isViolated(DataIntegrityViolationException exception, String constraintName) {
+        String message = exception.getMostSpecificCause().getMessage(); //H2: Unique index or primary key violation: "PUBLIC.UK_..._INDEX_x ON ..."
+        return message != null && message.toUpperCase(Locale.ROOT).contains(constraintName.toUpperCase(Locale.ROOT));
+    }
+}
@@ -1,6 +1,7 @@
 package com.personal.project.accounts.mapper;
 
 import com.personal.project.accounts.dto.AccountsDto;
+import com.personal.project.accounts.dto.CustomerAccountsView;
 import com.personal.project.accounts.entity.Accounts;
 
 public class AccountsMapper {
@@ -12,6 +13,13 @@ public class AccountsMapper {
         return accountsDto;
     }
 
+    public static AccountsDto convertViewToDto(CustomerAccountsView customerAccountsView, AccountsDto accountsDto){
+        accountsDto.setAccountNumber(customerAccountsView.accountNumber());
+        accountsDto.setAccountType(customerAccountsView.accountType());
+        accountsDto.setBranchAddress(customerAccountsView.branchAddress());
+        return accountsDto;
+    }
+
     public static Accounts convertDtoToEntity(AccountsDto accountsDto, Accounts accountsEntity){
         accountsEntity.setAccountNumber(accountsDto.getAccountNumber());
         accountsEntity.setAccountType(accountsDto.getAccountType());
@@ -1,5 +1,7 @@
 package com.personal.project.accounts.mapper;
 
+import com.personal.project.accounts.dto.AccountsDto;
+import com.personal.project.accounts.dto.CustomerAccountsView;
 import com.personal.project.accounts.dto.CustomerDto;
 import com.personal.project.accounts.entity.Customer;
 
@@ -12,6 +14,14 @@ public class CustomerMapper {
         return customerDto;
     }
 
+    public static CustomerDto convertViewToDto(CustomerAccountsView customerAccountsView, CustomerDto customerDto) {
+        customerDto.setEmail(customerAccountsView.email());
+        customerDto.setName(customerAccountsView.name());
+        customerDto.setMobileNumber(customerAccountsView.mobileNumber());
+        customerDto.setAccountsDto(AccountsMapper.convertViewToDto(customerAccountsView, new AccountsDto()));
+        return customerDto;
+    }
+
     public static Customer convertDtoToEntity(CustomerDto customerDto, Customer customerEntity) {
         customerEntity.setEmail(customerDto.getEmail());
         customerEntity.setName(customerDto.getName());
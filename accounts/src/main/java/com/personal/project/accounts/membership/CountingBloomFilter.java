@@ -0,0 +1,137 @@
+package com.personal.project.accounts.membership;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//Bloom filter with 4 bit counters instead of bits, so values can be removed again
+//mightContain never returns false for a value that was added and not removed; it returns true for absent values with roughly the configured probability
+//counters are packed 16 per long and updated with CAS, so add/remove/mightContain are thread safe without locks
+public class CountingBloomFilter {
+
+    private static final int COUNTER_BITS = 4;
+    private static final int COUNTERS_PER_WORD = Long.SIZE / COUNTER_BITS;
+    private static final long COUNTER_MASK = 0xFL;
+    private static final long COUNTER_MAX = COUNTER_MASK; //a saturated counter sticks, so it never drops to zero by mistake
+
+    private final AtomicLongArray words;
+    private final long counterCount;
+    private final int hashCount;
+    private final AtomicLong entries = new AtomicLong();
+
+    public CountingBloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions <= 0 || falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("expectedInsertions must be positive and falsePositiveProbability between 0 and 1");
+        }
+        //standard sizing: m = -n ln(p) / ln(2)^2 counters and k = m/n ln(2) hash functions
+        long wantedCounters = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, (wantedCounters + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD);
+        this.words = new AtomicLongArray(wordCount);
+        this.counterCount = (long) wordCount * COUNTERS_PER_WORD;
+        this.hashCount = Math.max(1, (int) Math.round((double) counterCount / expectedInsertions * Math.log(2)));
+    }
+
+    public void add(CharSequence value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < hashCount; i++) {
+            increment(index(hash1, hash2, i));
+        }
+        entries.incrementAndGet();
+    }
+
+    //only call this for a value that was added before, otherwise counters of other values are decremented
+    public void remove(CharSequence value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < hashCount; i++) {
+            decrement(index(hash1, hash2, i));
+        }
+        entries.decrementAndGet();
+    }
+
+    public boolean mightContain(CharSequence value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < hashCount; i++) {
+            long index = index(hash1, hash2, i);
+            if (counter(words.get((int) (index / COUNTERS_PER_WORD)), index) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long entries() {
+        return entries.get();
+    }
+
+    public long memoryBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    //(1 - e^(-kn/m))^k for the current number of entries
+    public double expectedFalsePositiveProbability() {
+        return Math.pow(1 - Math.exp(-hashCount * (double) Math.max(0, entries.get()) / counterCount), hashCount);
+    }
+
+    private void increment(long index) {
+        int wordIndex = (int) (index / COUNTERS_PER_WORD);
+        while (true) {
+            long word = words.get(wordIndex);
+            if (counter(word, index) == COUNTER_MAX) {
+                return;
+            }
+            if (words.compareAndSet(wordIndex, word, word + (1L << shift(index)))) {
+                return;
+            }
+        }
+    }
+
+    private void decrement(long index) {
+        int wordIndex = (int) (index / COUNTERS_PER_WORD);
+        while (true) {
+            long word = words.get(wordIndex);
+            long counter = counter(word, index);
+            if (counter == 0 || counter == COUNTER_MAX) {
+                return;
+            }
+            if (words.compareAndSet(wordIndex, word, word - (1L << shift(index)))) {
+                return;
+            }
+        }
+    }
+
+    //Kirsch-Mitzenmacher: k indexes from two hashes without losing accuracy
+    private long index(long hash1, long hash2, int i) {
+        return Math.floorMod(hash1 + i * hash2, counterCount);
+    }
+
+    private static long counter(long word, long index) {
+        return (word >>> shift(index)) & COUNTER_MASK;
+    }
+
+    private static int shift(long index) {
+        return (int) (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+    }
+
+    //FNV-1a over the chars followed by a finalizer, no allocation for the String input
+    private static long hash(CharSequence value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    //splitmix64 finalizer
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
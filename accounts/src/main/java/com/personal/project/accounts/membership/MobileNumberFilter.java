@@ -0,0 +1,99 @@
+package com.personal.project.accounts.membership;
+
+import com.personal.project.accounts.repository.CustomerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+//answers "is there possibly a customer with this mobile number" without going to the database
+//seeded from the customer table at startup and kept up to date by AccountServiceImpl on create, update and delete
+//only correct when every create reaches this instance: a number created through another instance is never added here
+//and would keep getting a 404, so it is off unless mobile-filter.enabled is true; while off no filter is allocated,
+//no mobile.filter.* meters are registered and every lookup goes to the database
+@Component
+public class MobileNumberFilter {
+
+    private final boolean enabled;
+    private final CountingBloomFilter bloomFilter;
+    private final CustomerRepository customerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter definiteMisses;
+    private final Counter maybeHits;
+    private final Counter falsePositives;
+
+    public MobileNumberFilter(CustomerRepository customerRepository, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                              @Value("${mobile-filter.enabled:false}") boolean enabled,
+                              @Value("${mobile-filter.expected-insertions:1000000}") long expectedInsertions,
+                              @Value("${mobile-filter.false-positive-probability:0.01}") double falsePositiveProbability) {
+        this.enabled = enabled;
+        this.bloomFilter = enabled ? new CountingBloomFilter(expectedInsertions, falsePositiveProbability) : null;
+        this.customerRepository = customerRepository;
+        this.transactionTemplate = transactionTemplate;
+        if (!enabled) {
+            this.definiteMisses = null;
+            this.maybeHits = null;
+            this.falsePositives = null;
+            return;
+        }
+        this.definiteMisses = Counter.builder("mobile.filter.checks").tag("result", "definite_miss").register(meterRegistry);
+        this.maybeHits = Counter.builder("mobile.filter.checks").tag("result", "maybe").register(meterRegistry);
+        this.falsePositives = Counter.builder("mobile.filter.false.positives")
+                .description("Lookups the filter let through that found nothing in the database").register(meterRegistry);
+        Gauge.builder("mobile.filter.expected.fpp", bloomFilter, CountingBloomFilter::expectedFalsePositiveProbability)
+                .description("False positive probability for the current number of entries").register(meterRegistry);
+        Gauge.builder("mobile.filter.entries", bloomFilter, CountingBloomFilter::entries).register(meterRegistry);
+        Gauge.builder("mobile.filter.memory", bloomFilter, CountingBloomFilter::memoryBytes).baseUnit("bytes").register(meterRegistry);
+    }
+
+    //runs before the web server accepts requests, so no lookup sees a half seeded filter
+    @PostConstruct
+    void seed() {
+        if (!enabled) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<String> mobileNumbers = customerRepository.streamAllMobileNumbers()) {
+                mobileNumbers.forEach(bloomFilter::add);
+            }
+        });
+    }
+
+    /***
+     *
+     * @param mobileNumber - Input mobile Number
+     * @return always true when the filter is off, otherwise false only when no customer has this mobile number, true means the database has to be asked
+     */
+    public boolean mightContain(String mobileNumber) {
+        if (!enabled) {
+            return true;
+        }
+        boolean mightContain = bloomFilter.mightContain(mobileNumber);
+        (mightContain ? maybeHits : definiteMisses).increment();
+        return mightContain;
+    }
+
+    public void add(String mobileNumber) {
+        if (enabled) {
+            bloomFilter.add(mobileNumber);
+        }
+    }
+
+    //only for a mobile number that was added before (seeded or added on create/update)
+    public void remove(String mobileNumber) {
+        if (enabled) {
+            bloomFilter.remove(mobileNumber);
+        }
+    }
+
+    public void recordFalsePositive() {
+        if (enabled) {
+            falsePositives.increment();
+        }
+    }
+}
@@ -1,19 +1,41 @@
 package com.personal.project.accounts.repository;
 
 import com.personal.project.accounts.entity.Accounts;
+import com.personal.project.accounts.dto.CustomerAccountsView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AccountsRepository extends JpaRepository<Accounts, Long> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true")) //query cache, see SecondLevelCacheConfig
     Optional<Accounts> findByCustomerId(Long customerId);
 
     @Transactional // Ensures the delete operation is part of a transaction, so it can be rolled back if something goes wrong
     @Modifying // Indicates that this method performs a modifying operation (DELETE)
     void deleteByCustomerId(Long customerId);
+
+    //keyset page: seeks to afterAccountNumber on the primary key index and reads limit rows from there,
+    //so the cost does not depend on how many rows come before (unlike an offset)
+    @Query("select new com.personal.project.accounts.dto.CustomerAccountsView(" +
+            "c.customerId, c.name, c.email, c.mobileNumber, a.accountNumber, a.accountType, a.branchAddress) " +
+            "from Accounts a join Customer c on c.customerId = a.customerId " +
+            "where a.accountNumber > :afterAccountNumber " +
+            "order by a.accountNumber")
+    List<CustomerAccountsView> findPageAfterAccountNumber(@Param("afterAccountNumber") long afterAccountNumber, Limit limit);
+
+    //returns the first number of a fresh block; the sequence steps by ACCOUNT_NUMBER_BLOCK_SIZE, see AccountNumberAllocator
+    @Query(value = "SELECT NEXT VALUE FOR account_number_seq", nativeQuery = true)
+    long reserveAccountNumberBlock();
 }
@@ -1,13 +1,54 @@
 package com.personal.project.accounts.repository;
 
+import com.personal.project.accounts.constants.AccountsConstants;
+import com.personal.project.accounts.dto.CustomerAccountsView;
 import com.personal.project.accounts.entity.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
+    //query cache keeps the matching id, the entity itself then comes from the customer region;
+    //any write to the customer table invalidates every cached result of this query
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Customer> findByMobileNumber(String mobileNumber); //has to match POJO entity class
+
+    //customer and account in one round trip; left join so a customer without account still comes back (with null account fields)
+    @Query("select new com.personal.project.accounts.dto.CustomerAccountsView(" +
+            "c.customerId, c.name, c.email, c.mobileNumber, a.accountNumber, a.accountType, a.branchAddress) " +
+            "from Customer c left join Accounts a on a.customerId = c.customerId " +
+            "where c.mobileNumber = :mobileNumber")
+    Optional<CustomerAccountsView> findCustomerAccountsByMobileNumber(@Param("mobileNumber") String mobileNumber);
+
+    //every customer with its account for the NDJSON export; rows are pulled from the cursor fetch-size at a time instead of loading the whole table,
+    //and as constructor projections they never enter the persistence context, so memory stays flat however many rows there are
+    //has to be consumed inside a transaction and closed
+    @Query("select new com.personal.project.accounts.dto.CustomerAccountsView(" +
+            "c.customerId, c.name, c.email, c.mobileNumber, a.accountNumber, a.accountType, a.branchAddress) " +
+            "from Customer c left join Accounts a on a.customerId = c.customerId " +
+            "order by c.customerId")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + AccountsConstants.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<CustomerAccountsView> streamAllCustomerAccounts();
+
+    //used to seed MobileNumberFilter at startup, has to be consumed inside a transaction and closed
+    @Query("select c.mobileNumber from Customer c")
+    Stream<String> streamAllMobileNumbers();
+
+    //used by bulk create to check a whole chunk of mobile numbers for duplicates with one IN query
+    @Query("select c.mobileNumber from Customer c where c.mobileNumber in :mobileNumbers")
+    Set<String> findExistingMobileNumbers(@Param("mobileNumbers") Collection<String> mobileNumbers);
 }
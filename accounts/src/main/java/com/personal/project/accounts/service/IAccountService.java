@@ -1,8 +1,14 @@
 package com.personal.project.accounts.service;
 
+import com.personal.project.accounts.dto.BulkAccountResponseDto;
 import com.personal.project.accounts.dto.CustomerDto;
+import com.personal.project.accounts.dto.PageResponseDto;
 import com.personal.project.accounts.dto.ResponseDto;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
 public interface IAccountService {
     /***
      *
@@ -10,9 +16,31 @@ public interface IAccountService {
      */
     void createAccount(CustomerDto customerDto);
 
+    /***
+     *
+     * @param customerDtos - customers to create, each one gets a new Account
+     * @return per customer outcome, in the same order as customerDtos
+     */
+    BulkAccountResponseDto createAccounts(List<CustomerDto> customerDtos);
+
     CustomerDto getAccountByMobileNumber(String mobileNumber);
 
     boolean updateAccount(CustomerDto customerDto);
 
     boolean deleteAccount(String mobileNumber);
+
+    /***
+     *
+     * @param pageToken - nextPageToken of the previous page, null for the first page
+     * @param pageSize - maximum number of customers on the page
+     * @return customers with their accounts ordered by account number, and the token for the next page
+     */
+    PageResponseDto<CustomerDto> fetchAccounts(String pageToken, int pageSize);
+
+    /***
+     *
+     * @param outputStream - where every customer with its account is written, one JSON document per line (NDJSON)
+     * @throws IOException if writing to outputStream fails
+     */
+    void exportAccounts(OutputStream outputStream) throws IOException;
 }
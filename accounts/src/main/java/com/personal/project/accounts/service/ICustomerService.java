@@ -0,0 +1,13 @@
+package com.personal.project.accounts.service;
+
+import com.personal.project.accounts.dto.CustomerDetailsDto;
+
+public interface ICustomerService {
+
+    /***
+     *
+     * @param mobileNumber - Input mobile Number
+     * @return Customer, Account, Card and Loan details based on a given mobileNumber
+     */
+    CustomerDetailsDto fetchCustomerDetails(String mobileNumber);
+}
@@ -1,22 +1,50 @@
 package com.personal.project.accounts.service.impl;
 
+import com.personal.project.accounts.allocator.AccountNumberAllocator;
 import com.personal.project.accounts.constants.AccountsConstants;
 import com.personal.project.accounts.dto.AccountsDto;
+import com.personal.project.accounts.dto.BulkAccountResponseDto;
+import com.personal.project.accounts.dto.BulkAccountResultDto;
+import com.personal.project.accounts.dto.CustomerAccountsView;
 import com.personal.project.accounts.dto.CustomerDto;
+import com.personal.project.accounts.dto.PageResponseDto;
 import com.personal.project.accounts.entity.Accounts;
 import com.personal.project.accounts.entity.Customer;
 import com.personal.project.accounts.exception.CustomerAlreadyExistException;
 import com.personal.project.accounts.exception.ResourceNotFoundException;
+import com.personal.project.accounts.exception.UniqueConstraints;
 import com.personal.project.accounts.mapper.AccountsMapper;
 import com.personal.project.accounts.mapper.CustomerMapper;
+import com.personal.project.accounts.membership.MobileNumberFilter;
+import com.personal.project.accounts.pagination.PageTokens;
 import com.personal.project.accounts.repository.AccountsRepository;
 import com.personal.project.accounts.repository.CustomerRepository;
 import com.personal.project.accounts.service.IAccountService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.AllArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Optional;
-import java.util.Random;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor //there is only one constructor created by this, so no @Autowired required
@@ -24,22 +52,155 @@ public class AccountServiceImpl implements IAccountService {
 
     private AccountsRepository accountsRepository;
     private CustomerRepository customerRepository;
+    private TransactionTemplate transactionTemplate;
+    private AccountNumberAllocator accountNumberAllocator;
+    private CacheManager cacheManager;
+    private MobileNumberFilter mobileNumberFilter;
+    private ObjectMapper objectMapper;
 
     /***
      *
      * @param customerDto
      */
     @Override
+    @Transactional //customer and account are written together or not at all
     public void createAccount(CustomerDto customerDto) {
-        Customer customer = CustomerMapper.convertDtoToEntity(customerDto, new Customer());
-        Optional<Customer> optionalCustomer=customerRepository.findByMobileNumber(customerDto.getMobileNumber());
-        if(optionalCustomer.isPresent()){
-            throw new CustomerAlreadyExistException("Customer already registered with given mobile number : "+customerDto.getMobileNumber());
+        //no findByMobileNumber first: the unique index on mobile_number rejects duplicates in the same round trip as the insert,
+        //and it also holds when two requests for the same number run at the same time
+        mobileNumberFilter.add(customerDto.getMobileNumber()); //added before the insert so a fetch right after commit is never short-circuited
+        try {
+            insertCustomerAndAccount(customerDto);
+        } catch (RuntimeException exception) {
+            mobileNumberFilter.remove(customerDto.getMobileNumber());
+            throw exception;
+        }
+    }
+
+    /***
+     *
+     * @param customerDtos - customers to create, each one gets a new Account
+     * @return per customer outcome, in the same order as customerDtos
+     */
+    @Override
+    public BulkAccountResponseDto createAccounts(List<CustomerDto> customerDtos) {
+        boolean[] repeatedInRequest = new boolean[customerDtos.size()];
+        Set<String> seenMobileNumbers = new HashSet<>();
+        for (int i = 0; i < customerDtos.size(); i++) {
+            repeatedInRequest[i] = !seenMobileNumbers.add(customerDtos.get(i).getMobileNumber());
+        }
+
+        List<BulkAccountResultDto> results = new ArrayList<>(customerDtos.size());
+        //every chunk is its own transaction so the persistence context (and the undo log) stays small for big migrations
+        for (int from = 0; from < customerDtos.size(); from += AccountsConstants.BULK_CHUNK_SIZE) {
+            int to = Math.min(from + AccountsConstants.BULK_CHUNK_SIZE, customerDtos.size());
+            List<CustomerDto> chunk = customerDtos.subList(from, to);
+            boolean[] chunkRepeated = Arrays.copyOfRange(repeatedInRequest, from, to);
+            //added before the insert, like createAccount, so a fetch right after commit is never short-circuited
+            for (int i = 0; i < chunk.size(); i++) {
+                if (!chunkRepeated[i]) {
+                    mobileNumberFilter.add(chunk.get(i).getMobileNumber());
+                }
+            }
+            List<BulkAccountResultDto> chunkResults;
+            try {
+                try {
+                    chunkResults = transactionTemplate.execute(status -> createAccountsChunk(chunk, chunkRepeated));
+                } catch (DataIntegrityViolationException exception) {
+                    //another request created one of these customers after our duplicate check; redo the chunk one by one for exact results
+                    chunkResults = createAccountsOneByOne(chunk, chunkRepeated);
+                }
+            } catch (RuntimeException exception) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (!chunkRepeated[i]) {
+                        mobileNumberFilter.remove(chunk.get(i).getMobileNumber());
+                    }
+                }
+                throw exception;
+            }
+            for (int i = 0; i < chunk.size(); i++) {
+                if (!chunkRepeated[i] && !AccountsConstants.STATUS_201.equals(chunkResults.get(i).getStatusCode())) {
+                    mobileNumberFilter.remove(chunk.get(i).getMobileNumber()); //no customer was created for it
+                }
+            }
+            results.addAll(chunkResults);
+        }
+        int totalCreated = (int) results.stream().filter(result -> AccountsConstants.STATUS_201.equals(result.getStatusCode())).count();
+        return new BulkAccountResponseDto(customerDtos.size(), totalCreated, customerDtos.size() - totalCreated, results);
+    }
+
+    /***
+     * One duplicate check query for the whole chunk, then batched inserts for Customer and Accounts when the transaction flushes.
+     *
+     * @param chunk - customers to create in this transaction
+     * @param repeatedInRequest - true where the mobile number already appeared earlier in the same request
+     * @return per customer outcome, in the same order as chunk
+     */
+    private List<BulkAccountResultDto> createAccountsChunk(List<CustomerDto> chunk, boolean[] repeatedInRequest) {
+        Set<String> existingMobileNumbers = customerRepository.findExistingMobileNumbers(
+                chunk.stream().map(CustomerDto::getMobileNumber).collect(Collectors.toSet()));
+
+        BulkAccountResultDto[] results = new BulkAccountResultDto[chunk.size()];
+        List<Customer> newCustomers = new ArrayList<>(chunk.size());
+        List<Integer> newCustomerPositions = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            String mobileNumber = chunk.get(i).getMobileNumber();
+            if (repeatedInRequest[i]) {
+                results[i] = new BulkAccountResultDto(mobileNumber, AccountsConstants.STATUS_400, AccountsConstants.MESSAGE_400_DUPLICATE_IN_REQUEST, null);
+            } else if (existingMobileNumbers.contains(mobileNumber)) {
+                results[i] = new BulkAccountResultDto(mobileNumber, AccountsConstants.STATUS_400, AccountsConstants.MESSAGE_400_ALREADY_EXISTS, null);
+            } else {
+                newCustomers.add(CustomerMapper.convertDtoToEntity(chunk.get(i), new Customer()));
+                newCustomerPositions.add(i);
+            }
+        }
+
+        //ids come from the pooled customer_seq, so nothing is inserted here; the inserts are batched at commit
+        List<Customer> savedCustomers = customerRepository.saveAll(newCustomers);
+        List<Accounts> newAccounts = savedCustomers.stream().map(this::createNewAccountEntity).toList();
+        accountsRepository.saveAll(newAccounts);
+
+        for (int i = 0; i < newAccounts.size(); i++) {
+            Accounts account = newAccounts.get(i);
+            results[newCustomerPositions.get(i)] = new BulkAccountResultDto(savedCustomers.get(i).getMobileNumber(),
+                    AccountsConstants.STATUS_201, AccountsConstants.MESSAGE_201, account.getAccountNumber());
+        }
+        return List.of(results);
+    }
+
+    //slow path of bulk create, only used when a batched chunk lost a race against a concurrent create
+    private List<BulkAccountResultDto> createAccountsOneByOne(List<CustomerDto> chunk, boolean[] repeatedInRequest) {
+        List<BulkAccountResultDto> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            CustomerDto customerDto = chunk.get(i);
+            if (repeatedInRequest[i]) {
+                results.add(new BulkAccountResultDto(customerDto.getMobileNumber(), AccountsConstants.STATUS_400, AccountsConstants.MESSAGE_400_DUPLICATE_IN_REQUEST, null));
+                continue;
+            }
+            try {
+                Accounts account = transactionTemplate.execute(status -> insertCustomerAndAccount(customerDto));
+                results.add(new BulkAccountResultDto(customerDto.getMobileNumber(), AccountsConstants.STATUS_201, AccountsConstants.MESSAGE_201, account.getAccountNumber()));
+            } catch (CustomerAlreadyExistException exception) {
+                results.add(new BulkAccountResultDto(customerDto.getMobileNumber(), AccountsConstants.STATUS_400, AccountsConstants.MESSAGE_400_ALREADY_EXISTS, null));
+            }
         }
+        return results;
+    }
+
+    //has to run inside a transaction
+    private Accounts insertCustomerAndAccount(CustomerDto customerDto) {
+        Customer customer = CustomerMapper.convertDtoToEntity(customerDto, new Customer());
         //customer.setCreatedAt(LocalDateTime.now()); //no need, as we added some annotations and Spring will handle it now
         //customer.setCreatedBy("Anonymous"); //no need, as we added some annotations and Spring will handle it now
-        Customer savedCustomer= customerRepository.save(customer);
-        accountsRepository.save(createNewAccountEntity(savedCustomer));
+        Customer savedCustomer;
+        try {
+            savedCustomer = customerRepository.saveAndFlush(customer); //flush now so a duplicate shows up here and not at commit
+        } catch (DataIntegrityViolationException exception) {
+            if (UniqueConstraints.isViolated(exception, AccountsConstants.UK_CUSTOMER_MOBILE_NUMBER)) {
+                throw new CustomerAlreadyExistException("Customer already registered with given mobile number : "+customerDto.getMobileNumber());
+            }
+            throw exception;
+        }
+        return accountsRepository.save(createNewAccountEntity(savedCustomer));
     }
 
     /***
@@ -48,6 +209,9 @@ public class AccountServiceImpl implements IAccountService {
      * @return
      */
     @Override
+    //sync makes concurrent misses for the same number wait for one load, and an evict waits for a running load,
+    //so a write that evicts after commit can never be overwritten by a load that read the old row
+    @Cacheable(cacheNames = AccountsConstants.ACCOUNTS_CACHE, key = "#mobileNumber", sync = true)
     public CustomerDto getAccountByMobileNumber(String mobileNumber) {
         //old way
 //        Optional<Customer> optionalCustomer=customerRepository.findByMobileNumber(mobileNumber);
@@ -66,17 +230,20 @@ public class AccountServiceImpl implements IAccountService {
 //            customerAndAccountDto.setEmail(customerDto.getEmail());
 //            return customerAndAccountDto;
 //        }
-        //new way
-        Customer customer = customerRepository.findByMobileNumber(mobileNumber).orElseThrow(
-                ()->new ResourceNotFoundException("Customer","mobileNumber",mobileNumber)
-        );
-        Accounts account = accountsRepository.findByCustomerId(customer.getCustomerId()).orElseThrow(
-                ()-> new ResourceNotFoundException("Account","customerId",customer.getCustomerId().toString())
+        //new way: one join query straight into a read only projection instead of two managed entities
+        if (!mobileNumberFilter.mightContain(mobileNumber)) {
+            throw new ResourceNotFoundException("Customer","mobileNumber",mobileNumber); //definitely unknown, no need to ask the database
+        }
+        CustomerAccountsView customerAccountsView = customerRepository.findCustomerAccountsByMobileNumber(mobileNumber).orElseThrow(
+                ()-> {
+                    mobileNumberFilter.recordFalsePositive();
+                    return new ResourceNotFoundException("Customer","mobileNumber",mobileNumber);
+                }
         );
-        CustomerDto customerDto = CustomerMapper.convertEntityToDto(customer, new CustomerDto());
-        AccountsDto accountsDto = AccountsMapper.convertEntityToDto(account, new AccountsDto());
-        customerDto.setAccountsDto(accountsDto);
-        return customerDto;
+        if (customerAccountsView.accountNumber() == null) {
+            throw new ResourceNotFoundException("Account","customerId",customerAccountsView.customerId().toString());
+        }
+        return CustomerMapper.convertViewToDto(customerAccountsView, new CustomerDto());
     }
 
     @Override
@@ -96,14 +263,37 @@ public class AccountServiceImpl implements IAccountService {
             Customer customer = customerRepository.findById(customerId).orElseThrow(
                     ()-> new ResourceNotFoundException("Customer","customerId",customerId.toString())
             );
+            String previousMobileNumber = customer.getMobileNumber();
+            boolean mobileNumberChanged = !previousMobileNumber.equals(customerDto.getMobileNumber());
+            if (mobileNumberChanged) {
+                mobileNumberFilter.add(customerDto.getMobileNumber());
+            }
             CustomerMapper.convertDtoToEntity(customerDto, customer);
-            customerRepository.save(customer);
+            try {
+                customerRepository.save(customer);
+            } catch (RuntimeException exception) {
+                if (mobileNumberChanged) {
+                    mobileNumberFilter.remove(customerDto.getMobileNumber());
+                }
+                if (exception instanceof DataIntegrityViolationException violation
+                        && UniqueConstraints.isViolated(violation, AccountsConstants.UK_CUSTOMER_MOBILE_NUMBER)) {
+                    throw new CustomerAlreadyExistException("Customer already registered with given mobile number : "+customerDto.getMobileNumber());
+                }
+                throw exception;
+            }
+            if (mobileNumberChanged) {
+                mobileNumberFilter.remove(previousMobileNumber);
+            }
+            //the mobile number itself can change, so evict the entry under the old and the new number
+            evictCachedAccount(previousMobileNumber);
+            evictCachedAccount(customerDto.getMobileNumber());
             isUpdated = true;
         }
         return isUpdated;
     }
 
     @Override
+    @CacheEvict(cacheNames = AccountsConstants.ACCOUNTS_CACHE, key = "#mobileNumber") //runs after the delete is committed
     public boolean deleteAccount(String mobileNumber) {
         boolean isDeleted = false;
         if(mobileNumber!=null){
@@ -113,11 +303,69 @@ public class AccountServiceImpl implements IAccountService {
             Long customerId = customerEntity.getCustomerId();
             customerRepository.deleteById(customerId);
             accountsRepository.deleteByCustomerId(customerId);
+            mobileNumberFilter.remove(mobileNumber);
             isDeleted = true;
         }
         return isDeleted;
     }
 
+    /***
+     * Keyset paginated listing: the page token carries the last account number already returned,
+     * so every page is one index seek plus pageSize rows however deep the caller is.
+     *
+     * @param pageToken - nextPageToken of the previous page, null for the first page
+     * @param pageSize - maximum number of customers on the page
+     * @return customers with their accounts ordered by account number, and the token for the next page
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponseDto<CustomerDto> fetchAccounts(String pageToken, int pageSize) {
+        //one row more than asked tells us whether there is a next page without a count query
+        List<CustomerAccountsView> customerAccountsViews = accountsRepository.findPageAfterAccountNumber(
+                PageTokens.decode(pageToken), Limit.of(pageSize + 1));
+        boolean hasNextPage = customerAccountsViews.size() > pageSize;
+        int pageLength = hasNextPage ? pageSize : customerAccountsViews.size();
+        List<CustomerDto> customerDtos = new ArrayList<>(pageLength);
+        for (int i = 0; i < pageLength; i++) {
+            customerDtos.add(CustomerMapper.convertViewToDto(customerAccountsViews.get(i), new CustomerDto()));
+        }
+        String nextPageToken = hasNextPage ? PageTokens.encode(customerAccountsViews.get(pageLength - 1).accountNumber()) : null;
+        return new PageResponseDto<>(customerDtos, nextPageToken);
+    }
+
+    /***
+     * Streams every customer with its account straight from the database cursor to outputStream as NDJSON,
+     * so heap use does not grow with the number of rows.
+     *
+     * @param outputStream - response body of the export request
+     * @throws IOException if writing to outputStream fails
+     */
+    @Override
+    @Transactional(readOnly = true) //the repository stream needs an open transaction while it is consumed
+    public void exportAccounts(OutputStream outputStream) throws IOException {
+        ObjectWriter rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE); //we flush every EXPORT_FLUSH_EVERY rows instead
+        try (JsonGenerator jsonGenerator = objectMapper.getFactory().createGenerator(outputStream);
+             Stream<CustomerAccountsView> customerAccountsViews = customerRepository.streamAllCustomerAccounts()) {
+            jsonGenerator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET); //the servlet container owns the response stream
+            Iterator<CustomerAccountsView> iterator = customerAccountsViews.iterator();
+            long rows = 0;
+            while (iterator.hasNext()) {
+                rowWriter.writeValue(jsonGenerator, CustomerMapper.convertViewToDto(iterator.next(), new CustomerDto()));
+                jsonGenerator.writeRaw('\n');
+                if (++rows % AccountsConstants.EXPORT_FLUSH_EVERY == 0) {
+                    jsonGenerator.flush();
+                }
+            }
+        }
+    }
+
+    private void evictCachedAccount(String mobileNumber) {
+        Cache accountsCache = cacheManager.getCache(AccountsConstants.ACCOUNTS_CACHE);
+        if (accountsCache != null && mobileNumber != null) {
+            accountsCache.evict(mobileNumber);
+        }
+    }
+
     /***
      *
      * @param customer
@@ -126,9 +374,7 @@ public class AccountServiceImpl implements IAccountService {
     private Accounts createNewAccountEntity(Customer customer){
         Accounts newAccount = new Accounts();
         newAccount.setCustomerId(customer.getCustomerId());
-        long randomAccountNumber = 1000000000L + new Random().nextInt(900000000); //we are generating random account number here
-
-        newAccount.setAccountNumber(randomAccountNumber);
+        newAccount.setAccountNumber(accountNumberAllocator.nextAccountNumber()); //unique number from a pre-reserved block, see AccountNumberAllocator
         newAccount.setAccountType(AccountsConstants.SAVINGS);
         newAccount.setBranchAddress(AccountsConstants.ADDRESS);
         //newAccount.setCreatedAt(LocalDateTime.now()); //no need, as we added some annotations and Spring will handle it now
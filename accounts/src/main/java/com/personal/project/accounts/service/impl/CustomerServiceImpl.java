@@ -0,0 +1,93 @@
+package com.personal.project.accounts.service.impl;
+
+import com.personal.project.accounts.client.CardsClient;
+import com.personal.project.accounts.client.LoansClient;
+import com.personal.project.accounts.constants.AccountsConstants;
+import com.personal.project.accounts.dto.CardsDto;
+import com.personal.project.accounts.dto.CustomerDetailsDto;
+import com.personal.project.accounts.dto.CustomerDto;
+import com.personal.project.accounts.dto.LoansDto;
+import com.personal.project.accounts.service.IAccountService;
+import com.personal.project.accounts.service.ICustomerService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Service
+public class CustomerServiceImpl implements ICustomerService {
+
+    private final IAccountService accountService;
+    private final CardsClient cardsClient;
+    private final LoansClient loansClient;
+    private final AsyncTaskExecutor downstreamExecutor;
+    private final Duration downstreamTimeout;
+
+    public CustomerServiceImpl(IAccountService accountService, CardsClient cardsClient, LoansClient loansClient,
+                               @Qualifier("applicationTaskExecutor") AsyncTaskExecutor downstreamExecutor, //virtual threads when spring.threads.virtual.enabled
+                               @Value("${downstream.timeout:1s}") Duration downstreamTimeout) {
+        this.accountService = accountService;
+        this.cardsClient = cardsClient;
+        this.loansClient = loansClient;
+        this.downstreamExecutor = downstreamExecutor;
+        this.downstreamTimeout = downstreamTimeout;
+    }
+
+    /***
+     * Calls the cards and loans services at the same time as the local account lookup, so the response takes as long
+     * as the slowest of the three instead of their sum. A downstream that fails or does not answer within downstream.timeout
+     * leaves its part out and marks the response degraded instead of failing the whole request.
+     *
+     * @param mobileNumber - Input mobile Number
+     * @return Customer, Account, Card and Loan details based on a given mobileNumber
+     */
+    @Override
+    public CustomerDetailsDto fetchCustomerDetails(String mobileNumber) {
+        CompletableFuture<Optional<CardsDto>> card = callDownstream(() -> cardsClient.fetchCard(mobileNumber));
+        CompletableFuture<Optional<LoansDto>> loan = callDownstream(() -> loansClient.fetchLoan(mobileNumber));
+        CustomerDto customerDto;
+        try {
+            customerDto = accountService.getAccountByMobileNumber(mobileNumber); //on this thread while the other two are in flight
+        } catch (RuntimeException exception) {
+            card.cancel(true); //no customer, no point in waiting for the rest
+            loan.cancel(true);
+            throw exception;
+        }
+
+        CustomerDetailsDto customerDetailsDto = new CustomerDetailsDto();
+        customerDetailsDto.setName(customerDto.getName());
+        customerDetailsDto.setEmail(customerDto.getEmail());
+        customerDetailsDto.setMobileNumber(customerDto.getMobileNumber());
+        customerDetailsDto.setAccountsDto(customerDto.getAccountsDto());
+        customerDetailsDto.setCardsDto(await(card, AccountsConstants.CARDS_SERVICE, customerDetailsDto).orElse(null));
+        customerDetailsDto.setLoansDto(await(loan, AccountsConstants.LOANS_SERVICE, customerDetailsDto).orElse(null));
+        return customerDetailsDto;
+    }
+
+    private <T> CompletableFuture<Optional<T>> callDownstream(Supplier<Optional<T>> call) {
+        try {
+            //the timeout here also covers time spent queued for an executor thread, the HTTP read timeout alone would not
+            return CompletableFuture.supplyAsync(call, downstreamExecutor).orTimeout(downstreamTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException rejected) {
+            return CompletableFuture.failedFuture(rejected); //executor saturated, degrade like any other downstream failure
+        }
+    }
+
+    private static <T> Optional<T> await(CompletableFuture<Optional<T>> call, String serviceName, CustomerDetailsDto customerDetailsDto) {
+        try {
+            return call.join();
+        } catch (CompletionException exception) { //timeout, connection refused or an error status
+            customerDetailsDto.setDegraded(true);
+            customerDetailsDto.getDegradedServices().add(serviceName);
+            return Optional.empty();
+        }
+    }
+}
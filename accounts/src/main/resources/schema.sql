@@ -1,21 +1,28 @@
+CREATE SEQUENCE IF NOT EXISTS `customer_seq` START WITH 1 INCREMENT BY 50;
+
+-- every accounts instance reserves 1000 account numbers per NEXT VALUE call (AccountsConstants.ACCOUNT_NUMBER_BLOCK_SIZE)
+CREATE SEQUENCE IF NOT EXISTS `account_number_seq` START WITH 1000000000 INCREMENT BY 1000 MAXVALUE 9999999999;
+
 CREATE TABLE IF NOT EXISTS `customer` (
-    `customer_id` int AUTO_INCREMENT  PRIMARY KEY,
+    `customer_id` bigint PRIMARY KEY,
     `name` varchar(100) NOT NULL,
     `email` varchar(100) NOT NULL,
     `mobile_number` varchar(20) NOT NULL,
     `created_at` date NOT NULL,
     `created_by` varchar(20) NOT NULL,
     `updated_at` date DEFAULT NULL,
-    `updated_by` varchar(20) DEFAULT NULL
+    `updated_by` varchar(20) DEFAULT NULL,
+    CONSTRAINT `uk_customer_mobile_number` UNIQUE (`mobile_number`)
     );
 
 CREATE TABLE IF NOT EXISTS `accounts` (
-    `customer_id` int NOT NULL,
-    `account_number` int AUTO_INCREMENT  PRIMARY KEY,
+    `customer_id` bigint NOT NULL,
+    `account_number` bigint PRIMARY KEY,
     `account_type` varchar(100) NOT NULL,
     `branch_address` varchar(200) NOT NULL,
     `created_at` date NOT NULL,
     `created_by` varchar(20) NOT NULL,
     `updated_at` date DEFAULT NULL,
-    `updated_by` varchar(20) DEFAULT NULL
+    `updated_by` varchar(20) DEFAULT NULL,
+    CONSTRAINT `uk_accounts_customer_id` UNIQUE (`customer_id`)
     );
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.personal.project.accounts.allocator;
+
+import com.personal.project.accounts.constants.AccountsConstants;
+import com.personal.project.accounts.repository.AccountsRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AccountNumberAllocatorTest {
+
+    private static final long FIRST_ACCOUNT_NUMBER = 1_000_000_000L;
+
+    @Test
+    void allocatesMillionsOfUniqueNumbersFromManyThreads() throws Exception {
+        AtomicLong sequence = new AtomicLong(FIRST_ACCOUNT_NUMBER);
+        //two allocators sharing one sequence behave like two accounts instances sharing one database
+        AccountNumberAllocator[] allocators = {allocator(sequence), allocator(sequence)};
+        int threads = 16;
+        int perThread = 250_000;
+
+        long[] allocated = allocateConcurrently(allocators, threads, perThread);
+
+        Arrays.sort(allocated);
+        for (int i = 1; i < allocated.length; i++) {
+            assertTrue(allocated[i] != allocated[i - 1], "duplicate account number " + allocated[i]);
+        }
+        assertTrue(allocated[0] >= FIRST_ACCOUNT_NUMBER);
+        assertTrue(allocated[allocated.length - 1] <= 9_999_999_999L);
+        //at most one partly used block per allocator is wasted
+        long reservedNumbers = sequence.get() - FIRST_ACCOUNT_NUMBER;
+        assertTrue(reservedNumbers <= (long) threads * perThread + 2L * AccountsConstants.ACCOUNT_NUMBER_BLOCK_SIZE);
+    }
+
+    @Test
+    void restartContinuesAfterReservedBlocks() {
+        AtomicLong sequence = new AtomicLong(FIRST_ACCOUNT_NUMBER);
+        AccountNumberAllocator beforeRestart = allocator(sequence);
+        long last = 0;
+        for (int i = 0; i < 10; i++) {
+            last = beforeRestart.nextAccountNumber();
+        }
+
+        AccountNumberAllocator afterRestart = allocator(sequence);
+
+        assertEquals(FIRST_ACCOUNT_NUMBER + AccountsConstants.ACCOUNT_NUMBER_BLOCK_SIZE, afterRestart.nextAccountNumber());
+        assertTrue(afterRestart.nextAccountNumber() > last);
+    }
+
+    private static long[] allocateConcurrently(AccountNumberAllocator[] allocators, int threads, int perThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                AccountNumberAllocator allocator = allocators[t % allocators.length];
+                futures.add(executor.submit(() -> {
+                    long[] numbers = new long[perThread];
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        numbers[i] = allocator.nextAccountNumber();
+                    }
+                    return numbers;
+                }));
+            }
+            start.countDown();
+            long[] allocated = new long[threads * perThread];
+            for (int t = 0; t < threads; t++) {
+                System.arraycopy(futures.get(t).get(), 0, allocated, t * perThread, perThread);
+            }
+            return allocated;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    //stands in for account_number_seq: every call returns the start of the next block
+    private static AccountNumberAllocator allocator(AtomicLong sequence) {
+        AccountsRepository accountsRepository = mock(AccountsRepository.class);
+        when(accountsRepository.reserveAccountNumberBlock())
+                .thenAnswer(invocation -> sequence.getAndAdd(AccountsConstants.ACCOUNT_NUMBER_BLOCK_SIZE));
+        return new AccountNumberAllocator(accountsRepository);
+    }
+}
@@ -0,0 +1,96 @@
+package com.personal.project.accounts.benchmark;
+
+import com.personal.project.accounts.service.IAccountService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Exports a large table through exportAccounts and reports throughput and the highest heap use seen while streaming.
+ * The rows live in a file database so they do not take up the heap themselves. Only runs on demand, with a small heap
+ * to show memory stays flat:
+ * mvn test -Dbenchmark=true -Dtest=AccountExportBenchmarkTest -DargLine=-Xmx256m
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {"build.version=test", "logging.level.org.hibernate.SQL=off", "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:file:./target/export-benchmark;CACHE_SIZE=8192"})
+class AccountExportBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE TABLE accounts");
+        jdbcTemplate.execute("TRUNCATE TABLE customer");
+    }
+
+    @Test
+    void exportsEveryRowWithFlatHeap() throws Exception {
+        cleanUp(); //a previous run may have been killed before its clean up
+        //generated inside the database, going through the service would make the benchmark mostly about inserts
+        jdbcTemplate.update("INSERT INTO customer (customer_id, name, email, mobile_number, created_at, created_by) " +
+                "SELECT X, 'Customer ' || X, 'customer' || X || '@example.com', CAST(9000000000 + X AS VARCHAR), CURRENT_DATE, 'BENCHMARK' " +
+                "FROM SYSTEM_RANGE(1, ?)", ROWS);
+        jdbcTemplate.update("INSERT INTO accounts (customer_id, account_number, account_type, branch_address, created_at, created_by) " +
+                "SELECT X, 1000000000 + X, 'Savings', '123 Main Street, New York', CURRENT_DATE, 'BENCHMARK' " +
+                "FROM SYSTEM_RANGE(1, ?)", ROWS);
+
+        HeapSamplingOutputStream outputStream = new HeapSamplingOutputStream();
+        System.gc();
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        accountService.exportAccounts(outputStream);
+        long elapsedNanos = System.nanoTime() - start;
+
+        assertEquals(ROWS, outputStream.lines);
+        System.out.printf("exported %,d rows (%,d bytes) in %,d ms, %,.0f rows/s%n",
+                outputStream.lines, outputStream.bytes, elapsedNanos / 1_000_000, ROWS / (elapsedNanos / 1e9));
+        System.out.printf("used heap before %,d KB, highest while streaming %,d KB, max heap %,d KB%n",
+                heapBefore / 1024, outputStream.peakHeap / 1024, Runtime.getRuntime().maxMemory() / 1024);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    //stands in for the servlet response: counts what is written and samples the heap every few thousand lines
+    private static final class HeapSamplingOutputStream extends OutputStream {
+
+        private long bytes;
+        private long lines;
+        private long peakHeap;
+
+        @Override
+        public void write(int b) {
+            count((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                count(b[i]);
+            }
+        }
+
+        private void count(byte b) {
+            bytes++;
+            if (b == '\n' && ++lines % 10_000 == 0) {
+                peakHeap = Math.max(peakHeap, usedHeap());
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.personal.project.accounts.benchmark;
+
+import com.personal.project.accounts.dto.AccountsDto;
+import com.personal.project.accounts.dto.CustomerDto;
+import com.personal.project.accounts.entity.Accounts;
+import com.personal.project.accounts.entity.Customer;
+import com.personal.project.accounts.mapper.AccountsMapper;
+import com.personal.project.accounts.mapper.CustomerMapper;
+import com.personal.project.accounts.repository.AccountsRepository;
+import com.personal.project.accounts.repository.CustomerRepository;
+import com.personal.project.accounts.service.IAccountService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Latency and allocation of getAccountByMobileNumber: the old two query path (two managed entities)
+ * against the single join projection. Only runs on demand:
+ * mvn test -Dbenchmark=true -Dtest=AccountFetchBenchmarkTest
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {"build.version=test", "logging.level.org.hibernate.SQL=off", "spring.jpa.show-sql=false"})
+class AccountFetchBenchmarkTest {
+
+    private static final int CUSTOMERS = 10_000;
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 50_000);
+    private static final long FIRST_MOBILE_NUMBER = 8_000_000_000L;
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountsRepository accountsRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        accountsRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void twoQueriesVersusJoinProjection() {
+        List<CustomerDto> customerDtos = new ArrayList<>(CUSTOMERS);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            CustomerDto customerDto = new CustomerDto();
+            customerDto.setName("Customer " + i);
+            customerDto.setEmail("customer" + i + "@example.com");
+            customerDto.setMobileNumber(Long.toString(FIRST_MOBILE_NUMBER + i));
+            customerDtos.add(customerDto);
+        }
+        accountService.createAccounts(customerDtos);
+
+        //the old path ran inside one transaction per call as well (open session in view), so keep that for a fair comparison
+        Function<String, CustomerDto> twoQueries = mobileNumber -> transactionTemplate.execute(status -> {
+            Customer customer = customerRepository.findByMobileNumber(mobileNumber).orElseThrow();
+            Accounts account = accountsRepository.findByCustomerId(customer.getCustomerId()).orElseThrow();
+            CustomerDto customerDto = CustomerMapper.convertEntityToDto(customer, new CustomerDto());
+            customerDto.setAccountsDto(AccountsMapper.convertEntityToDto(account, new AccountsDto()));
+            return customerDto;
+        });
+        //straight to the repository, the service answers repeated numbers from the accounts cache
+        Function<String, CustomerDto> joinProjection = mobileNumber -> transactionTemplate.execute(
+                status -> CustomerMapper.convertViewToDto(
+                        customerRepository.findCustomerAccountsByMobileNumber(mobileNumber).orElseThrow(), new CustomerDto()));
+
+        run("warm up two queries", twoQueries);
+        run("warm up projection", joinProjection);
+        run("two queries", twoQueries);
+        run("join projection", joinProjection);
+    }
+
+    private static void run(String name, Function<String, CustomerDto> fetch) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            fetch.apply(Long.toString(FIRST_MOBILE_NUMBER + (i % CUSTOMERS)));
+        }
+        long nanos = System.nanoTime() - start;
+        long bytes = threadMXBean.getThreadAllocatedBytes(threadId) - bytesBefore;
+        System.out.printf("%-22s %8.1f us/op %,10d bytes/op%n", name, nanos / 1e3 / ITERATIONS, bytes / ITERATIONS);
+    }
+}
@@ -0,0 +1,105 @@
+package com.personal.project.accounts.benchmark;
+
+import com.personal.project.accounts.constants.AccountsConstants;
+import com.personal.project.accounts.dto.CustomerAccountsView;
+import com.personal.project.accounts.pagination.PageTokens;
+import com.personal.project.accounts.service.IAccountService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Page fetch latency at increasing depth: fetchAccounts (keyset) against the same query with an offset.
+ * The keyset column should stay flat while the offset one grows with the depth. Only runs on demand:
+ * mvn test -Dbenchmark=true -Dtest=AccountListingBenchmarkTest
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {"build.version=test", "logging.level.org.hibernate.SQL=off", "spring.jpa.show-sql=false"})
+class AccountListingBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 500_000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 200);
+    private static final int PAGE_SIZE = AccountsConstants.PAGE_SIZE_DEFAULT;
+    private static final int PAGES_PER_DEPTH = 50;
+    private static final long FIRST_ACCOUNT_NUMBER = 1_000_000_001L;
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE TABLE accounts");
+        jdbcTemplate.execute("TRUNCATE TABLE customer");
+    }
+
+    @Test
+    void keysetStaysFlatWhileOffsetGrows() {
+        //generated inside the database, going through the service would make the set up take longer than the benchmark
+        jdbcTemplate.update("INSERT INTO customer (customer_id, name, email, mobile_number, created_at, created_by) " +
+                "SELECT X, 'Customer ' || X, 'customer' || X || '@example.com', CAST(9000000000 + X AS VARCHAR), CURRENT_DATE, 'BENCHMARK' " +
+                "FROM SYSTEM_RANGE(1, ?)", ROWS);
+        jdbcTemplate.update("INSERT INTO accounts (customer_id, account_number, account_type, branch_address, created_at, created_by) " +
+                "SELECT X, ? + X - 1, 'Savings', '123 Main Street, New York', CURRENT_DATE, 'BENCHMARK' " +
+                "FROM SYSTEM_RANGE(1, ?)", FIRST_ACCOUNT_NUMBER, ROWS);
+
+        int[] depths = {0, ROWS / 100, ROWS / 10, ROWS / 2, ROWS - PAGE_SIZE * (PAGES_PER_DEPTH + 1)};
+        for (int depth : depths) { //warm up every path before measuring any of them
+            measure(depth, this::keysetPage);
+            measure(depth, this::offsetPage);
+        }
+        System.out.printf("%12s %14s %14s%n", "depth", "keyset us", "offset us");
+        for (int depth : depths) {
+            System.out.printf("%,12d %,14.1f %,14.1f%n", depth, measure(depth, this::keysetPage), measure(depth, this::offsetPage));
+        }
+    }
+
+    //through the service, the way GET /list reads it
+    private int keysetPage(int depth) {
+        //the token of the page that ends just before depth
+        String pageToken = depth == 0 ? null : PageTokens.encode(FIRST_ACCOUNT_NUMBER + depth - 1);
+        return accountService.fetchAccounts(pageToken, PAGE_SIZE).getContent().size();
+    }
+
+    private int offsetPage(int depth) {
+        return transactionTemplate.execute(status -> offsetQuery(depth).size());
+    }
+
+    private List<CustomerAccountsView> offsetQuery(int offset) {
+        return entityManager.createQuery("select new com.personal.project.accounts.dto.CustomerAccountsView(" +
+                        "c.customerId, c.name, c.email, c.mobileNumber, a.accountNumber, a.accountType, a.branchAddress) " +
+                        "from Accounts a join Customer c on c.customerId = a.customerId " +
+                        "order by a.accountNumber", CustomerAccountsView.class)
+                .setFirstResult(offset)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList();
+    }
+
+    //average micros per page over the PAGES_PER_DEPTH pages starting at depth; the page moves every call,
+    //repeating identical parameters would let H2 answer from its last result instead of running the query
+    private static double measure(int depth, IntUnaryOperator pageFetch) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertEquals(PAGE_SIZE, pageFetch.applyAsInt(depth + (i % PAGES_PER_DEPTH) * PAGE_SIZE));
+        }
+        return (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+    }
+}
@@ -0,0 +1,77 @@
+package com.personal.project.accounts.benchmark;
+
+import com.personal.project.accounts.dto.CustomerDto;
+import com.personal.project.accounts.repository.AccountsRepository;
+import com.personal.project.accounts.repository.CustomerRepository;
+import com.personal.project.accounts.service.IAccountService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares rows per second of /create (one customer per call) with /create-bulk.
+ * Only runs on demand: mvn test -Dbenchmark=true -Dtest=BulkAccountCreationBenchmarkTest
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {"build.version=test", "logging.level.org.hibernate.SQL=off", "spring.jpa.show-sql=false"})
+class BulkAccountCreationBenchmarkTest {
+
+    private static final int CUSTOMERS = Integer.getInteger("benchmark.customers", 20_000);
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountsRepository accountsRepository;
+
+    @AfterEach
+    void cleanUp() {
+        accountsRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void singleVersusBulk() {
+        //warm up both paths so JIT and connection pool are not part of the numbers
+        accountService.createAccounts(customers(1_000_000_000L, 2_000));
+        customers(1_100_000_000L, 2_000).forEach(accountService::createAccount);
+        cleanUp();
+
+        List<CustomerDto> singles = customers(2_000_000_000L, CUSTOMERS);
+        long start = System.nanoTime();
+        singles.forEach(accountService::createAccount);
+        long singleNanos = System.nanoTime() - start;
+
+        List<CustomerDto> bulk = customers(3_000_000_000L, CUSTOMERS);
+        start = System.nanoTime();
+        accountService.createAccounts(bulk);
+        long bulkNanos = System.nanoTime() - start;
+
+        assertEquals(CUSTOMERS * 2L, customerRepository.count());
+        System.out.printf("single-item create: %,.0f customers/s%n", CUSTOMERS / (singleNanos / 1e9));
+        System.out.printf("bulk create:        %,.0f customers/s (%.1fx)%n",
+                CUSTOMERS / (bulkNanos / 1e9), (double) singleNanos / bulkNanos);
+    }
+
+    private static List<CustomerDto> customers(long firstMobileNumber, int count) {
+        List<CustomerDto> customerDtos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CustomerDto customerDto = new CustomerDto();
+            customerDto.setName("Customer " + i);
+            customerDto.setEmail("customer" + i + "@example.com");
+            customerDto.setMobileNumber(Long.toString(firstMobileNumber + i));
+            customerDtos.add(customerDto);
+        }
+        return customerDtos;
+    }
+}
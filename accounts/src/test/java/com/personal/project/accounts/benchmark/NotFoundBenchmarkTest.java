@@ -0,0 +1,99 @@
+package com.personal.project.accounts.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personal.project.accounts.dto.ErrorResponseDto;
+import com.personal.project.accounts.exception.BusinessException;
+import com.personal.project.accounts.exception.GlobalExceptionHandler;
+import com.personal.project.accounts.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.concurrent.Callable;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Throughput and allocation of 404 heavy traffic: GET /fetch for numbers nobody has, answered by the mobile number
+ * filter without a query, with the business exceptions thrown with (before) and without (now) a stack trace;
+ * and the rendering of the error body as GlobalExceptionHandler did it before against now. Only runs on demand:
+ * mvn test -Dbenchmark=true -Dtest=NotFoundBenchmarkTest
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {"build.version=test", "mobile-filter.enabled=true", "logging.level.org.hibernate.SQL=off"})
+@AutoConfigureMockMvc
+class NotFoundBenchmarkTest {
+
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 50_000);
+    private static final String UNKNOWN_MOBILE_NUMBER = "6999999999";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private GlobalExceptionHandler globalExceptionHandler;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void restoreDefault() {
+        BusinessException.captureStackTraces(false);
+    }
+
+    @Test
+    void notFoundRequestsWithAndWithoutStackTraces() throws Exception {
+        RequestBuilder fetchUnknown = get("/api/v1/fetch").param("mobileNumber", UNKNOWN_MOBILE_NUMBER);
+        Callable<Object> notFound = () -> mockMvc.perform(fetchUnknown).andExpect(status().isNotFound());
+
+        BusinessException.captureStackTraces(true);
+        run("warm up stack traces", notFound);
+        run("stack traces", notFound);
+        BusinessException.captureStackTraces(false);
+        run("warm up stackless", notFound);
+        run("stackless", notFound);
+    }
+
+    @Test
+    void errorBodyRendering() throws Exception {
+        WebRequest webRequest = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/v1/fetch"));
+        ResourceNotFoundException exception = new ResourceNotFoundException("Customer", "mobileNumber", UNKNOWN_MOBILE_NUMBER);
+
+        //what every handler did before: its own dto with LocalDateTime.now()
+        Callable<Object> before = () -> objectMapper.writeValueAsBytes(new ErrorResponseDto(
+                webRequest.getDescription(false), HttpStatus.NOT_FOUND, exception.getMessage(), LocalDateTime.now()));
+        Callable<Object> now = () -> objectMapper.writeValueAsBytes(
+                globalExceptionHandler.handleResourseNotFoundException(exception, webRequest).getBody());
+
+        run("warm up render before", before);
+        run("warm up render now", now);
+        run("render before", before);
+        run("render now", now);
+    }
+
+    private static void run(String name, Callable<Object> request) throws Exception {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            request.call();
+        }
+        long nanos = System.nanoTime() - start;
+        long bytes = threadMXBean.getThreadAllocatedBytes(threadId) - bytesBefore;
+        System.out.printf("%-24s %8.2f us/op %,10.0f ops/s %,10d bytes/op%n",
+                name, nanos / 1e3 / ITERATIONS, ITERATIONS / (nanos / 1e9), bytes / ITERATIONS);
+    }
+}
@@ -0,0 +1,18 @@
+package com.personal.project.accounts.benchmark;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"build.version=test", "logging.level.org.hibernate.SQL=off", "spring.jpa.show-sql=false",
+                "spring.threads.virtual.enabled=false"})
+@Import(ThreadingLoadBenchmark.DatabaseLatency.class)
+class PlatformThreadLoadBenchmarkTest extends ThreadingLoadBenchmark {
+
+    @Override
+    String mode() {
+        return "platform";
+    }
+}
@@ -0,0 +1,165 @@
+package com.personal.project.accounts.benchmark;
+
+import com.personal.project.accounts.pagination.PageTokens;
+import com.personal.project.accounts.threading.VirtualThreadPinningMonitor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Burst load against GET /api/v1/list over real HTTP: CLIENTS requests are kept in flight, and every
+ * statement sleeps DB_LATENCY_MS first to stand in for the round trip to a database on another host (in memory H2 never blocks).
+ * PlatformThreadLoadBenchmarkTest and VirtualThreadLoadBenchmarkTest run it with spring.threads.virtual.enabled false and true;
+ * the virtual run needs a Java 21 runtime. With the default pool of 10 connections both modes queue on the pool, raise it
+ * (-Dspring.datasource.hikari.maximum-pool-size=...) to see the Tomcat thread limit instead. Only runs on demand:
+ * mvn test -Dbenchmark=true -Dtest='*ThreadLoadBenchmarkTest'
+ */
+abstract class ThreadingLoadBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 1_000);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 20_000);
+    private static final long DB_LATENCY_MS = Long.getLong("benchmark.db.latency.ms", 2);
+    private static final long FIRST_ACCOUNT_NUMBER = 1_000_000_001L;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor;
+
+    abstract String mode();
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE TABLE accounts");
+        jdbcTemplate.execute("TRUNCATE TABLE customer");
+    }
+
+    @Test
+    void burstLoad() throws Exception {
+        jdbcTemplate.update("INSERT INTO customer (customer_id, name, email, mobile_number, created_at, created_by) " +
+                "SELECT X, 'Customer ' || X, 'customer' || X || '@example.com', CAST(9000000000 + X AS VARCHAR), CURRENT_DATE, 'BENCHMARK' " +
+                "FROM SYSTEM_RANGE(1, ?)", ROWS);
+        jdbcTemplate.update("INSERT INTO accounts (customer_id, account_number, account_type, branch_address, created_at, created_by) " +
+                "SELECT X, ? + X - 1, 'Savings', '123 Main Street, New York', CURRENT_DATE, 'BENCHMARK' " +
+                "FROM SYSTEM_RANGE(1, ?)", FIRST_ACCOUNT_NUMBER, ROWS);
+
+        //asynchronous client on two threads: a thousand blocked client threads in the same JVM would compete with the server for the CPU
+        ExecutorService clientThreads = Executors.newFixedThreadPool(2);
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clientThreads)
+                .connectTimeout(Duration.ofSeconds(10)).build();
+        try {
+            run(httpClient, REQUESTS / 5); //warm up
+            long start = System.nanoTime();
+            long[] latencies = run(httpClient, REQUESTS);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(latencies);
+            VirtualThreadPinningMonitor monitor = pinningMonitor.getIfAvailable();
+            System.out.printf("%s threads, %d clients, %d ms per statement: %,.0f requests/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms, pinned %s%n",
+                    mode(), CLIENTS, DB_LATENCY_MS, REQUESTS / seconds,
+                    latencies[latencies.length / 2] / 1e6, latencies[(int) (latencies.length * 0.99)] / 1e6,
+                    latencies[latencies.length - 1] / 1e6, monitor == null ? "n/a" : Long.toString(monitor.pinnedCount()));
+        } finally {
+            clientThreads.shutdownNow();
+        }
+    }
+
+    //keeps CLIENTS requests in flight until requests have completed
+    private long[] run(HttpClient httpClient, int requests) throws InterruptedException {
+        long[] latencies = new long[requests];
+        Semaphore inFlight = new Semaphore(CLIENTS);
+        CountDownLatch completed = new CountDownLatch(requests);
+        AtomicInteger failures = new AtomicInteger();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            long depth = ThreadLocalRandom.current().nextLong(ROWS - 20);
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/list?pageToken="
+                    + PageTokens.encode(FIRST_ACCOUNT_NUMBER + depth))).build();
+            int index = i;
+            long start = System.nanoTime();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                latencies[index] = System.nanoTime() - start;
+                if (error != null || response.statusCode() != 200) {
+                    failures.incrementAndGet();
+                }
+                inFlight.release();
+                completed.countDown();
+            });
+        }
+        completed.await();
+        assertEquals(0, failures.get());
+        return latencies;
+    }
+
+    @TestConfiguration
+    static class DatabaseLatency {
+
+        @Bean
+        static BeanPostProcessor slowDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? delay(dataSource, DataSource.class) : bean;
+                }
+            };
+        }
+
+        //wraps DataSource -> Connection -> Statement and sleeps before every execute* call
+        @SuppressWarnings("unchecked")
+        private static <T> T delay(T target, Class<T> type) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                if (method.getName().startsWith("execute") && target instanceof Statement) {
+                    Thread.sleep(DB_LATENCY_MS);
+                }
+                Object result = invoke(target, method, args);
+                if (result instanceof Connection connection && method.getName().equals("getConnection")) {
+                    return delay(connection, Connection.class);
+                }
+                if (result instanceof Statement && method.getName().startsWith("prepare")) {
+                    return delay(result, (Class<Object>) method.getReturnType());
+                }
+                return result;
+            });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException exception) {
+                throw exception.getCause();
+            }
+        }
+    }
+}
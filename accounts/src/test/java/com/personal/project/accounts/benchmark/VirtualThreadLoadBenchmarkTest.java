@@ -0,0 +1,21 @@
+package com.personal.project.accounts.benchmark;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@EnabledForJreRange(min = JRE.JAVA_21) //spring.threads.virtual.enabled is ignored on older runtimes
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"build.version=test", "logging.level.org.hibernate.SQL=off", "spring.jpa.show-sql=false",
+                "spring.threads.virtual.enabled=true"})
+@Import(ThreadingLoadBenchmark.DatabaseLatency.class)
+class VirtualThreadLoadBenchmarkTest extends ThreadingLoadBenchmark {
+
+    @Override
+    String mode() {
+        return "virtual";
+    }
+}
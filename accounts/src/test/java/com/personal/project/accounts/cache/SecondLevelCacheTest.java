@@ -0,0 +1,135 @@
+package com.personal.project.accounts.cache;
+
+import com.personal.project.accounts.dto.AccountsDto;
+import com.personal.project.accounts.dto.CustomerDto;
+import com.personal.project.accounts.entity.Accounts;
+import com.personal.project.accounts.entity.Customer;
+import com.personal.project.accounts.repository.AccountsRepository;
+import com.personal.project.accounts.repository.CustomerRepository;
+import com.personal.project.accounts.service.IAccountService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"build.version=test", "second-level-cache.enabled=true"})
+class SecondLevelCacheTest {
+
+    private static final int READS = 20;
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountsRepository accountsRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        accountsRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void repeatedReadsAreServedFromTheCache() {
+        accountService.createAccount(customer(7_400_000_000L));
+        statistics.clear();
+
+        //every repository call outside a transaction gets its own session, so only the second level cache can save the round trip
+        Customer customer = null;
+        for (int i = 0; i < READS; i++) {
+            customer = customerRepository.findByMobileNumber("7400000000").orElseThrow();
+        }
+        Accounts account = null;
+        for (int i = 0; i < READS; i++) {
+            account = accountsRepository.findByCustomerId(customer.getCustomerId()).orElseThrow();
+        }
+        for (int i = 0; i < READS; i++) {
+            customerRepository.findById(customer.getCustomerId()).orElseThrow();
+            accountsRepository.findById(account.getAccountNumber()).orElseThrow();
+        }
+
+        //one execution per query, the entities were put into their regions by the insert
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(2 * (READS - 1), statistics.getQueryCacheHitCount());
+        assertEquals(0, statistics.getSecondLevelCacheMissCount());
+        double hitRatio = (double) statistics.getQueryCacheHitCount() / (statistics.getQueryCacheHitCount() + statistics.getQueryCacheMissCount());
+        assertTrue(hitRatio >= 0.9, "query cache hit ratio " + hitRatio);
+    }
+
+    @Test
+    void updateIsVisibleToTheNextRead() {
+        accountService.createAccount(customer(7_400_000_001L));
+        Customer cachedCustomer = customerRepository.findByMobileNumber("7400000001").orElseThrow();
+        Accounts cachedAccount = accountsRepository.findByCustomerId(cachedCustomer.getCustomerId()).orElseThrow();
+
+        CustomerDto update = customer(7_400_000_002L);
+        update.setName("Renamed Customer");
+        AccountsDto accountsDto = new AccountsDto();
+        accountsDto.setAccountNumber(cachedAccount.getAccountNumber());
+        accountsDto.setAccountType("Current");
+        accountsDto.setBranchAddress(cachedAccount.getBranchAddress());
+        update.setAccountsDto(accountsDto);
+        accountService.updateAccount(update);
+
+        assertTrue(customerRepository.findByMobileNumber("7400000001").isEmpty());
+        assertEquals("Renamed Customer", customerRepository.findByMobileNumber("7400000002").orElseThrow().getName());
+        assertEquals("Renamed Customer", customerRepository.findById(cachedCustomer.getCustomerId()).orElseThrow().getName());
+        assertEquals("Current", accountsRepository.findById(cachedAccount.getAccountNumber()).orElseThrow().getAccountType());
+        assertEquals("Current", accountsRepository.findByCustomerId(cachedCustomer.getCustomerId()).orElseThrow().getAccountType());
+    }
+
+    @Test
+    void deleteRemovesCachedEntities() {
+        accountService.createAccount(customer(7_400_000_003L));
+        Customer cachedCustomer = customerRepository.findByMobileNumber("7400000003").orElseThrow();
+        Accounts cachedAccount = accountsRepository.findByCustomerId(cachedCustomer.getCustomerId()).orElseThrow();
+
+        accountService.deleteAccount("7400000003");
+
+        assertTrue(customerRepository.findByMobileNumber("7400000003").isEmpty());
+        assertTrue(customerRepository.findById(cachedCustomer.getCustomerId()).isEmpty());
+        assertTrue(accountsRepository.findById(cachedAccount.getAccountNumber()).isEmpty());
+        assertTrue(accountsRepository.findByCustomerId(cachedCustomer.getCustomerId()).isEmpty());
+    }
+
+    @Test
+    void bulkDeleteInvalidatesTheRegions() {
+        accountService.createAccount(customer(7_400_000_004L));
+        Customer cachedCustomer = customerRepository.findByMobileNumber("7400000004").orElseThrow();
+
+        //a JPQL delete bypasses the entities, Hibernate has to drop the whole region and the cached query results
+        accountsRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+
+        assertTrue(customerRepository.findById(cachedCustomer.getCustomerId()).isEmpty());
+        assertTrue(customerRepository.findByMobileNumber("7400000004").isEmpty());
+    }
+
+    private static CustomerDto customer(long mobileNumber) {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName("Customer " + mobileNumber);
+        customerDto.setEmail(mobileNumber + "@example.com");
+        customerDto.setMobileNumber(Long.toString(mobileNumber));
+        return customerDto;
+    }
+}
@@ -0,0 +1,49 @@
+package com.personal.project.accounts.exception;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultBootstrapContext;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BusinessExceptionTest {
+
+    @AfterEach
+    void restoreDefault() {
+        BusinessException.captureStackTraces(false);
+    }
+
+    @Test
+    void isThrownWithoutAStackTraceByDefault() {
+        ResourceNotFoundException exception = new ResourceNotFoundException("Customer", "mobileNumber", "7000000000");
+
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals("Customer not found with the given input data mobileNumber: '7000000000'", exception.getMessage());
+        exception.addSuppressed(new IllegalStateException());
+        assertEquals(0, exception.getSuppressed().length);
+    }
+
+    @Test
+    void fillsInTheStackTraceWhenAskedTo() {
+        BusinessException.captureStackTraces(true);
+
+        CustomerAlreadyExistException exception = new CustomerAlreadyExistException("Customer already registered");
+
+        assertTrue(exception.getStackTrace().length > 0);
+        assertEquals("fillsInTheStackTraceWhenAskedTo", exception.getStackTrace()[0].getMethodName());
+    }
+
+    @Test
+    void theStartupListenerSetsTheFlagFromTheEnvironment() {
+        MockEnvironment environment = new MockEnvironment().withProperty("business-exceptions.stack-traces", "true");
+
+        new BusinessExceptionStackTraces().onApplicationEvent(new ApplicationEnvironmentPreparedEvent(
+                new DefaultBootstrapContext(), new SpringApplication(), new String[0], environment));
+
+        assertTrue(new ResourceNotFoundException("Customer", "mobileNumber", "7000000000").getStackTrace().length > 0);
+    }
+}
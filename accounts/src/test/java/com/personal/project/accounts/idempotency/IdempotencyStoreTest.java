@@ -0,0 +1,148 @@
+package com.personal.project.accounts.idempotency;
+
+import com.personal.project.accounts.constants.AccountsConstants;
+import com.personal.project.accounts.observability.StatementCounter;
+import com.personal.project.accounts.repository.AccountsRepository;
+import com.personal.project.accounts.repository.CustomerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.personal.project.accounts.observability.StatementCountAssertions.assertStatementCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//the full test of IdempotencyStore; cards and loans carry the same class and only test how their create endpoint uses it
+@SpringBootTest(properties = "build.version=test")
+@AutoConfigureMockMvc
+class IdempotencyStoreTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountsRepository accountsRepository;
+
+    @AfterEach
+    void cleanUp() {
+        accountsRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void repeatedKeyGetsTheFirstResponseWithoutTouchingTheDatabase() throws Exception {
+        mockMvc.perform(create("7800000000", "retry-1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(AccountsConstants.IDEMPOTENT_REPLAYED_HEADER));
+
+        assertStatementCount(statementCounter, 0, () -> mockMvc.perform(create("7800000000", "retry-1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(AccountsConstants.IDEMPOTENT_REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.statusMessage").value(AccountsConstants.MESSAGE_201)));
+
+        //without the key the retry runs again and finds the customer it created the first time
+        mockMvc.perform(create("7800000000", null)).andExpect(status().isBadRequest());
+        assertEquals(1, customerRepository.count());
+    }
+
+    @Test
+    void keyReusedForAnotherCustomerIsRejected() throws Exception {
+        mockMvc.perform(create("7800000001", "reused-1")).andExpect(status().isCreated());
+
+        mockMvc.perform(create("7800000002", "reused-1")).andExpect(status().isUnprocessableEntity());
+        assertTrue(customerRepository.findByMobileNumber("7800000002").isEmpty());
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForTheRequestInFlight() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        Supplier<ResponseEntity<String>> slowCreate = () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body("created");
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<ResponseEntity<String>> first = executor.submit(() -> idempotencyStore.execute("in-flight-1", "7800000003", slowCreate));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            List<Future<ResponseEntity<String>>> duplicates = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                duplicates.add(executor.submit(() -> idempotencyStore.execute("in-flight-1", "7800000003", slowCreate)));
+            }
+            Thread.sleep(100);
+            assertFalse(duplicates.stream().anyMatch(Future::isDone)); //held until the first one is answered
+            release.countDown();
+
+            assertEquals("created", first.get(10, TimeUnit.SECONDS).getBody());
+            for (Future<ResponseEntity<String>> duplicate : duplicates) {
+                ResponseEntity<String> response = duplicate.get(10, TimeUnit.SECONDS);
+                assertEquals(HttpStatus.CREATED, response.getStatusCode());
+                assertEquals("created", response.getBody());
+                assertEquals("true", response.getHeaders().getFirst(AccountsConstants.IDEMPOTENT_REPLAYED_HEADER));
+            }
+            assertEquals(1, runs.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedRequestFreesItsKeyForTheRetry() {
+        assertThrows(IllegalStateException.class, () -> idempotencyStore.execute("failed-1", "7800000004", () -> {
+            throw new IllegalStateException("database unavailable");
+        }));
+
+        ResponseEntity<String> retry = idempotencyStore.execute("failed-1", "7800000004",
+                () -> ResponseEntity.status(HttpStatus.CREATED).body("created"));
+        assertEquals("created", retry.getBody());
+        assertNull(retry.getHeaders().getFirst(AccountsConstants.IDEMPOTENT_REPLAYED_HEADER));
+    }
+
+    private static RequestBuilder create(String mobileNumber, String idempotencyKey) {
+        MockHttpServletRequestBuilder request = post("/api/v1/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Customer " + mobileNumber + "\",\"email\":\"c" + mobileNumber + "@example.com\",\"mobileNumber\":\"" + mobileNumber + "\"}");
+        return idempotencyKey == null ? request : request.header(AccountsConstants.IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+    }
+}
@@ -0,0 +1,131 @@
+package com.personal.project.accounts.info;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personal.project.accounts.dto.AccountsContactInfoDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//the full test of StaticInfoResponses; the cards and loans copies are only tested for their own endpoints and keys
+@SpringBootTest(properties = "build.version=test")
+@AutoConfigureMockMvc
+class StaticInfoResponsesTest {
+
+    private static final String REFRESHED = "refreshed";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StaticInfoResponses staticInfoResponses;
+
+    @Autowired
+    private AccountsContactInfoDto accountsContactInfoDto;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ConfigurableEnvironment environment;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @AfterEach
+    void restoreEnvironment() {
+        if (environment.getPropertySources().remove(REFRESHED) != null) {
+            applicationEventPublisher.publishEvent(new EnvironmentChangeEvent(Set.of("build.version", "accounts.message", "accounts.env")));
+        }
+    }
+
+    @Test
+    void answersWithTheSameBytesAsBeforeAndAnETag() throws Exception {
+        MvcResult buildVersion = mockMvc.perform(get("/api/v1/build-version"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(content().string("test"))
+                .andReturn();
+        MvcResult serviceInfo = mockMvc.perform(get("/api/v1/accounts-service-info"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/json"))
+                .andReturn();
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(accountsContactInfoDto), serviceInfo.getResponse().getContentAsByteArray());
+        assertNotEquals(buildVersion.getResponse().getHeader(HttpHeaders.ETAG), serviceInfo.getResponse().getHeader(HttpHeaders.ETAG));
+        //serialized once, every call gets the same response
+        assertSame(staticInfoResponses.serviceInfo(), staticInfoResponses.serviceInfo());
+    }
+
+    @Test
+    void aMatchingIfNoneMatchGetsNotModified() throws Exception {
+        String eTag = staticInfoResponses.serviceInfo().getHeaders().getETag();
+
+        mockMvc.perform(get("/api/v1/accounts-service-info").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().bytes(new byte[0]));
+        mockMvc.perform(get("/api/v1/accounts-service-info").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void aRefreshOfTheBoundPropertiesRendersTheResponsesAgain() throws Exception {
+        ResponseEntity<byte[]> serviceInfoBefore = staticInfoResponses.serviceInfo();
+        ResponseEntity<byte[]> buildVersionBefore = staticInfoResponses.buildVersion();
+        environment.getPropertySources().addFirst(new MapPropertySource(REFRESHED, Map.of(
+                "build.version", "2.0",
+                "accounts.message", "Welcome to the refreshed accounts service",
+                "accounts.env", "prod")));
+
+        applicationEventPublisher.publishEvent(new EnvironmentChangeEvent(Set.of("build.version", "accounts.message", "accounts.env")));
+
+        assertNotEquals(serviceInfoBefore.getHeaders().getETag(), staticInfoResponses.serviceInfo().getHeaders().getETag());
+        mockMvc.perform(get("/api/v1/accounts-service-info").header(HttpHeaders.IF_NONE_MATCH, serviceInfoBefore.getHeaders().getETag()))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(objectMapper.writeValueAsBytes(new AccountsContactInfoDto(
+                        "Welcome to the refreshed accounts service", accountsContactInfoDto.contactDetails(), "prod",
+                        accountsContactInfoDto.onCallSupport()))));
+        mockMvc.perform(get("/api/v1/build-version"))
+                .andExpect(content().string("2.0"))
+                .andExpect(header().string(HttpHeaders.ETAG, staticInfoResponses.buildVersion().getHeaders().getETag()));
+        assertNotEquals(buildVersionBefore.getHeaders().getETag(), staticInfoResponses.buildVersion().getHeaders().getETag());
+    }
+
+    @Test
+    void aRefreshOfOtherPropertiesKeepsTheResponses() {
+        ResponseEntity<byte[]> buildVersion = staticInfoResponses.buildVersion();
+        ResponseEntity<byte[]> javaVersion = staticInfoResponses.javaVersion();
+        ResponseEntity<byte[]> serviceInfo = staticInfoResponses.serviceInfo();
+
+        applicationEventPublisher.publishEvent(new EnvironmentChangeEvent(Set.of("logging.level.root", "cards.message")));
+        //listed but unchanged: rendered again, the same bytes keep the same response
+        applicationEventPublisher.publishEvent(new EnvironmentChangeEvent(Set.of("build.version")));
+
+        assertSame(buildVersion, staticInfoResponses.buildVersion());
+        assertSame(javaVersion, staticInfoResponses.javaVersion());
+        assertSame(serviceInfo, staticInfoResponses.serviceInfo());
+        assertEquals("test", new String(staticInfoResponses.buildVersion().getBody()));
+    }
+}
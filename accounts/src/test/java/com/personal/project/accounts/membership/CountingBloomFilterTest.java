@@ -0,0 +1,55 @@
+package com.personal.project.accounts.membership;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//cards and loans carry a copy of CountingBloomFilter, this is the one unit test of it; their filter wiring is covered by
+//the fetch and statement count tests of each service
+class CountingBloomFilterTest {
+
+    private static final int ENTRIES = 100_000;
+
+    @Test
+    void neverReportsAnAddedValueAsMissing() {
+        CountingBloomFilter bloomFilter = new CountingBloomFilter(ENTRIES, 0.01);
+        for (long mobileNumber = 7_000_000_000L; mobileNumber < 7_000_000_000L + ENTRIES; mobileNumber++) {
+            bloomFilter.add(Long.toString(mobileNumber));
+        }
+
+        for (long mobileNumber = 7_000_000_000L; mobileNumber < 7_000_000_000L + ENTRIES; mobileNumber++) {
+            assertTrue(bloomFilter.mightContain(Long.toString(mobileNumber)));
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearConfiguredProbability() {
+        CountingBloomFilter bloomFilter = new CountingBloomFilter(ENTRIES, 0.01);
+        for (long mobileNumber = 7_000_000_000L; mobileNumber < 7_000_000_000L + ENTRIES; mobileNumber++) {
+            bloomFilter.add(Long.toString(mobileNumber));
+        }
+
+        int falsePositives = 0;
+        for (long mobileNumber = 8_000_000_000L; mobileNumber < 8_000_000_000L + ENTRIES; mobileNumber++) {
+            if (bloomFilter.mightContain(Long.toString(mobileNumber))) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < ENTRIES * 0.02, "false positives: " + falsePositives);
+        assertTrue(bloomFilter.expectedFalsePositiveProbability() < 0.02);
+    }
+
+    @Test
+    void removedValueIsMissingAgainWhileOthersStay() {
+        CountingBloomFilter bloomFilter = new CountingBloomFilter(1_000, 0.01);
+        bloomFilter.add("7180000000");
+        bloomFilter.add("7180000001");
+
+        bloomFilter.remove("7180000000");
+
+        assertFalse(bloomFilter.mightContain("7180000000"));
+        assertTrue(bloomFilter.mightContain("7180000001"));
+    }
+}
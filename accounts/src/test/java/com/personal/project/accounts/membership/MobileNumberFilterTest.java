@@ -0,0 +1,65 @@
+package com.personal.project.accounts.membership;
+
+import com.personal.project.accounts.dto.CustomerDto;
+import com.personal.project.accounts.entity.Accounts;
+import com.personal.project.accounts.entity.Customer;
+import com.personal.project.accounts.repository.AccountsRepository;
+import com.personal.project.accounts.repository.CustomerRepository;
+import com.personal.project.accounts.service.IAccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = "build.version=test")
+class MobileNumberFilterTest {
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountsRepository accountsRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void cleanUp() {
+        accountsRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void customerCreatedThroughAnotherInstanceIsFoundWhileTheFilterIsOff() {
+        //saved straight into the table, as another instance would, so this instance's filter never hears of it
+        Customer customer = new Customer();
+        customer.setName("Other Instance");
+        customer.setEmail("other.instance@example.com");
+        customer.setMobileNumber("7000000077");
+        customer = customerRepository.save(customer);
+        Accounts account = new Accounts();
+        account.setCustomerId(customer.getCustomerId());
+        account.setAccountNumber(1_000_000_077L);
+        account.setAccountType("Savings");
+        account.setBranchAddress("123 Main Street, New York");
+        accountsRepository.save(account);
+
+        CustomerDto customerDto = accountService.getAccountByMobileNumber("7000000077");
+
+        assertEquals("Other Instance", customerDto.getName());
+    }
+
+    @Test
+    void noFilterMetersAreRegisteredWhileTheFilterIsOff() {
+        assertNull(meterRegistry.find("mobile.filter.checks").counter());
+        assertNull(meterRegistry.find("mobile.filter.memory").gauge());
+        assertNull(meterRegistry.find("mobile.filter.expected.fpp").gauge());
+    }
+}
@@ -0,0 +1,110 @@
+package com.personal.project.accounts.observability;
+
+import com.personal.project.accounts.repository.AccountsRepository;
+import com.personal.project.accounts.repository.CustomerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"build.version=test", "slow-query-log.threshold=0ms", "slow-query-log.sample-rate=1"})
+@AutoConfigureMockMvc
+@ExtendWith(OutputCaptureExtension.class)
+class RequestMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountsRepository accountsRepository;
+
+    @AfterEach
+    void cleanUp() {
+        accountsRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void endpointTimersAreTaggedWithTheOutcomeGlobalExceptionHandlerMapped() throws Exception {
+        double createdBefore = count("/api/v1/create", "SUCCESS");
+        double alreadyExistsBefore = count("/api/v1/create", RequestOutcome.ALREADY_EXISTS);
+        double invalidBodyBefore = count("/api/v1/create", RequestOutcome.VALIDATION_ERROR);
+        double foundBefore = count("/api/v1/fetch", "SUCCESS");
+        double notFoundBefore = count("/api/v1/fetch", RequestOutcome.NOT_FOUND);
+        double invalidParameterBefore = count("/api/v1/fetch", RequestOutcome.VALIDATION_ERROR);
+
+        mockMvc.perform(create("7500000000")).andExpect(status().isCreated());
+        mockMvc.perform(create("7500000000")).andExpect(status().isBadRequest());
+        mockMvc.perform(create("75")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/fetch").param("mobileNumber", "7500000000")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/fetch").param("mobileNumber", "7599999999")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/fetch").param("mobileNumber", "75")).andExpect(status().isBadRequest());
+
+        assertEquals(createdBefore + 1, count("/api/v1/create", "SUCCESS"));
+        assertEquals(alreadyExistsBefore + 1, count("/api/v1/create", RequestOutcome.ALREADY_EXISTS));
+        assertEquals(invalidBodyBefore + 1, count("/api/v1/create", RequestOutcome.VALIDATION_ERROR));
+        assertEquals(foundBefore + 1, count("/api/v1/fetch", "SUCCESS"));
+        assertEquals(notFoundBefore + 1, count("/api/v1/fetch", RequestOutcome.NOT_FOUND));
+        assertEquals(invalidParameterBefore + 1, count("/api/v1/fetch", RequestOutcome.VALIDATION_ERROR));
+        Timer fetchTimer = meterRegistry.get("http.server.requests").tag("uri", "/api/v1/fetch").tag("outcome", "SUCCESS").timer();
+        assertEquals(3, fetchTimer.takeSnapshot().percentileValues().length); //p50, p95, p99 from application.yml
+    }
+
+    @Test
+    void repositoryMethodsAreTimed() throws Exception {
+        mockMvc.perform(create("7500000001")).andExpect(status().isCreated());
+        mockMvc.perform(get("/api/v1/fetch").param("mobileNumber", "7500000001")).andExpect(status().isOk());
+
+        Timer findTimer = meterRegistry.get("spring.data.repository.invocations")
+                .tag("repository", "CustomerRepository")
+                .tag("method", "findCustomerAccountsByMobileNumber")
+                .timer();
+        assertTrue(findTimer.count() >= 1);
+        assertEquals(3, findTimer.takeSnapshot().percentileValues().length);
+    }
+
+    @Test
+    void slowStatementsAreLoggedWithoutTheirParameters(CapturedOutput output) throws Exception {
+        double slowBefore = meterRegistry.get("db.statements.slow").counter().count();
+
+        mockMvc.perform(create("7500000002")).andExpect(status().isCreated());
+
+        assertTrue(meterRegistry.get("db.statements.slow").counter().count() > slowBefore);
+        assertTrue(output.getOut().contains("Slow statement"));
+        assertTrue(output.getOut().contains("insert into customer"));
+        assertFalse(output.getOut().contains("7500000002"));
+    }
+
+    private double count(String uri, String outcome) {
+        Timer timer = meterRegistry.find("http.server.requests").tag("uri", uri).tag("outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private static RequestBuilder create(String mobileNumber) {
+        return post("/api/v1/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Customer " + mobileNumber + "\",\"email\":\"c" + mobileNumber + "@example.com\",\"mobileNumber\":\"" + mobileNumber + "\"}");
+    }
+}
@@ -0,0 +1,82 @@
+package com.personal.project.accounts.service.impl;
+
+import com.personal.project.accounts.constants.AccountsConstants;
+import com.personal.project.accounts.dto.BulkAccountResponseDto;
+import com.personal.project.accounts.dto.CustomerDto;
+import com.personal.project.accounts.repository.AccountsRepository;
+import com.personal.project.accounts.repository.CustomerRepository;
+import com.personal.project.accounts.service.IAccountService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = "build.version=test")
+class AccountServiceImplBulkCreateTest {
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountsRepository accountsRepository;
+
+    @AfterEach
+    void cleanUp() {
+        accountsRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void createsEveryCustomerAcrossChunks() {
+        int count = AccountsConstants.BULK_CHUNK_SIZE * 2 + 7;
+        List<CustomerDto> customerDtos = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            customerDtos.add(customer(5_000_000_000L + i));
+        }
+
+        BulkAccountResponseDto response = accountService.createAccounts(customerDtos);
+
+        assertEquals(count, response.getTotalCreated());
+        assertEquals(0, response.getTotalFailed());
+        assertEquals(count, customerRepository.count());
+        assertEquals(count, accountsRepository.count());
+        response.getResults().forEach(result -> assertNotNull(result.getAccountNumber()));
+    }
+
+    @Test
+    void reportsExistingAndRepeatedMobileNumbersPerItem() {
+        accountService.createAccount(customer(6_000_000_000L));
+
+        BulkAccountResponseDto response = accountService.createAccounts(List.of(
+                customer(6_000_000_000L),
+                customer(6_000_000_001L),
+                customer(6_000_000_001L)));
+
+        assertEquals(3, response.getTotalRequested());
+        assertEquals(1, response.getTotalCreated());
+        assertEquals(2, response.getTotalFailed());
+        assertEquals(AccountsConstants.MESSAGE_400_ALREADY_EXISTS, response.getResults().get(0).getStatusMessage());
+        assertNull(response.getResults().get(0).getAccountNumber());
+        assertEquals(AccountsConstants.STATUS_201, response.getResults().get(1).getStatusCode());
+        assertEquals(AccountsConstants.MESSAGE_400_DUPLICATE_IN_REQUEST, response.getResults().get(2).getStatusMessage());
+        assertEquals(2, customerRepository.count());
+    }
+
+    static CustomerDto customer(long mobileNumber) {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName("Customer " + mobileNumber);
+        customerDto.setEmail(mobileNumber + "@example.com");
+        customerDto.setMobileNumber(Long.toString(mobileNumber));
+        return customerDto;
+    }
+}
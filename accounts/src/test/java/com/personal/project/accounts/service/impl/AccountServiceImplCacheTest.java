@@ -0,0 +1,89 @@
+package com.personal.project.accounts.service.impl;
+
+import com.personal.project.accounts.constants.AccountsConstants;
+import com.personal.project.accounts.dto.CustomerDto;
+import com.personal.project.accounts.exception.ResourceNotFoundException;
+import com.personal.project.accounts.repository.AccountsRepository;
+import com.personal.project.accounts.repository.CustomerRepository;
+import com.personal.project.accounts.service.IAccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import static com.personal.project.accounts.service.impl.AccountServiceImplBulkCreateTest.customer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "build.version=test")
+class AccountServiceImplCacheTest {
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountsRepository accountsRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void cleanUp() {
+        accountsRepository.deleteAll();
+        customerRepository.deleteAll();
+        cacheManager.getCache(AccountsConstants.ACCOUNTS_CACHE).clear();
+    }
+
+    @Test
+    void repeatedFetchIsServedFromCacheAndCounted() {
+        accountService.createAccount(customer(7_100_000_000L));
+        double hitsBefore = hits();
+
+        CustomerDto first = accountService.getAccountByMobileNumber("7100000000");
+        CustomerDto second = accountService.getAccountByMobileNumber("7100000000");
+
+        assertSame(first, second);
+        assertEquals(hitsBefore + 1, hits());
+    }
+
+    @Test
+    void updateEvictsOldAndNewMobileNumber() {
+        accountService.createAccount(customer(7_100_000_001L));
+        CustomerDto cached = accountService.getAccountByMobileNumber("7100000001");
+
+        CustomerDto update = customer(7_100_000_002L);
+        update.setName("Renamed Customer");
+        update.setAccountsDto(cached.getAccountsDto());
+        accountService.updateAccount(update);
+
+        assertThrows(ResourceNotFoundException.class, () -> accountService.getAccountByMobileNumber("7100000001"));
+        assertEquals("Renamed Customer", accountService.getAccountByMobileNumber("7100000002").getName());
+    }
+
+    @Test
+    void deleteEvictsEntry() {
+        accountService.createAccount(customer(7_100_000_003L));
+        accountService.getAccountByMobileNumber("7100000003");
+
+        accountService.deleteAccount("7100000003");
+
+        assertThrows(ResourceNotFoundException.class, () -> accountService.getAccountByMobileNumber("7100000003"));
+    }
+
+    private double hits() {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", AccountsConstants.ACCOUNTS_CACHE)
+                .tag("result", "hit")
+                .functionCounter()
+                .count();
+    }
+}
@@ -0,0 +1,100 @@
+package com.personal.project.accounts.service.impl;
+
+import com.personal.project.accounts.constants.AccountsConstants;
+import com.personal.project.accounts.dto.CustomerDto;
+import com.personal.project.accounts.repository.AccountsRepository;
+import com.personal.project.accounts.repository.CustomerRepository;
+import com.personal.project.accounts.service.IAccountService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.personal.project.accounts.service.impl.AccountServiceImplBulkCreateTest.customer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.AdditionalAnswers.answersWithDelay;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+//the accounts cache (sync = true) is the coalescing layer of this fetch path: concurrent misses for a number wait for one load
+@SpringBootTest(properties = "build.version=test")
+class AccountServiceImplCoalescingTest {
+
+    private static final int THREADS = 64;
+    private static final int FETCHES_PER_THREAD = 20;
+    private static final List<Long> HOT_MOBILE_NUMBERS = List.of(7_110_000_000L, 7_110_000_001L, 7_110_000_002L, 7_110_000_003L);
+
+    @Autowired
+    private IAccountService accountService;
+
+    @MockitoSpyBean
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountsRepository accountsRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void cleanUp() {
+        accountsRepository.deleteAll();
+        customerRepository.deleteAll();
+        cacheManager.getCache(AccountsConstants.ACCOUNTS_CACHE).clear();
+    }
+
+    @Test
+    void concurrentFetchesOfAFewHotNumbersRunOneQueryPerNumber() throws Exception {
+        HOT_MOBILE_NUMBERS.forEach(mobileNumber -> accountService.createAccount(customer(mobileNumber)));
+        //a slow query keeps every load in flight long enough for the other threads to pile up behind it;
+        //the default answer of a spied repository delegates to the real one
+        Answer<?> query = mockingDetails(customerRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(answersWithDelay(20, query)).when(customerRepository).findCustomerAccountsByMobileNumber(anyString());
+        long queriesBefore = queries();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < FETCHES_PER_THREAD; i++) {
+                        String mobileNumber = Long.toString(HOT_MOBILE_NUMBERS.get((thread + i) % HOT_MOBILE_NUMBERS.size()));
+                        CustomerDto customerDto = accountService.getAccountByMobileNumber(mobileNumber);
+                        assertEquals(mobileNumber, customerDto.getMobileNumber());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        //1280 fetches, every miss waited for the one load of its number and every later fetch was a cache hit
+        assertEquals(HOT_MOBILE_NUMBERS.size(), queries() - queriesBefore);
+    }
+
+    private long queries() {
+        return mockingDetails(customerRepository).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("findCustomerAccountsByMobileNumber"))
+                .count();
+    }
+}
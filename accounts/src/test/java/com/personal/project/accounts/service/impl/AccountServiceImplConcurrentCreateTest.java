@@ -0,0 +1,76 @@
+package com.personal.project.accounts.service.impl;
+
+import com.personal.project.accounts.exception.CustomerAlreadyExistException;
+import com.personal.project.accounts.repository.AccountsRepository;
+import com.personal.project.accounts.repository.CustomerRepository;
+import com.personal.project.accounts.service.IAccountService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.personal.project.accounts.service.impl.AccountServiceImplBulkCreateTest.customer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "build.version=test")
+class AccountServiceImplConcurrentCreateTest {
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountsRepository accountsRepository;
+
+    @AfterEach
+    void cleanUp() {
+        accountsRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentCreatesForSameMobileNumberLetExactlyOneThrough() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                long mobileNumber = 7_200_000_000L + round;
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> futures = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        try {
+                            accountService.createAccount(customer(mobileNumber));
+                            return true;
+                        } catch (CustomerAlreadyExistException exception) {
+                            return false;
+                        }
+                    }));
+                }
+                start.countDown();
+                int created = 0;
+                for (Future<Boolean> future : futures) {
+                    created += future.get() ? 1 : 0;
+                }
+                assertEquals(1, created, "creates that succeeded for " + mobileNumber);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(ROUNDS, customerRepository.count());
+        assertEquals(ROUNDS, accountsRepository.count());
+    }
+}
@@ -0,0 +1,78 @@
+package com.personal.project.accounts.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personal.project.accounts.dto.CustomerDto;
+import com.personal.project.accounts.repository.AccountsRepository;
+import com.personal.project.accounts.repository.CustomerRepository;
+import com.personal.project.accounts.service.IAccountService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.personal.project.accounts.service.impl.AccountServiceImplBulkCreateTest.customer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "build.version=test")
+class AccountServiceImplExportTest {
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountsRepository accountsRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void cleanUp() {
+        accountsRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void writesOneJsonDocumentPerCustomer() throws Exception {
+        int count = 2_503; //not a multiple of the fetch size or the flush interval
+        List<CustomerDto> customerDtos = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            customerDtos.add(customer(7_100_000_000L + i));
+        }
+        accountService.createAccounts(customerDtos);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        accountService.exportAccounts(outputStream);
+
+        String ndjson = outputStream.toString(StandardCharsets.UTF_8);
+        assertTrue(ndjson.endsWith("\n"));
+        String[] lines = ndjson.split("\n");
+        assertEquals(count, lines.length);
+        Set<String> mobileNumbers = new HashSet<>();
+        for (String line : lines) {
+            CustomerDto customerDto = objectMapper.readValue(line, CustomerDto.class);
+            assertNotNull(customerDto.getAccountsDto().getAccountNumber());
+            mobileNumbers.add(customerDto.getMobileNumber());
+        }
+        assertEquals(count, mobileNumbers.size());
+    }
+
+    @Test
+    void writesNothingWhenThereAreNoCustomers() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        accountService.exportAccounts(outputStream);
+
+        assertEquals(0, outputStream.size());
+    }
+}
@@ -0,0 +1,85 @@
+package com.personal.project.accounts.service.impl;
+
+import com.personal.project.accounts.dto.CustomerDto;
+import com.personal.project.accounts.entity.Customer;
+import com.personal.project.accounts.exception.ResourceNotFoundException;
+import com.personal.project.accounts.membership.MobileNumberFilter;
+import com.personal.project.accounts.repository.AccountsRepository;
+import com.personal.project.accounts.repository.CustomerRepository;
+import com.personal.project.accounts.service.IAccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static com.personal.project.accounts.service.impl.AccountServiceImplBulkCreateTest.customer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"build.version=test", "mobile-filter.enabled=true"})
+class AccountServiceImplFetchTest {
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountsRepository accountsRepository;
+
+    @Autowired
+    private MobileNumberFilter mobileNumberFilter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void cleanUp() {
+        accountsRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void returnsCustomerWithNestedAccount() {
+        accountService.createAccount(customer(7_000_000_000L));
+
+        CustomerDto customerDto = accountService.getAccountByMobileNumber("7000000000");
+
+        assertEquals("Customer 7000000000", customerDto.getName());
+        assertEquals("7000000000@example.com", customerDto.getEmail());
+        assertNotNull(customerDto.getAccountsDto().getAccountNumber());
+        assertEquals("Savings", customerDto.getAccountsDto().getAccountType());
+    }
+
+    @Test
+    void reportsWhichSideOfTheJoinIsMissing() {
+        Customer withoutAccount = new Customer();
+        withoutAccount.setName("No Account");
+        withoutAccount.setEmail("no.account@example.com");
+        withoutAccount.setMobileNumber("7000000001");
+        customerRepository.save(withoutAccount);
+        mobileNumberFilter.add("7000000001"); //saved around the service, so tell the filter like the service would
+
+        ResourceNotFoundException customerMissing = assertThrows(ResourceNotFoundException.class,
+                () -> accountService.getAccountByMobileNumber("7000000002"));
+        ResourceNotFoundException accountMissing = assertThrows(ResourceNotFoundException.class,
+                () -> accountService.getAccountByMobileNumber("7000000001"));
+
+        assertTrue(customerMissing.getMessage().startsWith("Customer not found"));
+        assertTrue(accountMissing.getMessage().startsWith("Account not found"));
+    }
+
+    @Test
+    void unknownMobileNumberIsRejectedByTheFilter() {
+        double definiteMissesBefore = meterRegistry.counter("mobile.filter.checks", "result", "definite_miss").count();
+
+        assertThrows(ResourceNotFoundException.class, () -> accountService.getAccountByMobileNumber("7000000099"));
+
+        assertEquals(definiteMissesBefore + 1, meterRegistry.counter("mobile.filter.checks", "result", "definite_miss").count());
+        assertTrue(meterRegistry.get("mobile.filter.memory").gauge().value() > 0);
+    }
+}
@@ -0,0 +1,98 @@
+package com.personal.project.accounts.service.impl;
+
+import com.personal.project.accounts.dto.CustomerDto;
+import com.personal.project.accounts.dto.PageResponseDto;
+import com.personal.project.accounts.exception.InvalidPageTokenException;
+import com.personal.project.accounts.pagination.PageTokens;
+import com.personal.project.accounts.repository.AccountsRepository;
+import com.personal.project.accounts.repository.CustomerRepository;
+import com.personal.project.accounts.service.IAccountService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.personal.project.accounts.service.impl.AccountServiceImplBulkCreateTest.customer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "build.version=test")
+class AccountServiceImplListTest {
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountsRepository accountsRepository;
+
+    @AfterEach
+    void cleanUp() {
+        accountsRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void walksEveryAccountOnceInAccountNumberOrder() {
+        int count = 45;
+        List<CustomerDto> customerDtos = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            customerDtos.add(customer(7_300_000_000L + i));
+        }
+        accountService.createAccounts(customerDtos);
+
+        List<Long> accountNumbers = new ArrayList<>();
+        List<Integer> pageLengths = new ArrayList<>();
+        String pageToken = null;
+        do {
+            PageResponseDto<CustomerDto> page = accountService.fetchAccounts(pageToken, 20);
+            pageLengths.add(page.getContent().size());
+            page.getContent().forEach(customerDto -> accountNumbers.add(customerDto.getAccountsDto().getAccountNumber()));
+            pageToken = page.getNextPageToken();
+        } while (pageToken != null);
+
+        assertEquals(List.of(20, 20, 5), pageLengths);
+        assertEquals(count, accountNumbers.size());
+        for (int i = 1; i < accountNumbers.size(); i++) {
+            assertTrue(accountNumbers.get(i - 1) < accountNumbers.get(i));
+        }
+    }
+
+    @Test
+    void fullLastPageHasNoNextPageToken() {
+        accountService.createAccounts(List.of(customer(7_300_100_000L), customer(7_300_100_001L)));
+
+        PageResponseDto<CustomerDto> page = accountService.fetchAccounts(null, 2);
+
+        assertEquals(2, page.getContent().size());
+        assertNull(page.getNextPageToken());
+    }
+
+    @Test
+    void continuesAfterDeletedRows() {
+        accountService.createAccounts(List.of(customer(7_300_200_000L), customer(7_300_200_001L), customer(7_300_200_002L)));
+        PageResponseDto<CustomerDto> firstPage = accountService.fetchAccounts(null, 1);
+        assertNotNull(firstPage.getNextPageToken());
+
+        //the token holds a key, not a position, so removing a row that was already returned does not skip one that was not
+        accountService.deleteAccount(firstPage.getContent().get(0).getMobileNumber());
+        PageResponseDto<CustomerDto> secondPage = accountService.fetchAccounts(firstPage.getNextPageToken(), 1);
+
+        assertEquals("7300200001", secondPage.getContent().get(0).getMobileNumber());
+    }
+
+    @Test
+    void rejectsTokensItDidNotIssue() {
+        assertThrows(InvalidPageTokenException.class, () -> accountService.fetchAccounts("not-a-token", 20));
+        assertThrows(InvalidPageTokenException.class, () -> accountService.fetchAccounts("Y2FyZElkOjIw", 20)); //a cards token
+        assertEquals(1_000_000_019L, PageTokens.decode(PageTokens.encode(1_000_000_019L)));
+    }
+}
@@ -0,0 +1,133 @@
+package com.personal.project.accounts.service.impl;
+
+import com.personal.project.accounts.constants.AccountsConstants;
+import com.personal.project.accounts.dto.CustomerDto;
+import com.personal.project.accounts.exception.StatementBudgetExceededException;
+import com.personal.project.accounts.observability.StatementCounter;
+import com.personal.project.accounts.repository.AccountsRepository;
+import com.personal.project.accounts.repository.CustomerRepository;
+import com.personal.project.accounts.service.IAccountService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.personal.project.accounts.observability.StatementCountAssertions.assertStatementCount;
+import static com.personal.project.accounts.service.impl.AccountServiceImplBulkCreateTest.customer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//own context (statement-budget properties), so the pooled customer_seq and the account number block start fresh and
+//only the warm up below ever reaches a sequence; the counts would otherwise depend on which test ran before
+@SpringBootTest(properties = {"build.version=test", "statement-budget.enforce=true", "statement-budget.max-statements=3"})
+@AutoConfigureMockMvc
+class AccountServiceImplStatementCountTest {
+
+    private static final String WARM_UP_MOBILE_NUMBER = "7699999999";
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountsRepository accountsRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void warmUp() {
+        accountService.createAccount(customer(Long.parseLong(WARM_UP_MOBILE_NUMBER)));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        accountsRepository.deleteAll();
+        customerRepository.deleteAll();
+        cacheManager.getCache(AccountsConstants.ACCOUNTS_CACHE).clear();
+    }
+
+    @Test
+    void createAccount() {
+        assertStatementCount(statementCounter, 2, () -> accountService.createAccount(customer(7_600_000_000L))); //insert customer, insert account
+    }
+
+    @Test
+    void getAccountByMobileNumber() {
+        accountService.createAccount(customer(7_600_000_001L));
+
+        assertStatementCount(statementCounter, 1, () -> accountService.getAccountByMobileNumber("7600000001")); //one join query
+        assertStatementCount(statementCounter, 0, () -> accountService.getAccountByMobileNumber("7600000001")); //accounts cache
+    }
+
+    @Test
+    void updateAccount() {
+        accountService.createAccount(customer(7_600_000_002L));
+        CustomerDto update = accountService.getAccountByMobileNumber("7600000002");
+        update.setName("Renamed Customer");
+        update.getAccountsDto().setBranchAddress("1 Other Street");
+
+        //every repository call is its own transaction, so save runs a merge that selects the row again:
+        //select account, select + update account, select customer, select + update customer
+        assertStatementCount(statementCounter, 6, () -> accountService.updateAccount(update));
+    }
+
+    @Test
+    void deleteAccount() {
+        accountService.createAccount(customer(7_600_000_003L));
+
+        //select customer by mobile number, select + delete customer by id, select + delete account by customer id
+        assertStatementCount(statementCounter, 5, () -> accountService.deleteAccount("7600000003"));
+    }
+
+    @Test
+    void statementsPerRequestAreRecordedPerEndpoint() throws Exception {
+        mockMvc.perform(get("/api/v1/fetch").param("mobileNumber", WARM_UP_MOBILE_NUMBER)).andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.get("http.server.requests.statements").tag("uri", "/api/v1/fetch").summary();
+        assertEquals(1, statements.count());
+        assertEquals(1, statements.totalAmount());
+        assertEquals(1, meterRegistry.get("http.server.requests.jdbc").tag("uri", "/api/v1/fetch").timer().count());
+    }
+
+    @Test
+    void requestOverItsBudgetFails() throws Exception {
+        CustomerDto update = accountService.getAccountByMobileNumber(WARM_UP_MOBILE_NUMBER);
+
+        //open-in-view keeps one persistence context for the request, so save does not select again:
+        //select account, select customer, update account, update customer is one over the budget of 3 in this test
+        mockMvc.perform(put("/api/v1/update").contentType(MediaType.APPLICATION_JSON).content(
+                        "{\"name\":\"Renamed Customer\",\"email\":\"" + update.getEmail() + "\",\"mobileNumber\":\"" + WARM_UP_MOBILE_NUMBER + "\"," +
+                                "\"accountsDto\":{\"accountNumber\":" + update.getAccountsDto().getAccountNumber() +
+                                ",\"accountType\":\"Savings\",\"branchAddress\":\"1 Other Street\"}}"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(result -> {
+                    //the update statements run on commit, where the transaction manager wraps the exception
+                    Throwable cause = NestedExceptionUtils.getMostSpecificCause(result.getResolvedException());
+                    assertInstanceOf(StatementBudgetExceededException.class, cause);
+                    assertEquals("Request to /api/v1/update sent more than its budget of 3 JDBC statements", cause.getMessage());
+                });
+    }
+}
@@ -0,0 +1,185 @@
+package com.personal.project.accounts.service.impl;
+
+import com.personal.project.accounts.dto.CustomerDetailsDto;
+import com.personal.project.accounts.exception.ResourceNotFoundException;
+import com.personal.project.accounts.repository.AccountsRepository;
+import com.personal.project.accounts.repository.CustomerRepository;
+import com.personal.project.accounts.service.IAccountService;
+import com.personal.project.accounts.service.ICustomerService;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static com.personal.project.accounts.service.impl.AccountServiceImplBulkCreateTest.customer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"build.version=test", "downstream.timeout=500ms"})
+class CustomerServiceImplTest {
+
+    private static final String MOBILE_NUMBER = "7400000000";
+
+    private static final StubService CARDS = new StubService("""
+            {"mobileNumber":"7400000000","cardNumber":"100646930341","cardType":"Credit Card","totalLimit":100000,"amountUsed":1000,"availableAmount":99000}""");
+    private static final StubService LOANS = new StubService("""
+            {"mobileNumber":"7400000000","loanNumber":"548732457654","loanType":"Home Loan","totalLoan":100000,"amountPaid":1000,"outstandingAmount":99000}""");
+
+    @Autowired
+    private ICustomerService customerService;
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountsRepository accountsRepository;
+
+    @DynamicPropertySource
+    static void downstreamUrls(DynamicPropertyRegistry registry) {
+        registry.add("downstream.cards.url", CARDS::url);
+        registry.add("downstream.loans.url", LOANS::url);
+    }
+
+    @BeforeEach
+    void setUp() {
+        accountService.createAccount(customer(Long.parseLong(MOBILE_NUMBER)));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        accountService.deleteAccount(MOBILE_NUMBER); //through the service, so the cached account goes as well
+        accountsRepository.deleteAll();
+        customerRepository.deleteAll();
+        CARDS.respond(200, 0);
+        LOANS.respond(200, 0);
+    }
+
+    @AfterAll
+    static void stopStubs() {
+        CARDS.server.stop(0);
+        LOANS.server.stop(0);
+    }
+
+    @Test
+    void callsCardsAndLoansAtTheSameTime() {
+        CARDS.respond(200, 200);
+        LOANS.respond(200, 200);
+
+        CustomerDetailsDto customerDetailsDto = customerService.fetchCustomerDetails(MOBILE_NUMBER);
+
+        assertFalse(customerDetailsDto.isDegraded());
+        assertEquals("100646930341", customerDetailsDto.getCardsDto().getCardNumber());
+        assertEquals("548732457654", customerDetailsDto.getLoansDto().getLoanNumber());
+        assertEquals(MOBILE_NUMBER, customerDetailsDto.getMobileNumber());
+        //each stub got its request before the other one answered, so neither call waited for the other (however slow the machine)
+        assertTrue(LOANS.receivedAt < CARDS.answeredAt, "loans was called after cards answered");
+        assertTrue(CARDS.receivedAt < LOANS.answeredAt, "cards was called after loans answered");
+    }
+
+    @Test
+    void leavesOutASlowServiceAndMarksTheResponseDegraded() {
+        LOANS.respond(200, 3_000);
+
+        long start = System.nanoTime();
+        CustomerDetailsDto customerDetailsDto = customerService.fetchCustomerDetails(MOBILE_NUMBER);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(customerDetailsDto.isDegraded());
+        assertEquals(List.of("loans"), customerDetailsDto.getDegradedServices());
+        assertNull(customerDetailsDto.getLoansDto());
+        assertEquals("100646930341", customerDetailsDto.getCardsDto().getCardNumber());
+        assertTrue(elapsedMillis < 1_500, "took " + elapsedMillis + " ms, the timeout did not apply");
+    }
+
+    @Test
+    void leavesOutAFailingServiceAndMarksTheResponseDegraded() {
+        CARDS.respond(500, 0);
+
+        CustomerDetailsDto customerDetailsDto = customerService.fetchCustomerDetails(MOBILE_NUMBER);
+
+        assertTrue(customerDetailsDto.isDegraded());
+        assertEquals(List.of("cards"), customerDetailsDto.getDegradedServices());
+        assertNull(customerDetailsDto.getCardsDto());
+    }
+
+    @Test
+    void customerWithoutCardIsNotDegraded() {
+        CARDS.respond(404, 0);
+
+        CustomerDetailsDto customerDetailsDto = customerService.fetchCustomerDetails(MOBILE_NUMBER);
+
+        assertFalse(customerDetailsDto.isDegraded());
+        assertNull(customerDetailsDto.getCardsDto());
+        assertEquals("548732457654", customerDetailsDto.getLoansDto().getLoanNumber());
+    }
+
+    @Test
+    void unknownCustomerIsNotFound() {
+        assertThrows(ResourceNotFoundException.class, () -> customerService.fetchCustomerDetails("7499999999"));
+    }
+
+    //stands in for the cards or loans service: answers GET /api/fetch with a fixed body, status and delay,
+    //and remembers when (System.nanoTime) it got the last request and when it answered it
+    private static final class StubService {
+
+        private final HttpServer server;
+        private volatile int status = 200;
+        private volatile long delayMillis;
+        private volatile long receivedAt;
+        private volatile long answeredAt;
+
+        StubService(String body) {
+            try {
+                server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            } catch (IOException exception) {
+                throw new IllegalStateException(exception);
+            }
+            server.setExecutor(Executors.newCachedThreadPool()); //concurrent requests must not wait for each other
+            server.createContext("/api/fetch", exchange -> {
+                receivedAt = System.nanoTime();
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                answeredAt = System.nanoTime();
+                byte[] response = (status == 200 ? body : "{}").getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(status, response.length);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(response);
+                } catch (IOException clientGone) {
+                    //the caller timed out and closed the connection
+                }
+            });
+            server.start();
+        }
+
+        void respond(int status, long delayMillis) {
+            this.status = status;
+            this.delayMillis = delayMillis;
+        }
+
+        String url() {
+            return "http://localhost:" + server.getAddress().getPort();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.personal.project.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+//Spring Data repository interfaces implemented by a map of method name to answer, so the services run without
+//a database and the benchmarks measure our code rather than H2 and Hibernate
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static <R> R repository(Class<R> type, Map<String, Function<Object[], Object>> methods) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = methods.get(method.getName());
+            if (answer == null) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not used by the benchmarks");
+            }
+            return answer.apply(args);
+        }));
+    }
+}
@@ -0,0 +1,104 @@
+package com.personal.project.benchmarks;
+
+import com.personal.project.accounts.dto.AccountsDto;
+import com.personal.project.accounts.dto.CustomerDto;
+import com.personal.project.accounts.entity.Accounts;
+import com.personal.project.accounts.entity.Customer;
+import com.personal.project.accounts.mapper.AccountsMapper;
+import com.personal.project.accounts.mapper.CustomerMapper;
+import com.personal.project.cards.dto.CardsDto;
+import com.personal.project.cards.entity.Cards;
+import com.personal.project.cards.mapper.CardsMapper;
+import com.personal.project.loans.dto.LoansDto;
+import com.personal.project.loans.entity.Loans;
+import com.personal.project.loans.mapper.LoansMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+//entity <-> dto conversions done on every request by AccountsMapper, CustomerMapper, CardsMapper and LoansMapper
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MapperBenchmark {
+
+    private SampleData sampleData;
+    private CustomerDto[] customerDtos;
+    private CardsDto[] cardsDtos;
+    private LoansDto[] loansDtos;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        sampleData = new SampleData();
+        customerDtos = new CustomerDto[SampleData.CUSTOMERS];
+        cardsDtos = new CardsDto[SampleData.CUSTOMERS];
+        loansDtos = new LoansDto[SampleData.CUSTOMERS];
+        for (int i = 0; i < SampleData.CUSTOMERS; i++) {
+            customerDtos[i] = CustomerMapper.convertEntityToDto(sampleData.customers[i], new CustomerDto());
+            customerDtos[i].setAccountsDto(AccountsMapper.convertEntityToDto(sampleData.accounts[i], new AccountsDto()));
+            cardsDtos[i] = CardsMapper.convertEntityToDto(sampleData.cards[i], new CardsDto());
+            loansDtos[i] = LoansMapper.convertEntityToDto(sampleData.loans[i], new LoansDto());
+        }
+    }
+
+    //walks the sample instead of converting the same object again and again, which the JIT could fold away
+    private int next() {
+        index = index + 1 == SampleData.CUSTOMERS ? 0 : index + 1;
+        return index;
+    }
+
+    @Benchmark
+    public CustomerDto customerAndAccountEntityToDto() {
+        int i = next();
+        CustomerDto customerDto = CustomerMapper.convertEntityToDto(sampleData.customers[i], new CustomerDto());
+        customerDto.setAccountsDto(AccountsMapper.convertEntityToDto(sampleData.accounts[i], new AccountsDto()));
+        return customerDto;
+    }
+
+    @Benchmark
+    public CustomerDto customerAccountsViewToDto() {
+        return CustomerMapper.convertViewToDto(sampleData.customerAccountsViews[next()], new CustomerDto());
+    }
+
+    @Benchmark
+    public Accounts customerAndAccountDtoToEntity() {
+        CustomerDto customerDto = customerDtos[next()];
+        Customer customer = CustomerMapper.convertDtoToEntity(customerDto, new Customer());
+        Accounts accounts = AccountsMapper.convertDtoToEntity(customerDto.getAccountsDto(), new Accounts());
+        accounts.setCustomerId(customer.getCustomerId());
+        return accounts;
+    }
+
+    @Benchmark
+    public CardsDto cardEntityToDto() {
+        return CardsMapper.convertEntityToDto(sampleData.cards[next()], new CardsDto());
+    }
+
+    @Benchmark
+    public Cards cardDtoToEntity() {
+        return CardsMapper.convertDtoToEntity(cardsDtos[next()], new Cards());
+    }
+
+    @Benchmark
+    public LoansDto loanEntityToDto() {
+        return LoansMapper.convertEntityToDto(sampleData.loans[next()], new LoansDto());
+    }
+
+    @Benchmark
+    public Loans loanDtoToEntity() {
+        return LoansMapper.convertDtoToEntity(loansDtos[next()], new Loans());
+    }
+}
@@ -0,0 +1,82 @@
+package com.personal.project.benchmarks;
+
+import com.personal.project.accounts.constants.AccountsConstants;
+import com.personal.project.accounts.dto.CustomerAccountsView;
+import com.personal.project.accounts.entity.Accounts;
+import com.personal.project.accounts.entity.Customer;
+import com.personal.project.cards.constants.CardsConstants;
+import com.personal.project.cards.entity.Cards;
+import com.personal.project.loans.constants.LoansConstants;
+import com.personal.project.loans.entity.Loans;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+//realistic looking customers with their account, card and loan; the same ones on every run (fixed seed)
+//so results stay comparable between releases
+final class SampleData {
+
+    static final int CUSTOMERS = 10_000;
+
+    private static final String[] FIRST_NAMES = {"Bickey", "Aarav", "Sophia", "Liam", "Priya", "Mateo", "Olivia", "Noah", "Anjali", "Ethan"};
+    private static final String[] LAST_NAMES = {"Manandhar", "Shrestha", "Johnson", "Garcia", "Sharma", "Williams", "Thapa", "Brown", "Lopez", "Miller"};
+    private static final String[] BRANCHES = {"123 Main Street, New York", "45 Lake Shore Drive, Chicago", "9 Market Street, San Francisco",
+            "300 Peachtree Street, Atlanta", "77 Congress Avenue, Austin"};
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 14, 9, 30);
+
+    final Customer[] customers = new Customer[CUSTOMERS];
+    final Accounts[] accounts = new Accounts[CUSTOMERS];
+    final CustomerAccountsView[] customerAccountsViews = new CustomerAccountsView[CUSTOMERS];
+    final Cards[] cards = new Cards[CUSTOMERS];
+    final Loans[] loans = new Loans[CUSTOMERS];
+
+    SampleData() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String mobileNumber = mobileNumber(i);
+
+            Customer customer = new Customer();
+            customer.setCustomerId((long) i + 1);
+            customer.setName(name);
+            customer.setEmail(name.toLowerCase().replace(' ', '.') + i + "@gmail.com");
+            customer.setMobileNumber(mobileNumber);
+            customer.setCreatedAt(CREATED_AT);
+            customer.setCreatedBy("ACCOUNTS_MS");
+            customers[i] = customer;
+
+            Accounts account = new Accounts();
+            account.setCustomerId(customer.getCustomerId());
+            account.setAccountNumber(1_000_000_000L + i);
+            account.setAccountType(AccountsConstants.SAVINGS);
+            account.setBranchAddress(BRANCHES[random.nextInt(BRANCHES.length)]);
+            account.setCreatedAt(CREATED_AT);
+            account.setCreatedBy("ACCOUNTS_MS");
+            accounts[i] = account;
+
+            customerAccountsViews[i] = new CustomerAccountsView(customer.getCustomerId(), customer.getName(), customer.getEmail(),
+                    mobileNumber, account.getAccountNumber(), account.getAccountType(), account.getBranchAddress());
+
+            int amountUsed = random.nextInt(CardsConstants.NEW_CARD_LIMIT);
+            cards[i] = new Cards((long) i + 1, mobileNumber, twelveDigits(random), CardsConstants.CREDIT_CARD,
+                    CardsConstants.NEW_CARD_LIMIT, amountUsed, CardsConstants.NEW_CARD_LIMIT - amountUsed);
+
+            int amountPaid = random.nextInt(LoansConstants.NEW_LOAN_LIMIT);
+            loans[i] = new Loans((long) i + 1, mobileNumber, twelveDigits(random), LoansConstants.HOME_LOAN,
+                    LoansConstants.NEW_LOAN_LIMIT, amountPaid, LoansConstants.NEW_LOAN_LIMIT - amountPaid);
+        }
+    }
+
+    static String mobileNumber(int index) {
+        return Long.toString(7_000_000_000L + index * 7L);
+    }
+
+    //never issued, so lookups take the not found path
+    static String unknownMobileNumber(int index) {
+        return Long.toString(8_000_000_000L + index * 7L);
+    }
+
+    private static String twelveDigits(SplittableRandom random) {
+        return Long.toString(100_000_000_000L + random.nextLong(900_000_000_000L));
+    }
+}
@@ -0,0 +1,111 @@
+package com.personal.project.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.personal.project.accounts.dto.AccountsDto;
+import com.personal.project.accounts.dto.CustomerDto;
+import com.personal.project.accounts.mapper.AccountsMapper;
+import com.personal.project.accounts.mapper.CustomerMapper;
+import com.personal.project.cards.dto.CardsDto;
+import com.personal.project.cards.mapper.CardsMapper;
+import com.personal.project.loans.dto.LoansDto;
+import com.personal.project.loans.mapper.LoansMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+//Jackson work behind every /fetch response and /create or /update request body
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    private CustomerDto[] customerDtos;
+    private CardsDto[] cardsDtos;
+    private LoansDto[] loansDtos;
+    private byte[][] customerJson;
+    private byte[][] cardJson;
+    private byte[][] loanJson;
+    private ObjectWriter writer;
+    private ObjectReader customerReader;
+    private ObjectReader cardReader;
+    private ObjectReader loanReader;
+    private int index;
+
+    @Setup
+    public void setUp() throws IOException {
+        //same modules and defaults as the ObjectMapper Spring Boot gives the services
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+        customerReader = objectMapper.readerFor(CustomerDto.class);
+        cardReader = objectMapper.readerFor(CardsDto.class);
+        loanReader = objectMapper.readerFor(LoansDto.class);
+
+        SampleData sampleData = new SampleData();
+        customerDtos = new CustomerDto[SampleData.CUSTOMERS];
+        cardsDtos = new CardsDto[SampleData.CUSTOMERS];
+        loansDtos = new LoansDto[SampleData.CUSTOMERS];
+        customerJson = new byte[SampleData.CUSTOMERS][];
+        cardJson = new byte[SampleData.CUSTOMERS][];
+        loanJson = new byte[SampleData.CUSTOMERS][];
+        for (int i = 0; i < SampleData.CUSTOMERS; i++) {
+            customerDtos[i] = CustomerMapper.convertEntityToDto(sampleData.customers[i], new CustomerDto());
+            customerDtos[i].setAccountsDto(AccountsMapper.convertEntityToDto(sampleData.accounts[i], new AccountsDto()));
+            cardsDtos[i] = CardsMapper.convertEntityToDto(sampleData.cards[i], new CardsDto());
+            loansDtos[i] = LoansMapper.convertEntityToDto(sampleData.loans[i], new LoansDto());
+            customerJson[i] = writer.writeValueAsBytes(customerDtos[i]);
+            cardJson[i] = writer.writeValueAsBytes(cardsDtos[i]);
+            loanJson[i] = writer.writeValueAsBytes(loansDtos[i]);
+        }
+    }
+
+    private int next() {
+        index = index + 1 == SampleData.CUSTOMERS ? 0 : index + 1;
+        return index;
+    }
+
+    @Benchmark
+    public byte[] writeCustomer() throws IOException {
+        return writer.writeValueAsBytes(customerDtos[next()]);
+    }
+
+    @Benchmark
+    public CustomerDto readCustomer() throws IOException {
+        return customerReader.readValue(customerJson[next()]);
+    }
+
+    @Benchmark
+    public byte[] writeCard() throws IOException {
+        return writer.writeValueAsBytes(cardsDtos[next()]);
+    }
+
+    @Benchmark
+    public CardsDto readCard() throws IOException {
+        return cardReader.readValue(cardJson[next()]);
+    }
+
+    @Benchmark
+    public byte[] writeLoan() throws IOException {
+        return writer.writeValueAsBytes(loansDtos[next()]);
+    }
+
+    @Benchmark
+    public LoansDto readLoan() throws IOException {
+        return loanReader.readValue(loanJson[next()]);
+    }
+}
@@ -0,0 +1,123 @@
+package com.personal.project.benchmarks;
+
+import com.personal.project.accounts.dto.CustomerAccountsView;
+import com.personal.project.accounts.dto.CustomerDto;
+import com.personal.project.accounts.exception.ResourceNotFoundException;
+import com.personal.project.accounts.repository.CustomerRepository;
+import com.personal.project.accounts.service.impl.AccountServiceImpl;
+import com.personal.project.cards.dto.CardsDto;
+import com.personal.project.cards.entity.Cards;
+import com.personal.project.cards.repository.CardsRepository;
+import com.personal.project.cards.service.impl.CardsServiceImpl;
+import com.personal.project.loans.dto.LoansDto;
+import com.personal.project.loans.entity.Loans;
+import com.personal.project.loans.repository.LoansRepository;
+import com.personal.project.loans.service.impl.LoansServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.personal.project.benchmarks.InMemoryRepositories.repository;
+
+//the fetch methods of the three services called directly (no Spring proxies, so no cache and no transaction)
+//over in memory repositories: mobile number filter check, lookup, not found handling and mapping
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ServiceFetchBenchmark {
+
+    //sized like mobile-filter in the services' application.yml
+    private static final long FILTER_EXPECTED_INSERTIONS = 1_000_000;
+    private static final double FILTER_FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    private AccountServiceImpl accountService;
+    private CardsServiceImpl cardsService;
+    private LoansServiceImpl loansService;
+    private String[] mobileNumbers;
+    private String[] unknownMobileNumbers;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        SampleData sampleData = new SampleData();
+        Map<String, CustomerAccountsView> customerAccountsViews = new HashMap<>();
+        Map<String, Cards> cards = new HashMap<>();
+        Map<String, Loans> loans = new HashMap<>();
+        mobileNumbers = new String[SampleData.CUSTOMERS];
+        unknownMobileNumbers = new String[SampleData.CUSTOMERS];
+        for (int i = 0; i < SampleData.CUSTOMERS; i++) {
+            mobileNumbers[i] = SampleData.mobileNumber(i);
+            unknownMobileNumbers[i] = SampleData.unknownMobileNumber(i);
+            customerAccountsViews.put(mobileNumbers[i], sampleData.customerAccountsViews[i]);
+            cards.put(mobileNumbers[i], sampleData.cards[i]);
+            loans.put(mobileNumbers[i], sampleData.loans[i]);
+        }
+
+        CustomerRepository customerRepository = repository(CustomerRepository.class, Map.of(
+                "findCustomerAccountsByMobileNumber", args -> Optional.ofNullable(customerAccountsViews.get((String) args[0]))));
+        com.personal.project.accounts.membership.MobileNumberFilter accountsFilter = new com.personal.project.accounts.membership.MobileNumberFilter(
+                customerRepository, null, new SimpleMeterRegistry(), FILTER_EXPECTED_INSERTIONS, FILTER_FALSE_POSITIVE_PROBABILITY);
+        customerAccountsViews.keySet().forEach(accountsFilter::add);
+        accountService = new AccountServiceImpl(null, customerRepository, null, null, null, accountsFilter, null);
+
+        CardsRepository cardsRepository = repository(CardsRepository.class, Map.of(
+                "findFirstByMobileNumberOrderByCardIdAsc", args -> Optional.ofNullable(cards.get((String) args[0]))));
+        com.personal.project.cards.membership.MobileNumberFilter cardsFilter = new com.personal.project.cards.membership.MobileNumberFilter(
+                cardsRepository, null, new SimpleMeterRegistry(), FILTER_EXPECTED_INSERTIONS, FILTER_FALSE_POSITIVE_PROBABILITY);
+        cards.keySet().forEach(cardsFilter::add);
+        cardsService = new CardsServiceImpl(cardsRepository, cardsFilter, new com.personal.project.cards.coalescing.SingleFlight(new SimpleMeterRegistry()), null, null, Optional.empty(), null, null, null, null);
+
+        LoansRepository loansRepository = repository(LoansRepository.class, Map.of(
+                "findFirstByMobileNumberOrderByLoanIdAsc", args -> Optional.ofNullable(loans.get((String) args[0]))));
+        com.personal.project.loans.membership.MobileNumberFilter loansFilter = new com.personal.project.loans.membership.MobileNumberFilter(
+                loansRepository, null, new SimpleMeterRegistry(), FILTER_EXPECTED_INSERTIONS, FILTER_FALSE_POSITIVE_PROBABILITY);
+        loans.keySet().forEach(loansFilter::add);
+        loansService = new LoansServiceImpl(loansRepository, loansFilter, new com.personal.project.loans.coalescing.SingleFlight(new SimpleMeterRegistry()));
+    }
+
+    private int next() {
+        index = index + 1 == SampleData.CUSTOMERS ? 0 : index + 1;
+        return index;
+    }
+
+    @Benchmark
+    public CustomerDto fetchAccount() {
+        return accountService.getAccountByMobileNumber(mobileNumbers[next()]);
+    }
+
+    //not found path: the filter answers, then the exception is built and thrown
+    @Benchmark
+    public Object fetchUnknownAccount() {
+        try {
+            return accountService.getAccountByMobileNumber(unknownMobileNumbers[next()]);
+        } catch (ResourceNotFoundException notFound) {
+            return notFound;
+        }
+    }
+
+    @Benchmark
+    public CardsDto fetchCard() {
+        return cardsService.fetchCard(mobileNumbers[next()]);
+    }
+
+    @Benchmark
+    public LoansDto fetchLoan() {
+        return loansService.fetchLoan(mobileNumbers[next()]);
+    }
+}
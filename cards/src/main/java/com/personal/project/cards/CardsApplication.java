@@ -1,5 +1,6 @@
 package com.personal.project.cards;
 
+import com.personal.project.cards.exception.BusinessExceptionStackTraces;
 import io.swagger.v3.oas.annotations.ExternalDocumentation;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Contact;
@@ -8,6 +9,7 @@ import io.swagger.v3.oas.annotations.info.License;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 /*
@@ -17,6 +19,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 @EntityScan("com.personal.project.accounts.entity")
 */
 @EnableJpaAuditing(auditorAwareRef = "auditAwareImplCards") //passing the AuditAwareImpl bean
+@EnableScheduling //Spring Boot only creates its taskScheduler with this, the card ledger flush and the hold expiry run on it
 @OpenAPIDefinition(
 		info = @Info(
 				title = "Cards microservice REST API Documentation",
@@ -40,7 +43,9 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 public class CardsApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(CardsApplication.class, args);
+		SpringApplication application = new SpringApplication(CardsApplication.class);
+		application.addListeners(new BusinessExceptionStackTraces());
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,56 @@
+package com.personal.project.cards.cache;
+
+import com.personal.project.cards.entity.Cards;
+import com.personal.project.cards.repository.CardsRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+//CardLedger and CardHoldExpiry change cards rows with plain JDBC, which Hibernate never sees: without this the cards region
+//would keep serving the balance from before their write until its TTL. They call it once their transaction has committed.
+//only the entity entries go, the cached query results hold card ids and those writes never change an id
+//nothing to do (and no lookup) while second-level-cache.enabled is false
+@Component
+public class CardsCacheEvictor {
+
+    //past this many cards one region wide eviction is cheaper than looking up their ids
+    private static final int MAXIMUM_LOOKUP = 1_000;
+
+    private final boolean enabled;
+    private final Cache cache;
+    private final CardsRepository cardsRepository;
+
+    public CardsCacheEvictor(EntityManagerFactory entityManagerFactory, CardsRepository cardsRepository,
+                             @Value("${second-level-cache.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        this.cardsRepository = cardsRepository;
+    }
+
+    /***
+     * @param cardIds - ids of the cards whose rows were written behind Hibernate
+     */
+    public void evict(Collection<Long> cardIds) {
+        if (enabled) {
+            cardIds.forEach(cardId -> cache.evictEntityData(Cards.class, cardId));
+        }
+    }
+
+    /***
+     * @param cardNumbers - card numbers whose rows were written behind Hibernate, one query finds their ids
+     */
+    public void evictCardNumbers(Collection<String> cardNumbers) {
+        if (!enabled || cardNumbers.isEmpty()) {
+            return;
+        }
+        if (cardNumbers.size() > MAXIMUM_LOOKUP) {
+            cache.evictEntityData(Cards.class);
+            return;
+        }
+        evict(cardsRepository.findCardIdsByCardNumbers(cardNumbers));
+    }
+}
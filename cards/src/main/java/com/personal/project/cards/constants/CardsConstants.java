@@ -7,10 +7,24 @@ public class CardsConstants {
 
     public static final String  CREDIT_CARD = "Credit Card";
     public static final int  NEW_CARD_LIMIT = 1_00_000;
+    public static final String  UK_CARDS_MOBILE_NUMBER_CARD_TYPE = "uk_cards_mobile_number_card_type";
+    public static final String  UK_CARDS_CARD_NUMBER = "uk_cards_card_number";
+    public static final String  CARDS_CACHE_REGION = "cards"; //hibernate second level cache region, sized in second-level-cache.regions
+    public static final int  PAGE_SIZE_DEFAULT = 20;
+    public static final int  PAGE_SIZE_MAX = 100;
+    public static final int  FETCH_BATCH_MAX_SIZE = 1_000; //mobile numbers per POST /fetch-batch, all of them go into one IN list
+    public static final String  IDEMPOTENCY_KEY_HEADER = "Idempotency-Key"; //optional on POST /create, see IdempotencyStore
+    public static final int  IDEMPOTENCY_KEY_MAX_LENGTH = 255;
+    public static final String  IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed"; //set on a response replayed for a repeated key
     public static final String  STATUS_201 = "201";
     public static final String  MESSAGE_201 = "Card created successfully";
     public static final String  STATUS_200 = "200";
     public static final String  MESSAGE_200 = "Request processed successfully";
+    public static final String  STATUS_400 = "400";
+    public static final String  MESSAGE_400_ALREADY_EXISTS = "Card already registered with given mobile number";
+    public static final String  MESSAGE_400_DUPLICATE_IN_REQUEST = "Mobile number appears more than once in the request";
+    public static final int  BULK_MAX_SIZE = 10_000; //max cards accepted by one bulk create request
+    public static final int  BULK_CHUNK_SIZE = 1_000; //cards written per transaction (and per duplicate check query) during bulk create
     public static final String  STATUS_417 = "417";
     public static final String  MESSAGE_417_UPDATE= "Update operation failed. Please try again or contact Dev team";
     public static final String  MESSAGE_417_DELETE= "Delete operation failed. Please try again or contact Dev team";
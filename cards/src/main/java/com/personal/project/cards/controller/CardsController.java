@@ -1,10 +1,17 @@
 package com.personal.project.cards.controller;
 
 import com.personal.project.cards.constants.CardsConstants;
+import com.personal.project.cards.dto.BulkCardResponseDto;
+import com.personal.project.cards.dto.CardBalanceDto;
+import com.personal.project.cards.dto.CardHoldDto;
+import com.personal.project.cards.dto.CardSpendDto;
 import com.personal.project.cards.dto.CardsContactInfoDto;
 import com.personal.project.cards.dto.CardsDto;
+import com.personal.project.cards.dto.PageResponseDto;
 import com.personal.project.cards.dto.ErrorResponseDto;
 import com.personal.project.cards.dto.ResponseDto;
+import com.personal.project.cards.idempotency.IdempotencyStore;
+import com.personal.project.cards.info.StaticInfoResponses;
 import com.personal.project.cards.service.ICardsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,17 +20,21 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import jakarta.validation.constraints.Size;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
-import org.springframework.core.env.Environment;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 @Tag(
         name = "CRUD REST APIs for Cards in EazyBank",
         description = "CRUD REST APIs in EazyBank to CREATE, UPDATE, FETCH AND DELETE card details"
@@ -36,20 +47,15 @@ import org.springframework.web.bind.annotation.*;
 public class CardsController {
 
     private final ICardsService iCardsService;
+    private final IdempotencyStore idempotencyStore;
+    private final StaticInfoResponses staticInfoResponses;
 
-    public CardsController(ICardsService iCardsService) {
+    public CardsController(ICardsService iCardsService, IdempotencyStore idempotencyStore, StaticInfoResponses staticInfoResponses) {
         this.iCardsService = iCardsService;
+        this.idempotencyStore = idempotencyStore;
+        this.staticInfoResponses = staticInfoResponses;
     }
 
-    @Value("${build.version}")
-    private String buildVersion;
-
-    @Autowired
-    private Environment environment;
-
-    @Autowired
-    private CardsContactInfoDto cardsContactInfoDto;
-
     @Operation(
             summary = "Create Card REST API",
             description = "REST API to create new Card"
@@ -57,7 +63,11 @@ public class CardsController {
     @ApiResponses({
             @ApiResponse(
                     responseCode = "201",
-                    description = "HTTP Status CREATED"
+                    description = "HTTP Status CREATED. A repeated Idempotency-Key gets the first response again, with Idempotent-Replayed: true"
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "HTTP Status Unprocessable Entity. The Idempotency-Key was already used for a different mobile number"
             ),
             @ApiResponse(
                     responseCode = "500",
@@ -71,11 +81,51 @@ public class CardsController {
     @PostMapping("/create")
     public ResponseEntity<ResponseDto> createCard(@Valid @RequestParam
                                                   @Pattern(regexp="^\\d{10}$",message = "Mobile number must be 10 digits")
-                                                  String mobileNumber) {
-        iCardsService.createCard(mobileNumber);
+                                                  String mobileNumber,
+                                                  @RequestHeader(name = CardsConstants.IDEMPOTENCY_KEY_HEADER, required = false)
+                                                  @Size(max = CardsConstants.IDEMPOTENCY_KEY_MAX_LENGTH, message = "Idempotency-Key must be at most 255 characters")
+                                                  String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, mobileNumber, () -> {
+            iCardsService.createCard(mobileNumber);
+            return ResponseEntity
+                    .status(HttpStatus.CREATED)
+                    .body(new ResponseDto(CardsConstants.STATUS_201, CardsConstants.MESSAGE_201));
+        });
+    }
+
+    @Operation(
+            summary = "Bulk Create Card REST API",
+            description = "REST API to issue a credit card to many customers in one request, with an outcome for every mobile number"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "HTTP Status CREATED. Check the per mobile number results for rejected items"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/create-bulk")
+    public ResponseEntity<BulkCardResponseDto> createCards(@RequestBody
+                                                           @NotEmpty(message = "At least one mobile number is required")
+                                                           @Size(max = CardsConstants.BULK_MAX_SIZE, message = "Too many mobile numbers in one request")
+                                                           List<@Pattern(regexp="^\\d{10}$",message = "Mobile number must be 10 digits") String> mobileNumbers) {
+        BulkCardResponseDto bulkCardResponseDto = iCardsService.createCards(mobileNumbers);
         return ResponseEntity
                 .status(HttpStatus.CREATED)
-                .body(new ResponseDto(CardsConstants.STATUS_201, CardsConstants.MESSAGE_201));
+                .body(bulkCardResponseDto);
     }
 
     @Operation(
@@ -103,6 +153,73 @@ public class CardsController {
         return ResponseEntity.status(HttpStatus.OK).body(cardsDto);
     }
 
+    @Operation(
+            summary = "Fetch All Cards of a Customer REST API",
+            description = "REST API to fetch every card of a customer based on a mobile number, oldest first"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "HTTP Status Not Found",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @GetMapping("/fetch-all")
+    public ResponseEntity<List<CardsDto>> fetchAllCardDetails(@RequestParam
+                                                              @Pattern(regexp="^\\d{10}$",message = "Mobile number must be 10 digits")
+                                                              String mobileNumber) {
+        List<CardsDto> cardsDtos = iCardsService.fetchCardsByMobileNumber(mobileNumber);
+        return ResponseEntity.status(HttpStatus.OK).body(cardsDtos);
+    }
+
+    @Operation(
+            summary = "Fetch Cards of many Customers REST API",
+            description = "REST API to fetch every card of up to " + CardsConstants.FETCH_BATCH_MAX_SIZE + " mobile numbers with one query. " +
+                    "The response maps each mobile number to its cards, an empty list when it has none."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    //POST: a thousand mobile numbers do not fit into a query string under the default header size limit
+    @PostMapping("/fetch-batch")
+    public ResponseEntity<Map<String, List<CardsDto>>> fetchCardDetailsBatch(@RequestBody
+                                                                             @NotEmpty(message = "At least one mobile number is required")
+                                                                             @Size(max = CardsConstants.FETCH_BATCH_MAX_SIZE, message = "At most " + CardsConstants.FETCH_BATCH_MAX_SIZE + " mobile numbers per request")
+                                                                             List<@Pattern(regexp="^\\d{10}$",message = "Mobile number must be 10 digits") String> mobileNumbers) {
+        Map<String, List<CardsDto>> cardsByMobileNumber = iCardsService.fetchCardsByMobileNumbers(mobileNumbers);
+        return ResponseEntity.status(HttpStatus.OK).body(cardsByMobileNumber);
+    }
+
     @Operation(
             summary = "Update Card Details REST API",
             description = "REST API to update card details based on a card number"
@@ -138,9 +255,151 @@ public class CardsController {
         }
     }
 
+    @Operation(
+            summary = "Spend with a Card REST API",
+            description = "REST API to debit an amount from the available amount of a card, applied atomically by the database"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK. The body is the balance after the spend"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "HTTP Status Not Found",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "HTTP Status Unprocessable Entity. The available amount is less than the amount, or the spend breaks a velocity rule (card-velocity), nothing was debited",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/spend")
+    public ResponseEntity<CardBalanceDto> spend(@Valid @RequestBody CardSpendDto cardSpendDto) {
+        CardBalanceDto cardBalanceDto = iCardsService.spend(cardSpendDto.getCardNumber(), cardSpendDto.getAmount());
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(cardBalanceDto);
+    }
+
+    @Operation(
+            summary = "Authorize a Hold on a Card REST API",
+            description = "REST API to reserve an amount of the available amount of a card. The hold is released again unless it is captured or voided within card-holds.time-to-live"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "HTTP Status CREATED. The body is the hold"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "HTTP Status Not Found",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "HTTP Status Unprocessable Entity. The available amount is less than the amount, or the hold breaks a velocity rule (card-velocity), nothing was reserved",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/hold")
+    public ResponseEntity<CardHoldDto> authorizeHold(@Valid @RequestBody CardSpendDto cardSpendDto) {
+        CardHoldDto cardHoldDto = iCardsService.authorizeHold(cardSpendDto.getCardNumber(), cardSpendDto.getAmount());
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(cardHoldDto);
+    }
+
+    @Operation(
+            summary = "Capture a Hold REST API",
+            description = "REST API to turn the amount of a pending hold into amount used"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK. The body is the balance after the capture"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "HTTP Status Not Found. No such hold, or it was captured, voided or expired already",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/capture")
+    public ResponseEntity<CardBalanceDto> captureHold(@RequestParam long holdId) {
+        CardBalanceDto cardBalanceDto = iCardsService.captureHold(holdId);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(cardBalanceDto);
+    }
+
+    @Operation(
+            summary = "Void a Hold REST API",
+            description = "REST API to give the amount of a pending hold back to the available amount of its card"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK. The body is the balance after the void"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "HTTP Status Not Found. No such hold, or it was captured, voided or expired already",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/void")
+    public ResponseEntity<CardBalanceDto> voidHold(@RequestParam long holdId) {
+        CardBalanceDto cardBalanceDto = iCardsService.voidHold(holdId);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(cardBalanceDto);
+    }
+
     @Operation(
             summary = "Delete Card Details REST API",
-            description = "REST API to delete Card details based on a mobile number"
+            description = "REST API to delete every Card of a customer based on a mobile number"
     )
     @ApiResponses({
             @ApiResponse(
@@ -175,6 +434,45 @@ public class CardsController {
         }
     }
 
+    @Operation(
+            summary = "List Cards REST API",
+            description = "REST API to page through every card ordered by cardId. " +
+                    "Pass the nextPageToken of a page as pageToken to get the next one."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @GetMapping("/list")
+    public ResponseEntity<PageResponseDto<CardsDto>> fetchCards(@RequestParam(required = false)
+                                                                 String pageToken,
+                                                                 @RequestParam(defaultValue = "" + CardsConstants.PAGE_SIZE_DEFAULT)
+                                                                 @Min(value = 1, message = "Page size must be at least 1")
+                                                                 @Max(value = CardsConstants.PAGE_SIZE_MAX, message = "Page size must be at most " + CardsConstants.PAGE_SIZE_MAX)
+                                                                 int pageSize) {
+        PageResponseDto<CardsDto> page = iCardsService.fetchCards(pageToken, pageSize);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(page);
+    }
+
     @Operation(
             summary = "Get build version",
             description = "REST API to fetch build version."
@@ -184,6 +482,10 @@ public class CardsController {
                     responseCode = "200",
                     description = "HTTP Status OK."
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "HTTP Status Not Modified. The If-None-Match header carries the current ETag."
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "HTTP Status Internal Server Error.",
@@ -193,10 +495,8 @@ public class CardsController {
             )
     })
     @GetMapping("build-version")
-    public ResponseEntity<String> getBuildVersion(){
-        return  ResponseEntity
-                .status(HttpStatus.OK)
-                .body(buildVersion);
+    public ResponseEntity<byte[]> getBuildVersion(){
+        return staticInfoResponses.buildVersion();
     }
 
     @Operation(
@@ -208,6 +508,10 @@ public class CardsController {
                     responseCode = "200",
                     description = "HTTP Status OK."
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "HTTP Status Not Modified. The If-None-Match header carries the current ETag."
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "HTTP Status Internal Server Error.",
@@ -217,10 +521,8 @@ public class CardsController {
             )
     })
     @GetMapping("java-version")
-    public ResponseEntity<String> getJavaVersion(){
-        return  ResponseEntity
-                .status(HttpStatus.OK)
-                .body(environment.getProperty("JAVA_HOME"));
+    public ResponseEntity<byte[]> getJavaVersion(){
+        return staticInfoResponses.javaVersion();
     }
 
     @Operation(
@@ -230,7 +532,14 @@ public class CardsController {
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
-                    description = "HTTP Status OK."
+                    description = "HTTP Status OK.",
+                    content= @Content(
+                            schema = @Schema(implementation = CardsContactInfoDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "HTTP Status Not Modified. The If-None-Match header carries the current ETag."
             ),
             @ApiResponse(
                     responseCode = "500",
@@ -241,9 +550,7 @@ public class CardsController {
             )
     })
     @GetMapping("cards-service-info")
-    public ResponseEntity<CardsContactInfoDto> getCardsServiceInfo(){
-        return  ResponseEntity
-                .status(HttpStatus.OK)
-                .body(cardsContactInfoDto);
+    public ResponseEntity<byte[]> getCardsServiceInfo(){
+        return staticInfoResponses.serviceInfo();
     }
 }
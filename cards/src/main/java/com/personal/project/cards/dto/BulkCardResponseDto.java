@@ -0,0 +1,39 @@
+package com.personal.project.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@Schema(
+        name = "BulkCardResponse",
+        description = "Schema to hold the per mobile number report of a bulk create request."
+)
+public class BulkCardResponseDto {
+
+    @Schema(
+            description = "Number of mobile numbers sent in the request.",
+            example = "1000"
+    )
+    private int totalRequested;
+
+    @Schema(
+            description = "Number of cards created.",
+            example = "998"
+    )
+    private int totalCreated;
+
+    @Schema(
+            description = "Number of mobile numbers rejected.",
+            example = "2"
+    )
+    private int totalFailed;
+
+    @Schema(
+            description = "Outcome for every mobile number, in the same order as the request."
+    )
+    private List<BulkCardResultDto> results;
+}
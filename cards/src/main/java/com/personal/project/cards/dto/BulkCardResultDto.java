@@ -0,0 +1,40 @@
+package com.personal.project.cards.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL) //cardNumber is only present for created items
+@Schema(
+        name = "BulkCardResult",
+        description = "Schema to hold the outcome of one mobile number in a bulk create request."
+)
+public class BulkCardResultDto {
+
+    @Schema(
+            description = "Mobile Number of the customer.",
+            example = "7180000000"
+    )
+    private String mobileNumber;
+
+    @Schema(
+            description = "Status code for this mobile number.",
+            example = "201"
+    )
+    private String statusCode;
+
+    @Schema(
+            description = "Status message for this mobile number.",
+            example = "Card created successfully"
+    )
+    private String statusMessage;
+
+    @Schema(
+            description = "Card Number issued to the customer.",
+            example = "100646930341"
+    )
+    private String cardNumber;
+}
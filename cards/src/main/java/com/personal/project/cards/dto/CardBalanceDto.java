@@ -0,0 +1,40 @@
+package com.personal.project.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(name = "CardBalance",
+        description = "Schema to hold the balance of a card after a spend"
+)
+@Data
+@AllArgsConstructor //used by the select new ... of CardsRepository.findBalanceByCardNumber
+@NoArgsConstructor
+public class CardBalanceDto {
+
+    @Schema(
+            description = "Mobile Number of Customer", example = "4354437687"
+    )
+    private String mobileNumber;
+
+    @Schema(
+            description = "Card Number of the customer", example = "100646930341"
+    )
+    private String cardNumber;
+
+    @Schema(
+            description = "Total amount limit available against a card", example = "100000"
+    )
+    private int totalLimit;
+
+    @Schema(
+            description = "Total amount used by a Customer", example = "11000"
+    )
+    private int amountUsed;
+
+    @Schema(
+            description = "Total available amount against a card", example = "89000"
+    )
+    private int availableAmount;
+}
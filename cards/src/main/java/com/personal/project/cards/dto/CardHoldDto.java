@@ -0,0 +1,37 @@
+package com.personal.project.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Schema(name = "CardHold",
+        description = "Schema to hold an authorization hold, the amount is reserved on the card until it is captured, voided or expires"
+)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CardHoldDto {
+
+    @Schema(
+            description = "Id of the hold, to capture or void it", example = "1"
+    )
+    private Long holdId;
+
+    @Schema(
+            description = "Card Number of the customer", example = "100646930341"
+    )
+    private String cardNumber;
+
+    @Schema(
+            description = "Amount reserved on the card", example = "500"
+    )
+    private int amount;
+
+    @Schema(
+            description = "When the hold is released if it is not captured or voided before", example = "2025-01-08T10:15:30Z"
+    )
+    private Instant expiresAt;
+}
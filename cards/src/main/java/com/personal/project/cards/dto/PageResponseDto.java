@@ -0,0 +1,27 @@
+package com.personal.project.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@Schema(
+        name = "PageResponse",
+        description = "Schema to hold one page of a listing and the token to fetch the next one."
+)
+public class PageResponseDto<T> {
+
+    @Schema(
+            description = "Cards on this page, ordered by cardId."
+    )
+    private List<T> content;
+
+    @Schema(
+            description = "Opaque token to pass as pageToken for the next page, null on the last page.",
+            example = "Y2FyZElkOjIw"
+    )
+    private String nextPageToken;
+}
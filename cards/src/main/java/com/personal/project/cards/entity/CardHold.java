@@ -0,0 +1,34 @@
+package com.personal.project.cards.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+//an authorization hold: amount is taken off the available amount of the card until it is captured, voided or expires;
+//the row only exists while the hold is pending, see CardHoldExpiry
+@Entity
+@Table(name = "card_holds")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class CardHold extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "card_holds_seq")
+    @SequenceGenerator(name = "card_holds_seq", sequenceName = "card_holds_seq", allocationSize = 50) //allocationSize has to match INCREMENT BY in schema.sql
+    @Column(name="hold_id")
+    private Long holdId;
+
+    @Column(name="card_number")
+    private String cardNumber;
+
+    @Column(name="amount")
+    private int amount;
+
+    @Column(name="expires_at")
+    private Instant expiresAt;
+
+}
@@ -1,9 +1,21 @@
 package com.personal.project.cards.entity;
 
+import com.personal.project.cards.constants.CardsConstants;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Table(name = "cards", uniqueConstraints = {
+        //at most one card of each type per customer; createCard leaves the duplicate check to this index, racing requests included;
+        //with mobile_number as the leading column it also serves fetchCard, the card list and POST /fetch-batch
+        @UniqueConstraint(name = CardsConstants.UK_CARDS_MOBILE_NUMBER_CARD_TYPE, columnNames = {"mobile_number", "card_type"}),
+        @UniqueConstraint(name = CardsConstants.UK_CARDS_CARD_NUMBER, columnNames = "card_number") //also indexes findByCardNumber
+})
+@Cacheable //second level cache, only used when second-level-cache.enabled is true, see SecondLevelCacheConfig
+//read-write rather than nonstrict: a card changes on every spend, and a fetch racing the update must not cache the balance from before it
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CardsConstants.CARDS_CACHE_REGION)
 @Getter
 @Setter
 @AllArgsConstructor
@@ -12,7 +24,9 @@ import lombok.*;
 public class Cards extends BaseEntity{
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    //ids from cards_seq, 50 per round trip: a bulk issue chunk knows its ids before the flush, so its inserts go out as JDBC batches
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cards_seq")
+    @SequenceGenerator(name = "cards_seq", sequenceName = "cards_seq", allocationSize = 50) //allocationSize has to match INCREMENT BY in schema.sql
     @Column(name="card_id")
     private Long cardId;
 
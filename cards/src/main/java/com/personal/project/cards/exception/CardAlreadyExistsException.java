@@ -4,7 +4,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(value = HttpStatus.BAD_REQUEST)
-public class CardAlreadyExistsException extends RuntimeException{
+public class CardAlreadyExistsException extends BusinessException {
 
     public CardAlreadyExistsException(String message){
         super(message);
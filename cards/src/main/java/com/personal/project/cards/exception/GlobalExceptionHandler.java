@@ -1,6 +1,8 @@
 package com.personal.project.cards.exception;
 
 import com.personal.project.cards.dto.ErrorResponseDto;
+import com.personal.project.cards.observability.RequestOutcome;
+import jakarta.validation.ConstraintViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -13,6 +15,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -21,6 +24,9 @@ import java.util.Map;
 @ControllerAdvice
 public class GlobalExceptionHandler  extends ResponseEntityExceptionHandler {
 
+    //LocalDateTime.now() without a clock looks up (and copies) the default time zone on every error response
+    private final Clock clock = Clock.systemDefaultZone();
+
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(
             MethodArgumentNotValidException ex, HttpHeaders headers, HttpStatusCode status, WebRequest request) {
@@ -32,9 +38,34 @@ public class GlobalExceptionHandler  extends ResponseEntityExceptionHandler {
             String validationMsg = error.getDefaultMessage();
             validationErrors.put(fieldName, validationMsg);
         });
+        RequestOutcome.record(request, RequestOutcome.VALIDATION_ERROR);
         return new ResponseEntity<>(validationErrors, HttpStatus.BAD_REQUEST);
     }
 
+    //every other spring mvc exception (missing parameter, unreadable body, type mismatch ...); a 400 there is a request that did not validate
+    @Override
+    protected ResponseEntity<Object> handleExceptionInternal(
+            Exception ex, Object body, HttpHeaders headers, HttpStatusCode statusCode, WebRequest request) {
+        if (statusCode.value() == HttpStatus.BAD_REQUEST.value()) {
+            RequestOutcome.record(request, RequestOutcome.VALIDATION_ERROR);
+        }
+        return super.handleExceptionInternal(ex, body, headers, statusCode, request);
+    }
+
+    //@Validated controllers check request parameters (e.g. the mobile number pattern) in a proxy, which throws this instead of MethodArgumentNotValidException
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ErrorResponseDto> handleConstraintViolationException(ConstraintViolationException exception,
+                                                                               WebRequest webRequest) {
+        ErrorResponseDto errorResponseDTO = new ErrorResponseDto(
+                webRequest.getDescription(false),
+                HttpStatus.BAD_REQUEST,
+                exception.getMessage(),
+                LocalDateTime.now(clock)
+        );
+        RequestOutcome.record(webRequest, RequestOutcome.VALIDATION_ERROR);
+        return new ResponseEntity<>(errorResponseDTO, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponseDto> handleGlobalException(Exception exception,
                                                                   WebRequest webRequest) {
@@ -42,34 +73,64 @@ public class GlobalExceptionHandler  extends ResponseEntityExceptionHandler {
                 webRequest.getDescription(false),
                 HttpStatus.INTERNAL_SERVER_ERROR,
                 exception.getMessage(),
-                LocalDateTime.now()
+                LocalDateTime.now(clock)
         );
+        RequestOutcome.recordException(webRequest, exception);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(errorResponseDTO);
     }
 
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorResponseDto> handleIdempotencyKeyReusedException(IdempotencyKeyReusedException exception,
+                                                                                WebRequest webRequest) {
+        RequestOutcome.record(webRequest, RequestOutcome.VALIDATION_ERROR);
+        return errorResponse(webRequest, HttpStatus.UNPROCESSABLE_ENTITY, exception.getMessage());
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ErrorResponseDto> handleResourceNotFoundException(ResourceNotFoundException exception,
                                                                             WebRequest webRequest) {
-        ErrorResponseDto errorResponseDTO = new ErrorResponseDto(
-                webRequest.getDescription(false),
-                HttpStatus.NOT_FOUND,
-                exception.getMessage(),
-                LocalDateTime.now()
-        );
-        return new ResponseEntity<>(errorResponseDTO, HttpStatus.NOT_FOUND);
+        RequestOutcome.record(webRequest, RequestOutcome.NOT_FOUND);
+        return errorResponse(webRequest, HttpStatus.NOT_FOUND, exception.getMessage());
     }
 
     @ExceptionHandler(CardAlreadyExistsException.class)
     public ResponseEntity<ErrorResponseDto> handleCardAlreadyExistsException(CardAlreadyExistsException exception,
                                                                              WebRequest webRequest){
+        RequestOutcome.record(webRequest, RequestOutcome.ALREADY_EXISTS);
+        return errorResponse(webRequest, HttpStatus.BAD_REQUEST, exception.getMessage());
+    }
+
+    @ExceptionHandler(InsufficientFundsException.class)
+    public ResponseEntity<ErrorResponseDto> handleInsufficientFundsException(InsufficientFundsException exception,
+                                                                             WebRequest webRequest){
+        RequestOutcome.record(webRequest, RequestOutcome.INSUFFICIENT_FUNDS);
+        return errorResponse(webRequest, HttpStatus.UNPROCESSABLE_ENTITY, exception.getMessage());
+    }
+
+    @ExceptionHandler(VelocityLimitExceededException.class)
+    public ResponseEntity<ErrorResponseDto> handleVelocityLimitExceededException(VelocityLimitExceededException exception,
+                                                                                 WebRequest webRequest){
+        RequestOutcome.record(webRequest, RequestOutcome.VELOCITY_LIMIT_EXCEEDED);
+        return errorResponse(webRequest, HttpStatus.UNPROCESSABLE_ENTITY, exception.getMessage());
+    }
+
+    @ExceptionHandler(InvalidPageTokenException.class)
+    public ResponseEntity<ErrorResponseDto> handleInvalidPageTokenException(InvalidPageTokenException exception,
+                                                                            WebRequest webRequest){
+        RequestOutcome.record(webRequest, RequestOutcome.VALIDATION_ERROR);
+        return errorResponse(webRequest, HttpStatus.BAD_REQUEST, exception.getMessage());
+    }
+
+    //the not found / already exists path: expected answers sent many times a second, so nothing here allocates more than the response itself;
+    //the thrown BusinessException carries no stack trace, see BusinessException
+    private ResponseEntity<ErrorResponseDto> errorResponse(WebRequest webRequest, HttpStatus status, String message) {
         ErrorResponseDto errorResponseDTO = new ErrorResponseDto(
                 webRequest.getDescription(false),
-                HttpStatus.BAD_REQUEST,
-                exception.getMessage(),
-                LocalDateTime.now()
+                status,
+                message,
+                LocalDateTime.now(clock)
         );
-        return new ResponseEntity<>(errorResponseDTO, HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(errorResponseDTO, status);
     }
-
 }
@@ -0,0 +1,12 @@
+package com.personal.project.cards.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.UNPROCESSABLE_ENTITY)
+public class InsufficientFundsException extends BusinessException {
+
+    public InsufficientFundsException(String cardNumber, int amount) {
+        super("Available amount of card " + cardNumber + " is less than " + amount);
+    }
+}
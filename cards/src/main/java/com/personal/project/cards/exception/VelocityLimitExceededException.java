@@ -0,0 +1,12 @@
+package com.personal.project.cards.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.UNPROCESSABLE_ENTITY)
+public class VelocityLimitExceededException extends BusinessException {
+
+    public VelocityLimitExceededException(String cardNumber, long amount, String rule) {
+        super("Spend of " + amount + " with card " + cardNumber + " is over the velocity rule " + rule);
+    }
+}
@@ -0,0 +1,210 @@
+package com.personal.project.cards.holds;
+
+import com.personal.project.cards.cache.CardsCacheEvictor;
+import com.personal.project.cards.coalescing.SingleFlight;
+import com.personal.project.cards.ledger.CardLedger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Releases authorization holds that were neither captured nor voided within card-holds.time-to-live, without ever
+ * scanning the card_holds or cards table for them.
+ * <ul>
+ *     <li>Every hold is put in a TimingWheel when it is created, and on start every hold in card_holds is put in again.</li>
+ *     <li>The task scheduler advances the wheel every card-holds.tick. The holds due are expired in chunks of
+ *     card-holds.expiry-batch-size, each chunk in one transaction. One select ... for update locks the rows that are
+ *     still there, one delete removes them, and one JDBC batch gives their amounts back to the available amount of
+ *     their cards.</li>
+ *     <li>The release goes behind Hibernate: once a chunk has committed its cards are evicted from the second level cache,
+ *     their mobile numbers from SingleFlight and their balances from the CardLedger.</li>
+ *     <li>A hold captured or voided before is not in card_holds anymore, so it is skipped. The row lock settles a capture
+ *     racing the expiry: whichever deletes the row first has the hold.</li>
+ * </ul>
+ * A hold is expired at most one tick late, or later while the database is down: a chunk that fails goes back into
+ * the wheel as due and is tried again on the next tick. Every instance expires the holds it created and the ones in the
+ * table when it started. A hold created by an instance that stops is expired by the next instance to start.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(CardHoldProperties.class)
+public class CardHoldExpiry {
+
+    private static final String RELEASE = "update cards set available_amount = available_amount + ?, updated_at = ?, updated_by = ? "
+            + "where card_number = ?";
+
+    private final CardHoldProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditorAware<String> auditorAware;
+    private final Optional<CardLedger> cardLedger;
+    private final CardsCacheEvictor cardsCacheEvictor;
+    private final SingleFlight singleFlight;
+    private final TaskScheduler taskScheduler;
+    private final Clock clock;
+    private final TimingWheel wheel;
+    private final Counter expired;
+    private ScheduledFuture<?> ticker;
+
+    @Autowired
+    public CardHoldExpiry(CardHoldProperties properties, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                          AuditorAware<String> auditorAware, Optional<CardLedger> cardLedger, CardsCacheEvictor cardsCacheEvictor,
+                          SingleFlight singleFlight, TaskScheduler taskScheduler, MeterRegistry meterRegistry) {
+        this(properties, jdbcTemplate, transactionTemplate, auditorAware, cardLedger, cardsCacheEvictor, singleFlight, taskScheduler,
+                meterRegistry, Clock.systemUTC());
+    }
+
+    CardHoldExpiry(CardHoldProperties properties, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                   AuditorAware<String> auditorAware, Optional<CardLedger> cardLedger, CardsCacheEvictor cardsCacheEvictor,
+                   SingleFlight singleFlight, TaskScheduler taskScheduler, MeterRegistry meterRegistry, Clock clock) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.auditorAware = auditorAware;
+        this.cardLedger = cardLedger;
+        this.cardsCacheEvictor = cardsCacheEvictor;
+        this.singleFlight = singleFlight;
+        this.taskScheduler = taskScheduler; //Spring's, a virtual thread per tick when spring.threads.virtual.enabled
+        this.clock = clock;
+        this.wheel = new TimingWheel(properties.tick().toMillis(), clock.millis());
+        this.expired = Counter.builder("card.holds.expired")
+                .description("Authorization holds released because they were not captured in time").register(meterRegistry);
+        Gauge.builder("card.holds.scheduled", wheel, TimingWheel::size)
+                .description("Holds waiting in the timing wheel, captured and voided ones included until their expiry")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        rebuild();
+        ticker = taskScheduler.scheduleWithFixedDelay(this::tickQuietly, Instant.now().plus(properties.tick()), properties.tick());
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.cancel(true);
+    }
+
+    //card-holds.time-to-live, how long a hold waits for its capture
+    public Duration timeToLive() {
+        return properties.timeToLive();
+    }
+
+    /***
+     * @param holdId - id of a hold just committed to card_holds
+     * @param expiresAt - when it is released unless captured or voided before
+     */
+    public void schedule(long holdId, Instant expiresAt) {
+        wheel.add(holdId, expiresAt.toEpochMilli());
+    }
+
+    //every pending hold, one pass over card_holds; a hold already past its expiry is due on the first tick
+    void rebuild() {
+        long[] holds = new long[1];
+        jdbcTemplate.query("select hold_id, expires_at from card_holds", (RowCallbackHandler) resultSet -> {
+            wheel.add(resultSet.getLong(1), resultSet.getObject(2, OffsetDateTime.class).toInstant().toEpochMilli());
+            holds[0]++;
+        });
+        log.info("Scheduled the expiry of {} pending card holds", holds[0]);
+    }
+
+    /***
+     * Advances the wheel to now and expires the holds that are due
+     * @return number of holds released, the due ones that were captured or voided meanwhile are not counted
+     */
+    int tick() {
+        TimingWheel.Due due = wheel.advance(clock.millis());
+        int released = 0;
+        for (int from = 0; from < due.size(); from += properties.expiryBatchSize()) {
+            int to = Math.min(from + properties.expiryBatchSize(), due.size());
+            try {
+                released += expire(due, from, to);
+            } catch (RuntimeException exception) {
+                for (int i = from; i < due.size(); i++) {
+                    wheel.add(due.get(i), 0); //a deadline long past: due again on the next tick
+                }
+                throw exception;
+            }
+        }
+        return released;
+    }
+
+    private void tickQuietly() {
+        try {
+            tick();
+        } catch (RuntimeException exception) {
+            log.error("Card hold expiry failed, retrying in {}", properties.tick(), exception);
+        }
+    }
+
+    private int expire(TimingWheel.Due due, int from, int to) {
+        List<Object> holdIds = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            holdIds.add(due.get(i));
+        }
+        Map<String, Long> releasedPerCard = new HashMap<>();
+        Set<Long> cardIds = new HashSet<>();
+        Set<String> mobileNumbers = new HashSet<>();
+        Integer released = transactionTemplate.execute(status -> {
+            List<Object> pending = new ArrayList<>(holdIds.size());
+            //the card id and mobile number come along for the evictions after the commit, a hold of a deleted card has neither
+            jdbcTemplate.query("select h.hold_id, h.card_number, h.amount, c.card_id, c.mobile_number from card_holds h "
+                            + "left join cards c on c.card_number = h.card_number where h.hold_id in (" + placeholders(holdIds.size()) + ") for update",
+                    (RowCallbackHandler) resultSet -> {
+                        pending.add(resultSet.getLong(1));
+                        releasedPerCard.merge(resultSet.getString(2), resultSet.getLong(3), Long::sum);
+                        if (resultSet.getString(5) != null) {
+                            cardIds.add(resultSet.getLong(4));
+                            mobileNumbers.add(resultSet.getString(5));
+                        }
+                    }, holdIds.toArray());
+            if (pending.isEmpty()) {
+                return 0;
+            }
+            jdbcTemplate.update("delete from card_holds where hold_id in (" + placeholders(pending.size()) + ")", pending.toArray());
+            Timestamp updatedAt = Timestamp.valueOf(LocalDateTime.now());
+            String updatedBy = auditorAware.getCurrentAuditor().orElse(null);
+            List<Object[]> rows = new ArrayList<>(releasedPerCard.size());
+            releasedPerCard.forEach((cardNumber, amount) -> rows.add(new Object[]{amount, updatedAt, updatedBy, cardNumber}));
+            jdbcTemplate.batchUpdate(RELEASE, rows);
+            return pending.size();
+        });
+        //the available amounts changed behind Hibernate and the ledger
+        cardsCacheEvictor.evict(cardIds);
+        mobileNumbers.forEach(singleFlight::forget);
+        cardLedger.ifPresent(ledger -> releasedPerCard.keySet().forEach(ledger::forget));
+        expired.increment(released);
+        return released;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+}
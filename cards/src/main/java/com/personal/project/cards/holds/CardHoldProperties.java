@@ -0,0 +1,20 @@
+package com.personal.project.cards.holds;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+//card-holds in application.yml, see CardHoldExpiry
+@ConfigurationProperties(prefix = "card-holds")
+public record CardHoldProperties(Duration timeToLive, Duration tick, int expiryBatchSize) {
+
+    private static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofDays(7);
+    private static final Duration DEFAULT_TICK = Duration.ofSeconds(1);
+    private static final int DEFAULT_EXPIRY_BATCH_SIZE = 1_000;
+
+    public CardHoldProperties {
+        timeToLive = timeToLive != null ? timeToLive : DEFAULT_TIME_TO_LIVE;
+        tick = tick != null && tick.toMillis() > 0 ? tick : DEFAULT_TICK;
+        expiryBatchSize = expiryBatchSize > 0 ? expiryBatchSize : DEFAULT_EXPIRY_BATCH_SIZE;
+    }
+}
@@ -0,0 +1,163 @@
+package com.personal.project.cards.holds;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timing wheel of hold ids, see CardHoldExpiry. Time is counted in ticks of tickMillis since the epoch.
+ * Level 0 has a slot for each of the next 64 ticks. Level 1 has a slot for each of the next 64 runs of 64 ticks, and so on.
+ * An id sits in the lowest level whose range covers its deadline. When the ticks below a higher slot have all passed,
+ * that slot is cascaded: its ids are put in again and go one or more levels down. So adding is O(1). A tick costs
+ * the ids due in it plus, every 64 ticks, the ids of the one higher slot that comes due. Nothing ever scans the
+ * whole wheel. With 4 levels and 1s ticks the wheel covers 194 days, a deadline further out waits in the top level
+ * and is cascaded again until it is in range.
+ * <p>
+ * A slot is two growable long arrays, so a hold is 16 bytes here and no object. There is no cancel: a hold captured or
+ * voided before its deadline stays in the wheel and is skipped by the expiry, which only releases holds still in the
+ * card_holds table. Thread safe, add and advance lock the wheel. Advance only collects the due ids, expiring them is up
+ * to the caller, outside the lock.
+ */
+final class TimingWheel {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final Slot[][] levels = new Slot[LEVELS][SLOTS];
+    private final Slot overdue = new Slot(); //deadline already reached when added or cascaded, due on the next advance
+    private long currentTick;
+    private long size;
+
+    TimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+        for (Slot[] level : levels) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                level[slot] = new Slot();
+            }
+        }
+    }
+
+    //rounded up to the next tick, so an id is never due before its deadline
+    synchronized void add(long id, long deadlineMillis) {
+        insert(id, -Math.floorDiv(-deadlineMillis, tickMillis));
+        size++;
+    }
+
+    /***
+     * Moves the wheel to nowMillis, tick by tick, and takes out every id whose deadline has been reached
+     * @param nowMillis - current time, a time before the last advance is a no-op
+     * @return the due ids, in deadline order per tick
+     */
+    synchronized Due advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        Due due = new Due();
+        overdue.moveTo(due);
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            levels[0][(int) (currentTick & MASK)].moveTo(due);
+            overdue.moveTo(due); //ids cascaded to a deadline of this very tick
+        }
+        size -= due.size;
+        return due;
+    }
+
+    //ids in the wheel, including captured and voided holds that are not due yet
+    synchronized long size() {
+        return size;
+    }
+
+    private void insert(long id, long deadlineTick) {
+        long delta = deadlineTick - currentTick;
+        if (delta <= 0) {
+            overdue.add(id, deadlineTick);
+            return;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        levels[level][(int) ((deadlineTick >>> (BITS * level)) & MASK)].add(id, deadlineTick);
+    }
+
+    //on the first tick of a run of 64 level 0 ticks the level 1 slot of that run comes due, and so on up the levels
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (BITS * level)) - 1)) != 0) {
+                return;
+            }
+            Slot slot = levels[level][(int) ((currentTick >>> (BITS * level)) & MASK)];
+            long[] ids = slot.ids;
+            long[] deadlines = slot.deadlines;
+            int count = slot.size;
+            slot.clear(); //first: a deadline still beyond the top level goes back into this same slot
+            for (int i = 0; i < count; i++) {
+                insert(ids[i], deadlines[i]);
+            }
+        }
+    }
+
+    private static final class Slot {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private long[] ids;
+        private long[] deadlines;
+        private int size;
+
+        private void add(long id, long deadlineTick) {
+            if (ids == null) {
+                ids = new long[INITIAL_CAPACITY];
+                deadlines = new long[INITIAL_CAPACITY];
+            } else if (size == ids.length) {
+                int capacity = size + (size >> 1);
+                ids = Arrays.copyOf(ids, capacity);
+                deadlines = Arrays.copyOf(deadlines, capacity);
+            }
+            ids[size] = id;
+            deadlines[size] = deadlineTick;
+            size++;
+        }
+
+        private void moveTo(Due due) {
+            if (size > 0) {
+                due.add(ids, size);
+                clear();
+            }
+        }
+
+        //drops the arrays, a slot that held a burst of holds does not keep its capacity
+        private void clear() {
+            ids = null;
+            deadlines = null;
+            size = 0;
+        }
+    }
+
+    /**
+     * Ids taken out by one advance
+     */
+    static final class Due {
+
+        private long[] ids = new long[0];
+        private int size;
+
+        private void add(long[] more, int count) {
+            if (size + count > ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(size + count, ids.length * 2));
+            }
+            System.arraycopy(more, 0, ids, size, count);
+            size += count;
+        }
+
+        long get(int index) {
+            return ids[index];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
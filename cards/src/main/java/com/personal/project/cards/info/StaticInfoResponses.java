@@ -0,0 +1,119 @@
+package com.personal.project.cards.info;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personal.project.cards.dto.CardsContactInfoDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * The build-version, java-version and cards-service-info responses, serialized once with their ETag and handed
+ * out as the same immutable ResponseEntity on every call: the load balancers poll them all the time and the answer
+ * only changes with the configuration. A config refresh (EnvironmentChangeEvent) that touches build.version,
+ * JAVA_HOME or cards.* renders the affected one again; any other refresh leaves them alone.
+ * A request whose If-None-Match carries the ETag gets 304 Not Modified (done by Spring for a ResponseEntity with an ETag).
+ */
+@Slf4j
+@Component
+public class StaticInfoResponses {
+
+    static final String BUILD_VERSION_PROPERTY = "build.version";
+    static final String JAVA_HOME_PROPERTY = "JAVA_HOME";
+    static final ConfigurationPropertyName CONTACT_INFO_PREFIX = ConfigurationPropertyName.of("cards");
+
+    private final Environment environment;
+    private final ObjectMapper objectMapper;
+
+    private volatile ResponseEntity<byte[]> buildVersion;
+    private volatile ResponseEntity<byte[]> javaVersion;
+    private volatile ResponseEntity<byte[]> serviceInfo;
+
+    public StaticInfoResponses(Environment environment, ObjectMapper objectMapper, CardsContactInfoDto cardsContactInfoDto) {
+        this.environment = environment;
+        this.objectMapper = objectMapper;
+        this.buildVersion = response(text(environment.getProperty(BUILD_VERSION_PROPERTY)));
+        this.javaVersion = response(text(environment.getProperty(JAVA_HOME_PROPERTY)));
+        this.serviceInfo = response(json(cardsContactInfoDto));
+    }
+
+    public ResponseEntity<byte[]> buildVersion() {
+        return buildVersion;
+    }
+
+    public ResponseEntity<byte[]> javaVersion() {
+        return javaVersion;
+    }
+
+    public ResponseEntity<byte[]> serviceInfo() {
+        return serviceInfo;
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        Set<String> keys = event.getKeys();
+        if (keys.contains(BUILD_VERSION_PROPERTY)) {
+            buildVersion = rendered("build-version", buildVersion, text(environment.getProperty(BUILD_VERSION_PROPERTY)));
+        }
+        if (keys.contains(JAVA_HOME_PROPERTY)) {
+            javaVersion = rendered("java-version", javaVersion, text(environment.getProperty(JAVA_HOME_PROPERTY)));
+        }
+        if (keys.stream().anyMatch(StaticInfoResponses::isContactInfoKey)) {
+            //the CardsContactInfoDto bean is a record, the refresh does not rebind it, so bind the current values here
+            CardsContactInfoDto cardsContactInfoDto = Binder.get(environment)
+                    .bind(CONTACT_INFO_PREFIX, Bindable.of(CardsContactInfoDto.class))
+                    .orElseGet(() -> new CardsContactInfoDto(null, null, null, null));
+            serviceInfo = rendered("cards-service-info", serviceInfo, json(cardsContactInfoDto));
+        }
+    }
+
+    //a refresh can list a key whose value ends up the same, keep the old response (and ETag) then
+    private static ResponseEntity<byte[]> rendered(String endpoint, ResponseEntity<byte[]> current, byte[] body) {
+        ResponseEntity<byte[]> refreshed = response(body);
+        if (refreshed.getHeaders().getETag().equals(current.getHeaders().getETag())) {
+            return current;
+        }
+        log.info("{} changed after a config refresh, ETag {} -> {}", endpoint,
+                current.getHeaders().getETag(), refreshed.getHeaders().getETag());
+        return refreshed;
+    }
+
+    //the ETag is a hash of the body, so every instance behind the load balancer hands out the same one
+    private static ResponseEntity<byte[]> response(byte[] body) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag("\"" + DigestUtils.md5DigestAsHex(body) + "\"")
+                .body(body);
+    }
+
+    private static boolean isContactInfoKey(String key) {
+        ConfigurationPropertyName name = ConfigurationPropertyName.adapt(key, '.');
+        return CONTACT_INFO_PREFIX.isAncestorOf(name);
+    }
+
+    //written as is, like the String the endpoints returned before; a missing property is an empty body
+    private static byte[] text(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] json(CardsContactInfoDto cardsContactInfoDto) {
+        try {
+            return objectMapper.writeValueAsBytes(cardsContactInfoDto);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Could not serialize " + cardsContactInfoDto, exception);
+        }
+    }
+}
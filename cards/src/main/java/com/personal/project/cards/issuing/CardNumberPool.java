@@ -0,0 +1,141 @@
+package com.personal.project.cards.issuing;
+
+import com.personal.project.cards.repository.CardsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.random.RandomGenerator;
+
+/**
+ * Hands out card numbers for new cards from numbers generated ahead of time, see CardNumbers for the format.
+ * A background task on applicationTaskExecutor fills the pool in batches: every batch is checked against the cards table with one query and
+ * only the numbers not taken yet go into the pool. The refill starts once the pool is below card-numbers.refill-below.
+ * <p>
+ * next never waits for the refill: on an empty pool it generates one number on the spot without the table check.
+ * Either way the unique index uk_cards_card_number is what guarantees a number is only used once (another instance,
+ * or a card created between the check and the insert, can still take it), so the caller retries a violation with the next number.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(CardNumberPoolProperties.class)
+public class CardNumberPool {
+
+    private final CardNumberPoolProperties properties;
+    private final CardsRepository cardsRepository;
+    private final AsyncTaskExecutor refiller;
+    private final RandomGenerator random; //used by the refill thread and by misses at the same time, has to be thread safe
+    private final BlockingQueue<String> pool;
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final Counter misses;
+    private volatile boolean stopped; //the executor is shared, stop cannot shut it down
+
+    @Autowired
+    public CardNumberPool(CardNumberPoolProperties properties, CardsRepository cardsRepository,
+                          @Qualifier("applicationTaskExecutor") AsyncTaskExecutor refiller, //virtual threads when spring.threads.virtual.enabled
+                          MeterRegistry meterRegistry) {
+        this(properties, cardsRepository, refiller, meterRegistry, new SecureRandom());
+    }
+
+    CardNumberPool(CardNumberPoolProperties properties, CardsRepository cardsRepository, AsyncTaskExecutor refiller,
+                   MeterRegistry meterRegistry, RandomGenerator random) {
+        this.properties = properties;
+        this.cardsRepository = cardsRepository;
+        this.refiller = refiller;
+        this.random = random;
+        this.pool = new LinkedBlockingQueue<>(properties.poolSize());
+        this.misses = Counter.builder("card.numbers.pool.misses")
+                .description("Card numbers generated on the spot because the pool was empty").register(meterRegistry);
+        Gauge.builder("card.numbers.pool.size", pool, BlockingQueue::size).register(meterRegistry);
+    }
+
+    //in the background, the application does not wait for the first batches
+    @PostConstruct
+    public void start() {
+        refillIfLow();
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true; //a refill in progress ends after its current batch
+    }
+
+    /***
+     * @return a Luhn valid card number, not in the cards table when it was generated
+     */
+    public String next() {
+        String cardNumber = pool.poll();
+        if (cardNumber == null) {
+            misses.increment();
+            cardNumber = CardNumbers.generate(random);
+        }
+        refillIfLow();
+        return cardNumber;
+    }
+
+    /***
+     * @param count - how many card numbers are needed, e.g. one bulk create chunk
+     * @return count card numbers, taken from the pool as far as it has them and generated on the spot for the rest
+     */
+    public List<String> next(int count) {
+        List<String> cardNumbers = new ArrayList<>(count);
+        pool.drainTo(cardNumbers, count);
+        int missing = count - cardNumbers.size();
+        if (missing > 0) {
+            misses.increment(missing);
+            for (int i = 0; i < missing; i++) {
+                cardNumbers.add(CardNumbers.generate(random));
+            }
+        }
+        refillIfLow();
+        return cardNumbers;
+    }
+
+    private void refillIfLow() {
+        if (!stopped && pool.size() < properties.refillBelow() && refilling.compareAndSet(false, true)) {
+            refiller.execute(() -> {
+                try {
+                    refill();
+                } catch (RuntimeException exception) {
+                    log.warn("Could not refill the card number pool, the next issue tries again", exception);
+                } finally {
+                    refilling.set(false);
+                }
+            });
+        }
+    }
+
+    //fills the pool up to pool-size, one table check per batch
+    void refill() {
+        while (pool.remainingCapacity() > 0 && !stopped) {
+            int batchSize = Math.min(properties.batchSize(), pool.remainingCapacity());
+            Set<String> batch = new HashSet<>(batchSize * 2);
+            while (batch.size() < batchSize) {
+                batch.add(CardNumbers.generate(random));
+            }
+            List<String> taken = cardsRepository.findExistingCardNumbers(batch);
+            taken.forEach(batch::remove);
+            batch.forEach(pool::offer); //only this thread adds, the batch fits
+        }
+    }
+
+    int size() {
+        return pool.size();
+    }
+}
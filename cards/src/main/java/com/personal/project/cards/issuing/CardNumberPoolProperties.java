@@ -0,0 +1,17 @@
+package com.personal.project.cards.issuing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+//card-numbers in application.yml, see CardNumberPool
+@ConfigurationProperties(prefix = "card-numbers")
+public record CardNumberPoolProperties(int poolSize, int refillBelow, int batchSize) {
+
+    private static final int DEFAULT_POOL_SIZE = 10_000;
+    private static final int DEFAULT_BATCH_SIZE = 1_000;
+
+    public CardNumberPoolProperties {
+        poolSize = poolSize > 0 ? poolSize : DEFAULT_POOL_SIZE;
+        refillBelow = refillBelow > 0 ? Math.min(refillBelow, poolSize) : poolSize / 4;
+        batchSize = batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+    }
+}
@@ -0,0 +1,57 @@
+package com.personal.project.cards.issuing;
+
+import java.util.random.RandomGenerator;
+
+//12 digit card numbers: 11 random digits, the first one not 0, followed by their Luhn check digit
+public final class CardNumbers {
+
+    public static final int LENGTH = 12;
+    private static final long FIRST_PAYLOAD = 10_000_000_000L;
+    private static final long PAYLOADS = 90_000_000_000L;
+
+    private CardNumbers() {}
+
+    /***
+     * @param random - source of the 11 digits in front of the check digit
+     * @return a Luhn valid 12 digit card number, not checked against the cards table
+     */
+    public static String generate(RandomGenerator random) {
+        long payload = FIRST_PAYLOAD + random.nextLong(PAYLOADS);
+        return Long.toString(payload * 10 + checkDigit(payload));
+    }
+
+    /***
+     * @param cardNumber - card number to check
+     * @return true when it has 12 digits and its last digit is the Luhn check digit of the others
+     */
+    public static boolean isValid(String cardNumber) {
+        if (cardNumber == null || cardNumber.length() != LENGTH || cardNumber.charAt(0) == '0') {
+            return false;
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            if (cardNumber.charAt(i) < '0' || cardNumber.charAt(i) > '9') {
+                return false;
+            }
+        }
+        long number = Long.parseLong(cardNumber);
+        return checkDigit(number / 10) == number % 10;
+    }
+
+    //Luhn: from the right, every second digit is doubled (the rightmost payload digit first, the check digit comes after it)
+    static int checkDigit(long payload) {
+        int sum = 0;
+        boolean doubled = true;
+        for (long rest = payload; rest > 0; rest /= 10) {
+            int digit = (int) (rest % 10);
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
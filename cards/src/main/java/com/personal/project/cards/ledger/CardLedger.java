@@ -0,0 +1,381 @@
+package com.personal.project.cards.ledger;
+
+import com.personal.project.cards.cache.CardsCacheEvictor;
+import com.personal.project.cards.dto.CardBalanceDto;
+import com.personal.project.cards.exception.InsufficientFundsException;
+import com.personal.project.cards.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Optional in-memory ledger for hot cards (card-ledger.enabled): spends are approved against balances held in memory,
+ * so a card taking hundreds of authorizations a second no longer queues on the row lock of its cards row.
+ * <ul>
+ *     <li>Balances live in lock stripes, a spend only locks the stripe of its card number.
+ *     Its stripe also collects the spent amount per card (the pending delta of the current epoch).</li>
+ *     <li>Every approved spend is appended to CardLedgerLog and only answered once the log is on disk (group commit),
+ *     so a crash loses no acknowledged spend.</li>
+ *     <li>Every flushInterval the epoch is closed: the pending deltas of all stripes are swapped out and written to the
+ *     cards table as relative updates in one JDBC batch, in the same transaction that moves card_ledger_checkpoint
+ *     to that epoch. The log segment of the epoch is then deleted. On start, segments newer than the checkpoint are replayed.</li>
+ * </ul>
+ * A card is loaded from the database on its first spend and stays in memory until forget (update and delete of the card,
+ * capture and void of a hold). A hold is reserved through the ledger as well, see reserve.
+ * While the ledger is on, its pending deltas are not in the cards table yet: a fetch shows the balance as of the last flush.
+ * The flush writes behind Hibernate, so it evicts the flushed cards from the second level cache once it has committed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "card-ledger", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(CardLedgerProperties.class)
+public class CardLedger {
+
+    private static final String APPLY_DELTA = "update cards set available_amount = available_amount - ?, amount_used = amount_used + ?, "
+            + "updated_at = ?, updated_by = ? where card_number = ?";
+    private static final String MOVE_CHECKPOINT = "update card_ledger_checkpoint set epoch = ? where id = 1";
+    //the balance and the epoch it includes in one statement, so they are read from the same committed state
+    private static final String LOAD_BALANCE = "select c.mobile_number, c.total_limit, c.amount_used, c.available_amount, k.epoch "
+            + "from cards c cross join card_ledger_checkpoint k where c.card_number = ? and k.id = 1";
+
+    private final CardLedgerProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditorAware<String> auditorAware;
+    private final CardsCacheEvictor cardsCacheEvictor;
+    private final CardLedgerLog cardLedgerLog;
+    private final Stripe[] stripes;
+    private final TaskScheduler taskScheduler;
+    private final Timer flushTimer;
+    //a lock rather than synchronized: the flush writes to the database, and on a virtual thread synchronized would pin its carrier meanwhile
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private ScheduledFuture<?> flushTask;
+
+    //closed epochs not yet known to be in the cards table, oldest first; only changed while every stripe is locked
+    private final List<Epoch> unflushed = new CopyOnWriteArrayList<>();
+    private long epoch; //the open one, guarded by the stripe locks (all of them to change it)
+
+    public CardLedger(CardLedgerProperties properties, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                      AuditorAware<String> auditorAware, CardsCacheEvictor cardsCacheEvictor, TaskScheduler taskScheduler,
+                      MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.auditorAware = auditorAware;
+        this.cardsCacheEvictor = cardsCacheEvictor;
+        this.taskScheduler = taskScheduler; //Spring's, a virtual thread per flush when spring.threads.virtual.enabled
+        this.cardLedgerLog = new CardLedgerLog(properties.logDirectory(), properties.fsync());
+        this.stripes = new Stripe[properties.stripes()];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.flushTimer = Timer.builder("card.ledger.flush")
+                .description("Writing the deltas of one epoch to the cards table")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        recover();
+        flushTask = taskScheduler.scheduleWithFixedDelay(this::flushQuietly, Instant.now().plus(properties.flushInterval()),
+                properties.flushInterval());
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        flushTask.cancel(false); //a flush already running is waited for by the last one below
+        try {
+            flush();
+        } finally {
+            cardLedgerLog.close();
+        }
+    }
+
+    /***
+     * Replays the log segments the cards table does not have yet and opens the log for the next epoch.
+     */
+    void recover() {
+        try {
+            long checkpoint = checkpoint();
+            long lastEpoch = checkpoint;
+            for (Map.Entry<Long, List<CardLedgerLog.Record>> segment : cardLedgerLog.readSegments().entrySet()) {
+                long segmentEpoch = segment.getKey();
+                if (segmentEpoch > checkpoint && !segment.getValue().isEmpty()) {
+                    Map<String, Long> deltas = new HashMap<>();
+                    segment.getValue().forEach(record -> deltas.merge(record.cardNumber(), (long) record.amount(), Long::sum));
+                    write(new Epoch(segmentEpoch, deltas));
+                    log.info("Replayed {} card ledger spends of epoch {}", segment.getValue().size(), segmentEpoch);
+                }
+                cardLedgerLog.delete(segmentEpoch);
+                lastEpoch = Math.max(lastEpoch, segmentEpoch);
+            }
+            epoch = lastEpoch + 1;
+            cardLedgerLog.open(epoch);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not recover the card ledger from " + properties.logDirectory(), exception);
+        }
+    }
+
+    /***
+     * At least once: when the fsync fails the spend is already in the balance and in the log buffer, a later fsync or
+     * the flush still applies it. It is not rolled back (its record could reach the disk and be replayed anyway), so the
+     * caller gets an error for a spend that may go through; a retry of it is a second spend.
+     *
+     * @param cardNumber - Card Number to spend with
+     * @param amount - amount to move from the available amount to the amount used
+     * @return the balance of the card after the spend, once the spend is in the log on disk
+     */
+    public CardBalanceDto authorize(String cardNumber, int amount) {
+        Stripe stripe = stripe(cardNumber);
+        CardBalanceDto cardBalanceDto;
+        long sequence;
+        stripe.lock.lock();
+        try {
+            Balance balance = balance(stripe, cardNumber);
+            if (balance.availableAmount < amount) {
+                throw new InsufficientFundsException(cardNumber, amount);
+            }
+            sequence = cardLedgerLog.append(cardNumber, amount); //first, a failed append leaves the balance as it was
+            balance.availableAmount -= amount;
+            balance.amountUsed += amount;
+            stripe.pending.merge(cardNumber, (long) amount, Long::sum);
+            cardBalanceDto = balance.toDto(cardNumber);
+        } finally {
+            stripe.lock.unlock();
+        }
+        cardLedgerLog.awaitDurable(sequence); //outside the stripe lock, the fsync is shared with every spend appended meanwhile
+        return cardBalanceDto;
+    }
+
+    /***
+     * Reserves the amount of a hold against the balance in memory, which has the spends not flushed yet.
+     * The hold goes to the database while the stripe stays locked, so no spend of the card comes between the check and the write;
+     * the reserve is in the cards table once it commits, it is never part of an epoch.
+     *
+     * @param cardNumber - Card Number to reserve the amount on
+     * @param amount - amount to take off the available amount
+     * @param reserveInDatabase - reserves the amount in the cards table and records the hold, in its own transaction
+     * @return what reserveInDatabase returned
+     */
+    public <T> T reserve(String cardNumber, int amount, Supplier<T> reserveInDatabase) {
+        Stripe stripe = stripe(cardNumber);
+        stripe.lock.lock();
+        try {
+            Balance balance = balance(stripe, cardNumber);
+            if (balance.availableAmount < amount) {
+                throw new InsufficientFundsException(cardNumber, amount);
+            }
+            T reserved;
+            try {
+                reserved = reserveInDatabase.get();
+            } catch (RuntimeException exception) {
+                stripe.balances.remove(cardNumber); //the row may have changed behind the ledger, the next spend loads it again
+                throw exception;
+            }
+            balance.availableAmount -= amount;
+            return reserved;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    //the cards row was changed (or deleted) behind the ledger, the next spend loads it again
+    public void forget(String cardNumber) {
+        Stripe stripe = stripe(cardNumber);
+        stripe.lock.lock();
+        try {
+            stripe.balances.remove(cardNumber);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /***
+     * Closes the open epoch and writes every closed epoch that is not in the cards table yet, oldest first.
+     * Runs every card-ledger.flush-interval on the task scheduler, and once more on shutdown.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushEpochs();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushEpochs() {
+        lockAll();
+        try {
+            unflushed.removeIf(closed -> closed.written); //no load can be between its database read and its correction now
+            Map<String, Long> deltas = new HashMap<>();
+            for (Stripe stripe : stripes) {
+                if (!stripe.pending.isEmpty()) {
+                    deltas.putAll(stripe.pending); //a card number is only ever in one stripe
+                    stripe.pending = new HashMap<>();
+                }
+            }
+            if (!deltas.isEmpty()) {
+                unflushed.add(new Epoch(epoch, deltas));
+                cardLedgerLog.roll(++epoch);
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not roll the card ledger log", exception);
+        } finally {
+            unlockAll();
+        }
+        for (Epoch closed : unflushed) {
+            if (!closed.written) {
+                flushTimer.record(() -> write(closed)); //throws when the database is down, the epoch is retried on the next flush
+                closed.written = true;
+                try {
+                    cardLedgerLog.delete(closed.id);
+                } catch (IOException exception) {
+                    log.warn("Could not delete the card ledger log of epoch {}, it is skipped on the next start", closed.id, exception);
+                }
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException exception) {
+            log.error("Card ledger flush failed, retrying in {}", properties.flushInterval(), exception);
+        }
+    }
+
+    //one JDBC batch of relative updates, committed together with the checkpoint so an epoch is applied exactly once;
+    //then the cards are evicted, a fetch reading the row between the commit and the eviction is healed by the region TTL
+    private void write(Epoch closed) {
+        Timestamp updatedAt = Timestamp.valueOf(LocalDateTime.now());
+        String updatedBy = auditorAware.getCurrentAuditor().orElse(null);
+        List<Object[]> rows = new ArrayList<>(closed.deltas.size());
+        closed.deltas.forEach((cardNumber, amount) -> rows.add(new Object[]{amount, amount, updatedAt, updatedBy, cardNumber}));
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(APPLY_DELTA, rows);
+            jdbcTemplate.update(MOVE_CHECKPOINT, closed.id);
+        });
+        cardsCacheEvictor.evictCardNumbers(closed.deltas.keySet());
+    }
+
+    //under the stripe lock
+    private Balance balance(Stripe stripe, String cardNumber) {
+        Balance balance = stripe.balances.get(cardNumber);
+        if (balance == null) {
+            balance = load(stripe, cardNumber);
+            stripe.balances.put(cardNumber, balance);
+        }
+        return balance;
+    }
+
+    //under the stripe lock: the row does not have the deltas of the epochs after its checkpoint yet, they are taken off here
+    private Balance load(Stripe stripe, String cardNumber) {
+        Balance balance = jdbcTemplate.query(LOAD_BALANCE, resultSet -> {
+            if (!resultSet.next()) {
+                return null;
+            }
+            Balance loaded = new Balance(resultSet.getString(1), resultSet.getInt(2), resultSet.getInt(3), resultSet.getInt(4));
+            long checkpoint = resultSet.getLong(5);
+            for (Epoch closed : unflushed) {
+                if (closed.id > checkpoint) {
+                    loaded.subtract(closed.deltas.getOrDefault(cardNumber, 0L));
+                }
+            }
+            loaded.subtract(stripe.pending.getOrDefault(cardNumber, 0L));
+            return loaded;
+        }, cardNumber);
+        if (balance == null) {
+            throw new ResourceNotFoundException("Card", "CardNumber", cardNumber);
+        }
+        return balance;
+    }
+
+    private long checkpoint() {
+        List<Long> checkpoint = jdbcTemplate.queryForList("select epoch from card_ledger_checkpoint where id = 1", Long.class);
+        if (checkpoint.isEmpty()) {
+            jdbcTemplate.update("insert into card_ledger_checkpoint (id, epoch) values (1, 0)");
+            return 0;
+        }
+        return checkpoint.get(0);
+    }
+
+    private Stripe stripe(String cardNumber) {
+        int hash = cardNumber.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private void lockAll() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.unlock();
+        }
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Balance> balances = new HashMap<>();
+        private Map<String, Long> pending = new HashMap<>(); //amount spent per card in the open epoch
+    }
+
+    private static final class Balance {
+        private final String mobileNumber;
+        private final int totalLimit;
+        private int amountUsed;
+        private int availableAmount;
+
+        private Balance(String mobileNumber, int totalLimit, int amountUsed, int availableAmount) {
+            this.mobileNumber = mobileNumber;
+            this.totalLimit = totalLimit;
+            this.amountUsed = amountUsed;
+            this.availableAmount = availableAmount;
+        }
+
+        private void subtract(long amount) {
+            availableAmount -= (int) amount;
+            amountUsed += (int) amount;
+        }
+
+        private CardBalanceDto toDto(String cardNumber) {
+            return new CardBalanceDto(mobileNumber, cardNumber, totalLimit, amountUsed, availableAmount);
+        }
+    }
+
+    private static final class Epoch {
+        private final long id;
+        private final Map<String, Long> deltas;
+        private volatile boolean written;
+
+        private Epoch(long id, Map<String, Long> deltas) {
+            this.id = id;
+            this.deltas = deltas;
+        }
+    }
+}
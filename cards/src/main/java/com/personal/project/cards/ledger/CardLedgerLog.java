@@ -0,0 +1,218 @@
+package com.personal.project.cards.ledger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append only log of the spends CardLedger approved, one segment file per epoch: a segment can be deleted as soon as
+ * its epoch is in the cards table (card_ledger_checkpoint), and whatever is left after a crash is replayed on start.
+ * A record is (cardNumber, amount); a torn record at the end of a segment (the crash hit mid write) is dropped,
+ * it belongs to a spend that was never acknowledged.
+ * <p>
+ * Group commit: appends only go to a buffer, a caller that needs its spend on disk calls awaitDurable with the
+ * sequence of its record, and one fsync then covers every record appended so far, i.e. all callers waiting at that moment.
+ * Locks rather than synchronized: every spend waits for an fsync, and on a virtual thread a monitor would pin its carrier meanwhile.
+ */
+class CardLedgerLog implements AutoCloseable {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("epoch-(\\d+)\\.log");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final boolean fsync;
+
+    private final ReentrantLock appendLock = new ReentrantLock(); //guards segment, out and appended
+    private final ReentrantLock syncLock = new ReentrantLock(); //guards syncing; held by roll and close for the whole segment switch
+    private final Condition synced = syncLock.newCondition(); //signalled when an fsync ends
+    private boolean syncing; //one fsync at a time, the others wait for it and usually find their record covered
+    private FileChannel segment;
+    private DataOutputStream out;
+    private long appended;
+    private volatile long durable;
+
+    CardLedgerLog(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+    }
+
+    //the epochs that still have a segment on disk, oldest first, with their records
+    Map<Long, List<Record>> readSegments() throws IOException {
+        Files.createDirectories(directory);
+        Map<Long, List<Record>> segments = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.put(Long.parseLong(matcher.group(1)), read(file));
+                }
+            }
+        }
+        return segments;
+    }
+
+    void open(long epoch) throws IOException {
+        appendLock.lock();
+        try {
+            segment = FileChannel.open(segment(epoch), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(segment), BUFFER_SIZE));
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    //@return the sequence to hand to awaitDurable
+    long append(String cardNumber, int amount) {
+        appendLock.lock();
+        try {
+            out.writeUTF(cardNumber);
+            out.writeInt(amount);
+            return ++appended;
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not append to the card ledger log", exception);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    void awaitDurable(long sequence) {
+        if (durable >= sequence) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            while (syncing && durable < sequence) {
+                synced.awaitUninterruptibly();
+            }
+            if (durable >= sequence) {
+                return; //the fsync of another caller covered this record
+            }
+            syncing = true;
+        } finally {
+            syncLock.unlock();
+        }
+        try {
+            FileChannel channel;
+            long target;
+            appendLock.lock();
+            try {
+                out.flush();
+                channel = segment;
+                target = appended;
+            } finally {
+                appendLock.unlock();
+            }
+            //appends go on while the disk works, they are covered by the next fsync; roll and close wait for it
+            if (fsync) {
+                channel.force(false);
+            }
+            durable = target;
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not sync the card ledger log", exception);
+        } finally {
+            syncLock.lock();
+            try {
+                syncing = false;
+                synced.signalAll();
+            } finally {
+                syncLock.unlock();
+            }
+        }
+    }
+
+    //closes the current segment durably and continues in the one of the next epoch; the caller makes sure no append runs
+    void roll(long nextEpoch) throws IOException {
+        lockSegment();
+        try {
+            closeSegment();
+            durable = appended;
+            open(nextEpoch);
+        } finally {
+            unlockSegment();
+        }
+    }
+
+    void delete(long epoch) throws IOException {
+        Files.deleteIfExists(segment(epoch));
+    }
+
+    @Override
+    public void close() throws IOException {
+        lockSegment();
+        try {
+            if (segment != null) {
+                closeSegment();
+                durable = appended;
+                segment = null;
+            }
+        } finally {
+            unlockSegment();
+        }
+    }
+
+    //no fsync running and none starting, no append: the segment can be switched
+    private void lockSegment() {
+        syncLock.lock();
+        while (syncing) {
+            synced.awaitUninterruptibly();
+        }
+        appendLock.lock();
+    }
+
+    private void unlockSegment() {
+        appendLock.unlock();
+        syncLock.unlock();
+    }
+
+    private void closeSegment() throws IOException {
+        out.flush();
+        if (fsync) {
+            segment.force(false);
+        }
+        out.close();
+    }
+
+    private Path segment(long epoch) {
+        return directory.resolve("epoch-" + epoch + ".log");
+    }
+
+    private static List<Record> read(Path file) throws IOException {
+        List<Record> records = new ArrayList<>();
+        try (InputStream inputStream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream, BUFFER_SIZE))) {
+            while (true) {
+                String cardNumber;
+                int amount;
+                try {
+                    cardNumber = in.readUTF();
+                    amount = in.readInt();
+                } catch (EOFException exception) {
+                    return records; //end of the segment, or a torn last record
+                }
+                records.add(new Record(cardNumber, amount));
+            }
+        }
+    }
+
+    record Record(String cardNumber, int amount) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.personal.project.cards.ledger;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+//card-ledger in application.yml, see CardLedger; stripes is rounded up to a power of two
+@ConfigurationProperties(prefix = "card-ledger")
+public record CardLedgerProperties(boolean enabled, int stripes, Duration flushInterval, Path logDirectory, boolean fsync) {
+
+    private static final int DEFAULT_STRIPES = 64;
+    private static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(200);
+    private static final Path DEFAULT_LOG_DIRECTORY = Path.of("data", "card-ledger");
+
+    public CardLedgerProperties {
+        stripes = Integer.highestOneBit(Math.max(stripes > 0 ? stripes : DEFAULT_STRIPES, 1) * 2 - 1);
+        flushInterval = flushInterval != null ? flushInterval : DEFAULT_FLUSH_INTERVAL;
+        logDirectory = logDirectory != null ? logDirectory : DEFAULT_LOG_DIRECTORY;
+    }
+}
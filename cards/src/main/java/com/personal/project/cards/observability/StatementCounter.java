@@ -0,0 +1,102 @@
+package com.personal.project.cards.observability;
+
+import com.personal.project.cards.exception.StatementBudgetExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+
+//counts the JDBC statements (a batch is one) and the time spent in them for whatever runs on the current thread inside a Scope;
+//StatementCountingFilter opens one per request, tests open their own to pin the exact count of a service call
+//with statement-budget.enforce a request fails on the first statement over its budget, so an N+1 breaks the test that introduced it
+@Component
+@EnableConfigurationProperties(StatementBudgetProperties.class)
+public class StatementCounter implements QueryExecutionListener {
+
+    private final ThreadLocal<Scope> currentScope = new ThreadLocal<>();
+    private final StatementBudgetProperties statementBudgetProperties;
+
+    public StatementCounter(StatementBudgetProperties statementBudgetProperties) {
+        this.statementBudgetProperties = statementBudgetProperties;
+    }
+
+    //counts without a budget, until the scope is closed
+    public Scope open() {
+        return open(null);
+    }
+
+    public Scope open(HttpServletRequest request) {
+        Scope scope = new Scope(request, currentScope.get());
+        currentScope.set(scope);
+        return scope;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo executionInfo, List<QueryInfo> queryInfoList) {
+        Scope scope = currentScope.get();
+        if (scope == null) {
+            return; //startup, schedulers and other work outside a request
+        }
+        scope.statements++;
+        if (statementBudgetProperties.enforce() && scope.request != null) {
+            //the pattern is only known once the request is mapped, so it is looked up here and not when the scope opens
+            String uri = (String) scope.request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            int budget = statementBudgetProperties.budget(uri);
+            if (budget >= 0 && scope.statements > budget) {
+                throw new StatementBudgetExceededException(uri, budget);
+            }
+        }
+        scope.startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo executionInfo, List<QueryInfo> queryInfoList) {
+        Scope scope = currentScope.get();
+        if (scope != null) {
+            scope.jdbcNanos += System.nanoTime() - scope.startNanos;
+        }
+    }
+
+    public int budget(String uri) {
+        return statementBudgetProperties.budget(uri);
+    }
+
+    //only touched by the thread that opened it; closing adds the counts to the scope it was opened in
+    public final class Scope implements AutoCloseable {
+
+        private final HttpServletRequest request;
+        private final Scope parent;
+        private int statements;
+        private long jdbcNanos;
+        private long startNanos;
+
+        private Scope(HttpServletRequest request, Scope parent) {
+            this.request = request;
+            this.parent = parent;
+        }
+
+        public int statements() {
+            return statements;
+        }
+
+        public long jdbcNanos() {
+            return jdbcNanos;
+        }
+
+        @Override
+        public void close() {
+            if (parent != null) {
+                parent.statements += statements;
+                parent.jdbcNanos += jdbcNanos;
+                currentScope.set(parent);
+            } else {
+                currentScope.remove();
+            }
+        }
+    }
+}
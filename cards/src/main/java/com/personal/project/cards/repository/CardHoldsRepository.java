@@ -0,0 +1,17 @@
+package com.personal.project.cards.repository;
+
+import com.personal.project.cards.entity.CardHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CardHoldsRepository extends JpaRepository<CardHold, Long> {
+
+    //claims the hold for a capture or void: 0 when the expiry (or another capture/void) deleted it first
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from CardHold h where h.holdId = :holdId")
+    int deleteByHoldId(Long holdId);
+
+}
@@ -1,16 +1,93 @@
 package com.personal.project.cards.repository;
 
+import com.personal.project.cards.dto.CardBalanceDto;
 import com.personal.project.cards.entity.Cards;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface CardsRepository extends JpaRepository<Cards, Long> {
 
-    Optional<Cards> findByMobileNumber(String mobileNumber);
+    //query cache keeps the matching id, the entity itself then comes from the cards region;
+    //any write to the cards table invalidates every cached result of these queries
+    //a customer can hold one card of each type, the single card fetch answers with the oldest one
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<Cards> findFirstByMobileNumberOrderByCardIdAsc(String mobileNumber);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Cards> findByMobileNumberOrderByCardIdAsc(String mobileNumber);
+
+    //every card of many customers in one query, a seek per number on uk_cards_mobile_number_card_type;
+    //not cached, a cached result would only be hit by the exact same list of numbers
+    List<Cards> findByMobileNumberInOrderByCardIdAsc(Collection<String> mobileNumbers);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Cards> findByCardNumber(String cardNumber);
 
+    //the mobile numbers that already hold a card of this type, the duplicate check of a bulk create chunk in one query
+    @Query("select c.mobileNumber from Cards c where c.cardType = :cardType and c.mobileNumber in :mobileNumbers")
+    Set<String> findMobileNumbersWithCardType(String cardType, Collection<String> mobileNumbers);
+
+    //the ones of the given card numbers that are taken, one index lookup each on uk_cards_card_number; see CardNumberPool
+    @Query("select c.cardNumber from Cards c where c.cardNumber in :cardNumbers")
+    List<String> findExistingCardNumbers(Collection<String> cardNumbers);
+
+    //the ids of cards written with plain JDBC, to evict them from the cards region; see CardsCacheEvictor
+    @Query("select c.cardId from Cards c where c.cardNumber in :cardNumbers")
+    List<Long> findCardIdsByCardNumbers(Collection<String> cardNumbers);
+
+    //keyset page over the cards primary key: the page after cardId starts with an index seek, so page 5000 of
+    //GET /api/list costs what page 1 does
+    List<Cards> findByCardIdGreaterThanOrderByCardIdAsc(Long cardId, Limit limit);
+
+    //every card holder's number, once per card, for MobileNumberFilter at startup; a stream, so read it in a transaction and close it
+    @Query("select c.mobileNumber from Cards c")
+    Stream<String> streamAllMobileNumbers();
+
+    //the spend in one statement: the where clause is the overdraft check, and the row lock the update takes makes
+    //concurrent spends on the card wait for each other instead of overwriting each other; 0 rows is unknown card or not enough left.
+    //a bulk update skips the entity listeners, so updatedAt/updatedBy are set here
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Cards c set c.availableAmount = c.availableAmount - :amount, c.amountUsed = c.amountUsed + :amount, " +
+            "c.updatedAt = :updatedAt, c.updatedBy = :updatedBy " +
+            "where c.cardNumber = :cardNumber and c.availableAmount >= :amount")
+    int spend(String cardNumber, int amount, LocalDateTime updatedAt, String updatedBy);
+
+    //an authorization hold, checked and applied like spend: only the available amount goes down, see CardHold
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Cards c set c.availableAmount = c.availableAmount - :amount, " +
+            "c.updatedAt = :updatedAt, c.updatedBy = :updatedBy " +
+            "where c.cardNumber = :cardNumber and c.availableAmount >= :amount")
+    int reserve(String cardNumber, int amount, LocalDateTime updatedAt, String updatedBy);
+
+    //a captured hold: its amount was taken off the available amount already, it only becomes used now
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Cards c set c.amountUsed = c.amountUsed + :amount, c.updatedAt = :updatedAt, c.updatedBy = :updatedBy " +
+            "where c.cardNumber = :cardNumber")
+    int capture(String cardNumber, int amount, LocalDateTime updatedAt, String updatedBy);
+
+    //a voided hold, its amount is available again; expired holds are released in batches by CardHoldExpiry
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Cards c set c.availableAmount = c.availableAmount + :amount, c.updatedAt = :updatedAt, c.updatedBy = :updatedBy " +
+            "where c.cardNumber = :cardNumber")
+    int release(String cardNumber, int amount, LocalDateTime updatedAt, String updatedBy);
+
+    //straight to the dto, no entity is loaded into (or read from) the persistence context or the second level cache
+    @Query("select new com.personal.project.cards.dto.CardBalanceDto(c.mobileNumber, c.cardNumber, c.totalLimit, c.amountUsed, c.availableAmount) " +
+            "from Cards c where c.cardNumber = :cardNumber")
+    Optional<CardBalanceDto> findBalanceByCardNumber(String cardNumber);
+
 }
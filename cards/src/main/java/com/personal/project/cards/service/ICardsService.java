@@ -1,6 +1,13 @@
 package com.personal.project.cards.service;
 
+import com.personal.project.cards.dto.BulkCardResponseDto;
+import com.personal.project.cards.dto.CardBalanceDto;
+import com.personal.project.cards.dto.CardHoldDto;
 import com.personal.project.cards.dto.CardsDto;
+import com.personal.project.cards.dto.PageResponseDto;
+
+import java.util.List;
+import java.util.Map;
 
 public interface ICardsService {
 
@@ -10,6 +17,13 @@ public interface ICardsService {
      */
     void createCard(String mobileNumber);
 
+    /**
+     *
+     * @param mobileNumbers - customers to issue a credit card to
+     * @return per mobile number outcome, in the same order as mobileNumbers
+     */
+    BulkCardResponseDto createCards(List<String> mobileNumbers);
+
     /**
      *
      * @param mobileNumber - Input mobile Number
@@ -17,6 +31,20 @@ public interface ICardsService {
      */
     CardsDto fetchCard(String mobileNumber);
 
+    /**
+     *
+     * @param mobileNumber - Input mobile Number
+     * @return every card of the customer, oldest first
+     */
+    List<CardsDto> fetchCardsByMobileNumber(String mobileNumber);
+
+    /**
+     *
+     * @param mobileNumbers - Input mobile Numbers
+     * @return the cards of every given mobile number, in the order given; an empty list for a number without cards
+     */
+    Map<String, List<CardsDto>> fetchCardsByMobileNumbers(List<String> mobileNumbers);
+
     /**
      *
      * @param cardsDto - CardsDto Object
@@ -27,7 +55,45 @@ public interface ICardsService {
     /**
      *
      * @param mobileNumber - Input Mobile Number
-     * @return boolean indicating if the delete of card details is successful or not
+     * @return boolean indicating if the delete of every card of the customer is successful or not
      */
     boolean deleteCard(String mobileNumber);
+
+    /**
+     *
+     * @param cardNumber - Card Number to spend with
+     * @param amount - amount to move from the available amount to the amount used
+     * @return the balance of the card after the spend
+     */
+    CardBalanceDto spend(String cardNumber, int amount);
+
+    /**
+     *
+     * @param cardNumber - Card Number to reserve the amount on
+     * @param amount - amount to take off the available amount until the hold is captured, voided or expires
+     * @return the hold, with the id to capture or void it
+     */
+    CardHoldDto authorizeHold(String cardNumber, int amount);
+
+    /**
+     *
+     * @param holdId - id of a pending hold
+     * @return the balance of the card after the held amount became used
+     */
+    CardBalanceDto captureHold(long holdId);
+
+    /**
+     *
+     * @param holdId - id of a pending hold
+     * @return the balance of the card after the held amount became available again
+     */
+    CardBalanceDto voidHold(long holdId);
+
+    /**
+     *
+     * @param pageToken - nextPageToken of the previous page, null for the first page
+     * @param pageSize - maximum number of cards on the page
+     * @return cards ordered by cardId, and the token for the next page
+     */
+    PageResponseDto<CardsDto> fetchCards(String pageToken, int pageSize);
 }
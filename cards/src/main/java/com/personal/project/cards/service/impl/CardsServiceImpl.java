@@ -1,45 +1,227 @@
 package com.personal.project.cards.service.impl;
 
+import com.personal.project.cards.coalescing.SingleFlight;
 import com.personal.project.cards.constants.CardsConstants;
+import com.personal.project.cards.dto.BulkCardResponseDto;
+import com.personal.project.cards.dto.BulkCardResultDto;
+import com.personal.project.cards.dto.CardBalanceDto;
+import com.personal.project.cards.dto.CardHoldDto;
 import com.personal.project.cards.dto.CardsDto;
+import com.personal.project.cards.dto.PageResponseDto;
+import com.personal.project.cards.entity.CardHold;
 import com.personal.project.cards.entity.Cards;
 import com.personal.project.cards.exception.CardAlreadyExistsException;
+import com.personal.project.cards.exception.InsufficientFundsException;
 import com.personal.project.cards.exception.ResourceNotFoundException;
+import com.personal.project.cards.exception.UniqueConstraints;
+import com.personal.project.cards.holds.CardHoldExpiry;
+import com.personal.project.cards.issuing.CardNumberPool;
+import com.personal.project.cards.ledger.CardLedger;
 import com.personal.project.cards.mapper.CardsMapper;
+import com.personal.project.cards.membership.MobileNumberFilter;
+import com.personal.project.cards.pagination.PageTokens;
+import com.personal.project.cards.repository.CardHoldsRepository;
 import com.personal.project.cards.repository.CardsRepository;
 import com.personal.project.cards.service.ICardsService;
+import com.personal.project.cards.velocity.VelocityEngine;
 import lombok.AllArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Service
 @AllArgsConstructor
 public class CardsServiceImpl implements ICardsService {
 
+    private static final int CARD_NUMBER_ATTEMPTS = 3; //a pooled number is only taken by a race or another instance, twice in a row is not expected
+
     private CardsRepository cardsRepository;
+    private MobileNumberFilter mobileNumberFilter;
+    private SingleFlight singleFlight;
+    private AuditorAware<String> auditorAware;
+    private TransactionTemplate transactionTemplate;
+    private Optional<CardLedger> cardLedger; //present when card-ledger.enabled
+    private CardNumberPool cardNumberPool;
+    private VelocityEngine velocityEngine;
+    private CardHoldsRepository cardHoldsRepository;
+    private CardHoldExpiry cardHoldExpiry;
 
     /**
      * @param mobileNumber - Mobile Number of the Customer
      */
     @Override
     public void createCard(String mobileNumber) {
-        Optional<Cards> optionalCards= cardsRepository.findByMobileNumber(mobileNumber);
-        if(optionalCards.isPresent()){
-            throw new CardAlreadyExistsException("Card already registered with given mobileNumber "+mobileNumber);
+        //the insert is the duplicate check: uk_cards_mobile_number_card_type turns a second credit card for the number into
+        //CardAlreadyExistsException, without a lookup before and also for two concurrent creates
+        mobileNumberFilter.add(mobileNumber); //before the insert: once the card commits, a fetch for it must not be turned away by the filter
+        try {
+            insertNewCard(mobileNumber);
+            singleFlight.forget(mobileNumber); //a fetch already in flight may have found nothing
+        } catch (RuntimeException exception) {
+            mobileNumberFilter.remove(mobileNumber);
+            if (exception instanceof DataIntegrityViolationException violation
+                    && UniqueConstraints.isViolated(violation, CardsConstants.UK_CARDS_MOBILE_NUMBER_CARD_TYPE)) {
+                throw new CardAlreadyExistsException("Card already registered with given mobileNumber "+mobileNumber);
+            }
+            throw exception;
+        }
+    }
+
+    /***
+     *
+     * @param mobileNumbers - customers to issue a credit card to
+     * @return per mobile number outcome, in the same order as mobileNumbers
+     */
+    @Override
+    public BulkCardResponseDto createCards(List<String> mobileNumbers) {
+        boolean[] repeatedInRequest = new boolean[mobileNumbers.size()];
+        Set<String> seenMobileNumbers = new HashSet<>();
+        for (int i = 0; i < mobileNumbers.size(); i++) {
+            repeatedInRequest[i] = !seenMobileNumbers.add(mobileNumbers.get(i));
+        }
+
+        List<BulkCardResultDto> results = new ArrayList<>(mobileNumbers.size());
+        //every chunk is its own transaction so the persistence context (and the undo log) stays small for big onboardings
+        for (int from = 0; from < mobileNumbers.size(); from += CardsConstants.BULK_CHUNK_SIZE) {
+            int to = Math.min(from + CardsConstants.BULK_CHUNK_SIZE, mobileNumbers.size());
+            List<String> chunk = mobileNumbers.subList(from, to);
+            boolean[] chunkRepeated = Arrays.copyOfRange(repeatedInRequest, from, to);
+            //added before the insert, like createCard, so a fetch right after commit is never short-circuited
+            for (int i = 0; i < chunk.size(); i++) {
+                if (!chunkRepeated[i]) {
+                    mobileNumberFilter.add(chunk.get(i));
+                }
+            }
+            List<BulkCardResultDto> chunkResults;
+            try {
+                try {
+                    chunkResults = transactionTemplate.execute(status -> createCardsChunk(chunk, chunkRepeated));
+                } catch (DataIntegrityViolationException exception) {
+                    //another request created one of these cards after our duplicate check, or a card number was taken;
+                    //redo the chunk one by one for exact results
+                    chunkResults = createCardsOneByOne(chunk, chunkRepeated);
+                }
+            } catch (RuntimeException exception) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (!chunkRepeated[i]) {
+                        mobileNumberFilter.remove(chunk.get(i));
+                    }
+                }
+                throw exception;
+            }
+            for (int i = 0; i < chunk.size(); i++) {
+                if (chunkRepeated[i]) {
+                    continue;
+                }
+                if (CardsConstants.STATUS_201.equals(chunkResults.get(i).getStatusCode())) {
+                    singleFlight.forget(chunk.get(i)); //a fetch already in flight may have found nothing
+                } else {
+                    mobileNumberFilter.remove(chunk.get(i)); //no card was created for it
+                }
+            }
+            results.addAll(chunkResults);
+        }
+        int totalCreated = (int) results.stream().filter(result -> CardsConstants.STATUS_201.equals(result.getStatusCode())).count();
+        return new BulkCardResponseDto(mobileNumbers.size(), totalCreated, mobileNumbers.size() - totalCreated, results);
+    }
+
+    /***
+     * One duplicate check query and one card number allocation for the whole chunk, then batched inserts when the transaction flushes.
+     *
+     * @param chunk - mobile numbers to issue a card to in this transaction
+     * @param repeatedInRequest - true where the mobile number already appeared earlier in the same request
+     * @return per mobile number outcome, in the same order as chunk
+     */
+    private List<BulkCardResultDto> createCardsChunk(List<String> chunk, boolean[] repeatedInRequest) {
+        Set<String> existingMobileNumbers = cardsRepository.findMobileNumbersWithCardType(CardsConstants.CREDIT_CARD, new HashSet<>(chunk));
+
+        BulkCardResultDto[] results = new BulkCardResultDto[chunk.size()];
+        List<Integer> newCardPositions = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            String mobileNumber = chunk.get(i);
+            if (repeatedInRequest[i]) {
+                results[i] = new BulkCardResultDto(mobileNumber, CardsConstants.STATUS_400, CardsConstants.MESSAGE_400_DUPLICATE_IN_REQUEST, null);
+            } else if (existingMobileNumbers.contains(mobileNumber)) {
+                results[i] = new BulkCardResultDto(mobileNumber, CardsConstants.STATUS_400, CardsConstants.MESSAGE_400_ALREADY_EXISTS, null);
+            } else {
+                newCardPositions.add(i);
+            }
+        }
+
+        List<String> cardNumbers = cardNumberPool.next(newCardPositions.size());
+        List<Cards> newCards = new ArrayList<>(newCardPositions.size());
+        for (int i = 0; i < newCardPositions.size(); i++) {
+            newCards.add(createNewCard(chunk.get(newCardPositions.get(i)), cardNumbers.get(i)));
+        }
+        //ids come from the pooled cards_seq, so nothing is inserted here; the inserts are batched at commit
+        cardsRepository.saveAll(newCards);
+
+        for (int i = 0; i < newCards.size(); i++) {
+            Cards card = newCards.get(i);
+            results[newCardPositions.get(i)] = new BulkCardResultDto(card.getMobileNumber(),
+                    CardsConstants.STATUS_201, CardsConstants.MESSAGE_201, card.getCardNumber());
+        }
+        return List.of(results);
+    }
+
+    //slow path of bulk create, only used when a batched chunk lost a race against a concurrent create
+    private List<BulkCardResultDto> createCardsOneByOne(List<String> chunk, boolean[] repeatedInRequest) {
+        List<BulkCardResultDto> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            String mobileNumber = chunk.get(i);
+            if (repeatedInRequest[i]) {
+                results.add(new BulkCardResultDto(mobileNumber, CardsConstants.STATUS_400, CardsConstants.MESSAGE_400_DUPLICATE_IN_REQUEST, null));
+                continue;
+            }
+            try {
+                Cards card = insertNewCard(mobileNumber);
+                results.add(new BulkCardResultDto(mobileNumber, CardsConstants.STATUS_201, CardsConstants.MESSAGE_201, card.getCardNumber()));
+            } catch (DataIntegrityViolationException violation) {
+                if (!UniqueConstraints.isViolated(violation, CardsConstants.UK_CARDS_MOBILE_NUMBER_CARD_TYPE)) {
+                    throw violation;
+                }
+                results.add(new BulkCardResultDto(mobileNumber, CardsConstants.STATUS_400, CardsConstants.MESSAGE_400_ALREADY_EXISTS, null));
+            }
+        }
+        return results;
+    }
+
+    //the unique index on card_number has the last word on a pooled number, a violation of it is retried with the next one
+    private Cards insertNewCard(String mobileNumber) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return cardsRepository.saveAndFlush(createNewCard(mobileNumber, cardNumberPool.next()));
+            } catch (DataIntegrityViolationException violation) {
+                if (attempt == CARD_NUMBER_ATTEMPTS || !UniqueConstraints.isViolated(violation, CardsConstants.UK_CARDS_CARD_NUMBER)) {
+                    throw violation;
+                }
+            }
         }
-        cardsRepository.save(createNewCard(mobileNumber));
     }
 
     /**
      * @param mobileNumber - Mobile Number of the Customer
+     * @param cardNumber - from the CardNumberPool
      * @return the new card details
      */
-    private Cards createNewCard(String mobileNumber) {
+    private Cards createNewCard(String mobileNumber, String cardNumber) {
         Cards newCard = new Cards();
-        long randomCardNumber = 100000000000L + new Random().nextInt(900000000);
-        newCard.setCardNumber(Long.toString(randomCardNumber));
+        newCard.setCardNumber(cardNumber);
         newCard.setMobileNumber(mobileNumber);
         newCard.setCardType(CardsConstants.CREDIT_CARD);
         newCard.setTotalLimit(CardsConstants.NEW_CARD_LIMIT);
@@ -51,14 +233,77 @@ public class CardsServiceImpl implements ICardsService {
     /**
      *
      * @param mobileNumber - Input mobile Number
-     * @return Card Details based on a given mobileNumber
+     * @return Card Details based on a given mobileNumber, the oldest card of a customer with several
      */
     @Override
     public CardsDto fetchCard(String mobileNumber) {
-        Cards cards = cardsRepository.findByMobileNumber(mobileNumber).orElseThrow(
-                () -> new ResourceNotFoundException("Card", "mobileNumber", mobileNumber)
-        );
-        return CardsMapper.convertEntityToDto(cards, new CardsDto());
+        if (!mobileNumberFilter.mightContain(mobileNumber)) {
+            throw new ResourceNotFoundException("Card", "mobileNumber", mobileNumber); //no card was ever issued to this number
+        }
+        //concurrent fetches of the same number share one query and one dto, see SingleFlight
+        return singleFlight.execute(mobileNumber, () -> {
+            Cards cards = cardsRepository.findFirstByMobileNumberOrderByCardIdAsc(mobileNumber).orElseThrow(
+                    () -> {
+                        mobileNumberFilter.recordFalsePositive();
+                        return new ResourceNotFoundException("Card", "mobileNumber", mobileNumber);
+                    }
+            );
+            return CardsMapper.convertEntityToDto(cards, new CardsDto());
+        });
+    }
+
+    /**
+     *
+     * @param mobileNumber - Input mobile Number
+     * @return every card of the customer, oldest first
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<CardsDto> fetchCardsByMobileNumber(String mobileNumber) {
+        if (!mobileNumberFilter.mightContain(mobileNumber)) {
+            throw new ResourceNotFoundException("Card", "mobileNumber", mobileNumber);
+        }
+        List<Cards> cards = cardsRepository.findByMobileNumberOrderByCardIdAsc(mobileNumber);
+        if (cards.isEmpty()) {
+            mobileNumberFilter.recordFalsePositive();
+            throw new ResourceNotFoundException("Card", "mobileNumber", mobileNumber);
+        }
+        List<CardsDto> cardsDtos = new ArrayList<>(cards.size());
+        for (Cards card : cards) {
+            cardsDtos.add(CardsMapper.convertEntityToDto(card, new CardsDto()));
+        }
+        return cardsDtos;
+    }
+
+    /**
+     * One IN query for all the numbers instead of one query per number; numbers the mobile number filter
+     * rules out are not put into it, so a batch of unknown numbers never reaches the database.
+     *
+     * @param mobileNumbers - Input mobile Numbers
+     * @return the cards of every given mobile number, in the order given; an empty list for a number without cards
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, List<CardsDto>> fetchCardsByMobileNumbers(List<String> mobileNumbers) {
+        Map<String, List<CardsDto>> cardsByMobileNumber = new LinkedHashMap<>();
+        List<String> candidates = new ArrayList<>(mobileNumbers.size());
+        for (String mobileNumber : mobileNumbers) {
+            if (cardsByMobileNumber.putIfAbsent(mobileNumber, new ArrayList<>()) == null && mobileNumberFilter.mightContain(mobileNumber)) {
+                candidates.add(mobileNumber); //each number once, however often it was given
+            }
+        }
+        if (candidates.isEmpty()) {
+            return cardsByMobileNumber;
+        }
+        for (Cards card : cardsRepository.findByMobileNumberInOrderByCardIdAsc(candidates)) {
+            cardsByMobileNumber.get(card.getMobileNumber()).add(CardsMapper.convertEntityToDto(card, new CardsDto()));
+        }
+        for (String candidate : candidates) {
+            if (cardsByMobileNumber.get(candidate).isEmpty()) {
+                mobileNumberFilter.recordFalsePositive();
+            }
+        }
+        return cardsByMobileNumber;
     }
 
     /**
@@ -70,21 +315,191 @@ public class CardsServiceImpl implements ICardsService {
     public boolean updateCard(CardsDto cardsDto) {
         Cards cards = cardsRepository.findByCardNumber(cardsDto.getCardNumber()).orElseThrow(
                 () -> new ResourceNotFoundException("Card", "CardNumber", cardsDto.getCardNumber()));
+        String previousMobileNumber = cards.getMobileNumber();
+        boolean mobileNumberChanged = !previousMobileNumber.equals(cardsDto.getMobileNumber());
+        if (mobileNumberChanged) {
+            mobileNumberFilter.add(cardsDto.getMobileNumber());
+        }
         CardsMapper.convertDtoToEntity(cardsDto, cards);
-        cardsRepository.save(cards);
+        try {
+            cardsRepository.save(cards);
+        } catch (RuntimeException exception) {
+            if (mobileNumberChanged) {
+                mobileNumberFilter.remove(cardsDto.getMobileNumber());
+            }
+            if (exception instanceof DataIntegrityViolationException violation
+                    && UniqueConstraints.isViolated(violation, CardsConstants.UK_CARDS_MOBILE_NUMBER_CARD_TYPE)) {
+                throw new CardAlreadyExistsException("Card already registered with given mobileNumber "+cardsDto.getMobileNumber()
+                        +" and cardType "+cardsDto.getCardType());
+            }
+            throw exception;
+        }
+        singleFlight.forget(previousMobileNumber);
+        cardLedger.ifPresent(ledger -> ledger.forget(cards.getCardNumber())); //the amounts may have been changed
+        if (mobileNumberChanged) {
+            singleFlight.forget(cardsDto.getMobileNumber());
+            mobileNumberFilter.remove(previousMobileNumber);
+        }
         return  true;
     }
 
     /**
      * @param mobileNumber - Input MobileNumber
-     * @return boolean indicating if the delete of card details is successful or not
+     * @return boolean indicating if the delete of every card of the customer is successful or not
      */
     @Override
     public boolean deleteCard(String mobileNumber) {
-        Cards cards = cardsRepository.findByMobileNumber(mobileNumber).orElseThrow(
-                () -> new ResourceNotFoundException("Card", "mobileNumber", mobileNumber)
-        );
-        cardsRepository.deleteById(cards.getCardId());
+        List<Cards> cards = cardsRepository.findByMobileNumberOrderByCardIdAsc(mobileNumber);
+        if (cards.isEmpty()) {
+            throw new ResourceNotFoundException("Card", "mobileNumber", mobileNumber);
+        }
+        cardsRepository.deleteAll(cards);
+        singleFlight.forget(mobileNumber);
+        for (Cards card : cards) {
+            cardLedger.ifPresent(ledger -> ledger.forget(card.getCardNumber()));
+            mobileNumberFilter.remove(mobileNumber); //the filter counts the number once per card
+        }
         return true;
     }
+
+    /**
+     * Debits the available amount and credits the amount used with one conditional update, no read-modify-write:
+     * the database checks the balance and applies the spend under the row lock of the update, so no spend is lost
+     * under concurrency and the card never goes below zero. The balance is read back in the same transaction.
+     * With card-ledger.enabled the spend is approved from memory instead, see CardLedger.
+     * Either way the velocity rules (card-velocity) are checked first, in memory, see VelocityEngine.
+     *
+     * @param cardNumber - Card Number to spend with
+     * @param amount - amount to move from the available amount to the amount used
+     * @return the balance of the card after the spend
+     */
+    @Override
+    public CardBalanceDto spend(String cardNumber, int amount) {
+        VelocityEngine.Counted counted = velocityEngine.count(cardNumber, amount); //declines over a rule before anything is debited
+        try {
+            if (cardLedger.isPresent()) {
+                return cardLedger.get().authorize(cardNumber, amount); //no transaction, the ledger goes to the database only on a card's first spend
+            }
+            return transactionTemplate.execute(status -> spendInDatabase(cardNumber, amount));
+        } catch (RuntimeException exception) {
+            velocityEngine.release(counted); //a declined spend does not count towards the rules
+            throw exception;
+        }
+    }
+
+    private CardBalanceDto spendInDatabase(String cardNumber, int amount) {
+        int spent = cardsRepository.spend(cardNumber, amount, LocalDateTime.now(), auditorAware.getCurrentAuditor().orElse(null));
+        CardBalanceDto cardBalanceDto = cardsRepository.findBalanceByCardNumber(cardNumber).orElseThrow(
+                () -> new ResourceNotFoundException("Card", "CardNumber", cardNumber));
+        if (spent == 0) {
+            throw new InsufficientFundsException(cardNumber, amount);
+        }
+        singleFlight.forget(cardBalanceDto.getMobileNumber()); //a fetch in flight may have read the balance before the spend
+        return cardBalanceDto;
+    }
+
+    /**
+     * Reserves the amount with the same conditional update as spend, but only the available amount goes down,
+     * and records the hold in card_holds in the same transaction. After the commit the hold is handed to
+     * CardHoldExpiry, which gives the amount back unless it is captured or voided within card-holds.time-to-live.
+     * The velocity rules count a hold like a spend, its capture is not counted again.
+     * With card-ledger.enabled the hold is checked against the ledger's balance, which has its spends not flushed yet, see CardLedger.reserve.
+     *
+     * @param cardNumber - Card Number to reserve the amount on
+     * @param amount - amount to take off the available amount until the hold is captured, voided or expires
+     * @return the hold, with the id to capture or void it
+     */
+    @Override
+    public CardHoldDto authorizeHold(String cardNumber, int amount) {
+        VelocityEngine.Counted counted = velocityEngine.count(cardNumber, amount);
+        CardHoldDto cardHoldDto;
+        try {
+            Supplier<CardHoldDto> hold = () -> transactionTemplate.execute(status -> holdInDatabase(cardNumber, amount));
+            cardHoldDto = cardLedger.isPresent() ? cardLedger.get().reserve(cardNumber, amount, hold) : hold.get();
+        } catch (RuntimeException exception) {
+            velocityEngine.release(counted);
+            throw exception;
+        }
+        cardHoldExpiry.schedule(cardHoldDto.getHoldId(), cardHoldDto.getExpiresAt());
+        return cardHoldDto;
+    }
+
+    private CardHoldDto holdInDatabase(String cardNumber, int amount) {
+        LocalDateTime now = LocalDateTime.now();
+        int reserved = cardsRepository.reserve(cardNumber, amount, now, auditorAware.getCurrentAuditor().orElse(null));
+        if (reserved == 0) {
+            //no row changed: either there is no such card or it has not enough available amount
+            cardsRepository.findBalanceByCardNumber(cardNumber).orElseThrow(
+                    () -> new ResourceNotFoundException("Card", "CardNumber", cardNumber));
+            throw new InsufficientFundsException(cardNumber, amount);
+        }
+        CardHold cardHold = cardHoldsRepository.save(
+                new CardHold(null, cardNumber, amount, Instant.now().plus(cardHoldExpiry.timeToLive())));
+        return new CardHoldDto(cardHold.getHoldId(), cardNumber, amount, cardHold.getExpiresAt());
+    }
+
+    /**
+     * @param holdId - id of a pending hold
+     * @return the balance of the card after the held amount became used
+     */
+    @Override
+    public CardBalanceDto captureHold(long holdId) {
+        return settleHold(holdId, true);
+    }
+
+    /**
+     * @param holdId - id of a pending hold
+     * @return the balance of the card after the held amount became available again
+     */
+    @Override
+    public CardBalanceDto voidHold(long holdId) {
+        return settleHold(holdId, false);
+    }
+
+    //the hold row is deleted first: whoever deletes it (capture, void or the expiry) is the only one to settle the hold;
+    //its entry in the timing wheel is left there and skipped when it comes due
+    private CardBalanceDto settleHold(long holdId, boolean capture) {
+        CardBalanceDto cardBalanceDto = transactionTemplate.execute(status -> {
+            CardHold cardHold = cardHoldsRepository.findById(holdId).orElseThrow(
+                    () -> new ResourceNotFoundException("Hold", "holdId", Long.toString(holdId)));
+            if (cardHoldsRepository.deleteByHoldId(holdId) == 0) {
+                throw new ResourceNotFoundException("Hold", "holdId", Long.toString(holdId)); //settled meanwhile
+            }
+            LocalDateTime now = LocalDateTime.now();
+            String updatedBy = auditorAware.getCurrentAuditor().orElse(null);
+            if (capture) {
+                cardsRepository.capture(cardHold.getCardNumber(), cardHold.getAmount(), now, updatedBy);
+            } else {
+                cardsRepository.release(cardHold.getCardNumber(), cardHold.getAmount(), now, updatedBy);
+            }
+            return cardsRepository.findBalanceByCardNumber(cardHold.getCardNumber()).orElseThrow(
+                    () -> new ResourceNotFoundException("Card", "CardNumber", cardHold.getCardNumber()));
+        });
+        cardLedger.ifPresent(ledger -> ledger.forget(cardBalanceDto.getCardNumber()));
+        singleFlight.forget(cardBalanceDto.getMobileNumber());
+        return cardBalanceDto;
+    }
+
+    /**
+     * Keyset paginated listing: the page token carries the last cardId already returned,
+     * so every page is one index seek plus pageSize rows however deep the caller is.
+     *
+     * @param pageToken - nextPageToken of the previous page, null for the first page
+     * @param pageSize - maximum number of cards on the page
+     * @return cards ordered by cardId, and the token for the next page
+     */
+    @Override
+    @Transactional(readOnly = true) //read only session, hibernate keeps no snapshots for dirty checking
+    public PageResponseDto<CardsDto> fetchCards(String pageToken, int pageSize) {
+        //pageSize + 1 rows: if the extra card comes back there is a next page, and no count(*) over cards is needed
+        List<Cards> cards = cardsRepository.findByCardIdGreaterThanOrderByCardIdAsc(PageTokens.decode(pageToken), Limit.of(pageSize + 1));
+        boolean hasNextPage = cards.size() > pageSize;
+        int pageLength = hasNextPage ? pageSize : cards.size();
+        List<CardsDto> cardsDtos = new ArrayList<>(pageLength);
+        for (int i = 0; i < pageLength; i++) {
+            cardsDtos.add(CardsMapper.convertEntityToDto(cards.get(i), new CardsDto()));
+        }
+        String nextPageToken = hasNextPage ? PageTokens.encode(cards.get(pageLength - 1).getCardId()) : null;
+        return new PageResponseDto<>(cardsDtos, nextPageToken);
+    }
 }
@@ -0,0 +1,253 @@
+package com.personal.project.cards.velocity;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.personal.project.cards.exception.VelocityLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fraud velocity rules ("at most N spends or X amount per card in the last T") checked in memory on every
+ * authorization, without a database round trip. A spend that would break a rule is declined with
+ * VelocityLimitExceededException before anything is debited.
+ * <p>
+ * For every rule a card keeps two fixed windows of length T, the current one and the one before. The last T is
+ * estimated as the current window plus the share of the previous one that still overlaps it (sliding window counter).
+ * That is 5 longs per rule and card instead of one entry per spend, and it assumes the spends of the previous window
+ * were spread evenly over it. All windows of a card are one long[]. A check computes a new array and swaps it in with
+ * compareAndSet, retrying when another spend on the card won the race. So a check never blocks, and two spends on one
+ * card cannot both take the last slot of a rule.
+ * <p>
+ * The cards are held in a Caffeine cache bounded by card-velocity.maximum-cards. A card without a spend for
+ * card-velocity.idle-timeout is dropped. The timeout is at least twice the longest window, by then none of the card's
+ * spends counts anymore. The rules are bound again on a config refresh. A change of the limits keeps the counters,
+ * a change of the windows starts every card from zero. Counters are per instance, so behind the load balancer a rule
+ * holds per instance unless spends of a card are routed to one instance.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(VelocityProperties.class)
+public class VelocityEngine {
+
+    static final ConfigurationPropertyName PREFIX = ConfigurationPropertyName.of("card-velocity");
+
+    //a card's long[]: the generation of the windows it was counted with, then SLOTS longs per rule
+    private static final int GENERATION = 0;
+    private static final int WINDOW = 0;
+    private static final int PREVIOUS_COUNT = 1;
+    private static final int PREVIOUS_AMOUNT = 2;
+    private static final int CURRENT_COUNT = 3;
+    private static final int CURRENT_AMOUNT = 4;
+    private static final int SLOTS = 5;
+    private static final long[] NOT_COUNTED = new long[0];
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Cache<String, AtomicReference<long[]>> cards;
+    private volatile Rules rules;
+
+    @Autowired
+    public VelocityEngine(VelocityProperties properties, Environment environment, MeterRegistry meterRegistry) {
+        this(properties, environment, meterRegistry, Clock.systemUTC());
+    }
+
+    VelocityEngine(VelocityProperties properties, Environment environment, MeterRegistry meterRegistry, Clock clock) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.cards = Caffeine.newBuilder()
+                .maximumSize(properties.maximumCards())
+                .expireAfterAccess(idleTimeout(properties))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cards, "card-velocity"); //cache.size and cache.evictions
+        apply(properties);
+    }
+
+    /***
+     * Checks the spend against every rule and counts it when it breaks none
+     * @param cardNumber - Card Number of the authorization
+     * @param amount - amount of the spend
+     * @return what was counted, to hand to release when the spend is declined afterwards; null when card-velocity is off
+     */
+    public Counted count(String cardNumber, long amount) {
+        Rules current = rules;
+        if (!current.active()) {
+            return null;
+        }
+        long now = clock.millis();
+        AtomicReference<long[]> card = cards.get(cardNumber, key -> new AtomicReference<>(NOT_COUNTED));
+        while (true) {
+            long[] counted = card.get();
+            long[] next = current.rolled(counted, now);
+            int broken = current.add(next, now, amount);
+            if (broken >= 0) {
+                current.declined[broken].increment();
+                throw new VelocityLimitExceededException(cardNumber, amount, current.rules[broken].name());
+            }
+            if (card.compareAndSet(counted, next)) {
+                return new Counted(card, current.generation, now, amount);
+            }
+        }
+    }
+
+    /***
+     * Takes back a spend counted by count, e.g. because the card had not enough available amount
+     * @param counted - what count returned, null is ignored
+     */
+    public void release(Counted counted) {
+        Rules current = rules;
+        if (counted == null || current.generation != counted.generation) {
+            return; //the windows changed since, the card's counters started over
+        }
+        while (true) {
+            long[] state = counted.card.get();
+            if (state.length == 0 || state[GENERATION] != counted.generation) {
+                return;
+            }
+            long[] next = state.clone();
+            current.remove(next, counted.at, counted.amount);
+            if (counted.card.compareAndSet(state, next)) {
+                return;
+            }
+        }
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> PREFIX.isAncestorOf(ConfigurationPropertyName.adapt(key, '.')))) {
+            //VelocityProperties is a record, the refresh does not rebind it, so bind the current values here
+            apply(Binder.get(environment)
+                    .bind(PREFIX, Bindable.of(VelocityProperties.class))
+                    .orElseGet(() -> new VelocityProperties(false, 0, null, null)));
+        }
+    }
+
+    void apply(VelocityProperties properties) {
+        Rules previous = rules;
+        List<VelocityProperties.Rule> configured = properties.rules();
+        long[] windowMillis = configured.stream().mapToLong(rule -> rule.window().toMillis()).toArray();
+        long generation = previous == null ? 0
+                : Arrays.equals(previous.windowMillis, windowMillis) ? previous.generation : previous.generation + 1;
+        Counter[] declined = configured.stream()
+                .map(rule -> Counter.builder("card.velocity.declined").tag("rule", rule.name())
+                        .description("Spends declined because they would break the velocity rule").register(meterRegistry))
+                .toArray(Counter[]::new);
+        rules = new Rules(properties.enabled(), configured.toArray(VelocityProperties.Rule[]::new), windowMillis, generation, declined);
+        cards.policy().eviction().ifPresent(eviction -> eviction.setMaximum(properties.maximumCards()));
+        cards.policy().expireAfterAccess().ifPresent(expiration -> expiration.setExpiresAfter(idleTimeout(properties)));
+        log.info("Velocity rules {}: {}", properties.enabled() ? "on" : "off", configured);
+    }
+
+    long cardCount() {
+        cards.cleanUp();
+        return cards.estimatedSize();
+    }
+
+    private static Duration idleTimeout(VelocityProperties properties) {
+        Duration longestWindow = properties.rules().stream().map(VelocityProperties.Rule::window).max(Duration::compareTo).orElse(Duration.ZERO);
+        Duration twoWindows = longestWindow.multipliedBy(2);
+        return twoWindows.compareTo(properties.idleTimeout()) > 0 ? twoWindows : properties.idleTimeout();
+    }
+
+    /**
+     * Handed back by count, only for release
+     */
+    public static final class Counted {
+
+        private final AtomicReference<long[]> card;
+        private final long generation;
+        private final long at;
+        private final long amount;
+
+        private Counted(AtomicReference<long[]> card, long generation, long at, long amount) {
+            this.card = card;
+            this.generation = generation;
+            this.at = at;
+            this.amount = amount;
+        }
+    }
+
+    //the rules in effect, replaced as a whole by a refresh; windows are numbered from the epoch, now / windowMillis
+    private record Rules(boolean enabled, VelocityProperties.Rule[] rules, long[] windowMillis, long generation, Counter[] declined) {
+
+        boolean active() {
+            return enabled && rules.length > 0;
+        }
+
+        //a copy of the card's counters moved to the windows of now: the current window becomes the previous one once
+        //its time is over, and both are empty after a whole window without spends
+        long[] rolled(long[] counted, long now) {
+            long[] next = new long[1 + SLOTS * rules.length];
+            next[GENERATION] = generation;
+            boolean fresh = counted.length != next.length || counted[GENERATION] != generation;
+            for (int rule = 0, base = 1; rule < rules.length; rule++, base += SLOTS) {
+                long window = now / windowMillis[rule];
+                long countedWindow = fresh ? Long.MIN_VALUE : counted[base + WINDOW];
+                if (countedWindow >= window) {
+                    //same window, or a clock that went back: keep everything as it is
+                    System.arraycopy(counted, base, next, base, SLOTS);
+                } else {
+                    next[base + WINDOW] = window;
+                    if (countedWindow == window - 1) {
+                        next[base + PREVIOUS_COUNT] = counted[base + CURRENT_COUNT];
+                        next[base + PREVIOUS_AMOUNT] = counted[base + CURRENT_AMOUNT];
+                    }
+                }
+            }
+            return next;
+        }
+
+        //index of the first rule the spend would break, or -1 after adding it to the current window of every rule
+        int add(long[] next, long now, long amount) {
+            for (int rule = 0, base = 1; rule < rules.length; rule++, base += SLOTS) {
+                //share of the previous window still inside the last windowMillis
+                double previousShare = 1 - (double) (now % windowMillis[rule]) / windowMillis[rule];
+                VelocityProperties.Rule limits = rules[rule];
+                if (limits.maxSpends() > 0
+                        && next[base + PREVIOUS_COUNT] * previousShare + next[base + CURRENT_COUNT] + 1 > limits.maxSpends()) {
+                    return rule;
+                }
+                if (limits.maxAmount() > 0
+                        && next[base + PREVIOUS_AMOUNT] * previousShare + next[base + CURRENT_AMOUNT] + amount > limits.maxAmount()) {
+                    return rule;
+                }
+            }
+            for (int base = 1; base < next.length; base += SLOTS) {
+                next[base + CURRENT_COUNT]++;
+                next[base + CURRENT_AMOUNT] += amount;
+            }
+            return -1;
+        }
+
+        //takes a spend counted at the given time out of the window it landed in, if that window still counts
+        void remove(long[] next, long at, long amount) {
+            for (int rule = 0, base = 1; rule < rules.length; rule++, base += SLOTS) {
+                long window = at / windowMillis[rule];
+                int offset = next[base + WINDOW] == window ? CURRENT_COUNT : next[base + WINDOW] == window + 1 ? PREVIOUS_COUNT : -1;
+                if (offset >= 0) {
+                    next[base + offset] = Math.max(0, next[base + offset] - 1);
+                    next[base + offset + 1] = Math.max(0, next[base + offset + 1] - amount);
+                }
+            }
+        }
+    }
+}
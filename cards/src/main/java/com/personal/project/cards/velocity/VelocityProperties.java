@@ -0,0 +1,31 @@
+package com.personal.project.cards.velocity;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+//card-velocity in the config server cards-velocity.yml (velocity profile), see VelocityEngine; bound again on a config refresh
+@ConfigurationProperties(prefix = "card-velocity")
+public record VelocityProperties(boolean enabled, long maximumCards, Duration idleTimeout, List<Rule> rules) {
+
+    private static final long DEFAULT_MAXIMUM_CARDS = 2_000_000;
+    private static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofHours(1);
+
+    public VelocityProperties {
+        maximumCards = maximumCards > 0 ? maximumCards : DEFAULT_MAXIMUM_CARDS;
+        idleTimeout = idleTimeout != null ? idleTimeout : DEFAULT_IDLE_TIMEOUT;
+        rules = rules == null ? List.of() : List.copyOf(rules);
+    }
+
+    //at most maxSpends spends and at most maxAmount spent per card in the last window, 0 leaves that side unlimited
+    public record Rule(String name, Duration window, int maxSpends, long maxAmount) {
+
+        public Rule {
+            if (window == null || window.toMillis() <= 0) {
+                throw new IllegalArgumentException("Velocity rule " + name + " needs a window of at least 1ms");
+            }
+            name = name != null ? name : "per-" + window;
+        }
+    }
+}
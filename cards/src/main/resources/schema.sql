@@ -1,5 +1,7 @@
+CREATE SEQUENCE IF NOT EXISTS `cards_seq` START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS `cards` (
-    `card_id` int NOT NULL AUTO_INCREMENT,
+    `card_id` bigint NOT NULL,
     `mobile_number` varchar(15) NOT NULL,
     `card_number` varchar(100) NOT NULL,
     `card_type` varchar(100) NOT NULL,
@@ -10,5 +12,29 @@ CREATE TABLE IF NOT EXISTS `cards` (
     `created_by` varchar(20) NOT NULL,
     `updated_at` date DEFAULT NULL,
     `updated_by` varchar(20) DEFAULT NULL,
-    PRIMARY KEY (`card_id`)
-    );
\ No newline at end of file
+    PRIMARY KEY (`card_id`),
+    CONSTRAINT `uk_cards_mobile_number_card_type` UNIQUE (`mobile_number`, `card_type`),
+    CONSTRAINT `uk_cards_card_number` UNIQUE (`card_number`)
+    );
+
+-- epoch of the card ledger log already applied to the cards table, see CardLedger (card-ledger.enabled)
+CREATE TABLE IF NOT EXISTS `card_ledger_checkpoint` (
+    `id` int NOT NULL,
+    `epoch` bigint NOT NULL,
+    PRIMARY KEY (`id`)
+    );
+
+-- pending authorization holds, a row is deleted when its hold is captured, voided or expired, see CardHoldExpiry
+CREATE SEQUENCE IF NOT EXISTS `card_holds_seq` START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS `card_holds` (
+    `hold_id` bigint NOT NULL,
+    `card_number` varchar(100) NOT NULL,
+    `amount` int NOT NULL,
+    `expires_at` timestamp with time zone NOT NULL,
+    `created_at` date NOT NULL,
+    `created_by` varchar(20) NOT NULL,
+    `updated_at` date DEFAULT NULL,
+    `updated_by` varchar(20) DEFAULT NULL,
+    PRIMARY KEY (`hold_id`)
+    );
@@ -0,0 +1,68 @@
+package com.personal.project.cards.benchmark;
+
+import com.personal.project.cards.repository.CardsRepository;
+import com.personal.project.cards.service.ICardsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rows per second of issuing cards one createCard call at a time against one createCards call
+ * (one duplicate check query per chunk, card numbers from the pool, batched inserts).
+ * Only runs on demand: mvn test -Dbenchmark=true -Dtest=BulkCardIssuanceBenchmarkTest
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {"build.version=test", "logging.level.org.hibernate.SQL=off"})
+class BulkCardIssuanceBenchmarkTest {
+
+    private static final int CARDS = Integer.getInteger("benchmark.cards", 20_000);
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @AfterEach
+    void cleanUp() {
+        cardsRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void singleVersusBulk() {
+        //warm up both paths so JIT and connection pool are not part of the numbers
+        iCardsService.createCards(mobileNumbers(1_000_000_000L, 2_000));
+        mobileNumbers(1_100_000_000L, 2_000).forEach(iCardsService::createCard);
+        cleanUp();
+
+        List<String> singles = mobileNumbers(2_000_000_000L, CARDS);
+        long start = System.nanoTime();
+        singles.forEach(iCardsService::createCard);
+        long singleNanos = System.nanoTime() - start;
+
+        List<String> bulk = mobileNumbers(3_000_000_000L, CARDS);
+        start = System.nanoTime();
+        iCardsService.createCards(bulk);
+        long bulkNanos = System.nanoTime() - start;
+
+        assertEquals(CARDS * 2L, cardsRepository.count());
+        System.out.printf("single-item create: %,.0f cards/s%n", CARDS / (singleNanos / 1e9));
+        System.out.printf("bulk create:        %,.0f cards/s (%.1fx)%n",
+                CARDS / (bulkNanos / 1e9), (double) singleNanos / bulkNanos);
+    }
+
+    private static List<String> mobileNumbers(long firstMobileNumber, int count) {
+        List<String> mobileNumbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            mobileNumbers.add(Long.toString(firstMobileNumber + i));
+        }
+        return mobileNumbers;
+    }
+}
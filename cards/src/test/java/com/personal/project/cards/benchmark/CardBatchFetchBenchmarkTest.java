@@ -0,0 +1,94 @@
+package com.personal.project.cards.benchmark;
+
+import com.personal.project.cards.constants.CardsConstants;
+import com.personal.project.cards.entity.Cards;
+import com.personal.project.cards.membership.MobileNumberFilter;
+import com.personal.project.cards.repository.CardsRepository;
+import com.personal.project.cards.service.ICardsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Latency of resolving the cards of 1, 10 and 1000 mobile numbers: one fetchCardsByMobileNumbers call (one IN query)
+ * against one fetchCardsByMobileNumber call per number, which is what a caller had to do before.
+ * Every customer holds a credit and a debit card. Only runs on demand:
+ * mvn test -Dbenchmark=true -Dtest=CardBatchFetchBenchmarkTest
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {"build.version=test", "mobile-filter.enabled=true", "logging.level.org.hibernate.SQL=off"})
+class CardBatchFetchBenchmarkTest {
+
+    private static final int CUSTOMERS = 10_000;
+    private static final long FIRST_MOBILE_NUMBER = 7_000_000_000L;
+    private static final int NUMBERS_PER_BATCH = Integer.getInteger("benchmark.iterations", 20_000); //numbers resolved per run and size
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @Autowired
+    private MobileNumberFilter mobileNumberFilter;
+
+    @AfterEach
+    void cleanUp() {
+        cardsRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void batchAgainstOneFetchPerNumber() {
+        List<Cards> cards = new ArrayList<>(CUSTOMERS * 2);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            String mobileNumber = Long.toString(FIRST_MOBILE_NUMBER + i);
+            cards.add(card(mobileNumber, CardsConstants.CREDIT_CARD, 100_000_000_000L + i));
+            cards.add(card(mobileNumber, "Debit Card", 200_000_000_000L + i));
+            mobileNumberFilter.add(mobileNumber);
+            mobileNumberFilter.add(mobileNumber);
+        }
+        cardsRepository.saveAll(cards);
+
+        for (String round : List.of("warm up ", "")) {
+            for (int size : new int[]{1, 10, 1_000}) {
+                run(round + "batch, " + size, size, iCardsService::fetchCardsByMobileNumbers);
+                run(round + "one per number, " + size, size, mobileNumbers -> mobileNumbers.forEach(iCardsService::fetchCardsByMobileNumber));
+            }
+        }
+    }
+
+    private static void run(String name, int size, Consumer<List<String>> fetch) {
+        int requests = Math.max(20, NUMBERS_PER_BATCH / size);
+        long[] nanos = new long[requests];
+        for (int r = 0; r < requests; r++) {
+            List<String> mobileNumbers = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                mobileNumbers.add(Long.toString(FIRST_MOBILE_NUMBER + ThreadLocalRandom.current().nextInt(CUSTOMERS)));
+            }
+            long start = System.nanoTime();
+            fetch.accept(mobileNumbers);
+            nanos[r] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-32s p50 %9.1f us  p99 %9.1f us  %7.2f us/number%n", name,
+                nanos[requests / 2] / 1e3, nanos[(int) (requests * 0.99)] / 1e3, Arrays.stream(nanos).average().orElse(0) / 1e3 / size);
+    }
+
+    private static Cards card(String mobileNumber, String cardType, long cardNumber) {
+        Cards card = new Cards();
+        card.setMobileNumber(mobileNumber);
+        card.setCardNumber(Long.toString(cardNumber));
+        card.setCardType(cardType);
+        card.setTotalLimit(CardsConstants.NEW_CARD_LIMIT);
+        card.setAvailableAmount(CardsConstants.NEW_CARD_LIMIT);
+        return card;
+    }
+}
@@ -0,0 +1,143 @@
+package com.personal.project.cards.benchmark;
+
+import com.personal.project.cards.cache.CardsCacheEvictor;
+import com.personal.project.cards.ledger.CardLedger;
+import com.personal.project.cards.ledger.CardLedgerProperties;
+import com.personal.project.cards.repository.CardsRepository;
+import com.personal.project.cards.service.ICardsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Spends per second of POST /api/spend's service call: one conditional update per spend (card-ledger.enabled false)
+ * against the in-memory CardLedger with and without fsync, on one hot card and spread over 64 cards.
+ * Only runs on demand: mvn test -Dbenchmark=true -Dtest=CardSpendBenchmarkTest
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {"build.version=test", "logging.level.org.hibernate.SQL=off"})
+class CardSpendBenchmarkTest {
+
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 32);
+    private static final int SPENDS_PER_THREAD = Integer.getInteger("benchmark.iterations", 2_000);
+    private static final int SPREAD_CARDS = 64;
+
+    @TempDir
+    private Path logDirectory;
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AuditorAware<String> auditorAware;
+
+    @Autowired
+    private CardsCacheEvictor cardsCacheEvictor;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    private final List<CardLedger> ledgers = new ArrayList<>();
+    private long nextMobileNumber;
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        for (CardLedger cardLedger : ledgers) {
+            cardLedger.stop();
+        }
+        cardsRepository.deleteAll();
+    }
+
+    @Test
+    void spendsPerSecondDatabaseAgainstLedger() throws Exception {
+        CardLedger fsyncLedger = ledger("fsync", true);
+        CardLedger noFsyncLedger = ledger("no-fsync", false);
+
+        for (String round : List.of("warm up ", "")) {
+            run(round + "database, hot card", cards(1), iCardsService::spend);
+            run(round + "database, 64 cards", cards(SPREAD_CARDS), iCardsService::spend);
+            run(round + "ledger fsync, hot card", cards(1), fsyncLedger::authorize);
+            run(round + "ledger fsync, 64 cards", cards(SPREAD_CARDS), fsyncLedger::authorize);
+            run(round + "ledger, hot card", cards(1), noFsyncLedger::authorize);
+            run(round + "ledger, 64 cards", cards(SPREAD_CARDS), noFsyncLedger::authorize);
+        }
+    }
+
+    //fresh cards for every run: a run spends at most THREADS * SPENDS_PER_THREAD of the 100000 of a card
+    private List<String> cards(int count) {
+        List<String> cardNumbers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String mobileNumber = Long.toString(7_600_000_000L + nextMobileNumber++);
+            iCardsService.createCard(mobileNumber);
+            cardNumbers.add(iCardsService.fetchCard(mobileNumber).getCardNumber());
+        }
+        return cardNumbers;
+    }
+
+    //the ledger flushes every 200ms as configured by default, so the batches to the cards table run during the measurement
+    private CardLedger ledger(String name, boolean fsync) {
+        CardLedgerProperties properties = new CardLedgerProperties(true, 64, Duration.ofMillis(200), logDirectory.resolve(name), fsync);
+        CardLedger cardLedger = new CardLedger(properties, jdbcTemplate, transactionTemplate, auditorAware, cardsCacheEvictor,
+                taskScheduler, new SimpleMeterRegistry());
+        cardLedger.start();
+        ledgers.add(cardLedger);
+        return cardLedger;
+    }
+
+    //spends of 1, a declined spend fails the run since it would be measuring the decline path
+    private static void run(String name, List<String> cardNumbers, BiConsumer<String, Integer> spend) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < SPENDS_PER_THREAD; i++) {
+                        spend.accept(cardNumbers.get((thread + i) % cardNumbers.size()), 1);
+                    }
+                    return null;
+                }));
+            }
+            long startNanos = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.MINUTES);
+            }
+            long nanos = System.nanoTime() - startNanos;
+            int spends = THREADS * SPENDS_PER_THREAD;
+            System.out.printf("%-32s %,12.0f spends/s %8.1f us/spend%n", name, spends / (nanos / 1e9), nanos / 1e3 / spends);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.personal.project.cards.benchmark;
+
+import com.personal.project.cards.exception.VelocityLimitExceededException;
+import com.personal.project.cards.velocity.VelocityEngine;
+import com.personal.project.cards.velocity.VelocityProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one VelocityEngine check with the two rules of the config server cards-velocity.yml, once millions of cards
+ * have counters in memory: every card gets a first spend, then random cards are checked from 1 and from THREADS threads.
+ * The heap taken by the counters is printed per card. Only runs on demand:
+ * mvn test -Dbenchmark=true -Dtest=VelocityCheckBenchmarkTest [-Dbenchmark.cards=2000000]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VelocityCheckBenchmarkTest {
+
+    private static final int CARDS = Integer.getInteger("benchmark.cards", 2_000_000);
+    private static final int CHECKS_PER_THREAD = Integer.getInteger("benchmark.iterations", 1_000_000);
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 4);
+    private static final long FIRST_CARD_NUMBER = 100_000_000_000L;
+
+    @Test
+    void checkLatencyAtMillionsOfCards() throws Exception {
+        long heapBefore = usedHeap();
+        VelocityEngine engine = new VelocityEngine(new VelocityProperties(true, CARDS, Duration.ofHours(1), List.of(
+                new VelocityProperties.Rule("burst", Duration.ofSeconds(10), 5, 0),
+                new VelocityProperties.Rule("hourly", Duration.ofHours(1), 60, 50_000))),
+                new MockEnvironment(), new SimpleMeterRegistry());
+        String[] cardNumbers = new String[CARDS];
+        for (int i = 0; i < CARDS; i++) {
+            cardNumbers[i] = Long.toString(FIRST_CARD_NUMBER + i);
+        }
+        long heapWithNumbers = usedHeap(); //the card numbers are the keys of the cache, counted below as well
+        for (String cardNumber : cardNumbers) {
+            engine.count(cardNumber, 1);
+        }
+        long heapWithCounters = usedHeap();
+        System.out.printf("%,d cards: %,.0f bytes/card of counters and cache entries, %,.0f with the card number%n", CARDS,
+                (double) (heapWithCounters - heapWithNumbers) / CARDS, (double) (heapWithCounters - heapBefore) / CARDS);
+
+        for (String round : List.of("warm up ", "")) {
+            run(round + "1 thread", engine, cardNumbers, 1);
+            run(round + THREADS + " threads", engine, cardNumbers, THREADS);
+        }
+    }
+
+    //every check timed on its own, System.nanoTime adds a few tens of ns to each
+    private static void run(String name, VelocityEngine engine, String[] cardNumbers, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    long[] nanos = new long[CHECKS_PER_THREAD];
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    start.await();
+                    for (int i = 0; i < CHECKS_PER_THREAD; i++) {
+                        String cardNumber = cardNumbers[random.nextInt(cardNumbers.length)];
+                        long startNanos = System.nanoTime();
+                        try {
+                            engine.count(cardNumber, 1);
+                        } catch (VelocityLimitExceededException declined) {
+                            //a declined check is a check too
+                        }
+                        nanos[i] = System.nanoTime() - startNanos;
+                    }
+                    return nanos;
+                }));
+            }
+            long startNanos = System.nanoTime();
+            start.countDown();
+            long[] nanos = new long[0];
+            for (Future<long[]> future : futures) {
+                long[] threadNanos = future.get(10, TimeUnit.MINUTES);
+                int offset = nanos.length;
+                nanos = Arrays.copyOf(nanos, offset + threadNanos.length);
+                System.arraycopy(threadNanos, 0, nanos, offset, threadNanos.length);
+            }
+            long elapsed = System.nanoTime() - startNanos;
+            Arrays.sort(nanos);
+            System.out.printf("%-24s p50 %6d ns  p99 %7d ns  p99.9 %8d ns  %,12.0f checks/s%n", name,
+                    nanos[nanos.length / 2], nanos[(int) (nanos.length * 0.99)], nanos[(int) (nanos.length * 0.999)],
+                    nanos.length / (elapsed / 1e9));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
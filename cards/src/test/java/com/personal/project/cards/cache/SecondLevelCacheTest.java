@@ -0,0 +1,193 @@
+package com.personal.project.cards.cache;
+
+import com.personal.project.cards.constants.CardsConstants;
+import com.personal.project.cards.dto.CardsDto;
+import com.personal.project.cards.entity.Cards;
+import com.personal.project.cards.holds.CardHoldExpiry;
+import com.personal.project.cards.ledger.CardLedger;
+import com.personal.project.cards.ledger.CardLedgerProperties;
+import com.personal.project.cards.repository.CardHoldsRepository;
+import com.personal.project.cards.repository.CardsRepository;
+import com.personal.project.cards.service.ICardsService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"build.version=test", "second-level-cache.enabled=true"})
+class SecondLevelCacheTest {
+
+    private static final int READS = 20;
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @Autowired
+    private CardHoldsRepository cardHoldsRepository;
+
+    @Autowired
+    private CardHoldExpiry cardHoldExpiry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AuditorAware<String> auditorAware;
+
+    @Autowired
+    private CardsCacheEvictor cardsCacheEvictor;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @TempDir
+    private Path logDirectory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        cardHoldsRepository.deleteAll();
+        cardsRepository.deleteAll();
+    }
+
+    @Test
+    void repeatedReadsAreServedFromTheCache() {
+        iCardsService.createCard("7400000000");
+        statistics.clear();
+
+        //every repository call outside a transaction gets its own session, so only the second level cache can save the round trip
+        Cards card = null;
+        for (int i = 0; i < READS; i++) {
+            card = cardsRepository.findFirstByMobileNumberOrderByCardIdAsc("7400000000").orElseThrow();
+        }
+        for (int i = 0; i < READS; i++) {
+            cardsRepository.findByCardNumber(card.getCardNumber()).orElseThrow();
+            cardsRepository.findById(card.getCardId()).orElseThrow();
+        }
+
+        //one execution per query, the entity was put into its region by the insert
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(2 * (READS - 1), statistics.getQueryCacheHitCount());
+        assertEquals(0, statistics.getSecondLevelCacheMissCount());
+        double hitRatio = (double) statistics.getQueryCacheHitCount() / (statistics.getQueryCacheHitCount() + statistics.getQueryCacheMissCount());
+        assertTrue(hitRatio >= 0.9, "query cache hit ratio " + hitRatio);
+    }
+
+    @Test
+    void updateIsVisibleToTheNextRead() {
+        iCardsService.createCard("7400000001");
+        Cards cached = cardsRepository.findFirstByMobileNumberOrderByCardIdAsc("7400000001").orElseThrow();
+        cardsRepository.findByCardNumber(cached.getCardNumber()).orElseThrow();
+
+        CardsDto update = iCardsService.fetchCard("7400000001");
+        update.setMobileNumber("7400000002");
+        update.setAmountUsed(1_000);
+        iCardsService.updateCard(update);
+
+        assertTrue(cardsRepository.findFirstByMobileNumberOrderByCardIdAsc("7400000001").isEmpty());
+        assertEquals(1_000, cardsRepository.findFirstByMobileNumberOrderByCardIdAsc("7400000002").orElseThrow().getAmountUsed());
+        assertEquals("7400000002", cardsRepository.findByCardNumber(cached.getCardNumber()).orElseThrow().getMobileNumber());
+        assertEquals(1_000, cardsRepository.findById(cached.getCardId()).orElseThrow().getAmountUsed());
+    }
+
+    @Test
+    void deleteRemovesTheCachedEntity() {
+        iCardsService.createCard("7400000003");
+        Cards cached = cardsRepository.findFirstByMobileNumberOrderByCardIdAsc("7400000003").orElseThrow();
+        cardsRepository.findByCardNumber(cached.getCardNumber()).orElseThrow();
+
+        iCardsService.deleteCard("7400000003");
+
+        assertTrue(cardsRepository.findFirstByMobileNumberOrderByCardIdAsc("7400000003").isEmpty());
+        assertTrue(cardsRepository.findByCardNumber(cached.getCardNumber()).isEmpty());
+        assertTrue(cardsRepository.findById(cached.getCardId()).isEmpty());
+    }
+
+    @Test
+    void bulkDeleteInvalidatesTheRegion() {
+        iCardsService.createCard("7400000004");
+        Cards cached = cardsRepository.findFirstByMobileNumberOrderByCardIdAsc("7400000004").orElseThrow();
+
+        //a JPQL delete bypasses the entities, Hibernate has to drop the whole region and the cached query results
+        cardsRepository.deleteAllInBatch();
+
+        assertTrue(cardsRepository.findById(cached.getCardId()).isEmpty());
+        assertTrue(cardsRepository.findFirstByMobileNumberOrderByCardIdAsc("7400000004").isEmpty());
+    }
+
+    @Test
+    void ledgerFlushEvictsTheFlushedCards() throws IOException {
+        iCardsService.createCard("7400000005");
+        Cards cached = cardsRepository.findFirstByMobileNumberOrderByCardIdAsc("7400000005").orElseThrow();
+        cardsRepository.findById(cached.getCardId()).orElseThrow();
+
+        //the flush is a JDBC batch, Hibernate only learns about it from the eviction
+        CardLedgerProperties properties = new CardLedgerProperties(true, 16, Duration.ofHours(1), logDirectory, false);
+        CardLedger cardLedger = new CardLedger(properties, jdbcTemplate, transactionTemplate, auditorAware, cardsCacheEvictor,
+                taskScheduler, new SimpleMeterRegistry());
+        cardLedger.start();
+        try {
+            cardLedger.authorize(cached.getCardNumber(), 1_000);
+            cardLedger.flush();
+        } finally {
+            cardLedger.stop();
+        }
+
+        assertEquals(1_000, cardsRepository.findById(cached.getCardId()).orElseThrow().getAmountUsed());
+        assertEquals(1_000, iCardsService.fetchCard("7400000005").getAmountUsed());
+    }
+
+    @Test
+    void holdExpiryEvictsTheReleasedCards() throws InterruptedException {
+        iCardsService.createCard("7400000006");
+        Cards card = cardsRepository.findFirstByMobileNumberOrderByCardIdAsc("7400000006").orElseThrow();
+        long holdId = iCardsService.authorizeHold(card.getCardNumber(), 1_000).getHoldId();
+        assertEquals(CardsConstants.NEW_CARD_LIMIT - 1_000, cardsRepository.findById(card.getCardId()).orElseThrow().getAvailableAmount());
+        assertTrue(entityManagerFactory.getCache().contains(Cards.class, card.getCardId()));
+
+        //due on the next tick of the application's expiry, which releases it with a JDBC batch
+        cardHoldExpiry.schedule(holdId, Instant.now());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (cardsRepository.findById(card.getCardId()).orElseThrow().getAvailableAmount() != CardsConstants.NEW_CARD_LIMIT
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(CardsConstants.NEW_CARD_LIMIT, cardsRepository.findById(card.getCardId()).orElseThrow().getAvailableAmount());
+        assertEquals(CardsConstants.NEW_CARD_LIMIT, iCardsService.fetchCard("7400000006").getAvailableAmount());
+    }
+}
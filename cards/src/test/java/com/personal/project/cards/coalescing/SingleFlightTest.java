@@ -0,0 +1,127 @@
+package com.personal.project.cards.coalescing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//loans carries the same SingleFlight, this is the one unit test of it
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(meterRegistry);
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void shutDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void callersArrivingDuringALoadShareItsResult() throws Exception {
+        Future<String> first = executor.submit(() -> singleFlight.execute("7000000000", blockedLoad(() -> "card")));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        List<Future<String>> waiters = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            waiters.add(executor.submit(() -> singleFlight.execute("7000000000", blockedLoad(() -> "other load"))));
+        }
+        awaitCoalesced(7);
+        release.countDown();
+
+        String value = first.get(10, TimeUnit.SECONDS);
+        for (Future<String> waiter : waiters) {
+            assertSame(value, waiter.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, meterRegistry.get("fetch.loads").counter().count());
+    }
+
+    @Test
+    void callersArrivingDuringAFailedLoadShareItsException() throws Exception {
+        IllegalStateException failure = new IllegalStateException("not found");
+        Future<String> first = executor.submit(() -> singleFlight.execute("7000000001", blockedLoad(() -> {
+            throw failure;
+        })));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        Future<String> waiter = executor.submit(() -> singleFlight.execute("7000000001", blockedLoad(() -> "other load")));
+        awaitCoalesced(1);
+        release.countDown();
+
+        assertSame(failure, assertThrows(ExecutionException.class, () -> first.get(10, TimeUnit.SECONDS)).getCause());
+        assertSame(failure, assertThrows(ExecutionException.class, () -> waiter.get(10, TimeUnit.SECONDS)).getCause());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void nothingIsKeptOnceTheLoadFinished() {
+        assertEquals("first", singleFlight.execute("7000000002", () -> "first"));
+        assertEquals("second", singleFlight.execute("7000000002", () -> "second"));
+        assertEquals(2, meterRegistry.get("fetch.loads").counter().count());
+    }
+
+    @Test
+    void callersArrivingAfterAWriteStartAFreshLoad() throws Exception {
+        Future<String> stale = executor.submit(() -> singleFlight.execute("7000000003", blockedLoad(() -> "old row")));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        singleFlight.forget("7000000003");
+        assertEquals("new row", singleFlight.execute("7000000003", () -> "new row"));
+
+        release.countDown();
+        assertEquals("old row", stale.get(10, TimeUnit.SECONDS));
+        assertEquals(0, meterRegistry.get("fetch.coalesced").counter().count());
+    }
+
+    @Test
+    void differentKeysDoNotWaitForEachOther() throws Exception {
+        Future<String> blocked = executor.submit(() -> singleFlight.execute("7000000004", blockedLoad(() -> "slow")));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        assertEquals("fast", singleFlight.execute("7000000005", () -> "fast"));
+
+        release.countDown();
+        assertInstanceOf(String.class, blocked.get(10, TimeUnit.SECONDS));
+    }
+
+    //counts the load, tells the test it started, then holds until released
+    private <V> Supplier<V> blockedLoad(Supplier<V> value) {
+        return () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            return value.get();
+        };
+    }
+
+    private void awaitCoalesced(int callers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get("fetch.coalesced").counter().count() < callers && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(callers, meterRegistry.get("fetch.coalesced").counter().count());
+    }
+}
@@ -0,0 +1,147 @@
+package com.personal.project.cards.holds;
+
+import com.personal.project.cards.cache.CardsCacheEvictor;
+import com.personal.project.cards.coalescing.SingleFlight;
+import com.personal.project.cards.constants.CardsConstants;
+import com.personal.project.cards.dto.CardsDto;
+import com.personal.project.cards.exception.ResourceNotFoundException;
+import com.personal.project.cards.repository.CardHoldsRepository;
+import com.personal.project.cards.repository.CardsRepository;
+import com.personal.project.cards.service.ICardsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "build.version=test")
+class CardHoldExpiryTest {
+
+    private static final String MOBILE_NUMBER = "7300000200";
+    private static final CardHoldProperties PROPERTIES = new CardHoldProperties(Duration.ofDays(7), Duration.ofSeconds(1), 2);
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @Autowired
+    private CardHoldsRepository cardHoldsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AuditorAware<String> auditorAware;
+
+    @Autowired
+    private CardsCacheEvictor cardsCacheEvictor;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @AfterEach
+    void cleanUp() {
+        cardHoldsRepository.deleteAll();
+        cardsRepository.deleteAll();
+    }
+
+    @Test
+    void holdsLeftUncapturedAreReleasedAfterARestart() {
+        iCardsService.createCard(MOBILE_NUMBER);
+        String cardNumber = iCardsService.fetchCard(MOBILE_NUMBER).getCardNumber();
+        long captured = iCardsService.authorizeHold(cardNumber, 100).getHoldId();
+        long voided = iCardsService.authorizeHold(cardNumber, 200).getHoldId();
+        long[] uncaptured = new long[3];
+        for (int i = 0; i < uncaptured.length; i++) {
+            uncaptured[i] = iCardsService.authorizeHold(cardNumber, 300).getHoldId();
+        }
+        iCardsService.captureHold(captured);
+        iCardsService.voidHold(voided);
+        assertBalance(100, CardsConstants.NEW_CARD_LIMIT - 100 - 900);
+
+        //a restarted instance: its wheel only knows the holds still in card_holds
+        TestClock clock = new TestClock(Instant.now());
+        CardHoldExpiry restarted = new CardHoldExpiry(PROPERTIES, jdbcTemplate, transactionTemplate, auditorAware,
+                Optional.empty(), cardsCacheEvictor, singleFlight, taskScheduler, new SimpleMeterRegistry(), clock);
+        restarted.rebuild();
+
+        clock.now = clock.now.plus(Duration.ofDays(7)).minusSeconds(2);
+        assertEquals(0, restarted.tick());
+        clock.now = clock.now.plusSeconds(3);
+        assertEquals(3, restarted.tick()); //in chunks of 2
+
+        assertBalance(100, CardsConstants.NEW_CARD_LIMIT - 100);
+        assertEquals(0, cardHoldsRepository.count());
+        assertThrows(ResourceNotFoundException.class, () -> iCardsService.captureHold(uncaptured[0]));
+        assertThrows(ResourceNotFoundException.class, () -> iCardsService.voidHold(captured));
+    }
+
+    @Test
+    void captureBeforeTheExpiryKeepsTheHold() {
+        iCardsService.createCard(MOBILE_NUMBER);
+        String cardNumber = iCardsService.fetchCard(MOBILE_NUMBER).getCardNumber();
+        TestClock clock = new TestClock(Instant.now());
+        CardHoldExpiry expiry = new CardHoldExpiry(PROPERTIES, jdbcTemplate, transactionTemplate, auditorAware,
+                Optional.empty(), cardsCacheEvictor, singleFlight, taskScheduler, new SimpleMeterRegistry(), clock);
+        long holdId = iCardsService.authorizeHold(cardNumber, 500).getHoldId();
+        expiry.schedule(holdId, clock.now.plusSeconds(10));
+
+        iCardsService.captureHold(holdId);
+        clock.now = clock.now.plusSeconds(11);
+
+        assertEquals(0, expiry.tick()); //due, but not in card_holds anymore
+        assertBalance(500, CardsConstants.NEW_CARD_LIMIT - 500);
+    }
+
+    private void assertBalance(int amountUsed, int availableAmount) {
+        CardsDto card = iCardsService.fetchCard(MOBILE_NUMBER);
+        assertEquals(amountUsed, card.getAmountUsed());
+        assertEquals(availableAmount, card.getAvailableAmount());
+    }
+
+    private static final class TestClock extends Clock {
+
+        private volatile Instant now;
+
+        private TestClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.personal.project.cards.holds;
+
+import com.personal.project.cards.cache.CardsCacheEvictor;
+import com.personal.project.cards.coalescing.SingleFlight;
+import com.personal.project.cards.constants.CardsConstants;
+import com.personal.project.cards.repository.CardHoldsRepository;
+import com.personal.project.cards.repository.CardsRepository;
+import com.personal.project.cards.service.ICardsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Expiring holds at scale: a million holds through the TimingWheel alone (cpu per hold, no database), and a large batch
+ * of real card_holds rows through CardHoldExpiry (select for update, delete, batched release, evictions).
+ * In the holds package rather than benchmark, the wheel and the expiry's tick are package private.
+ * Only runs on demand: mvn test -Dbenchmark=true -Dtest=HoldExpiryBenchmarkTest
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {"build.version=test", "logging.level.org.hibernate.SQL=off"})
+class HoldExpiryBenchmarkTest {
+
+    private static final int WHEEL_HOLDS = Integer.getInteger("benchmark.holds", 1_000_000);
+    private static final int EXPIRED_HOLDS = Integer.getInteger("benchmark.expired-holds", 100_000);
+    private static final int CARDS = 100;
+    private static final CardHoldProperties PROPERTIES = new CardHoldProperties(Duration.ofDays(7), Duration.ofSeconds(1), 1_000);
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @Autowired
+    private CardHoldsRepository cardHoldsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AuditorAware<String> auditorAware;
+
+    @Autowired
+    private CardsCacheEvictor cardsCacheEvictor;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @AfterEach
+    void cleanUp() {
+        cardHoldsRepository.deleteAllInBatch();
+        cardsRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void millionHoldsInTheWheel() {
+        //1s ticks and a week of deadlines as card-holds, advanced a minute at a time
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        SplittableRandom random = new SplittableRandom(42);
+        long start = 1_700_000_000_000L;
+        long week = Duration.ofDays(7).toMillis();
+        TimingWheel wheel = new TimingWheel(1_000, start);
+        long addCpu = threads.getCurrentThreadCpuTime();
+        for (long holdId = 1; holdId <= WHEEL_HOLDS; holdId++) {
+            wheel.add(holdId, start + 1 + random.nextLong(week));
+        }
+        addCpu = threads.getCurrentThreadCpuTime() - addCpu;
+
+        long expireCpu = threads.getCurrentThreadCpuTime();
+        long expired = 0;
+        long advances = 0;
+        for (long now = start; now <= start + week + 60_000; now += 60_000) {
+            expired += wheel.advance(now).size();
+            advances++;
+        }
+        expireCpu = threads.getCurrentThreadCpuTime() - expireCpu;
+
+        assertEquals(WHEEL_HOLDS, expired);
+        assertEquals(0, wheel.size());
+        System.out.printf("wheel, %,d holds: add %.0f ns/hold, expire %.0f ns/hold over %,d advances%n",
+                WHEEL_HOLDS, (double) addCpu / WHEEL_HOLDS, (double) expireCpu / WHEEL_HOLDS, advances);
+    }
+
+    @Test
+    void largeBatchOfHoldsExpiredThroughTheDatabase() {
+        List<String> mobileNumbers = new ArrayList<>(CARDS);
+        for (int i = 0; i < CARDS; i++) {
+            mobileNumbers.add(Long.toString(7_600_000_000L + i));
+        }
+        iCardsService.createCards(mobileNumbers);
+        List<String> cardNumbers = jdbcTemplate.queryForList("select card_number from cards", String.class);
+        insertHolds(cardNumbers);
+
+        //a week and a day later: every hold is past its expiry and due on the first tick after the rebuild
+        Clock later = Clock.offset(Clock.systemUTC(), Duration.ofDays(8));
+        CardHoldExpiry expiry = new CardHoldExpiry(PROPERTIES, jdbcTemplate, transactionTemplate, auditorAware,
+                Optional.empty(), cardsCacheEvictor, singleFlight, taskScheduler, new SimpleMeterRegistry(), later);
+        long start = System.nanoTime();
+        expiry.rebuild();
+        long rebuildNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        int released = expiry.tick();
+        long tickNanos = System.nanoTime() - start;
+
+        assertEquals(EXPIRED_HOLDS, released);
+        assertEquals(0, cardHoldsRepository.count());
+        assertEquals(CARDS, jdbcTemplate.queryForObject("select count(*) from cards where available_amount = ?",
+                Integer.class, CardsConstants.NEW_CARD_LIMIT));
+        System.out.printf("expiry, %,d holds on %d cards: rebuild %,.0f holds/s, release %,.0f holds/s in chunks of %,d%n",
+                EXPIRED_HOLDS, CARDS, EXPIRED_HOLDS / (rebuildNanos / 1e9), EXPIRED_HOLDS / (tickNanos / 1e9),
+                PROPERTIES.expiryBatchSize());
+    }
+
+    //one held amount of 1 per row, spread evenly over the cards, reserved on the cards as POST /api/hold would
+    private void insertHolds(List<String> cardNumbers) {
+        Timestamp expiresAt = Timestamp.from(Instant.now().plus(PROPERTIES.timeToLive()));
+        Date createdAt = Date.valueOf(LocalDate.now());
+        List<Object[]> holds = new ArrayList<>(EXPIRED_HOLDS);
+        for (int i = 0; i < EXPIRED_HOLDS; i++) {
+            holds.add(new Object[]{1_000_000_000L + i, cardNumbers.get(i % cardNumbers.size()), 1, expiresAt, createdAt, "benchmark"});
+        }
+        jdbcTemplate.batchUpdate("insert into card_holds (hold_id, card_number, amount, expires_at, created_at, created_by) "
+                + "values (?, ?, ?, ?, ?, ?)", holds);
+        List<Object[]> reserves = new ArrayList<>(cardNumbers.size());
+        for (int i = 0; i < cardNumbers.size(); i++) {
+            int held = EXPIRED_HOLDS / cardNumbers.size() + (i < EXPIRED_HOLDS % cardNumbers.size() ? 1 : 0);
+            reserves.add(new Object[]{held, cardNumbers.get(i)});
+        }
+        jdbcTemplate.batchUpdate("update cards set available_amount = available_amount - ? where card_number = ?", reserves);
+    }
+}
@@ -0,0 +1,82 @@
+package com.personal.project.cards.holds;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    private static final int HOLDS = 20_000;
+
+    @Test
+    void everyIdIsDueOnceAndNeverEarly() {
+        //1ms ticks so the deadlines reach every level, and past the top one (2^24 ticks)
+        SplittableRandom random = new SplittableRandom(7);
+        long start = 1_700_000_000_000L;
+        TimingWheel wheel = new TimingWheel(1, start);
+        int ids = 5_000;
+        long[] deadlines = new long[ids];
+        for (int id = 0; id < ids; id++) {
+            deadlines[id] = start - 10 + random.nextLong(1L << (6 * random.nextInt(4) + 8)); //up to 2^26 ticks out
+            wheel.add(id, deadlines[id]);
+        }
+
+        BitSet due = new BitSet(ids);
+        long now = start;
+        long end = start + (1L << 26) + 50_000;
+        while (now < end) {
+            now += 1 + random.nextLong(50_000);
+            TimingWheel.Due taken = wheel.advance(now);
+            for (int i = 0; i < taken.size(); i++) {
+                int id = (int) taken.get(i);
+                assertFalse(due.get(id), "due twice " + id);
+                assertTrue(deadlines[id] <= now, "due early " + id);
+                due.set(id);
+            }
+            //nothing left behind: whatever was due by now has been taken out
+            if (due.cardinality() < ids) {
+                for (int id = due.nextClearBit(0); id < ids; id = due.nextClearBit(id + 1)) {
+                    assertTrue(deadlines[id] > now, "not taken out " + id);
+                }
+            }
+        }
+        assertEquals(ids, due.cardinality());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void holdsSpreadOverAWeekAreDueOnTheFirstAdvancePastTheirDeadline() {
+        //1s ticks and a week of deadlines as card-holds, advanced a minute at a time; the 1M run is HoldExpiryBenchmarkTest
+        SplittableRandom random = new SplittableRandom(42);
+        long start = 1_700_000_000_000L;
+        long week = Duration.ofDays(7).toMillis();
+        TimingWheel wheel = new TimingWheel(1_000, start);
+        long[] deadlines = new long[HOLDS];
+        for (int id = 0; id < HOLDS; id++) {
+            deadlines[id] = start + 1 + random.nextLong(week);
+            wheel.add(id, deadlines[id]);
+        }
+
+        BitSet due = new BitSet(HOLDS);
+        long previous = start;
+        for (long now = start + 60_000; now <= start + week + 60_000; now += 60_000) {
+            TimingWheel.Due taken = wheel.advance(now);
+            for (int i = 0; i < taken.size(); i++) {
+                int id = (int) taken.get(i);
+                assertFalse(due.get(id), "due twice " + id);
+                assertTrue(deadlines[id] <= now, "due early " + id);
+                assertTrue(deadlines[id] > previous, "due late " + id);
+                due.set(id);
+            }
+            previous = now;
+        }
+        assertEquals(HOLDS, due.cardinality());
+        assertEquals(0, wheel.size());
+    }
+}
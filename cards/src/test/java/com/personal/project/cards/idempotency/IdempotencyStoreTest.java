@@ -0,0 +1,66 @@
+package com.personal.project.cards.idempotency;
+
+import com.personal.project.cards.constants.CardsConstants;
+import com.personal.project.cards.observability.StatementCounter;
+import com.personal.project.cards.repository.CardsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static com.personal.project.cards.observability.StatementCountAssertions.assertStatementCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//IdempotencyStore itself (in-flight duplicates, failed requests) is tested in accounts; this only checks that
+//POST /api/create of cards goes through it with the cards headers and the mobile number as the request
+@SpringBootTest(properties = "build.version=test")
+@AutoConfigureMockMvc
+class IdempotencyStoreTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @AfterEach
+    void cleanUp() {
+        cardsRepository.deleteAll();
+    }
+
+    @Test
+    void retriedCardCreateIsReplayedFromMemory() throws Exception {
+        mockMvc.perform(createCard("7800000000", "card-retry-1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(CardsConstants.IDEMPOTENT_REPLAYED_HEADER));
+
+        assertStatementCount(statementCounter, 0, () -> mockMvc.perform(createCard("7800000000", "card-retry-1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(CardsConstants.IDEMPOTENT_REPLAYED_HEADER, "true")));
+        assertEquals(1, cardsRepository.count());
+    }
+
+    @Test
+    void keyOfOneMobileNumberDoesNotIssueACardForAnother() throws Exception {
+        mockMvc.perform(createCard("7800000001", "card-reused-1")).andExpect(status().isCreated());
+
+        mockMvc.perform(createCard("7800000002", "card-reused-1")).andExpect(status().isUnprocessableEntity());
+        assertTrue(cardsRepository.findFirstByMobileNumberOrderByCardIdAsc("7800000002").isEmpty());
+    }
+
+    private static RequestBuilder createCard(String mobileNumber, String idempotencyKey) {
+        MockHttpServletRequestBuilder request = post("/api/create").param("mobileNumber", mobileNumber);
+        return request.header(CardsConstants.IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+    }
+}
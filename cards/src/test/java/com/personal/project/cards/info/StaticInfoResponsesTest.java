@@ -0,0 +1,72 @@
+package com.personal.project.cards.info;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personal.project.cards.dto.CardsContactInfoDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//caching, ETags and refresh handling of StaticInfoResponses are tested in accounts; here only the cards endpoints and the cards.* prefix
+@SpringBootTest(properties = "build.version=test")
+@AutoConfigureMockMvc
+class StaticInfoResponsesTest {
+
+    private static final String REFRESHED = "refreshed";
+    private static final Set<String> CARDS_KEYS = Set.of("cards.message");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CardsContactInfoDto cardsContactInfoDto;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ConfigurableEnvironment environment;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @AfterEach
+    void restoreEnvironment() {
+        if (environment.getPropertySources().remove(REFRESHED) != null) {
+            applicationEventPublisher.publishEvent(new EnvironmentChangeEvent(CARDS_KEYS));
+        }
+    }
+
+    @Test
+    void cardsServiceInfoFollowsARefreshOfTheCardsProperties() throws Exception {
+        mockMvc.perform(get("/api/build-version"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(content().string("test"));
+        mockMvc.perform(get("/api/cards-service-info"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(content().bytes(objectMapper.writeValueAsBytes(cardsContactInfoDto)));
+
+        environment.getPropertySources().addFirst(new MapPropertySource(REFRESHED, Map.of("cards.message", "Cards, refreshed")));
+        applicationEventPublisher.publishEvent(new EnvironmentChangeEvent(CARDS_KEYS));
+
+        mockMvc.perform(get("/api/cards-service-info"))
+                .andExpect(content().bytes(objectMapper.writeValueAsBytes(new CardsContactInfoDto("Cards, refreshed",
+                        cardsContactInfoDto.contactDetails(), cardsContactInfoDto.env(), cardsContactInfoDto.onCallSupport()))));
+    }
+}
@@ -0,0 +1,122 @@
+package com.personal.project.cards.issuing;
+
+import com.personal.project.cards.constants.CardsConstants;
+import com.personal.project.cards.entity.Cards;
+import com.personal.project.cards.membership.MobileNumberFilter;
+import com.personal.project.cards.repository.CardsRepository;
+import com.personal.project.cards.service.impl.CardsServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "build.version=test")
+class CardNumberPoolTest {
+
+    private static final long SEED = 42;
+    private static final CardNumberPoolProperties PROPERTIES = new CardNumberPoolProperties(100, 10, 50);
+
+    @Autowired
+    private CardNumberPool cardNumberPool;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @Autowired
+    private MobileNumberFilter mobileNumberFilter;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @AfterEach
+    void cleanUp() {
+        cardsRepository.deleteAll();
+    }
+
+    @Test
+    void luhnCheckDigit() {
+        assertEquals(3, CardNumbers.checkDigit(7992739871L));
+        assertTrue(CardNumbers.isValid("100000000008"));
+        assertFalse(CardNumbers.isValid("100000000007"));
+        assertFalse(CardNumbers.isValid("10000000008"));
+        assertFalse(CardNumbers.isValid("000000000000"));
+        assertFalse(CardNumbers.isValid("1000000000a8"));
+    }
+
+    @Test
+    void issuedNumbersAreValidAndUnique() {
+        Set<String> issued = new HashSet<>();
+        for (int i = 0; i < 50_000; i++) { //more than the pool holds, so misses and refills are part of it
+            String cardNumber = cardNumberPool.next();
+            assertTrue(CardNumbers.isValid(cardNumber), cardNumber);
+            assertTrue(issued.add(cardNumber), cardNumber);
+        }
+    }
+
+    @Test
+    void aRefillLeavesOutNumbersAlreadyTaken() {
+        //same seed, same numbers: the first one of the batch is given to a card before the second pool refills
+        CardNumberPool first = pool();
+        first.refill();
+        String taken = first.next();
+        cardsRepository.saveAndFlush(card("7500000000", taken));
+
+        CardNumberPool second = pool();
+        second.refill();
+
+        assertEquals(PROPERTIES.poolSize(), second.size());
+        for (int i = 0; i < PROPERTIES.poolSize(); i++) {
+            assertNotEquals(taken, second.next());
+        }
+    }
+
+    @Test
+    void createCardRetriesANumberTakenInTheMeantime() {
+        //an empty pool without refill generates on the spot, so its first number is the first of the seed
+        String taken = CardNumbers.generate(new SplittableRandom(SEED));
+        cardsRepository.saveAndFlush(card("7500000000", taken));
+        CardsServiceImpl cardsService = new CardsServiceImpl(cardsRepository, mobileNumberFilter,
+                new com.personal.project.cards.coalescing.SingleFlight(new SimpleMeterRegistry()), null, null, Optional.empty(),
+                new CardNumberPool(PROPERTIES, cardsRepository, applicationTaskExecutor, new SimpleMeterRegistry(), new SplittableRandom(SEED)) {
+                    @Override
+                    public void start() {
+                    }
+                }, null, null, null);
+
+        cardsService.createCard("7500000001");
+
+        List<String> cardNumbers = cardsRepository.findAll().stream().map(Cards::getCardNumber).toList();
+        assertEquals(2, cardNumbers.size());
+        assertTrue(cardNumbers.stream().allMatch(CardNumbers::isValid));
+        assertNotEquals(cardNumbers.get(0), cardNumbers.get(1));
+    }
+
+    private CardNumberPool pool() {
+        return new CardNumberPool(PROPERTIES, cardsRepository, applicationTaskExecutor, new SimpleMeterRegistry(), new SplittableRandom(SEED));
+    }
+
+    private static Cards card(String mobileNumber, String cardNumber) {
+        Cards card = new Cards();
+        card.setMobileNumber(mobileNumber);
+        card.setCardNumber(cardNumber);
+        card.setCardType(CardsConstants.CREDIT_CARD);
+        card.setTotalLimit(CardsConstants.NEW_CARD_LIMIT);
+        card.setAvailableAmount(CardsConstants.NEW_CARD_LIMIT);
+        return card;
+    }
+}
@@ -0,0 +1,187 @@
+package com.personal.project.cards.ledger;
+
+import com.personal.project.cards.cache.CardsCacheEvictor;
+import com.personal.project.cards.constants.CardsConstants;
+import com.personal.project.cards.dto.CardBalanceDto;
+import com.personal.project.cards.dto.CardsDto;
+import com.personal.project.cards.exception.InsufficientFundsException;
+import com.personal.project.cards.exception.ResourceNotFoundException;
+import com.personal.project.cards.repository.CardsRepository;
+import com.personal.project.cards.service.ICardsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+//ledgers are built by hand over a temporary log directory, so a test can abandon one (the crash) and start another
+@SpringBootTest(properties = "build.version=test")
+class CardLedgerTest {
+
+    private static final int THREADS = 32;
+    private static final String MOBILE_NUMBER = "7400000000";
+
+    @TempDir
+    private Path logDirectory;
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AuditorAware<String> auditorAware;
+
+    @Autowired
+    private CardsCacheEvictor cardsCacheEvictor;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @AfterEach
+    void cleanUp() {
+        cardsRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentSpendsOnOneHotCardAreAllAppliedInMemoryAndThenInTheTable() throws Exception {
+        String cardNumber = createCard(MOBILE_NUMBER);
+        CardLedger cardLedger = ledger();
+
+        //32 threads x 500 spends of 3 = 48000, within the limit
+        assertEquals(THREADS * 500, spend(cardLedger, cardNumber, 500, 3));
+        assertEquals(CardsConstants.NEW_CARD_LIMIT, iCardsService.fetchCard(MOBILE_NUMBER).getAvailableAmount()); //not flushed yet
+
+        cardLedger.flush();
+        CardsDto card = iCardsService.fetchCard(MOBILE_NUMBER);
+        assertEquals(THREADS * 500 * 3, card.getAmountUsed());
+        assertEquals(CardsConstants.NEW_CARD_LIMIT - THREADS * 500 * 3, card.getAvailableAmount());
+        try (var segments = Files.list(logDirectory)) {
+            assertEquals(1, segments.count()); //only the open epoch is left
+        }
+    }
+
+    @Test
+    void concurrentSpendsPastTheLimitStopExactlyAtZero() throws Exception {
+        String cardNumber = createCard(MOBILE_NUMBER);
+        CardLedger cardLedger = ledger();
+
+        assertEquals(CardsConstants.NEW_CARD_LIMIT / 20, spend(cardLedger, cardNumber, 200, 20));
+
+        cardLedger.flush();
+        assertEquals(0, iCardsService.fetchCard(MOBILE_NUMBER).getAvailableAmount());
+        assertThrows(InsufficientFundsException.class, () -> cardLedger.authorize(cardNumber, 1));
+        assertThrows(ResourceNotFoundException.class, () -> cardLedger.authorize("999999999999", 1));
+    }
+
+    @Test
+    void aCrashLosesNoAcknowledgedSpend() throws IOException {
+        String cardNumber = createCard(MOBILE_NUMBER);
+        String otherCardNumber = createCard("7400000001");
+        CardLedger crashed = ledger();
+        crashed.authorize(cardNumber, 1_000);
+        crashed.flush(); //in the table, its segment is gone
+        crashed.authorize(cardNumber, 200);
+        crashed.authorize(otherCardNumber, 300);
+        //the process dies here: nothing more is flushed, and the last record was only half written
+        try (var segments = Files.list(logDirectory)) {
+            Path openSegment = segments.findFirst().orElseThrow();
+            Files.write(openSegment, new byte[]{0, 12, '1', '2'}, StandardOpenOption.APPEND);
+        }
+
+        CardLedger restarted = ledger();
+
+        assertEquals(CardsConstants.NEW_CARD_LIMIT - 1_200, iCardsService.fetchCard(MOBILE_NUMBER).getAvailableAmount());
+        assertEquals(CardsConstants.NEW_CARD_LIMIT - 300, iCardsService.fetchCard("7400000001").getAvailableAmount());
+        assertEquals(CardsConstants.NEW_CARD_LIMIT - 1_250, restarted.authorize(cardNumber, 50).getAvailableAmount());
+        restarted.flush();
+        assertEquals(CardsConstants.NEW_CARD_LIMIT - 1_250, iCardsService.fetchCard(MOBILE_NUMBER).getAvailableAmount());
+    }
+
+    @Test
+    void aCardLoadedAgainKeepsTheSpendsNotFlushedYet() {
+        String cardNumber = createCard(MOBILE_NUMBER);
+        CardLedger cardLedger = ledger();
+        cardLedger.authorize(cardNumber, 1_000);
+
+        cardLedger.forget(cardNumber);
+        CardBalanceDto balance = cardLedger.authorize(cardNumber, 1);
+
+        assertEquals(CardsConstants.NEW_CARD_LIMIT - 1_001, balance.getAvailableAmount());
+        assertEquals(1_001, balance.getAmountUsed());
+        assertEquals(MOBILE_NUMBER, balance.getMobileNumber());
+    }
+
+    //recovered from logDirectory, flushed only when the test says so
+    private CardLedger ledger() {
+        CardLedgerProperties properties = new CardLedgerProperties(true, 16, Duration.ofHours(1), logDirectory, true);
+        CardLedger cardLedger = new CardLedger(properties, jdbcTemplate, transactionTemplate, auditorAware, cardsCacheEvictor,
+                taskScheduler, new SimpleMeterRegistry());
+        cardLedger.recover();
+        return cardLedger;
+    }
+
+    private String createCard(String mobileNumber) {
+        iCardsService.createCard(mobileNumber);
+        return iCardsService.fetchCard(mobileNumber).getCardNumber();
+    }
+
+    private static int spend(CardLedger cardLedger, String cardNumber, int spendsPerThread, int amount) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int spent = 0;
+                    for (int i = 0; i < spendsPerThread; i++) {
+                        try {
+                            cardLedger.authorize(cardNumber, amount);
+                            spent++;
+                        } catch (InsufficientFundsException exception) {
+                            //the card is empty
+                        }
+                    }
+                    return spent;
+                }));
+            }
+            start.countDown();
+            int spent = 0;
+            for (Future<Integer> future : futures) {
+                spent += future.get(2, TimeUnit.MINUTES);
+            }
+            return spent;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.personal.project.cards.observability;
+
+import com.personal.project.cards.repository.CardsRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//the tags, histograms and the slow statement log are tested in accounts; this only checks the cards fetch endpoint is wired to them
+@SpringBootTest(properties = "build.version=test")
+@AutoConfigureMockMvc
+class RequestMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @AfterEach
+    void cleanUp() {
+        cardsRepository.deleteAll();
+    }
+
+    @Test
+    void fetchTimerIsTaggedWithItsOutcome() throws Exception {
+        double notFoundBefore = count(RequestOutcome.NOT_FOUND);
+
+        mockMvc.perform(post("/api/create").param("mobileNumber", "7500000000")).andExpect(status().isCreated());
+        mockMvc.perform(get("/api/fetch").param("mobileNumber", "7500000000")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/fetch").param("mobileNumber", "7599999999")).andExpect(status().isNotFound());
+
+        assertEquals(notFoundBefore + 1, count(RequestOutcome.NOT_FOUND));
+        Timer fetchTimer = meterRegistry.get("http.server.requests").tag("uri", "/api/fetch").tag("outcome", "SUCCESS").timer();
+        assertEquals(3, fetchTimer.takeSnapshot().percentileValues().length); //p50, p95, p99 from application.yml
+    }
+
+    private double count(String outcome) {
+        Timer timer = meterRegistry.find("http.server.requests").tag("uri", "/api/fetch").tag("outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
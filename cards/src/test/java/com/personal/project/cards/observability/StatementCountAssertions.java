@@ -0,0 +1,29 @@
+package com.personal.project.cards.observability;
+
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+//runs a call in its own StatementCounter scope and checks the exact number of JDBC statements it sent (a batch counts once);
+//pinning the count turns an endpoint that quietly goes from 2 statements to 20 into a failing test
+public final class StatementCountAssertions {
+
+    private StatementCountAssertions() {}
+
+    public static <T> T assertStatementCount(StatementCounter statementCounter, int expected, ThrowingSupplier<T> call) {
+        try (StatementCounter.Scope scope = statementCounter.open()) {
+            T result = assertDoesNotThrow(call);
+            assertEquals(expected, scope.statements(), "JDBC statements");
+            return result;
+        }
+    }
+
+    public static void assertStatementCount(StatementCounter statementCounter, int expected, Executable call) {
+        assertStatementCount(statementCounter, expected, () -> {
+            call.execute();
+            return null;
+        });
+    }
+}
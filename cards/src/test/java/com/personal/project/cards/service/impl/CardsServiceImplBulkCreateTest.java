@@ -0,0 +1,106 @@
+package com.personal.project.cards.service.impl;
+
+import com.personal.project.cards.constants.CardsConstants;
+import com.personal.project.cards.dto.BulkCardResponseDto;
+import com.personal.project.cards.dto.BulkCardResultDto;
+import com.personal.project.cards.issuing.CardNumbers;
+import com.personal.project.cards.observability.StatementCounter;
+import com.personal.project.cards.repository.CardsRepository;
+import com.personal.project.cards.service.ICardsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "build.version=test")
+@AutoConfigureMockMvc
+class CardsServiceImplBulkCreateTest {
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @AfterEach
+    void cleanUp() {
+        cardsRepository.deleteAll();
+    }
+
+    @Test
+    void createsEveryCardAcrossChunks() {
+        int count = CardsConstants.BULK_CHUNK_SIZE * 2 + 7;
+        List<String> mobileNumbers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            mobileNumbers.add(Long.toString(5_000_000_000L + i));
+        }
+
+        BulkCardResponseDto response = iCardsService.createCards(mobileNumbers);
+
+        assertEquals(count, response.getTotalCreated());
+        assertEquals(0, response.getTotalFailed());
+        assertEquals(count, cardsRepository.count());
+        assertEquals(count, response.getResults().stream().map(BulkCardResultDto::getCardNumber).distinct().count());
+        assertTrue(response.getResults().stream().allMatch(result -> CardNumbers.isValid(result.getCardNumber())));
+        assertEquals(mobileNumbers.get(count - 1), iCardsService.fetchCard(mobileNumbers.get(count - 1)).getMobileNumber());
+    }
+
+    @Test
+    void aChunkIsWrittenInJdbcBatches() {
+        List<String> mobileNumbers = new ArrayList<>();
+        for (int i = 0; i < CardsConstants.BULK_CHUNK_SIZE; i++) {
+            mobileNumbers.add(Long.toString(5_100_000_000L + i));
+        }
+
+        try (StatementCounter.Scope scope = statementCounter.open()) {
+            iCardsService.createCards(mobileNumbers);
+            //one duplicate check, a cards_seq call per 50 ids (one more when a block was half used) and an insert batch per 50 rows,
+            //instead of 1000 inserts
+            int batches = CardsConstants.BULK_CHUNK_SIZE / 50;
+            assertTrue(scope.statements() <= 1 + batches + 1 + batches, scope.statements() + " JDBC statements");
+        }
+    }
+
+    @Test
+    void reportsExistingAndRepeatedMobileNumbersPerItem() throws Exception {
+        iCardsService.createCard("6000000000");
+
+        BulkCardResponseDto response = iCardsService.createCards(List.of("6000000000", "6000000001", "6000000001"));
+
+        assertEquals(3, response.getTotalRequested());
+        assertEquals(1, response.getTotalCreated());
+        assertEquals(2, response.getTotalFailed());
+        assertEquals(CardsConstants.MESSAGE_400_ALREADY_EXISTS, response.getResults().get(0).getStatusMessage());
+        assertNull(response.getResults().get(0).getCardNumber());
+        assertEquals(CardsConstants.STATUS_201, response.getResults().get(1).getStatusCode());
+        assertEquals(CardsConstants.MESSAGE_400_DUPLICATE_IN_REQUEST, response.getResults().get(2).getStatusMessage());
+        assertEquals(2, cardsRepository.count());
+
+        mockMvc.perform(post("/api/create-bulk").contentType(MediaType.APPLICATION_JSON).content("[\"6000000001\",\"6000000002\"]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.totalCreated").value(1))
+                .andExpect(jsonPath("$.results[0].statusCode").value(CardsConstants.STATUS_400))
+                .andExpect(jsonPath("$.results[1].cardNumber").exists());
+        mockMvc.perform(post("/api/create-bulk").contentType(MediaType.APPLICATION_JSON).content("[\"600000000\"]"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,100 @@
+package com.personal.project.cards.service.impl;
+
+import com.personal.project.cards.dto.CardsDto;
+import com.personal.project.cards.repository.CardsRepository;
+import com.personal.project.cards.service.ICardsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.answersWithDelay;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+@SpringBootTest(properties = "build.version=test")
+class CardsServiceImplCoalescingTest {
+
+    private static final int THREADS = 64;
+    private static final int FETCHES_PER_THREAD = 20;
+    private static final List<String> HOT_MOBILE_NUMBERS = List.of("7100000000", "7100000001", "7100000002", "7100000003");
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @MockitoSpyBean
+    private CardsRepository cardsRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void cleanUp() {
+        cardsRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentFetchesOfAFewHotNumbersShareTheirQueries() throws Exception {
+        HOT_MOBILE_NUMBERS.forEach(iCardsService::createCard);
+        //a slow query keeps every load in flight long enough for the other threads to pile up behind it;
+        //the default answer of a spied repository delegates to the real one
+        Answer<?> query = mockingDetails(cardsRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(answersWithDelay(20, query)).when(cardsRepository).findFirstByMobileNumberOrderByCardIdAsc(anyString());
+        long queriesBefore = queries();
+        double loadsBefore = meterRegistry.get("fetch.loads").counter().count();
+        double coalescedBefore = meterRegistry.get("fetch.coalesced").counter().count();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < FETCHES_PER_THREAD; i++) {
+                        String mobileNumber = HOT_MOBILE_NUMBERS.get((thread + i) % HOT_MOBILE_NUMBERS.size());
+                        CardsDto cardsDto = iCardsService.fetchCard(mobileNumber);
+                        assertEquals(mobileNumber, cardsDto.getMobileNumber());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int fetches = THREADS * FETCHES_PER_THREAD;
+        long queries = queries() - queriesBefore;
+        double loads = meterRegistry.get("fetch.loads").counter().count() - loadsBefore;
+        double coalesced = meterRegistry.get("fetch.coalesced").counter().count() - coalescedBefore;
+        assertEquals(queries, loads); //every load is one query
+        assertEquals(fetches, loads + coalesced); //and every other fetch waited for one
+        //each key runs one query at a time, so the query count follows how long the burst lasts and not how many callers it has
+        assertTrue(queries <= fetches / 8, queries + " queries for " + fetches + " fetches");
+    }
+
+    private long queries() {
+        return mockingDetails(cardsRepository).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("findFirstByMobileNumberOrderByCardIdAsc"))
+                .count();
+    }
+}
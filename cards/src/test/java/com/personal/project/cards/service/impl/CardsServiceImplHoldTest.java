@@ -0,0 +1,100 @@
+package com.personal.project.cards.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personal.project.cards.constants.CardsConstants;
+import com.personal.project.cards.repository.CardHoldsRepository;
+import com.personal.project.cards.repository.CardsRepository;
+import com.personal.project.cards.service.ICardsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "build.version=test")
+@AutoConfigureMockMvc
+class CardsServiceImplHoldTest {
+
+    private static final String MOBILE_NUMBER = "7300000300";
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @Autowired
+    private CardHoldsRepository cardHoldsRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void cleanUp() {
+        cardHoldsRepository.deleteAll();
+        cardsRepository.deleteAll();
+    }
+
+    @Test
+    void holdCaptureAndVoid() throws Exception {
+        iCardsService.createCard(MOBILE_NUMBER);
+        String cardNumber = iCardsService.fetchCard(MOBILE_NUMBER).getCardNumber();
+
+        long toCapture = hold(cardNumber, 1_000);
+        long toVoid = hold(cardNumber, 2_000);
+        assertEquals(CardsConstants.NEW_CARD_LIMIT - 3_000, iCardsService.fetchCard(MOBILE_NUMBER).getAvailableAmount());
+        assertEquals(0, iCardsService.fetchCard(MOBILE_NUMBER).getAmountUsed());
+
+        mockMvc.perform(post("/api/capture").param("holdId", Long.toString(toCapture)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amountUsed").value(1_000))
+                .andExpect(jsonPath("$.availableAmount").value(CardsConstants.NEW_CARD_LIMIT - 3_000));
+        mockMvc.perform(post("/api/void").param("holdId", Long.toString(toVoid)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amountUsed").value(1_000))
+                .andExpect(jsonPath("$.availableAmount").value(CardsConstants.NEW_CARD_LIMIT - 1_000));
+
+        //settled once only
+        mockMvc.perform(post("/api/void").param("holdId", Long.toString(toCapture)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/capture").param("holdId", Long.toString(toVoid)))
+                .andExpect(status().isNotFound());
+        assertEquals(0, cardHoldsRepository.count());
+    }
+
+    @Test
+    void holdOverTheAvailableAmountIsDeclined() throws Exception {
+        iCardsService.createCard(MOBILE_NUMBER);
+        String cardNumber = iCardsService.fetchCard(MOBILE_NUMBER).getCardNumber();
+        hold(cardNumber, CardsConstants.NEW_CARD_LIMIT - 10);
+
+        mockMvc.perform(post("/api/hold").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cardNumber\":\"" + cardNumber + "\",\"amount\":11}"))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(post("/api/hold").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cardNumber\":\"999999999999\",\"amount\":11}"))
+                .andExpect(status().isNotFound());
+        assertEquals(1, cardHoldsRepository.count());
+    }
+
+    private long hold(String cardNumber, int amount) throws Exception {
+        String body = mockMvc.perform(post("/api/hold").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cardNumber\":\"" + cardNumber + "\",\"amount\":" + amount + "}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.amount").value(amount))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode hold = objectMapper.readTree(body);
+        return hold.get("holdId").asLong();
+    }
+}
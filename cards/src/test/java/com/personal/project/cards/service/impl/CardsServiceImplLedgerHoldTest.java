@@ -0,0 +1,75 @@
+package com.personal.project.cards.service.impl;
+
+import com.personal.project.cards.constants.CardsConstants;
+import com.personal.project.cards.exception.InsufficientFundsException;
+import com.personal.project.cards.ledger.CardLedger;
+import com.personal.project.cards.repository.CardHoldsRepository;
+import com.personal.project.cards.repository.CardsRepository;
+import com.personal.project.cards.service.ICardsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+//flushed only when the test says so, the spends stay in the ledger until then
+@SpringBootTest(properties = {"build.version=test", "card-ledger.enabled=true", "card-ledger.flush-interval=1h", "card-ledger.fsync=false"})
+class CardsServiceImplLedgerHoldTest {
+
+    private static final String MOBILE_NUMBER = "7300000400";
+
+    @TempDir
+    private static Path logDirectory;
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @Autowired
+    private CardHoldsRepository cardHoldsRepository;
+
+    @Autowired
+    private CardLedger cardLedger;
+
+    @DynamicPropertySource
+    static void ledgerLog(DynamicPropertyRegistry registry) {
+        registry.add("card-ledger.log-directory", logDirectory::toString);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        cardLedger.flush();
+        cardHoldsRepository.deleteAll();
+        cardsRepository.deleteAll();
+    }
+
+    @Test
+    void holdsAreReservedAgainstTheSpendsNotFlushedYet() {
+        iCardsService.createCard(MOBILE_NUMBER);
+        String cardNumber = iCardsService.fetchCard(MOBILE_NUMBER).getCardNumber();
+
+        //the cards row still has the whole limit available, only the ledger knows about this spend
+        iCardsService.spend(cardNumber, CardsConstants.NEW_CARD_LIMIT - 1_000);
+        assertThrows(InsufficientFundsException.class, () -> iCardsService.authorizeHold(cardNumber, 2_000));
+
+        long holdId = iCardsService.authorizeHold(cardNumber, 500).getHoldId();
+        assertThrows(InsufficientFundsException.class, () -> iCardsService.spend(cardNumber, 600));
+        assertEquals(0, iCardsService.spend(cardNumber, 500).getAvailableAmount());
+
+        iCardsService.voidHold(holdId);
+        assertEquals(499, iCardsService.spend(cardNumber, 1).getAvailableAmount()); //the voided 500 is available again
+
+        cardLedger.flush();
+        assertEquals(499, iCardsService.fetchCard(MOBILE_NUMBER).getAvailableAmount());
+        assertEquals(CardsConstants.NEW_CARD_LIMIT - 499, iCardsService.fetchCard(MOBILE_NUMBER).getAmountUsed());
+    }
+}
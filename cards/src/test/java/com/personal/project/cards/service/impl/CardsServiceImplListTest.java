@@ -0,0 +1,87 @@
+package com.personal.project.cards.service.impl;
+
+import com.personal.project.cards.dto.CardsDto;
+import com.personal.project.cards.dto.PageResponseDto;
+import com.personal.project.cards.exception.InvalidPageTokenException;
+import com.personal.project.cards.repository.CardsRepository;
+import com.personal.project.cards.service.ICardsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "build.version=test")
+class CardsServiceImplListTest {
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @AfterEach
+    void cleanUp() {
+        cardsRepository.deleteAll();
+    }
+
+    @Test
+    void walksEveryCardOnceInCreationOrder() {
+        int count = 45;
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String mobileNumber = Long.toString(7_300_000_000L + i);
+            iCardsService.createCard(mobileNumber);
+            created.add(mobileNumber);
+        }
+
+        List<String> listed = new ArrayList<>();
+        List<Integer> pageLengths = new ArrayList<>();
+        String pageToken = null;
+        do {
+            PageResponseDto<CardsDto> page = iCardsService.fetchCards(pageToken, 20);
+            pageLengths.add(page.getContent().size());
+            page.getContent().forEach(cardsDto -> listed.add(cardsDto.getMobileNumber()));
+            pageToken = page.getNextPageToken();
+        } while (pageToken != null);
+
+        assertEquals(List.of(20, 20, 5), pageLengths);
+        assertEquals(created, listed); //cardId is an identity column, so cardId order is creation order
+        assertEquals(count, new HashSet<>(listed).size());
+    }
+
+    @Test
+    void continuesAfterDeletedRows() {
+        iCardsService.createCard("7300200000");
+        iCardsService.createCard("7300200001");
+        iCardsService.createCard("7300200002");
+        PageResponseDto<CardsDto> firstPage = iCardsService.fetchCards(null, 1);
+
+        //the token holds a key, not a position, so removing a row that was already returned does not skip one that was not
+        iCardsService.deleteCard("7300200000");
+        PageResponseDto<CardsDto> secondPage = iCardsService.fetchCards(firstPage.getNextPageToken(), 1);
+
+        assertEquals("7300200001", secondPage.getContent().get(0).getMobileNumber());
+    }
+
+    @Test
+    void emptyTableGivesOneEmptyPage() {
+        PageResponseDto<CardsDto> page = iCardsService.fetchCards(null, 20);
+
+        assertEquals(0, page.getContent().size());
+        assertNull(page.getNextPageToken());
+    }
+
+    @Test
+    void rejectsTokensItDidNotIssue() {
+        assertThrows(InvalidPageTokenException.class, () -> iCardsService.fetchCards("not-a-token", 20));
+        assertThrows(InvalidPageTokenException.class, () -> iCardsService.fetchCards("bG9hbklkOjIw", 20)); //a loans token
+    }
+}
@@ -0,0 +1,131 @@
+package com.personal.project.cards.service.impl;
+
+import com.personal.project.cards.constants.CardsConstants;
+import com.personal.project.cards.dto.CardsDto;
+import com.personal.project.cards.entity.Cards;
+import com.personal.project.cards.exception.CardAlreadyExistsException;
+import com.personal.project.cards.exception.ResourceNotFoundException;
+import com.personal.project.cards.membership.MobileNumberFilter;
+import com.personal.project.cards.repository.CardsRepository;
+import com.personal.project.cards.service.ICardsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"build.version=test", "mobile-filter.enabled=true"})
+@AutoConfigureMockMvc
+class CardsServiceImplMultiCardTest {
+
+    private static final String MOBILE_NUMBER = "7100000000";
+    private static final String DEBIT_CARD = "Debit Card";
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @Autowired
+    private MobileNumberFilter mobileNumberFilter;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void cleanUp() {
+        cardsRepository.deleteAll();
+    }
+
+    @Test
+    void aCustomerCanHoldOneCardOfEachType() {
+        iCardsService.createCard(MOBILE_NUMBER);
+        String debitCardNumber = addDebitCard(MOBILE_NUMBER);
+
+        List<CardsDto> cards = iCardsService.fetchCardsByMobileNumber(MOBILE_NUMBER);
+        assertEquals(List.of(CardsConstants.CREDIT_CARD, DEBIT_CARD), cards.stream().map(CardsDto::getCardType).toList());
+        assertEquals(CardsConstants.CREDIT_CARD, iCardsService.fetchCard(MOBILE_NUMBER).getCardType()); //the oldest
+
+        assertThrows(CardAlreadyExistsException.class, () -> iCardsService.createCard(MOBILE_NUMBER)); //a second credit card
+        CardsDto toDebit = cards.get(0);
+        toDebit.setCardType(DEBIT_CARD);
+        assertThrows(CardAlreadyExistsException.class, () -> iCardsService.updateCard(toDebit));
+
+        iCardsService.deleteCard(MOBILE_NUMBER); //every card of the customer
+        assertTrue(cardsRepository.findByCardNumber(debitCardNumber).isEmpty());
+        assertThrows(ResourceNotFoundException.class, () -> iCardsService.fetchCardsByMobileNumber(MOBILE_NUMBER));
+        assertThrows(ResourceNotFoundException.class, () -> iCardsService.fetchCard(MOBILE_NUMBER));
+    }
+
+    @Test
+    void batchFetchAnswersEveryNumberInTheOrderGiven() {
+        iCardsService.createCard("7100000001");
+        addDebitCard("7100000001");
+        iCardsService.createCard("7100000002");
+
+        Map<String, List<CardsDto>> cards = iCardsService.fetchCardsByMobileNumbers(
+                List.of("7100000002", "7199999999", "7100000001", "7100000002"));
+
+        assertEquals(List.of("7100000002", "7199999999", "7100000001"), new ArrayList<>(cards.keySet()));
+        assertEquals(1, cards.get("7100000002").size());
+        assertEquals(Collections.emptyList(), cards.get("7199999999"));
+        assertEquals(List.of(CardsConstants.CREDIT_CARD, DEBIT_CARD), cards.get("7100000001").stream().map(CardsDto::getCardType).toList());
+    }
+
+    @Test
+    void listEndpoints() throws Exception {
+        iCardsService.createCard("7100000003");
+        addDebitCard("7100000003");
+
+        mockMvc.perform(get("/api/fetch-all").param("mobileNumber", "7100000003"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].cardType").value(DEBIT_CARD));
+        mockMvc.perform(get("/api/fetch-all").param("mobileNumber", "7199999999"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/api/fetch-batch").contentType(MediaType.APPLICATION_JSON).content("[\"7100000003\",\"7199999999\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['7100000003'].length()").value(2))
+                .andExpect(jsonPath("$['7199999999'].length()").value(0));
+        mockMvc.perform(post("/api/fetch-batch").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/fetch-batch").contentType(MediaType.APPLICATION_JSON).content("[\"123\"]"))
+                .andExpect(status().isBadRequest());
+        List<String> tooMany = new ArrayList<>();
+        for (int i = 0; i <= CardsConstants.FETCH_BATCH_MAX_SIZE; i++) {
+            tooMany.add("\"" + (7_100_000_000L + i) + "\"");
+        }
+        mockMvc.perform(post("/api/fetch-batch").contentType(MediaType.APPLICATION_JSON).content("[" + String.join(",", tooMany) + "]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    //cards are only created as credit cards, a second type is put in directly
+    private String addDebitCard(String mobileNumber) {
+        Cards card = new Cards();
+        card.setMobileNumber(mobileNumber);
+        card.setCardNumber(Long.toString(200_000_000_000L + Long.parseLong(mobileNumber)));
+        card.setCardType(DEBIT_CARD);
+        card.setTotalLimit(CardsConstants.NEW_CARD_LIMIT);
+        card.setAvailableAmount(CardsConstants.NEW_CARD_LIMIT);
+        cardsRepository.saveAndFlush(card);
+        mobileNumberFilter.add(mobileNumber);
+        return card.getCardNumber();
+    }
+}
@@ -0,0 +1,142 @@
+package com.personal.project.cards.service.impl;
+
+import com.personal.project.cards.constants.CardsConstants;
+import com.personal.project.cards.dto.CardBalanceDto;
+import com.personal.project.cards.dto.CardsDto;
+import com.personal.project.cards.exception.InsufficientFundsException;
+import com.personal.project.cards.exception.ResourceNotFoundException;
+import com.personal.project.cards.repository.CardsRepository;
+import com.personal.project.cards.service.ICardsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "build.version=test")
+@AutoConfigureMockMvc
+class CardsServiceImplSpendTest {
+
+    private static final int THREADS = 32;
+    private static final String MOBILE_NUMBER = "7300000000";
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void cleanUp() {
+        cardsRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentSpendsOnOneHotCardAreAllApplied() throws Exception {
+        String cardNumber = createCard();
+        //32 threads x 500 spends of 3 = 48000, within the limit: every spend has to land
+        int spends = spend(cardNumber, 500, 3);
+
+        assertEquals(THREADS * 500, spends);
+        CardsDto card = iCardsService.fetchCard(MOBILE_NUMBER);
+        assertEquals(THREADS * 500 * 3, card.getAmountUsed());
+        assertEquals(CardsConstants.NEW_CARD_LIMIT - THREADS * 500 * 3, card.getAvailableAmount());
+    }
+
+    @Test
+    void concurrentSpendsPastTheLimitStopExactlyAtZero() throws Exception {
+        String cardNumber = createCard();
+        //32 threads x 200 spends of 20 = 128000 asked for, only 100000 / 20 = 5000 of them fit
+        int spends = spend(cardNumber, 200, 20);
+
+        assertEquals(CardsConstants.NEW_CARD_LIMIT / 20, spends);
+        CardsDto card = iCardsService.fetchCard(MOBILE_NUMBER);
+        assertEquals(CardsConstants.NEW_CARD_LIMIT, card.getAmountUsed());
+        assertEquals(0, card.getAvailableAmount());
+    }
+
+    @Test
+    void aSpendReturnsTheNewBalanceAndAnOverdraftChangesNothing() throws Exception {
+        String cardNumber = createCard();
+
+        CardBalanceDto balance = iCardsService.spend(cardNumber, 1_000);
+        assertEquals(MOBILE_NUMBER, balance.getMobileNumber());
+        assertEquals(1_000, balance.getAmountUsed());
+        assertEquals(CardsConstants.NEW_CARD_LIMIT - 1_000, balance.getAvailableAmount());
+
+        assertThrows(InsufficientFundsException.class, () -> iCardsService.spend(cardNumber, CardsConstants.NEW_CARD_LIMIT));
+        assertEquals(CardsConstants.NEW_CARD_LIMIT - 1_000, iCardsService.fetchCard(MOBILE_NUMBER).getAvailableAmount());
+        assertThrows(ResourceNotFoundException.class, () -> iCardsService.spend("999999999999", 1));
+
+        mockMvc.perform(post("/api/spend").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cardNumber\":\"" + cardNumber + "\",\"amount\":500}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableAmount").value(CardsConstants.NEW_CARD_LIMIT - 1_500));
+        mockMvc.perform(post("/api/spend").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cardNumber\":\"" + cardNumber + "\",\"amount\":" + CardsConstants.NEW_CARD_LIMIT + "}"))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(post("/api/spend").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cardNumber\":\"" + cardNumber + "\",\"amount\":0}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String createCard() {
+        iCardsService.createCard(MOBILE_NUMBER);
+        return iCardsService.fetchCard(MOBILE_NUMBER).getCardNumber();
+    }
+
+    //every thread spends amount spendsPerThread times as fast as it can, returns how many spends went through
+    private int spend(String cardNumber, int spendsPerThread, int amount) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int spent = 0;
+                    for (int i = 0; i < spendsPerThread; i++) {
+                        try {
+                            iCardsService.spend(cardNumber, amount);
+                            spent++;
+                        } catch (InsufficientFundsException exception) {
+                            //the card is empty, the spend was rejected without touching it
+                        }
+                    }
+                    return spent;
+                }));
+            }
+            long startNanos = System.nanoTime();
+            start.countDown();
+            int spent = 0;
+            for (Future<Integer> future : futures) {
+                spent += future.get(2, TimeUnit.MINUTES);
+            }
+            long nanos = System.nanoTime() - startNanos;
+            System.out.printf("%,d spends on one card from %d threads: %,.0f spends/s%n",
+                    THREADS * spendsPerThread, THREADS, THREADS * spendsPerThread / (nanos / 1e9));
+            return spent;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.personal.project.cards.service.impl;
+
+import com.personal.project.cards.dto.CardsDto;
+import com.personal.project.cards.exception.ResourceNotFoundException;
+import com.personal.project.cards.exception.StatementBudgetExceededException;
+import com.personal.project.cards.observability.StatementCounter;
+import com.personal.project.cards.repository.CardsRepository;
+import com.personal.project.cards.service.ICardsService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static com.personal.project.cards.observability.StatementCountAssertions.assertStatementCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"build.version=test", "mobile-filter.enabled=true", "statement-budget.enforce=true", "statement-budget.max-statements=1"})
+@AutoConfigureMockMvc
+class CardsServiceImplStatementCountTest {
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    //the first insert also reserves a block of ids from cards_seq, keep that out of the counts below
+    @BeforeEach
+    void warmUp() {
+        iCardsService.createCard("7400000099");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        cardsRepository.deleteAll();
+    }
+
+    @Test
+    void createCard() {
+        assertStatementCount(statementCounter, 1, () -> iCardsService.createCard("7400000000")); //insert, the unique index rejects duplicates
+    }
+
+    @Test
+    void fetchCard() {
+        iCardsService.createCard("7400000001");
+
+        assertStatementCount(statementCounter, 1, () -> iCardsService.fetchCard("7400000001"));
+        assertStatementCount(statementCounter, 0, () -> assertThrows(ResourceNotFoundException.class,
+                () -> iCardsService.fetchCard("7499999999"))); //rejected by the mobile number filter
+    }
+
+    @Test
+    void updateCard() {
+        iCardsService.createCard("7400000002");
+        CardsDto update = iCardsService.fetchCard("7400000002");
+        update.setAmountUsed(100);
+
+        //every repository call is its own transaction, so save runs a merge that selects the row again:
+        //select by card number, select + update by id
+        assertStatementCount(statementCounter, 3, () -> iCardsService.updateCard(update));
+    }
+
+    @Test
+    void deleteCard() {
+        iCardsService.createCard("7400000003");
+
+        //select the cards of the mobile number, then select + delete by id per card
+        assertStatementCount(statementCounter, 3, () -> iCardsService.deleteCard("7400000003"));
+    }
+
+    @Test
+    void fetchCards() {
+        iCardsService.createCard("7400000004");
+        iCardsService.createCard("7400000005");
+        iCardsService.createCard("7400000006");
+
+        assertStatementCount(statementCounter, 1, () -> iCardsService.fetchCards(null, 2)); //one keyset query, no count
+    }
+
+    @Test
+    void fetchCardsByMobileNumbers() {
+        iCardsService.createCard("7400000009");
+        iCardsService.createCard("7400000010");
+
+        assertStatementCount(statementCounter, 1, () -> iCardsService.fetchCardsByMobileNumber("7400000009"));
+        assertStatementCount(statementCounter, 1, () -> iCardsService.fetchCardsByMobileNumbers(
+                List.of("7400000009", "7400000010", "7499999999"))); //one IN query for the batch
+        assertStatementCount(statementCounter, 0, () -> iCardsService.fetchCardsByMobileNumbers(
+                List.of("7499999998", "7499999999"))); //all ruled out by the mobile number filter
+    }
+
+    @Test
+    void statementsPerRequestAreRecordedPerEndpoint() throws Exception {
+        iCardsService.createCard("7400000007");
+
+        mockMvc.perform(get("/api/fetch").param("mobileNumber", "7400000007")).andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.get("http.server.requests.statements").tag("uri", "/api/fetch").summary();
+        assertEquals(1, statements.count());
+        assertEquals(1, statements.totalAmount());
+        assertEquals(1, meterRegistry.get("http.server.requests.jdbc").tag("uri", "/api/fetch").timer().count());
+    }
+
+    @Test
+    void requestOverItsBudgetFails() throws Exception {
+        iCardsService.createCard("7400000008");
+        CardsDto update = iCardsService.fetchCard("7400000008");
+
+        //open-in-view keeps one persistence context for the request, so save does not select again:
+        //select by card number, update is one over the budget of 1 in this test
+        mockMvc.perform(put("/api/update").contentType(MediaType.APPLICATION_JSON).content(
+                        "{\"mobileNumber\":\"7400000008\",\"cardNumber\":\"" + update.getCardNumber() + "\",\"cardType\":\"" + update.getCardType() + "\"," +
+                                "\"totalLimit\":" + update.getTotalLimit() + ",\"amountUsed\":100,\"availableAmount\":" + (update.getTotalLimit() - 100) + "}"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(result -> {
+                    //the update statement runs on commit, where the transaction manager wraps the exception
+                    Throwable cause = NestedExceptionUtils.getMostSpecificCause(result.getResolvedException());
+                    assertInstanceOf(StatementBudgetExceededException.class, cause);
+                    assertEquals("Request to /api/update sent more than its budget of 1 JDBC statements", cause.getMessage());
+                });
+    }
+}
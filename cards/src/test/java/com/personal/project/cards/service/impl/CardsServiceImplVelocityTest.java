@@ -0,0 +1,57 @@
+package com.personal.project.cards.service.impl;
+
+import com.personal.project.cards.exception.InsufficientFundsException;
+import com.personal.project.cards.repository.CardsRepository;
+import com.personal.project.cards.service.ICardsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"build.version=test", "card-velocity.enabled=true",
+        "card-velocity.rules[0].name=test-burst", "card-velocity.rules[0].window=1h", "card-velocity.rules[0].max-spends=3"})
+@AutoConfigureMockMvc
+class CardsServiceImplVelocityTest {
+
+    private static final String MOBILE_NUMBER = "7300000100";
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void cleanUp() {
+        cardsRepository.deleteAll();
+    }
+
+    @Test
+    void spendOverAVelocityRuleIsDeclinedWithoutDebiting() throws Exception {
+        iCardsService.createCard(MOBILE_NUMBER);
+        String cardNumber = iCardsService.fetchCard(MOBILE_NUMBER).getCardNumber();
+
+        iCardsService.spend(cardNumber, 10);
+        assertThrows(InsufficientFundsException.class, () -> iCardsService.spend(cardNumber, 1_000_000)); //declined, not counted
+        iCardsService.spend(cardNumber, 10);
+        iCardsService.spend(cardNumber, 10);
+
+        mockMvc.perform(post("/api/spend").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cardNumber\":\"" + cardNumber + "\",\"amount\":10}"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.errorMessage").value("Spend of 10 with card " + cardNumber + " is over the velocity rule test-burst"));
+        assertEquals(30, iCardsService.fetchCard(MOBILE_NUMBER).getAmountUsed());
+    }
+}
@@ -0,0 +1,176 @@
+package com.personal.project.cards.velocity;
+
+import com.personal.project.cards.exception.VelocityLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VelocityEngineTest {
+
+    private static final String CARD_NUMBER = "100000000008";
+
+    private final TestClock clock = new TestClock();
+
+    @Test
+    void spendsSlideOutOfTheWindow() {
+        VelocityEngine engine = engine(properties(new VelocityProperties.Rule("burst", Duration.ofSeconds(10), 3, 0)));
+
+        for (int i = 0; i < 3; i++) {
+            engine.count(CARD_NUMBER, 1);
+        }
+        assertThrows(VelocityLimitExceededException.class, () -> engine.count(CARD_NUMBER, 1));
+        engine.count("200000000006", 1); //per card
+
+        clock.millis = 10_000; //the 3 spends are a whole previous window now, all of it still overlaps the last 10s
+        assertThrows(VelocityLimitExceededException.class, () -> engine.count(CARD_NUMBER, 1));
+        clock.millis = 15_000; //half of it: 1.5 counted
+        engine.count(CARD_NUMBER, 1);
+        assertThrows(VelocityLimitExceededException.class, () -> engine.count(CARD_NUMBER, 1));
+        clock.millis = 30_000; //both windows are over
+        for (int i = 0; i < 3; i++) {
+            engine.count(CARD_NUMBER, 1);
+        }
+    }
+
+    @Test
+    void amountLimitAndRelease() {
+        VelocityEngine engine = engine(properties(new VelocityProperties.Rule("hourly", Duration.ofHours(1), 0, 1_000)));
+
+        engine.count(CARD_NUMBER, 600);
+        VelocityEngine.Counted declinedLater = engine.count(CARD_NUMBER, 400);
+        VelocityLimitExceededException exception = assertThrows(VelocityLimitExceededException.class, () -> engine.count(CARD_NUMBER, 1));
+        assertTrue(exception.getMessage().contains("hourly"), exception.getMessage());
+
+        engine.release(declinedLater); //e.g. not enough available amount: it does not count
+        engine.count(CARD_NUMBER, 400);
+        assertThrows(VelocityLimitExceededException.class, () -> engine.count(CARD_NUMBER, 1));
+    }
+
+    @Test
+    void concurrentSpendsOnOneCardNeverPassTheLimit() throws Exception {
+        VelocityEngine engine = engine(properties(new VelocityProperties.Rule("burst", Duration.ofMinutes(1), 100, 0)));
+        AtomicInteger counted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1_000; i++) {
+                        try {
+                            engine.count(CARD_NUMBER, 1);
+                            counted.incrementAndGet();
+                        } catch (VelocityLimitExceededException declined) {
+                            //expected for all but 100
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(100, counted.get());
+    }
+
+    @Test
+    void refreshBindsTheRulesAgain() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("card-velocity.enabled", "true")
+                .withProperty("card-velocity.rules[0].name", "burst")
+                .withProperty("card-velocity.rules[0].window", "10s")
+                .withProperty("card-velocity.rules[0].max-spends", "2");
+        VelocityEngine engine = new VelocityEngine(properties(new VelocityProperties.Rule("burst", Duration.ofSeconds(10), 2, 0)),
+                environment, new SimpleMeterRegistry(), clock);
+        engine.count(CARD_NUMBER, 1);
+        engine.count(CARD_NUMBER, 1);
+        assertThrows(VelocityLimitExceededException.class, () -> engine.count(CARD_NUMBER, 1));
+
+        environment.setProperty("card-velocity.rules[0].max-spends", "3"); //only the limit: the 2 spends still count
+        engine.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("card-velocity.rules[0].max-spends")));
+        engine.count(CARD_NUMBER, 1);
+        assertThrows(VelocityLimitExceededException.class, () -> engine.count(CARD_NUMBER, 1));
+
+        environment.setProperty("card-velocity.rules[0].window", "20s"); //another window: counted from zero
+        engine.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("card-velocity.rules[0].window")));
+        for (int i = 0; i < 3; i++) {
+            engine.count(CARD_NUMBER, 1);
+        }
+        assertThrows(VelocityLimitExceededException.class, () -> engine.count(CARD_NUMBER, 1));
+
+        environment.setProperty("card-velocity.enabled", "false");
+        engine.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("card-velocity.enabled", "cards.message")));
+        assertNull(engine.count(CARD_NUMBER, 1));
+        assertDoesNotThrow(() -> engine.release(null));
+    }
+
+    @Test
+    void cardsAreBounded() {
+        VelocityEngine engine = engine(new VelocityProperties(true, 1_000, null,
+                List.of(new VelocityProperties.Rule("burst", Duration.ofSeconds(10), 5, 0))));
+        for (int i = 0; i < 10_000; i++) {
+            engine.count(Long.toString(100_000_000_000L + i), 1);
+        }
+        assertTrue(engine.cardCount() <= 1_000, "cards in memory " + engine.cardCount());
+    }
+
+    private VelocityEngine engine(VelocityProperties properties) {
+        return new VelocityEngine(properties, new MockEnvironment(), new SimpleMeterRegistry(), clock);
+    }
+
+    private static VelocityProperties properties(VelocityProperties.Rule rule) {
+        return new VelocityProperties(true, 0, null, List.of(rule));
+    }
+
+    private static final class TestClock extends Clock {
+
+        private volatile long millis;
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
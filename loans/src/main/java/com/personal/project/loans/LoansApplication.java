@@ -1,5 +1,6 @@
 package com.personal.project.loans;
 
+import com.personal.project.loans.exception.BusinessExceptionStackTraces;
 import io.swagger.v3.oas.annotations.ExternalDocumentation;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Contact;
@@ -40,7 +41,9 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 public class LoansApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(LoansApplication.class, args);
+		SpringApplication application = new SpringApplication(LoansApplication.class);
+		application.addListeners(new BusinessExceptionStackTraces());
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,71 @@
+package com.personal.project.loans.coalescing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+//coalesces concurrent identical fetches: the first caller for a key runs the load, every caller arriving while it runs waits
+//for that load and gets the same result (or the same exception), so a burst on a few hot mobile numbers costs one query per key
+//nothing is kept once the load finishes, the next caller starts a fresh one; this is not a cache
+@Component
+public class SingleFlight {
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Counter loads;
+    private final Counter coalesced;
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.loads = Counter.builder("fetch.loads")
+                .description("Fetches that ran their own load").register(meterRegistry);
+        this.coalesced = Counter.builder("fetch.coalesced")
+                .description("Fetches that waited for the load of the same key already in flight").register(meterRegistry);
+    }
+
+    /***
+     *
+     * @param key - what the load reads, e.g. the mobile number
+     * @param load - reads the value, runs on the calling thread of the first caller
+     * @return the value loaded by this call or by the call already in flight for the key
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V execute(String key, Supplier<V> load) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return (V) join(existing);
+        }
+        loads.increment();
+        try {
+            V value = load.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error exception) {
+            flight.completeExceptionally(exception);
+            throw exception;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    //called after a write to the key is committed: callers arriving from now on must not join a load that may have read the old row
+    public void forget(String key) {
+        inFlight.remove(key);
+    }
+
+    private static Object join(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw (RuntimeException) exception.getCause();
+        }
+    }
+}
@@ -8,6 +8,15 @@ public class LoansConstants {
 
     public static final String  HOME_LOAN = "Home Loan";
     public static final int  NEW_LOAN_LIMIT = 1_00_000;
+    public static final String  UK_LOANS_MOBILE_NUMBER_LOAN_TYPE = "uk_loans_mobile_number_loan_type";
+    public static final String  UK_LOANS_LOAN_NUMBER = "uk_loans_loan_number";
+    public static final String  LOANS_CACHE_REGION = "loans"; //hibernate second level cache region, sized in second-level-cache.regions
+    public static final int  PAGE_SIZE_DEFAULT = 20;
+    public static final int  PAGE_SIZE_MAX = 100;
+    public static final int  FETCH_BATCH_MAX_SIZE = 1_000; //mobile numbers per POST /fetch-batch, all of them go into one IN list
+    public static final String  IDEMPOTENCY_KEY_HEADER = "Idempotency-Key"; //optional on POST /create, see IdempotencyStore
+    public static final int  IDEMPOTENCY_KEY_MAX_LENGTH = 255;
+    public static final String  IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed"; //set on a response replayed for a repeated key
     public static final String  STATUS_201 = "201";
     public static final String  MESSAGE_201 = "Loan created successfully";
     public static final String  STATUS_200 = "200";
@@ -4,7 +4,10 @@ import com.personal.project.loans.constants.LoansConstants;
 import com.personal.project.loans.dto.ErrorResponseDto;
 import com.personal.project.loans.dto.LoansContactInfoDto;
 import com.personal.project.loans.dto.LoansDto;
+import com.personal.project.loans.dto.PageResponseDto;
 import com.personal.project.loans.dto.ResponseDto;
+import com.personal.project.loans.idempotency.IdempotencyStore;
+import com.personal.project.loans.info.StaticInfoResponses;
 import com.personal.project.loans.service.ILoanService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,18 +16,22 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
-import org.springframework.core.env.Environment;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 @Tag(
         name = "CRUD REST APIs for Loans",
         description = "CRUD REST APIs to CREATE, UPDATE, FETCH AND DELETE loan details"
@@ -37,20 +44,15 @@ import org.springframework.web.bind.annotation.*;
 public class LoansController {
 
     private final ILoanService iLoanService;
+    private final IdempotencyStore idempotencyStore;
+    private final StaticInfoResponses staticInfoResponses;
 
-    public LoansController(ILoanService iLoanService) {
+    public LoansController(ILoanService iLoanService, IdempotencyStore idempotencyStore, StaticInfoResponses staticInfoResponses) {
         this.iLoanService = iLoanService;
+        this.idempotencyStore = idempotencyStore;
+        this.staticInfoResponses = staticInfoResponses;
     }
 
-    @Value("${build.version}")
-    private String buildVersion;
-
-    @Autowired
-    Environment environment;
-
-    @Autowired
-    LoansContactInfoDto loansContactInfoDto;
-
     @Operation(
             summary = "Create Loan REST API",
             description = "REST API to create new loan inside EazyBank"
@@ -58,7 +60,11 @@ public class LoansController {
     @ApiResponses({
             @ApiResponse(
                     responseCode = "201",
-                    description = "HTTP Status CREATED"
+                    description = "HTTP Status CREATED. A repeated Idempotency-Key gets the first response again, with Idempotent-Replayed: true"
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "HTTP Status Unprocessable Entity. The Idempotency-Key was already used for a different mobile number"
             ),
             @ApiResponse(
                     responseCode = "500",
@@ -72,11 +78,16 @@ public class LoansController {
     @PostMapping("/create")
     public ResponseEntity<ResponseDto> createLoan(@RequestParam
                                                   @Pattern(regexp="^\\d{10}$",message = "Mobile number must be 10 digits")
-                                                  String mobileNumber) {
-        iLoanService.createLoan(mobileNumber);
-        return ResponseEntity
-                .status(HttpStatus.CREATED)
-                .body(new ResponseDto(LoansConstants.STATUS_201, LoansConstants.MESSAGE_201));
+                                                  String mobileNumber,
+                                                  @RequestHeader(name = LoansConstants.IDEMPOTENCY_KEY_HEADER, required = false)
+                                                  @Size(max = LoansConstants.IDEMPOTENCY_KEY_MAX_LENGTH, message = "Idempotency-Key must be at most 255 characters")
+                                                  String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, mobileNumber, () -> {
+            iLoanService.createLoan(mobileNumber);
+            return ResponseEntity
+                    .status(HttpStatus.CREATED)
+                    .body(new ResponseDto(LoansConstants.STATUS_201, LoansConstants.MESSAGE_201));
+        });
     }
 
     @Operation(
@@ -105,6 +116,75 @@ public class LoansController {
         return ResponseEntity.status(HttpStatus.OK).body(loansDto);
     }
 
+    @Operation(
+            summary = "Fetch All Loans of a Customer REST API",
+            description = "REST API to fetch every loan of a customer based on a mobile number, oldest first"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "HTTP Status Not Found",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @GetMapping("/fetch-all")
+    public ResponseEntity<List<LoansDto>> fetchAllLoanDetails(@RequestParam
+                                                              @Pattern(regexp="^\\d{10}$",message = "Mobile number must be 10 digits")
+                                                              String mobileNumber) {
+        List<LoansDto> loansDtos = iLoanService.fetchLoansByMobileNumber(mobileNumber);
+        return ResponseEntity.status(HttpStatus.OK).body(loansDtos);
+    }
+
+    @Operation(
+            summary = "Fetch Loans of many Customers REST API",
+            description = "REST API to fetch every loan of up to " + LoansConstants.FETCH_BATCH_MAX_SIZE + " mobile numbers with one query. " +
+                    "The response maps each mobile number to its loans, an empty list when it has none."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    //POST: a thousand mobile numbers do not fit into a query string under the default header size limit
+    @PostMapping("/fetch-batch")
+    public ResponseEntity<Map<String, List<LoansDto>>> fetchLoanDetailsBatch(@RequestBody
+                                                                             @NotEmpty(message = "At least one mobile number is required")
+                                                                             @Size(max = LoansConstants.FETCH_BATCH_MAX_SIZE, message = "At most " + LoansConstants.FETCH_BATCH_MAX_SIZE + " mobile numbers per request")
+                                                                             List<@Pattern(regexp="^\\d{10}$",message = "Mobile number must be 10 digits") String> mobileNumbers) {
+        Map<String, List<LoansDto>> loansByMobileNumber = iLoanService.fetchLoansByMobileNumbers(mobileNumbers);
+        return ResponseEntity.status(HttpStatus.OK).body(loansByMobileNumber);
+    }
+
     @Operation(
             summary = "Update Loan Details REST API",
             description = "REST API to update loan details based on a loan number"
@@ -143,7 +223,7 @@ public class LoansController {
 
     @Operation(
             summary = "Delete Loan Details REST API",
-            description = "REST API to delete Loan details based on a mobile number"
+            description = "REST API to delete every Loan of a customer based on a mobile number"
     )
     @ApiResponses({
             @ApiResponse(
@@ -179,6 +259,45 @@ public class LoansController {
         }
     }
 
+    @Operation(
+            summary = "List Loans REST API",
+            description = "REST API to page through every loan ordered by loanId. " +
+                    "Pass the nextPageToken of a page as pageToken to get the next one."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @GetMapping("/list")
+    public ResponseEntity<PageResponseDto<LoansDto>> fetchLoans(@RequestParam(required = false)
+                                                                 String pageToken,
+                                                                 @RequestParam(defaultValue = "" + LoansConstants.PAGE_SIZE_DEFAULT)
+                                                                 @Min(value = 1, message = "Page size must be at least 1")
+                                                                 @Max(value = LoansConstants.PAGE_SIZE_MAX, message = "Page size must be at most " + LoansConstants.PAGE_SIZE_MAX)
+                                                                 int pageSize) {
+        PageResponseDto<LoansDto> page = iLoanService.fetchLoans(pageToken, pageSize);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(page);
+    }
+
     @Operation(
             summary = "Get build version",
             description = "REST API to fetch build version."
@@ -188,6 +307,10 @@ public class LoansController {
                     responseCode = "200",
                     description = "HTTP Status OK."
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "HTTP Status Not Modified. The If-None-Match header carries the current ETag."
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "HTTP Status Internal Server Error.",
@@ -197,10 +320,8 @@ public class LoansController {
             )
     })
     @GetMapping("build-version")
-    public ResponseEntity<String> getBuildVersion(){
-        return  ResponseEntity
-                .status(HttpStatus.OK)
-                .body(buildVersion);
+    public ResponseEntity<byte[]> getBuildVersion(){
+        return staticInfoResponses.buildVersion();
     }
 
     @Operation(
@@ -212,6 +333,10 @@ public class LoansController {
                     responseCode = "200",
                     description = "HTTP Status OK."
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "HTTP Status Not Modified. The If-None-Match header carries the current ETag."
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "HTTP Status Internal Server Error.",
@@ -221,10 +346,8 @@ public class LoansController {
             )
     })
     @GetMapping("java-version")
-    public ResponseEntity<String> getJavaVersion(){
-        return  ResponseEntity
-                .status(HttpStatus.OK)
-                .body(environment.getProperty("JAVA_HOME"));
+    public ResponseEntity<byte[]> getJavaVersion(){
+        return staticInfoResponses.javaVersion();
     }
 
     @Operation(
@@ -234,7 +357,14 @@ public class LoansController {
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
-                    description = "HTTP Status OK."
+                    description = "HTTP Status OK.",
+                    content= @Content(
+                            schema = @Schema(implementation = LoansContactInfoDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "HTTP Status Not Modified. The If-None-Match header carries the current ETag."
             ),
             @ApiResponse(
                     responseCode = "500",
@@ -245,9 +375,7 @@ public class LoansController {
             )
     })
     @GetMapping("loans-service-info")
-    public ResponseEntity<LoansContactInfoDto> getLoansServiceInfo(){
-        return  ResponseEntity
-                .status(HttpStatus.OK)
-                .body(loansContactInfoDto);
+    public ResponseEntity<byte[]> getLoansServiceInfo(){
+        return staticInfoResponses.serviceInfo();
     }
 }
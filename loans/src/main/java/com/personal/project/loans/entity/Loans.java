@@ -1,9 +1,21 @@
 package com.personal.project.loans.entity;
 
+import com.personal.project.loans.constants.LoansConstants;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Table(name = "loans", uniqueConstraints = {
+        //the duplicate check of createLoan is this index: a second home loan for the same number fails on insert,
+        //even when both requests commit at once; keyed by mobile_number first, so the loan fetches seek on it too
+        @UniqueConstraint(name = LoansConstants.UK_LOANS_MOBILE_NUMBER_LOAN_TYPE, columnNames = {"mobile_number", "loan_type"}),
+        @UniqueConstraint(name = LoansConstants.UK_LOANS_LOAN_NUMBER, columnNames = "loan_number") //also indexes findByLoanNumber
+})
+@Cacheable //second level cache, only used when second-level-cache.enabled is true, see SecondLevelCacheConfig
+//read-write: updateLoan and deleteLoan lock the cached loan until they commit, a fetchLoan meanwhile goes to the row instead
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = LoansConstants.LOANS_CACHE_REGION)
 @Getter
 @Setter
 @ToString
@@ -0,0 +1,17 @@
+package com.personal.project.loans.exception;
+
+//base of the exceptions that are an expected answer to a request (not found, already exists, bad page token ...), not a bug:
+//filling in the stack trace is most of what throwing one costs and nobody reads it, so by default it is skipped;
+//business-exceptions.stack-traces=true turns it back on while debugging, see BusinessExceptionStackTraces
+public abstract class BusinessException extends RuntimeException {
+
+    private static volatile boolean captureStackTraces;
+
+    protected BusinessException(String message) {
+        super(message, null, false, captureStackTraces);
+    }
+
+    public static void captureStackTraces(boolean captureStackTraces) {
+        BusinessException.captureStackTraces = captureStackTraces;
+    }
+}
@@ -0,0 +1,12 @@
+package com.personal.project.loans.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidPageTokenException extends BusinessException {
+
+    public InvalidPageTokenException(String pageToken) {
+        super(String.format("Invalid page token '%s', start again without a pageToken", pageToken));
+    }
+}
@@ -4,7 +4,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(value = HttpStatus.BAD_REQUEST)
-public class LoanAlreadyExistsException extends RuntimeException {
+public class LoanAlreadyExistsException extends BusinessException {
 
     public LoanAlreadyExistsException(String message){
         super(message);
@@ -0,0 +1,8 @@
+package com.personal.project.loans.exception;
+
+//thrown by StatementCounter in place of the statement that goes over the request's budget, only when statement-budget.enforce is true
+public class StatementBudgetExceededException extends RuntimeException {
+    public StatementBudgetExceededException(String uri, int budget) {
+        super(String.format("Request to %s sent more than its budget of %d JDBC statements", uri, budget));
+    }
+}
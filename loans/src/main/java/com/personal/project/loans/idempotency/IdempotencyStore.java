@@ -0,0 +1,95 @@
+package com.personal.project.loans.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.personal.project.loans.constants.LoansConstants;
+import com.personal.project.loans.exception.IdempotencyKeyReusedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+//remembers the response of every create request sent with an Idempotency-Key header, so a client retrying after a timeout
+//gets the original response back instead of running the create again (and failing with LoanAlreadyExistsException)
+//bounded by size and expiring after idempotency.time-to-live; a key is only remembered by the instance that served it
+@Component
+public class IdempotencyStore {
+
+    private final Cache<String, Entry> entries;
+    private final Counter executed;
+    private final Counter replayed;
+
+    public IdempotencyStore(MeterRegistry meterRegistry,
+                            @Value("${idempotency.maximum-size:100000}") long maximumSize,
+                            @Value("${idempotency.time-to-live:24h}") Duration timeToLive) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "idempotency"); //cache.size and cache.evictions
+        this.executed = Counter.builder("idempotency.requests").tag("result", "executed").register(meterRegistry);
+        this.replayed = Counter.builder("idempotency.requests").tag("result", "replayed").register(meterRegistry);
+    }
+
+    /***
+     *
+     * @param idempotencyKey - Idempotency-Key header of the request, null runs the action without remembering anything
+     * @param request - body or parameters of the request, a key sent again with a different request is rejected
+     * @param action - serves the request, runs at most once per key
+     * @return the response of the action, or the response of the first request sent with this key
+     */
+    public <T> ResponseEntity<T> execute(String idempotencyKey, Object request, Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        Entry entry = new Entry(request, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(idempotencyKey, entry);
+        if (existing != null) {
+            if (!existing.request().equals(request)) {
+                throw new IdempotencyKeyReusedException(idempotencyKey);
+            }
+            replayed.increment();
+            return replay(existing);
+        }
+        executed.increment();
+        try {
+            ResponseEntity<T> response = action.get();
+            entry.response().complete(response);
+            return response;
+        } catch (RuntimeException | Error exception) {
+            //nothing was created, so the key is freed for the next retry; requests already waiting fail the same way
+            entries.asMap().remove(idempotencyKey, entry);
+            entry.response().completeExceptionally(exception);
+            throw exception;
+        }
+    }
+
+    //a duplicate that arrives while the first request is still running waits for it here instead of racing it to the database
+    @SuppressWarnings("unchecked")
+    private static <T> ResponseEntity<T> replay(Entry entry) {
+        ResponseEntity<T> original;
+        try {
+            original = (ResponseEntity<T>) entry.response().join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw (RuntimeException) exception.getCause();
+        }
+        return ResponseEntity.status(original.getStatusCode())
+                .headers(original.getHeaders())
+                .header(LoansConstants.IDEMPOTENT_REPLAYED_HEADER, "true")
+                .body(original.getBody());
+    }
+
+    private record Entry(Object request, CompletableFuture<ResponseEntity<?>> response) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.personal.project.loans.observability;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+//wraps the DataSource so every JDBC statement Hibernate (or anything else) runs passes the listeners below, timed by datasource-proxy
+@Component
+public class DataSourceProxyPostProcessor implements BeanPostProcessor {
+
+    private final StatementCounter statementCounter;
+    private final SlowQueryLog slowQueryLog;
+
+    public DataSourceProxyPostProcessor(StatementCounter statementCounter, SlowQueryLog slowQueryLog) {
+        this.statementCounter = statementCounter;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(statementCounter)
+                    .listener(slowQueryLog)
+                    .build();
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,34 @@
+package com.personal.project.loans.observability;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+
+//value of the outcome tag on http.server.requests, recorded by GlobalExceptionHandler for the error it maps,
+//see OutcomeObservationConvention; a request without one is tagged from its status (SUCCESS for 2xx)
+public final class RequestOutcome {
+
+    private RequestOutcome() {}
+
+    public static final String NOT_FOUND = "NOT_FOUND";
+    public static final String VALIDATION_ERROR = "VALIDATION_ERROR";
+    public static final String ALREADY_EXISTS = "ALREADY_EXISTS";
+    public static final String EXCEPTION = "EXCEPTION";
+
+    static final String ATTRIBUTE = RequestOutcome.class.getName();
+
+    public static void record(WebRequest webRequest, String outcome) {
+        webRequest.setAttribute(ATTRIBUTE, outcome, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    //an exception turned into a 500 response never reaches the observation filter, so it is handed over here to fill the exception tag
+    public static void recordException(WebRequest webRequest, Throwable exception) {
+        record(webRequest, EXCEPTION);
+        if (webRequest instanceof ServletWebRequest servletWebRequest) {
+            HttpServletRequest request = servletWebRequest.getRequest();
+            ServerHttpObservationFilter.findObservationContext(request).ifPresent(context -> context.setError(exception));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.personal.project.loans.observability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+//replaces show-sql: only statements slower than slow-query-log.threshold are logged, and of those only a
+//slow-query-log.sample-rate fraction, so a slow database cannot flood the log; every slow one is still counted in db.statements.slow
+//only the SQL text is logged, bound parameters (mobile numbers, emails) are left out
+@Slf4j
+@Component
+public class SlowQueryLog implements QueryExecutionListener {
+
+    private final long thresholdMillis;
+    private final double sampleRate;
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private volatile Counter slowStatements;
+
+    //the registry is looked up on the first slow statement, this listener is created together with the DataSource, before the metrics beans
+    public SlowQueryLog(@Value("${slow-query-log.threshold:100ms}") Duration threshold,
+                        @Value("${slow-query-log.sample-rate:0.1}") double sampleRate,
+                        ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.thresholdMillis = threshold.toMillis();
+        this.sampleRate = sampleRate;
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo executionInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo executionInfo, List<QueryInfo> queryInfoList) {
+        if (executionInfo.getElapsedTime() < thresholdMillis) {
+            return;
+        }
+        slowStatements().increment();
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        log.warn("Slow statement: {} ms{} {}", executionInfo.getElapsedTime(),
+                executionInfo.isBatch() ? " (batch of " + executionInfo.getBatchSize() + ")" : "",
+                queryInfoList.stream().map(QueryInfo::getQuery).distinct().collect(Collectors.joining("; ")));
+    }
+
+    private Counter slowStatements() {
+        Counter counter = slowStatements;
+        if (counter == null) {
+            counter = Counter.builder("db.statements.slow")
+                    .description("JDBC statements that took longer than slow-query-log.threshold")
+                    .register(meterRegistryProvider.getObject());
+            slowStatements = counter;
+        }
+        return counter;
+    }
+}
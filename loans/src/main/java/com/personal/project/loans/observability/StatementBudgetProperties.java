@@ -0,0 +1,19 @@
+package com.personal.project.loans.observability;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+//statement-budget in application.yml: how many JDBC statements one request may send, see StatementCounter
+//endpoints overrides maxStatements per uri pattern (e.g. /api/list), a negative budget means unlimited
+@ConfigurationProperties(prefix = "statement-budget")
+public record StatementBudgetProperties(boolean enforce, int maxStatements, Map<String, Integer> endpoints) {
+
+    public StatementBudgetProperties {
+        endpoints = endpoints == null ? Map.of() : endpoints;
+    }
+
+    public int budget(String uri) {
+        return uri == null ? maxStatements : endpoints.getOrDefault(uri, maxStatements);
+    }
+}
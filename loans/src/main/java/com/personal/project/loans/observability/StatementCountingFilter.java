@@ -0,0 +1,69 @@
+package com.personal.project.loans.observability;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+//one StatementCounter scope per request; the statement count goes to http.server.requests.statements and the time spent
+//in JDBC to http.server.requests.jdbc, both tagged like http.server.requests (method, uri) so they line up per endpoint
+@Slf4j
+@Component
+public class StatementCountingFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final StatementCounter statementCounter;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> reportedOverBudget = ConcurrentHashMap.newKeySet();
+
+    public StatementCountingFilter(StatementCounter statementCounter, MeterRegistry meterRegistry) {
+        this.statementCounter = statementCounter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        StatementCounter.Scope scope = statementCounter.open(request);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            scope.close();
+            record(request, scope);
+        }
+    }
+
+    private void record(HttpServletRequest request, StatementCounter.Scope scope) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? UNKNOWN_URI : pattern.toString();
+        DistributionSummary.builder("http.server.requests.statements")
+                .description("JDBC statements sent while serving one request")
+                .baseUnit("statements")
+                .tags("method", request.getMethod(), "uri", uri)
+                .register(meterRegistry)
+                .record(scope.statements());
+        Timer.builder("http.server.requests.jdbc")
+                .description("Time spent in JDBC statements while serving one request")
+                .tags("method", request.getMethod(), "uri", uri)
+                .register(meterRegistry)
+                .record(scope.jdbcNanos(), TimeUnit.NANOSECONDS);
+        int budget = statementCounter.budget(pattern == null ? null : uri);
+        //without statement-budget.enforce the request is served anyway, so say it once per endpoint instead of on every request
+        if (budget >= 0 && scope.statements() > budget && reportedOverBudget.add(request.getMethod() + " " + uri)) {
+            log.warn("{} {} sent {} JDBC statements, its budget is {}", request.getMethod(), uri, scope.statements(), budget);
+        }
+    }
+}
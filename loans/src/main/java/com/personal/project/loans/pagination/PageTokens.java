@@ -0,0 +1,57 @@
+package com.personal.project.loans.pagination;
+
+import com.personal.project.loans.exception.InvalidPageTokenException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation tokens for the keyset (seek) paginated listing. A token only carries the last loanId of the page
+ * it was returned with; the next page is read with "loanId greater than last, order by loanId", which walks the primary key index,
+ * so a page deep into the table costs the same as the first one (an offset would have to skip every earlier row).
+ */
+public final class PageTokens {
+
+    public static final long FIRST_PAGE = 0L; //loanId starts from 1, so "greater than 0" is the first page
+
+    private static final String PREFIX = "loanId:"; //rejects tokens that were not issued by this endpoint
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding(); //url safe, the token travels as a query parameter
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private PageTokens() {
+        // restrict instantiation
+    }
+
+    /***
+     *
+     * @param lastKey - loanId of the last loan on the page being returned
+     * @return token the caller sends back to get the next page
+     */
+    public static String encode(long lastKey) {
+        return ENCODER.encodeToString((PREFIX + lastKey).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /***
+     *
+     * @param pageToken - token from a previous page, null or blank for the first page
+     * @return the loanId to continue after
+     * @throws InvalidPageTokenException if the token was not issued by encode
+     */
+    public static long decode(String pageToken) {
+        if (pageToken == null || pageToken.isBlank()) {
+            return FIRST_PAGE;
+        }
+        try {
+            String decoded = new String(DECODER.decode(pageToken), StandardCharsets.US_ASCII);
+            if (decoded.startsWith(PREFIX)) {
+                long lastKey = Long.parseLong(decoded, PREFIX.length(), decoded.length(), 10);
+                if (lastKey >= FIRST_PAGE) {
+                    return lastKey;
+                }
+            }
+        } catch (IllegalArgumentException ignored) {
+            //not Base64 or not a number (NumberFormatException is an IllegalArgumentException), reported below
+        }
+        throw new InvalidPageTokenException(pageToken);
+    }
+}
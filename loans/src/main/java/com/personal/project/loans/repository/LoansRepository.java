@@ -1,16 +1,43 @@
 package com.personal.project.loans.repository;
 
 import com.personal.project.loans.entity.Loans;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface LoansRepository extends JpaRepository<Loans, Long> {
 
-    Optional<Loans> findByMobileNumber(String mobileNumber);
+    //query cache keeps the matching id, the entity itself then comes from the loans region;
+    //any write to the loans table invalidates every cached result of these queries
+    //a customer can hold one loan of each type, the single loan fetch answers with the oldest one
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<Loans> findFirstByMobileNumberOrderByLoanIdAsc(String mobileNumber);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Loans> findByMobileNumberOrderByLoanIdAsc(String mobileNumber);
+
+    //every loan of many customers in one query, a seek per number on uk_loans_mobile_number_loan_type;
+    //not cached, a cached result would only be hit by the exact same list of numbers
+    List<Loans> findByMobileNumberInOrderByLoanIdAsc(Collection<String> mobileNumbers);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Loans> findByLoanNumber(String loanNumber);
 
+    //loanId > ? order by loanId: a range scan that starts where the previous page stopped, no rows are read and skipped
+    List<Loans> findByLoanIdGreaterThanOrderByLoanIdAsc(Long loanId, Limit limit);
+
+    //one number per loan row for MobileNumberFilter at startup, so a customer with two loans counts twice; read it in a transaction and close it
+    @Query("select l.mobileNumber from Loans l")
+    Stream<String> streamAllMobileNumbers();
+
 }
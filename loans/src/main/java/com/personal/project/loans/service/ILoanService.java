@@ -1,6 +1,10 @@
 package com.personal.project.loans.service;
 
 import com.personal.project.loans.dto.LoansDto;
+import com.personal.project.loans.dto.PageResponseDto;
+
+import java.util.List;
+import java.util.Map;
 
 public interface ILoanService {
     /**
@@ -16,6 +20,20 @@ public interface ILoanService {
      */
     LoansDto fetchLoan(String mobileNumber);
 
+    /**
+     *
+     * @param mobileNumber - Input mobile Number
+     * @return every loan of the customer, oldest first
+     */
+    List<LoansDto> fetchLoansByMobileNumber(String mobileNumber);
+
+    /**
+     *
+     * @param mobileNumbers - Input mobile Numbers
+     * @return the loans of every given mobile number, in the order given; an empty list for a number without loans
+     */
+    Map<String, List<LoansDto>> fetchLoansByMobileNumbers(List<String> mobileNumbers);
+
     /**
      *
      * @param loansDto - LoansDto Object
@@ -26,7 +44,15 @@ public interface ILoanService {
     /**
      *
      * @param mobileNumber - Input Mobile Number
-     * @return boolean indicating if the delete of loan details is successful or not
+     * @return boolean indicating if the delete of every loan of the customer is successful or not
      */
     boolean deleteLoan(String mobileNumber);
+
+    /**
+     *
+     * @param pageToken - nextPageToken of the previous page, null for the first page
+     * @param pageSize - maximum number of loans on the page
+     * @return loans ordered by loanId, and the token for the next page
+     */
+    PageResponseDto<LoansDto> fetchLoans(String pageToken, int pageSize);
 }
@@ -1,17 +1,28 @@
 package com.personal.project.loans.service.impl;
 
+import com.personal.project.loans.coalescing.SingleFlight;
 import com.personal.project.loans.constants.LoansConstants;
 import com.personal.project.loans.dto.LoansDto;
+import com.personal.project.loans.dto.PageResponseDto;
 import com.personal.project.loans.entity.Loans;
 import com.personal.project.loans.exception.LoanAlreadyExistsException;
 import com.personal.project.loans.exception.ResourceNotFoundException;
+import com.personal.project.loans.exception.UniqueConstraints;
 import com.personal.project.loans.mapper.LoansMapper;
+import com.personal.project.loans.membership.MobileNumberFilter;
+import com.personal.project.loans.pagination.PageTokens;
 import com.personal.project.loans.repository.LoansRepository;
 import com.personal.project.loans.service.ILoanService;
 import lombok.AllArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 @Service
@@ -19,17 +30,28 @@ import java.util.Random;
 public class LoansServiceImpl implements ILoanService {
 
     private LoansRepository loansRepository;
+    private MobileNumberFilter mobileNumberFilter;
+    private SingleFlight singleFlight;
 
     /**
      * @param mobileNumber - Mobile Number of the Customer
      */
     @Override
     public void createLoan(String mobileNumber) {
-        Optional<Loans> optionalLoans= loansRepository.findByMobileNumber(mobileNumber);
-        if(optionalLoans.isPresent()){
-            throw new LoanAlreadyExistsException("Loan already registered with given mobileNumber "+mobileNumber);
+        //no lookup before the insert: a violation of uk_loans_mobile_number_loan_type is what becomes LoanAlreadyExistsException,
+        //whether the existing loan is old or was committed by a concurrent request a moment ago
+        mobileNumberFilter.add(mobileNumber); //counted before the loan row exists, so the filter never lags behind a committed loan
+        try {
+            loansRepository.saveAndFlush(createNewLoan(mobileNumber));
+            singleFlight.forget(mobileNumber); //a fetch already in flight may have found nothing
+        } catch (RuntimeException exception) {
+            mobileNumberFilter.remove(mobileNumber);
+            if (exception instanceof DataIntegrityViolationException violation
+                    && UniqueConstraints.isViolated(violation, LoansConstants.UK_LOANS_MOBILE_NUMBER_LOAN_TYPE)) {
+                throw new LoanAlreadyExistsException("Loan already registered with given mobileNumber "+mobileNumber);
+            }
+            throw exception;
         }
-        loansRepository.save(createNewLoan(mobileNumber));
     }
 
     /**
@@ -51,14 +73,77 @@ public class LoansServiceImpl implements ILoanService {
     /**
      *
      * @param mobileNumber - Input mobile Number
-     * @return Loan Details based on a given mobileNumber
+     * @return Loan Details based on a given mobileNumber, the oldest loan of a customer with several
      */
     @Override
     public LoansDto fetchLoan(String mobileNumber) {
-        Loans loans = loansRepository.findByMobileNumber(mobileNumber).orElseThrow(
-                () -> new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber)
-        );
-        return LoansMapper.convertEntityToDto(loans, new LoansDto());
+        if (!mobileNumberFilter.mightContain(mobileNumber)) {
+            throw new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber); //the filter has no loan for it, skip the query
+        }
+        //concurrent fetches of the same number share one query and one dto, see SingleFlight
+        return singleFlight.execute(mobileNumber, () -> {
+            Loans loans = loansRepository.findFirstByMobileNumberOrderByLoanIdAsc(mobileNumber).orElseThrow(
+                    () -> {
+                        mobileNumberFilter.recordFalsePositive();
+                        return new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber);
+                    }
+            );
+            return LoansMapper.convertEntityToDto(loans, new LoansDto());
+        });
+    }
+
+    /**
+     *
+     * @param mobileNumber - Input mobile Number
+     * @return every loan of the customer, oldest first
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<LoansDto> fetchLoansByMobileNumber(String mobileNumber) {
+        if (!mobileNumberFilter.mightContain(mobileNumber)) {
+            throw new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber);
+        }
+        List<Loans> loans = loansRepository.findByMobileNumberOrderByLoanIdAsc(mobileNumber);
+        if (loans.isEmpty()) {
+            mobileNumberFilter.recordFalsePositive();
+            throw new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber);
+        }
+        List<LoansDto> loansDtos = new ArrayList<>(loans.size());
+        for (Loans loan : loans) {
+            loansDtos.add(LoansMapper.convertEntityToDto(loan, new LoansDto()));
+        }
+        return loansDtos;
+    }
+
+    /**
+     * One IN query for all the numbers instead of one query per number; numbers the mobile number filter
+     * rules out are not put into it, so a batch of unknown numbers never reaches the database.
+     *
+     * @param mobileNumbers - Input mobile Numbers
+     * @return the loans of every given mobile number, in the order given; an empty list for a number without loans
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, List<LoansDto>> fetchLoansByMobileNumbers(List<String> mobileNumbers) {
+        Map<String, List<LoansDto>> loansByMobileNumber = new LinkedHashMap<>();
+        List<String> candidates = new ArrayList<>(mobileNumbers.size());
+        for (String mobileNumber : mobileNumbers) {
+            if (loansByMobileNumber.putIfAbsent(mobileNumber, new ArrayList<>()) == null && mobileNumberFilter.mightContain(mobileNumber)) {
+                candidates.add(mobileNumber); //each number once, however often it was given
+            }
+        }
+        if (candidates.isEmpty()) {
+            return loansByMobileNumber;
+        }
+        for (Loans loan : loansRepository.findByMobileNumberInOrderByLoanIdAsc(candidates)) {
+            loansByMobileNumber.get(loan.getMobileNumber()).add(LoansMapper.convertEntityToDto(loan, new LoansDto()));
+        }
+        for (String candidate : candidates) {
+            if (loansByMobileNumber.get(candidate).isEmpty()) {
+                mobileNumberFilter.recordFalsePositive();
+            }
+        }
+        return loansByMobileNumber;
     }
 
     /**
@@ -70,23 +155,71 @@ public class LoansServiceImpl implements ILoanService {
     public boolean updateLoan(LoansDto loansDto) {
         Loans loans = loansRepository.findByLoanNumber(loansDto.getLoanNumber()).orElseThrow(
                 () -> new ResourceNotFoundException("Loan", "LoanNumber", loansDto.getLoanNumber()));
+        String previousMobileNumber = loans.getMobileNumber();
+        boolean mobileNumberChanged = !previousMobileNumber.equals(loansDto.getMobileNumber());
+        if (mobileNumberChanged) {
+            mobileNumberFilter.add(loansDto.getMobileNumber());
+        }
         LoansMapper.convertDtoToEntity(loansDto, loans);
-        loansRepository.save(loans);
+        try {
+            loansRepository.save(loans);
+        } catch (RuntimeException exception) {
+            if (mobileNumberChanged) {
+                mobileNumberFilter.remove(loansDto.getMobileNumber());
+            }
+            if (exception instanceof DataIntegrityViolationException violation
+                    && UniqueConstraints.isViolated(violation, LoansConstants.UK_LOANS_MOBILE_NUMBER_LOAN_TYPE)) {
+                throw new LoanAlreadyExistsException("Loan already registered with given mobileNumber "+loansDto.getMobileNumber()
+                        +" and loanType "+loansDto.getLoanType());
+            }
+            throw exception;
+        }
+        singleFlight.forget(previousMobileNumber);
+        if (mobileNumberChanged) {
+            singleFlight.forget(loansDto.getMobileNumber());
+            mobileNumberFilter.remove(previousMobileNumber);
+        }
         return  true;
     }
 
     /**
      * @param mobileNumber - Input MobileNumber
-     * @return boolean indicating if the delete of loan details is successful or not
+     * @return boolean indicating if the delete of every loan of the customer is successful or not
      */
     @Override
     public boolean deleteLoan(String mobileNumber) {
-        Loans loans = loansRepository.findByMobileNumber(mobileNumber).orElseThrow(
-                () -> new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber)
-        );
-        loansRepository.deleteById(loans.getLoanId());
+        List<Loans> loans = loansRepository.findByMobileNumberOrderByLoanIdAsc(mobileNumber);
+        if (loans.isEmpty()) {
+            throw new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber);
+        }
+        loansRepository.deleteAll(loans);
+        singleFlight.forget(mobileNumber);
+        for (int i = 0; i < loans.size(); i++) {
+            mobileNumberFilter.remove(mobileNumber); //the filter counts the number once per loan
+        }
         return true;
     }
 
-
+    /**
+     * Keyset paginated listing: the page token carries the last loanId already returned,
+     * so every page is one index seek plus pageSize rows however deep the caller is.
+     *
+     * @param pageToken - nextPageToken of the previous page, null for the first page
+     * @param pageSize - maximum number of loans on the page
+     * @return loans ordered by loanId, and the token for the next page
+     */
+    @Override
+    @Transactional(readOnly = true) //read only session, hibernate keeps no snapshots for dirty checking
+    public PageResponseDto<LoansDto> fetchLoans(String pageToken, int pageSize) {
+        //the extra row is only a has-next-page marker, it is not returned
+        List<Loans> loans = loansRepository.findByLoanIdGreaterThanOrderByLoanIdAsc(PageTokens.decode(pageToken), Limit.of(pageSize + 1));
+        boolean hasNextPage = loans.size() > pageSize;
+        int pageLength = hasNextPage ? pageSize : loans.size();
+        List<LoansDto> loansDtos = new ArrayList<>(pageLength);
+        for (int i = 0; i < pageLength; i++) {
+            loansDtos.add(LoansMapper.convertEntityToDto(loans.get(i), new LoansDto()));
+        }
+        String nextPageToken = hasNextPage ? PageTokens.encode(loans.get(pageLength - 1).getLoanId()) : null;
+        return new PageResponseDto<>(loansDtos, nextPageToken);
+    }
 }
@@ -11,5 +11,7 @@ CREATE TABLE IF NOT EXISTS `loans`
     `created_by`         varchar(20)  NOT NULL,
     `updated_at`         date        DEFAULT NULL,
     `updated_by`         varchar(20) DEFAULT NULL,
-    PRIMARY KEY (`loan_id`)
+    PRIMARY KEY (`loan_id`),
+    CONSTRAINT `uk_loans_mobile_number_loan_type` UNIQUE (`mobile_number`, `loan_type`),
+    CONSTRAINT `uk_loans_loan_number` UNIQUE (`loan_number`)
 );
\ No newline at end of file
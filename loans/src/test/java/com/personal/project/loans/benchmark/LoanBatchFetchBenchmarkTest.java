@@ -0,0 +1,94 @@
+package com.personal.project.loans.benchmark;
+
+import com.personal.project.loans.constants.LoansConstants;
+import com.personal.project.loans.entity.Loans;
+import com.personal.project.loans.membership.MobileNumberFilter;
+import com.personal.project.loans.repository.LoansRepository;
+import com.personal.project.loans.service.ILoanService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Latency of resolving the loans of 1, 10 and 1000 mobile numbers: one fetchLoansByMobileNumbers call (one IN query)
+ * against one fetchLoansByMobileNumber call per number, which is what a caller had to do before.
+ * Every customer holds a home and a car loan. Only runs on demand:
+ * mvn test -Dbenchmark=true -Dtest=LoanBatchFetchBenchmarkTest
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {"build.version=test", "mobile-filter.enabled=true", "logging.level.org.hibernate.SQL=off"})
+class LoanBatchFetchBenchmarkTest {
+
+    private static final int CUSTOMERS = 10_000;
+    private static final long FIRST_MOBILE_NUMBER = 7_000_000_000L;
+    private static final int NUMBERS_PER_BATCH = Integer.getInteger("benchmark.iterations", 20_000); //numbers resolved per run and size
+
+    @Autowired
+    private ILoanService iLoanService;
+
+    @Autowired
+    private LoansRepository loansRepository;
+
+    @Autowired
+    private MobileNumberFilter mobileNumberFilter;
+
+    @AfterEach
+    void cleanUp() {
+        loansRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void batchAgainstOneFetchPerNumber() {
+        List<Loans> loans = new ArrayList<>(CUSTOMERS * 2);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            String mobileNumber = Long.toString(FIRST_MOBILE_NUMBER + i);
+            loans.add(loan(mobileNumber, LoansConstants.HOME_LOAN, 100_000_000_000L + i));
+            loans.add(loan(mobileNumber, "Car Loan", 200_000_000_000L + i));
+            mobileNumberFilter.add(mobileNumber);
+            mobileNumberFilter.add(mobileNumber);
+        }
+        loansRepository.saveAll(loans);
+
+        for (String round : List.of("warm up ", "")) {
+            for (int size : new int[]{1, 10, 1_000}) {
+                run(round + "batch, " + size, size, iLoanService::fetchLoansByMobileNumbers);
+                run(round + "one per number, " + size, size, mobileNumbers -> mobileNumbers.forEach(iLoanService::fetchLoansByMobileNumber));
+            }
+        }
+    }
+
+    private static void run(String name, int size, Consumer<List<String>> fetch) {
+        int requests = Math.max(20, NUMBERS_PER_BATCH / size);
+        long[] nanos = new long[requests];
+        for (int r = 0; r < requests; r++) {
+            List<String> mobileNumbers = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                mobileNumbers.add(Long.toString(FIRST_MOBILE_NUMBER + ThreadLocalRandom.current().nextInt(CUSTOMERS)));
+            }
+            long start = System.nanoTime();
+            fetch.accept(mobileNumbers);
+            nanos[r] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-32s p50 %9.1f us  p99 %9.1f us  %7.2f us/number%n", name,
+                nanos[requests / 2] / 1e3, nanos[(int) (requests * 0.99)] / 1e3, Arrays.stream(nanos).average().orElse(0) / 1e3 / size);
+    }
+
+    private static Loans loan(String mobileNumber, String loanType, long loanNumber) {
+        Loans loan = new Loans();
+        loan.setMobileNumber(mobileNumber);
+        loan.setLoanNumber(Long.toString(loanNumber));
+        loan.setLoanType(loanType);
+        loan.setTotalLoan(LoansConstants.NEW_LOAN_LIMIT);
+        loan.setOutstandingAmount(LoansConstants.NEW_LOAN_LIMIT);
+        return loan;
+    }
+}
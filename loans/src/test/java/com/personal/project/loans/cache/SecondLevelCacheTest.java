@@ -0,0 +1,109 @@
+package com.personal.project.loans.cache;
+
+import com.personal.project.loans.dto.LoansDto;
+import com.personal.project.loans.entity.Loans;
+import com.personal.project.loans.repository.LoansRepository;
+import com.personal.project.loans.service.ILoanService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"build.version=test", "second-level-cache.enabled=true"})
+class SecondLevelCacheTest {
+
+    private static final int READS = 20;
+
+    @Autowired
+    private ILoanService iLoanService;
+
+    @Autowired
+    private LoansRepository loansRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        loansRepository.deleteAll();
+    }
+
+    @Test
+    void repeatedReadsAreServedFromTheCache() {
+        iLoanService.createLoan("7400000000");
+        statistics.clear();
+
+        //every repository call outside a transaction gets its own session, so only the second level cache can save the round trip
+        Loans loan = null;
+        for (int i = 0; i < READS; i++) {
+            loan = loansRepository.findFirstByMobileNumberOrderByLoanIdAsc("7400000000").orElseThrow();
+        }
+        for (int i = 0; i < READS; i++) {
+            loansRepository.findByLoanNumber(loan.getLoanNumber()).orElseThrow();
+            loansRepository.findById(loan.getLoanId()).orElseThrow();
+        }
+
+        //one execution per query, the entity was put into its region by the insert
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(2 * (READS - 1), statistics.getQueryCacheHitCount());
+        assertEquals(0, statistics.getSecondLevelCacheMissCount());
+        double hitRatio = (double) statistics.getQueryCacheHitCount() / (statistics.getQueryCacheHitCount() + statistics.getQueryCacheMissCount());
+        assertTrue(hitRatio >= 0.9, "query cache hit ratio " + hitRatio);
+    }
+
+    @Test
+    void updateIsVisibleToTheNextRead() {
+        iLoanService.createLoan("7400000001");
+        Loans cached = loansRepository.findFirstByMobileNumberOrderByLoanIdAsc("7400000001").orElseThrow();
+        loansRepository.findByLoanNumber(cached.getLoanNumber()).orElseThrow();
+
+        LoansDto update = iLoanService.fetchLoan("7400000001");
+        update.setMobileNumber("7400000002");
+        update.setAmountPaid(1_000);
+        iLoanService.updateLoan(update);
+
+        assertTrue(loansRepository.findFirstByMobileNumberOrderByLoanIdAsc("7400000001").isEmpty());
+        assertEquals(1_000, loansRepository.findFirstByMobileNumberOrderByLoanIdAsc("7400000002").orElseThrow().getAmountPaid());
+        assertEquals("7400000002", loansRepository.findByLoanNumber(cached.getLoanNumber()).orElseThrow().getMobileNumber());
+        assertEquals(1_000, loansRepository.findById(cached.getLoanId()).orElseThrow().getAmountPaid());
+    }
+
+    @Test
+    void deleteRemovesTheCachedEntity() {
+        iLoanService.createLoan("7400000003");
+        Loans cached = loansRepository.findFirstByMobileNumberOrderByLoanIdAsc("7400000003").orElseThrow();
+        loansRepository.findByLoanNumber(cached.getLoanNumber()).orElseThrow();
+
+        iLoanService.deleteLoan("7400000003");
+
+        assertTrue(loansRepository.findFirstByMobileNumberOrderByLoanIdAsc("7400000003").isEmpty());
+        assertTrue(loansRepository.findByLoanNumber(cached.getLoanNumber()).isEmpty());
+        assertTrue(loansRepository.findById(cached.getLoanId()).isEmpty());
+    }
+
+    @Test
+    void bulkDeleteInvalidatesTheRegion() {
+        iLoanService.createLoan("7400000004");
+        Loans cached = loansRepository.findFirstByMobileNumberOrderByLoanIdAsc("7400000004").orElseThrow();
+
+        //a JPQL delete bypasses the entities, Hibernate has to drop the whole region and the cached query results
+        loansRepository.deleteAllInBatch();
+
+        assertTrue(loansRepository.findById(cached.getLoanId()).isEmpty());
+        assertTrue(loansRepository.findFirstByMobileNumberOrderByLoanIdAsc("7400000004").isEmpty());
+    }
+}
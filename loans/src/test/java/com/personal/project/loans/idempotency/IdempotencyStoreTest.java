@@ -0,0 +1,53 @@
+package com.personal.project.loans.idempotency;
+
+import com.personal.project.loans.constants.LoansConstants;
+import com.personal.project.loans.repository.LoansRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//wiring of the loans create endpoint only, the behaviour of IdempotencyStore is covered by the accounts IdempotencyStoreTest
+@SpringBootTest(properties = "build.version=test")
+@AutoConfigureMockMvc
+class IdempotencyStoreTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoansRepository loansRepository;
+
+    @AfterEach
+    void cleanUp() {
+        loansRepository.deleteAll();
+    }
+
+    @Test
+    void loanCreateHonoursTheIdempotencyKey() throws Exception {
+        mockMvc.perform(post("/api/create").param("mobileNumber", "7810000000")
+                        .header(LoansConstants.IDEMPOTENCY_KEY_HEADER, "loan-1"))
+                .andExpect(status().isCreated());
+
+        //same key and number: the first 201 again, not LoanAlreadyExistsException
+        mockMvc.perform(post("/api/create").param("mobileNumber", "7810000000")
+                        .header(LoansConstants.IDEMPOTENCY_KEY_HEADER, "loan-1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(LoansConstants.IDEMPOTENT_REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.statusMessage").value(LoansConstants.MESSAGE_201));
+        //same key, another number: rejected before a loan is created
+        mockMvc.perform(post("/api/create").param("mobileNumber", "7810000001")
+                        .header(LoansConstants.IDEMPOTENCY_KEY_HEADER, "loan-1"))
+                .andExpect(status().isUnprocessableEntity());
+
+        assertEquals(1, loansRepository.count());
+    }
+}
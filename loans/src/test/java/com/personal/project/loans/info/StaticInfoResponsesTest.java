@@ -0,0 +1,79 @@
+package com.personal.project.loans.info;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personal.project.loans.dto.LoansContactInfoDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//the loans side of StaticInfoResponses (tested in full in accounts): its three endpoints, and loans.env as one of its keys
+@SpringBootTest(properties = "build.version=test")
+@AutoConfigureMockMvc
+class StaticInfoResponsesTest {
+
+    private static final String REFRESHED = "refreshed";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StaticInfoResponses staticInfoResponses;
+
+    @Autowired
+    private LoansContactInfoDto loansContactInfoDto;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ConfigurableEnvironment environment;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @AfterEach
+    void restoreEnvironment() {
+        if (environment.getPropertySources().remove(REFRESHED) != null) {
+            applicationEventPublisher.publishEvent(new EnvironmentChangeEvent(Set.of("loans.env")));
+        }
+    }
+
+    @Test
+    void loansEndpointsServeThePreSerializedResponses() throws Exception {
+        mockMvc.perform(get("/api/loans-service-info"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(objectMapper.writeValueAsBytes(loansContactInfoDto)));
+        mockMvc.perform(get("/api/loans-service-info")
+                        .header(HttpHeaders.IF_NONE_MATCH, staticInfoResponses.serviceInfo().getHeaders().getETag()))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/java-version")
+                        .header(HttpHeaders.IF_NONE_MATCH, staticInfoResponses.javaVersion().getHeaders().getETag()))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/build-version")).andExpect(content().string("test"));
+    }
+
+    @Test
+    void refreshedLoansEnvIsServed() throws Exception {
+        environment.getPropertySources().addFirst(new MapPropertySource(REFRESHED, Map.of("loans.env", "prod")));
+
+        applicationEventPublisher.publishEvent(new EnvironmentChangeEvent(Set.of("loans.env")));
+
+        mockMvc.perform(get("/api/loans-service-info")).andExpect(jsonPath("$.env").value("prod"));
+    }
+}
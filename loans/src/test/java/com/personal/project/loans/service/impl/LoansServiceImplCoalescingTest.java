@@ -0,0 +1,78 @@
+package com.personal.project.loans.service.impl;
+
+import com.personal.project.loans.dto.LoansDto;
+import com.personal.project.loans.repository.LoansRepository;
+import com.personal.project.loans.service.ILoanService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+//fetchLoan goes through SingleFlight keyed by the mobile number; how SingleFlight coalesces is tested in cards
+@SpringBootTest(properties = "build.version=test")
+class LoansServiceImplCoalescingTest {
+
+    private static final String MOBILE_NUMBER = "7200000000";
+    private static final int FETCHES = 16;
+
+    @Autowired
+    private ILoanService iLoanService;
+
+    @MockitoSpyBean
+    private LoansRepository loansRepository;
+
+    @AfterEach
+    void cleanUp() {
+        loansRepository.deleteAll();
+    }
+
+    @Test
+    void fetchesOfALoanWhoseQueryIsRunningWaitForIt() throws Exception {
+        iLoanService.createLoan(MOBILE_NUMBER);
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch releaseQuery = new CountDownLatch(1);
+        Answer<?> query = mockingDetails(loansRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            queryStarted.countDown();
+            releaseQuery.await(10, TimeUnit.SECONDS);
+            return query.answer(invocation);
+        }).when(loansRepository).findFirstByMobileNumberOrderByLoanIdAsc(anyString());
+
+        ExecutorService executor = Executors.newFixedThreadPool(FETCHES);
+        try {
+            List<Future<LoansDto>> fetches = new ArrayList<>();
+            fetches.add(executor.submit(() -> iLoanService.fetchLoan(MOBILE_NUMBER)));
+            assertTrue(queryStarted.await(10, TimeUnit.SECONDS));
+            for (int i = 1; i < FETCHES; i++) {
+                fetches.add(executor.submit(() -> iLoanService.fetchLoan(MOBILE_NUMBER)));
+            }
+            Thread.sleep(100); //lets the later fetches reach SingleFlight while the first query is held
+            releaseQuery.countDown();
+            for (Future<LoansDto> fetch : fetches) {
+                assertEquals(MOBILE_NUMBER, fetch.get(10, TimeUnit.SECONDS).getMobileNumber());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, mockingDetails(loansRepository).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("findFirstByMobileNumberOrderByLoanIdAsc"))
+                .count());
+    }
+}
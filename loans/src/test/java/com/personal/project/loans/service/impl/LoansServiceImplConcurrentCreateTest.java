@@ -0,0 +1,69 @@
+package com.personal.project.loans.service.impl;
+
+import com.personal.project.loans.exception.LoanAlreadyExistsException;
+import com.personal.project.loans.repository.LoansRepository;
+import com.personal.project.loans.service.ILoanService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "build.version=test")
+class LoansServiceImplConcurrentCreateTest {
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private ILoanService iLoansService;
+
+    @Autowired
+    private LoansRepository loansRepository;
+
+    @AfterEach
+    void cleanUp() {
+        loansRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentCreatesForSameMobileNumberLetExactlyOneThrough() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                String mobileNumber = Long.toString(7_200_000_000L + round);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> futures = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        try {
+                            iLoansService.createLoan(mobileNumber);
+                            return true;
+                        } catch (LoanAlreadyExistsException exception) {
+                            return false;
+                        }
+                    }));
+                }
+                start.countDown();
+                int created = 0;
+                for (Future<Boolean> future : futures) {
+                    created += future.get() ? 1 : 0;
+                }
+                assertEquals(1, created, "creates that succeeded for " + mobileNumber);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(ROUNDS, loansRepository.count());
+    }
+}
@@ -0,0 +1,87 @@
+package com.personal.project.loans.service.impl;
+
+import com.personal.project.loans.dto.LoansDto;
+import com.personal.project.loans.dto.PageResponseDto;
+import com.personal.project.loans.exception.InvalidPageTokenException;
+import com.personal.project.loans.repository.LoansRepository;
+import com.personal.project.loans.service.ILoanService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "build.version=test")
+class LoansServiceImplListTest {
+
+    @Autowired
+    private ILoanService iLoanService;
+
+    @Autowired
+    private LoansRepository loansRepository;
+
+    @AfterEach
+    void cleanUp() {
+        loansRepository.deleteAll();
+    }
+
+    @Test
+    void walksEveryLoanOnceInCreationOrder() {
+        int count = 45;
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String mobileNumber = Long.toString(7_300_000_000L + i);
+            iLoanService.createLoan(mobileNumber);
+            created.add(mobileNumber);
+        }
+
+        List<String> listed = new ArrayList<>();
+        List<Integer> pageLengths = new ArrayList<>();
+        String pageToken = null;
+        do {
+            PageResponseDto<LoansDto> page = iLoanService.fetchLoans(pageToken, 20);
+            pageLengths.add(page.getContent().size());
+            page.getContent().forEach(loansDto -> listed.add(loansDto.getMobileNumber()));
+            pageToken = page.getNextPageToken();
+        } while (pageToken != null);
+
+        assertEquals(List.of(20, 20, 5), pageLengths);
+        assertEquals(created, listed); //loanId is an identity column, so loanId order is creation order
+        assertEquals(count, new HashSet<>(listed).size());
+    }
+
+    @Test
+    void continuesAfterDeletedRows() {
+        iLoanService.createLoan("7300200000");
+        iLoanService.createLoan("7300200001");
+        iLoanService.createLoan("7300200002");
+        PageResponseDto<LoansDto> firstPage = iLoanService.fetchLoans(null, 1);
+
+        //the token holds a key, not a position, so removing a row that was already returned does not skip one that was not
+        iLoanService.deleteLoan("7300200000");
+        PageResponseDto<LoansDto> secondPage = iLoanService.fetchLoans(firstPage.getNextPageToken(), 1);
+
+        assertEquals("7300200001", secondPage.getContent().get(0).getMobileNumber());
+    }
+
+    @Test
+    void emptyTableGivesOneEmptyPage() {
+        PageResponseDto<LoansDto> page = iLoanService.fetchLoans(null, 20);
+
+        assertEquals(0, page.getContent().size());
+        assertNull(page.getNextPageToken());
+    }
+
+    @Test
+    void rejectsTokensItDidNotIssue() {
+        assertThrows(InvalidPageTokenException.class, () -> iLoanService.fetchLoans("not-a-token", 20));
+        assertThrows(InvalidPageTokenException.class, () -> iLoanService.fetchLoans("Y2FyZElkOjIw", 20)); //a cards token
+    }
+}
@@ -0,0 +1,131 @@
+package com.personal.project.loans.service.impl;
+
+import com.personal.project.loans.constants.LoansConstants;
+import com.personal.project.loans.dto.LoansDto;
+import com.personal.project.loans.entity.Loans;
+import com.personal.project.loans.exception.LoanAlreadyExistsException;
+import com.personal.project.loans.exception.ResourceNotFoundException;
+import com.personal.project.loans.membership.MobileNumberFilter;
+import com.personal.project.loans.repository.LoansRepository;
+import com.personal.project.loans.service.ILoanService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"build.version=test", "mobile-filter.enabled=true"})
+@AutoConfigureMockMvc
+class LoansServiceImplMultiLoanTest {
+
+    private static final String MOBILE_NUMBER = "7100000000";
+    private static final String CAR_LOAN = "Car Loan";
+
+    @Autowired
+    private ILoanService iLoanService;
+
+    @Autowired
+    private LoansRepository loansRepository;
+
+    @Autowired
+    private MobileNumberFilter mobileNumberFilter;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void cleanUp() {
+        loansRepository.deleteAll();
+    }
+
+    @Test
+    void aCustomerCanHoldOneLoanOfEachType() {
+        iLoanService.createLoan(MOBILE_NUMBER);
+        String carLoanNumber = addCarLoan(MOBILE_NUMBER);
+
+        List<LoansDto> loans = iLoanService.fetchLoansByMobileNumber(MOBILE_NUMBER);
+        assertEquals(List.of(LoansConstants.HOME_LOAN, CAR_LOAN), loans.stream().map(LoansDto::getLoanType).toList());
+        assertEquals(LoansConstants.HOME_LOAN, iLoanService.fetchLoan(MOBILE_NUMBER).getLoanType()); //the oldest
+
+        assertThrows(LoanAlreadyExistsException.class, () -> iLoanService.createLoan(MOBILE_NUMBER)); //a second home loan
+        LoansDto toCarLoan = loans.get(0);
+        toCarLoan.setLoanType(CAR_LOAN);
+        assertThrows(LoanAlreadyExistsException.class, () -> iLoanService.updateLoan(toCarLoan));
+
+        iLoanService.deleteLoan(MOBILE_NUMBER); //every loan of the customer
+        assertTrue(loansRepository.findByLoanNumber(carLoanNumber).isEmpty());
+        assertThrows(ResourceNotFoundException.class, () -> iLoanService.fetchLoansByMobileNumber(MOBILE_NUMBER));
+        assertThrows(ResourceNotFoundException.class, () -> iLoanService.fetchLoan(MOBILE_NUMBER));
+    }
+
+    @Test
+    void batchFetchAnswersEveryNumberInTheOrderGiven() {
+        iLoanService.createLoan("7100000001");
+        addCarLoan("7100000001");
+        iLoanService.createLoan("7100000002");
+
+        Map<String, List<LoansDto>> loans = iLoanService.fetchLoansByMobileNumbers(
+                List.of("7100000002", "7199999999", "7100000001", "7100000002"));
+
+        assertEquals(List.of("7100000002", "7199999999", "7100000001"), new ArrayList<>(loans.keySet()));
+        assertEquals(1, loans.get("7100000002").size());
+        assertEquals(Collections.emptyList(), loans.get("7199999999"));
+        assertEquals(List.of(LoansConstants.HOME_LOAN, CAR_LOAN), loans.get("7100000001").stream().map(LoansDto::getLoanType).toList());
+    }
+
+    @Test
+    void listEndpoints() throws Exception {
+        iLoanService.createLoan("7100000003");
+        addCarLoan("7100000003");
+
+        mockMvc.perform(get("/api/fetch-all").param("mobileNumber", "7100000003"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].loanType").value(CAR_LOAN));
+        mockMvc.perform(get("/api/fetch-all").param("mobileNumber", "7199999999"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/api/fetch-batch").contentType(MediaType.APPLICATION_JSON).content("[\"7100000003\",\"7199999999\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['7100000003'].length()").value(2))
+                .andExpect(jsonPath("$['7199999999'].length()").value(0));
+        mockMvc.perform(post("/api/fetch-batch").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/fetch-batch").contentType(MediaType.APPLICATION_JSON).content("[\"123\"]"))
+                .andExpect(status().isBadRequest());
+        List<String> tooMany = new ArrayList<>();
+        for (int i = 0; i <= LoansConstants.FETCH_BATCH_MAX_SIZE; i++) {
+            tooMany.add("\"" + (7_100_000_000L + i) + "\"");
+        }
+        mockMvc.perform(post("/api/fetch-batch").contentType(MediaType.APPLICATION_JSON).content("[" + String.join(",", tooMany) + "]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    //loans are only created as home loans, a second type is put in directly
+    private String addCarLoan(String mobileNumber) {
+        Loans loan = new Loans();
+        loan.setMobileNumber(mobileNumber);
+        loan.setLoanNumber(Long.toString(200_000_000_000L + Long.parseLong(mobileNumber)));
+        loan.setLoanType(CAR_LOAN);
+        loan.setTotalLoan(LoansConstants.NEW_LOAN_LIMIT);
+        loan.setOutstandingAmount(LoansConstants.NEW_LOAN_LIMIT);
+        loansRepository.saveAndFlush(loan);
+        mobileNumberFilter.add(mobileNumber);
+        return loan.getLoanNumber();
+    }
+}
@@ -0,0 +1,138 @@
+package com.personal.project.loans.service.impl;
+
+import com.personal.project.loans.dto.LoansDto;
+import com.personal.project.loans.exception.ResourceNotFoundException;
+import com.personal.project.loans.exception.StatementBudgetExceededException;
+import com.personal.project.loans.observability.StatementCounter;
+import com.personal.project.loans.repository.LoansRepository;
+import com.personal.project.loans.service.ILoanService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static com.personal.project.loans.observability.StatementCountAssertions.assertStatementCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"build.version=test", "mobile-filter.enabled=true", "statement-budget.enforce=true", "statement-budget.max-statements=1"})
+@AutoConfigureMockMvc
+class LoansServiceImplStatementCountTest {
+
+    @Autowired
+    private ILoanService iLoanService;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private LoansRepository loansRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void cleanUp() {
+        loansRepository.deleteAll();
+    }
+
+    @Test
+    void createLoan() {
+        assertStatementCount(statementCounter, 1, () -> iLoanService.createLoan("7500000000")); //insert, the unique index rejects duplicates
+    }
+
+    @Test
+    void fetchLoan() {
+        iLoanService.createLoan("7500000001");
+
+        assertStatementCount(statementCounter, 1, () -> iLoanService.fetchLoan("7500000001"));
+        assertStatementCount(statementCounter, 0, () -> assertThrows(ResourceNotFoundException.class,
+                () -> iLoanService.fetchLoan("7599999999"))); //rejected by the mobile number filter
+    }
+
+    @Test
+    void updateLoan() {
+        iLoanService.createLoan("7500000002");
+        LoansDto update = iLoanService.fetchLoan("7500000002");
+        update.setAmountPaid(100);
+
+        //every repository call is its own transaction, so save runs a merge that selects the row again:
+        //select by loan number, select + update by id
+        assertStatementCount(statementCounter, 3, () -> iLoanService.updateLoan(update));
+    }
+
+    @Test
+    void deleteLoan() {
+        iLoanService.createLoan("7500000003");
+
+        //select the loans of the mobile number, then select + delete by id per loan
+        assertStatementCount(statementCounter, 3, () -> iLoanService.deleteLoan("7500000003"));
+    }
+
+    @Test
+    void fetchLoans() {
+        iLoanService.createLoan("7500000004");
+        iLoanService.createLoan("7500000005");
+        iLoanService.createLoan("7500000006");
+
+        assertStatementCount(statementCounter, 1, () -> iLoanService.fetchLoans(null, 2)); //one keyset query, no count
+    }
+
+    @Test
+    void fetchLoansByMobileNumbers() {
+        iLoanService.createLoan("7500000009");
+        iLoanService.createLoan("7500000010");
+
+        assertStatementCount(statementCounter, 1, () -> iLoanService.fetchLoansByMobileNumber("7500000009"));
+        assertStatementCount(statementCounter, 1, () -> iLoanService.fetchLoansByMobileNumbers(
+                List.of("7500000009", "7500000010", "7599999999"))); //one IN query for the batch
+        assertStatementCount(statementCounter, 0, () -> iLoanService.fetchLoansByMobileNumbers(
+                List.of("7599999998", "7599999999"))); //all ruled out by the mobile number filter
+    }
+
+    @Test
+    void statementsPerRequestAreRecordedPerEndpoint() throws Exception {
+        iLoanService.createLoan("7500000007");
+
+        mockMvc.perform(get("/api/fetch").param("mobileNumber", "7500000007")).andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.get("http.server.requests.statements").tag("uri", "/api/fetch").summary();
+        assertEquals(1, statements.count());
+        assertEquals(1, statements.totalAmount());
+        assertEquals(1, meterRegistry.get("http.server.requests.jdbc").tag("uri", "/api/fetch").timer().count());
+    }
+
+    @Test
+    void requestOverItsBudgetFails() throws Exception {
+        iLoanService.createLoan("7500000008");
+        LoansDto update = iLoanService.fetchLoan("7500000008");
+
+        //open-in-view keeps one persistence context for the request, so save does not select again:
+        //select by loan number, update is one over the budget of 1 in this test
+        mockMvc.perform(put("/api/update").contentType(MediaType.APPLICATION_JSON).content(
+                        "{\"mobileNumber\":\"7500000008\",\"loanNumber\":\"" + update.getLoanNumber() + "\",\"loanType\":\"" + update.getLoanType() + "\"," +
+                                "\"totalLoan\":" + update.getTotalLoan() + ",\"amountPaid\":100,\"outstandingAmount\":" + (update.getTotalLoan() - 100) + "}"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(result -> {
+                    //the update statement runs on commit, where the transaction manager wraps the exception
+                    Throwable cause = NestedExceptionUtils.getMostSpecificCause(result.getResolvedException());
+                    assertInstanceOf(StatementBudgetExceededException.class, cause);
+                    assertEquals("Request to /api/update sent more than its budget of 1 JDBC statements", cause.getMessage());
+                });
+    }
+}